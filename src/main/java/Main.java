@@ -1,6 +1,8 @@
 import domain.JobDto;
 import domain.ServerNodeDto;
 import enums.JobType;
+import enums.ServerModeType;
+import eventloop.EventLoopGroup;
 import handler.command.impl.auth.AclHandler;
 import handler.command.impl.auth.AuthHandler;
 import handler.command.impl.core.*;
@@ -10,6 +12,8 @@ import handler.command.impl.geospatial.GeoPosHandler;
 import handler.command.impl.geospatial.GeoSearchHandler;
 import handler.command.impl.list.*;
 import handler.command.impl.pubsub.PublishHandler;
+import handler.command.impl.pubsub.PSubscribeHandler;
+import handler.command.impl.pubsub.PUnsubscribeHandler;
 import handler.command.impl.pubsub.SubscribeHandler;
 import handler.command.impl.pubsub.UnsubscribeHandler;
 import handler.command.impl.replication.PsyncHandler;
@@ -27,15 +31,15 @@ import handler.job.impl.RespHandler;
 import replication.MasterManager;
 import replication.ReplicaClient;
 import constants.OutputConstants;
-import domain.CacheDto;
 import enums.RoleType;
 import service.*;
 
 import java.io.*;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.time.Duration;
-import java.time.temporal.ChronoUnit;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.*;
 import java.util.logging.Logger;
 
@@ -70,9 +74,13 @@ public class Main {
         new PingHandler().register();
         new SetHandler().register();
         new GetHandler().register();
+        new MGetHandler().register();
+        new MSetHandler().register();
+        new MSetNxHandler().register();
         new ConfigHandler().register();
         new SaveHandler().register();
         new KeysHandler().register();
+        new ScanHandler().register();
         new InfoHandler().register();
         new ReplConfigHandler().register();
         new PsyncHandler().register();
@@ -82,6 +90,19 @@ public class Main {
         new XRangeHandler().register();
         new XReadHandler().register();
         new IncrHandler().register();
+        new IncrByHandler().register();
+        new DecrHandler().register();
+        new DecrByHandler().register();
+        new IncrByFloatHandler().register();
+        new ExpireHandler().register();
+        new PExpireHandler().register();
+        new ExpireAtHandler().register();
+        new PExpireAtHandler().register();
+        new TtlHandler().register();
+        new PTtlHandler().register();
+        new PersistHandler().register();
+        new DelHandler().register();
+        new MemoryHandler().register();
         new MultiHandler().register();
         new ExecHandler().register();
         new DiscardHandler().register();
@@ -90,16 +111,30 @@ public class Main {
         new LPushHandler().register();
         new LLenHandler().register();
         new LPopHandler().register();
+        new RPopHandler().register();
+        new LIndexHandler().register();
+        new LSetHandler().register();
+        new LInsertHandler().register();
+        new LRemHandler().register();
+        new LTrimHandler().register();
+        new LPosHandler().register();
         new BLPopHandler().register();
+        new BRPopHandler().register();
+        new BLMoveHandler().register();
+        new LMoveHandler().register();
         new SubscribeHandler().register();
         new PublishHandler().register();
         new UnsubscribeHandler().register();
+        new PSubscribeHandler().register();
+        new PUnsubscribeHandler().register();
         new ZAddHandler().register();
         new ZRankHandler().register();
+        new ZRevRankHandler().register();
         new ZRangeHandler().register();
         new ZCardHandler().register();
         new ZSCoreHandler().register();
         new ZRemHandler().register();
+        new ZScanHandler().register();
         new GeoAddHandler().register();
         new GeoPosHandler().register();
         new GeoDistHandler().register();
@@ -117,36 +152,42 @@ public class Main {
         new Thread(this::removeExpiredKeyFromLocalMap).start();
     }
 
+    /**
+     * Notes:
+     *  1. due keys are taken from the volatile-key index in expire time order, so every visited key is expired
+     *  2. a tick stops once its key or time budget is spent, and the next one runs after a short pause
+     *  3. otherwise the thread sleeps until the next expire time, capped so newly added keys are not missed
+     *  4. the SCAN key index is dropped by the same thread once no SCAN used it for a while
+     */
     private void removeExpiredKeyFromLocalMap() {
         try {
             ServerSocket serverSocket = this.serverNode.getServerSocket();
             while (serverSocket != null && !serverSocket.isClosed()) {
-                Long currentTime = System.currentTimeMillis();
-                List<String> cacheKey2Remove = getCacheKey2Remove(currentTime);
-                for (String key: cacheKey2Remove) {
-                    RedisLocalMap.LOCAL_MAP.remove(key);
-                }
-                Thread.sleep(Duration.of(100, ChronoUnit.MICROS));
+                long currentTime = System.currentTimeMillis();
+                // in io-threads mode expired keys are removed on the main thread, between commands
+                boolean isBudgetSpent = ShardUtils.getResult(IoThreadsUtils.submit(() -> ExpiryUtils.activeExpireCycle(
+                        currentTime,
+                        OutputConstants.ACTIVE_EXPIRE_CYCLE_KEYS_PER_LOOP,
+                        OutputConstants.ACTIVE_EXPIRE_CYCLE_TIME_LIMIT_NANOS)));
+                RedisLocalMap.dropIdleKeyIndex(currentTime, OutputConstants.SCAN_KEY_INDEX_IDLE_MILLIS);
+                Thread.sleep(getActiveExpireSleepMillis(isBudgetSpent, currentTime));
             }
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
     }
 
-    private List<String> getCacheKey2Remove(Long currentTime) {
-        List<String> cacheKey2Remove = new ArrayList<>();
-        for(Map.Entry<String, CacheDto> cacheEntry: RedisLocalMap.LOCAL_MAP.entrySet()) {
-            String key = cacheEntry.getKey();
-            CacheDto cache = cacheEntry.getValue();
-            Long expireTime = cache.getExpireTime();
-            if (expireTime == null) {
-                continue;
-            }
-            if (expireTime.equals(currentTime) || expireTime < currentTime) {
-                cacheKey2Remove.add(key);
-            }
+    private long getActiveExpireSleepMillis(boolean isBudgetSpent, long currentTime) {
+        if (isBudgetSpent) {
+            return OutputConstants.ACTIVE_EXPIRE_CYCLE_FAST_PAUSE_MILLIS;
         }
-        return cacheKey2Remove;
+        Long nextExpireTime = ExpiryUtils.getNextExpireTime();
+        if (nextExpireTime == null) {
+            return OutputConstants.ACTIVE_EXPIRE_CYCLE_MAX_SLEEP_MILLIS;
+        }
+        long sleepMillis = nextExpireTime - currentTime;
+        return Math.max(OutputConstants.ACTIVE_EXPIRE_CYCLE_FAST_PAUSE_MILLIS,
+                Math.min(sleepMillis, OutputConstants.ACTIVE_EXPIRE_CYCLE_MAX_SLEEP_MILLIS));
     }
 
     private void startServerSocket() {
@@ -168,6 +209,7 @@ public class Main {
                         .addSocket(clientSocket)
                         .addTaskQueue()
                         .addCommandDtoList()
+                        .addDecoder()
                         .build();
                 new RespHandler().registerJob(jobDto);
             }
@@ -185,6 +227,37 @@ public class Main {
         }
     }
 
+    /**
+     * NIO mode: accept in the main thread, then hand every connection to a fixed group of selector-based
+     * event loops instead of spawning a thread pair per connection
+     */
+    private void startServerSocketChannel() {
+        EventLoopGroup eventLoopGroup = null;
+        try (ServerSocketChannel serverSocketChannel = ServerSocketChannel.open()) {
+            serverSocketChannel.socket().setReuseAddress(true);
+            serverSocketChannel.bind(new InetSocketAddress(this.serverNode.getPort()));
+            this.serverNode.setServerSocket(serverSocketChannel.socket());
+            // init job to clean local map
+            initCleanLocalMap();
+            eventLoopGroup = new EventLoopGroup(SystemPropHelper.getEventLoopThreadsOrDefault());
+            eventLoopGroup.start();
+            while (serverSocketChannel.isOpen()) {
+                SocketChannel clientChannel = serverSocketChannel.accept(); // blocking
+                eventLoopGroup.register(clientChannel);
+            }
+        } catch (IOException e) {
+            System.out.printf("IOException: %s\n", e.getMessage());
+        } finally {
+            try {
+                if (eventLoopGroup != null) {
+                    eventLoopGroup.close();
+                }
+            } catch (IOException e) {
+                System.out.printf("IOException: %s\n", e.getMessage());
+            }
+        }
+    }
+
     private void fillRedisServerInfo() {
         String serverNodeHost = SystemPropHelper.getServerHostOrDefault();
         this.serverNode.setHost(serverNodeHost);
@@ -226,10 +299,18 @@ public class Main {
         Main main = new Main();
         main.registerNewEnvVars(args);
         main.registerCommandHandler();
+        IoThreadsUtils.init(SystemPropHelper.getIoThreadsOrDefault());
+        if (!IoThreadsUtils.isEnabled()) {
+            ShardUtils.init(SystemPropHelper.getKeyspaceShardsOrDefault());
+        }
         main.registerRDB();
         main.fillRedisServerInfo();
         main.preCheck();
         main.handleReplicationHandshake();
-        main.startServerSocket();
+        if (ServerModeType.isNio(SystemPropHelper.getServerModeOrDefault())) {
+            main.startServerSocketChannel();
+        } else {
+            main.startServerSocket();
+        }
   }
 }
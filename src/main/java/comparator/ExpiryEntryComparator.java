@@ -0,0 +1,16 @@
+package comparator;
+
+import domain.ExpiryEntryDto;
+
+import java.util.Comparator;
+
+public class ExpiryEntryComparator implements Comparator<ExpiryEntryDto> {
+    @Override
+    public int compare(ExpiryEntryDto o1, ExpiryEntryDto o2) {
+        int expireTimeCompare = Long.compare(o1.getExpireTime(), o2.getExpireTime());
+        if (expireTimeCompare != 0) {
+            return expireTimeCompare;
+        }
+        return o1.getKey().compareTo(o2.getKey());
+    }
+}
@@ -0,0 +1,16 @@
+package comparator;
+
+import domain.ScanEntryDto;
+
+import java.util.Comparator;
+
+public class ScanEntryComparator implements Comparator<ScanEntryDto> {
+    @Override
+    public int compare(ScanEntryDto o1, ScanEntryDto o2) {
+        int reverseHashCompare = Integer.compareUnsigned(o1.getReverseHash(), o2.getReverseHash());
+        if (reverseHashCompare != 0) {
+            return reverseHashCompare;
+        }
+        return o1.getKey().compareTo(o2.getKey());
+    }
+}
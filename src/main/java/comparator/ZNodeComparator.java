@@ -1,16 +0,0 @@
-package comparator;
-
-import domain.ZNodeDto;
-
-import java.util.Comparator;
-
-public class ZNodeComparator implements Comparator<ZNodeDto> {
-    @Override
-    public int compare(ZNodeDto o1, ZNodeDto o2) {
-        int scoreCompare = Double.compare(o1.getScore(), o2.getScore());
-        if (scoreCompare != 0) {
-            return scoreCompare;
-        }
-        return o1.getMember().compareTo(o2.getMember());
-    }
-}
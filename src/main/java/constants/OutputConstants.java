@@ -12,7 +12,6 @@ public class OutputConstants {
     public static final String EMPTY = "";
     public static final String DIR = "dir";
     public static final String DB_FILENAME = "dbfilename";
-    public static final String KEYS_DELIMITER = "*";
     public static final String SPACE_DELIMITER = " ";
     public static final String REDIS_RDB_VERSION = "redis.rdb.version";
     public static final String DEFAULT_REDSI_SERVER_HOST = "localhost";
@@ -55,14 +54,44 @@ public class OutputConstants {
     public static final Integer DEFAULT_VALUE_IF_NOT_EXIST_INCR_COMMAND = 0;
     public static final Integer INCREMENT_VALUE_INCR_COMMAND = 1;
     public static final String INCR_COMMAND_ERROR_NOT_VALID_INT = "ERR value is not an integer or out of range";
+    public static final String INCR_OVERFLOW_ERROR = "ERR increment or decrement would overflow";
+    public static final String DECR_OVERFLOW_ERROR = "ERR decrement would overflow";
+    public static final String NOT_VALID_FLOAT_ERROR = "ERR value is not a valid float";
+    public static final String INCR_NAN_OR_INFINITY_ERROR = "ERR increment would produce NaN or Infinity";
+    public static final String NO_SUCH_KEY_ERROR = "ERR no such key";
+    public static final String INDEX_OUT_OF_RANGE_ERROR = "ERR index out of range";
+    public static final String VALUE_MUST_BE_POSITIVE_ERROR = "ERR value is out of range, must be positive";
+    public static final String LPOS_RANK_ZERO_ERROR = "ERR RANK can't be zero: use 1 to start from the first match, 2 from the second ... or use negative to start from the end of the list";
+    public static final String LPOS_NEGATIVE_COUNT_ERROR = "ERR COUNT can't be negative";
+    public static final String LPOS_NEGATIVE_MAXLEN_ERROR = "ERR MAXLEN can't be negative";
+    public static final String TIMEOUT_NOT_FLOAT_ERROR = "ERR timeout is not a float or out of range";
+    public static final String TIMEOUT_NEGATIVE_ERROR = "ERR timeout is negative";
+    public static final String TIMEOUT_NOT_INTEGER_ERROR = "ERR timeout is not an integer or out of range";
     public static final Boolean DEFAULT_VALUE_IS_ATOMIC_PER_JOB = Boolean.FALSE;
     public static final String RESP_QUEUED_MULTI_COMMAND = "QUEUED";
     public static final String EXEC_WITHOUT_MULTI_COMMAND_ERROR = "ERR EXEC without MULTI";
     public static final String DISCARD_WITHOUT_MULTI_COMMAND_ERROR = "ERR DISCARD without MULTI";
+    public static final String WRONG_TYPE_ERROR = "WRONGTYPE Operation against a key holding the wrong kind of value";
+    public static final String SYNTAX_ERROR = "ERR syntax error";
+    public static final String INVALID_EXPIRE_TIME_ERROR = "ERR invalid expire time in '%s' command";
+    public static final String OOM_ERROR = "OOM command not allowed when used memory > 'maxmemory'.";
+    public static final String WRONG_NUMBER_OF_ARGUMENTS_ERROR = "ERR wrong number of arguments for '%s' command";
     public static final Integer LRANGE_EMPTY_ARRAY_LENGTH = 0;
+    public static final int QUICKLIST_NODE_CAPACITY = 128;
+    public static final int QUICKLIST_NODE_INITIAL_CAPACITY = 4;
+    public static final int ZSKIPLIST_MAX_LEVEL = 32;
+    public static final double ZSKIPLIST_P = 0.25;
+    public static final int ZSET_LISTPACK_INITIAL_CAPACITY = 4;
+    public static final String ZSET_MAX_LISTPACK_ENTRIES_KEY = "zset-max-listpack-entries";
+    public static final int DEFAULT_ZSET_MAX_LISTPACK_ENTRIES = 128;
+    public static final String ZSET_MAX_LISTPACK_VALUE_KEY = "zset-max-listpack-value";
+    public static final int DEFAULT_ZSET_MAX_LISTPACK_VALUE = 64;
+    public static final long BLOCKING_TIMER_TICK_MILLIS = 10L;
+    public static final int BLOCKING_TIMER_NUM_SLOTS = 512;
     public static final Integer SECOND_TO_MILLISECOND = 1000;
     public static final String ERROR_MESSAGE_IN_SUBSCRIBE_MODE = "ERR Can't execute '%s': only (P|S)SUBSCRIBE / (P|S)UNSUBSCRIBE / PING / QUIT / RESET are allowed in this context";
     public static final String PUBLISH_MESSAGE = "message";
+    public static final String PUBLISH_PMESSAGE = "pmessage";
     public static final String ERROR_MESSAGE_INVALID_GEOSPATIAL_LATITUDE = "ERR invalid latitude value %.000000f";
     public static final String ERROR_MESSAGE_INVALID_GEOSPATIAL_LONGITUDE = "ERR invalid longitude value %.000000f";
     public static final String ERROR_MESSAGE_INVALID_GEOSPATIAL_LATITUDE_LONGITUDE = "ERR invalid latitude,longitude pair %.000000f,%.000000f";
@@ -80,4 +109,71 @@ public class OutputConstants {
     /** ACL RULES */
     public static final String PASSWORDS_RULE = ">";
     public static final String ERROR_MESSAGE_NOAUTH_AUTHENTICATION = "NOAUTH Authentication required.";
+    /** SERVER MODE */
+    public static final String SERVER_MODE_KEY = "server-mode";
+    public static final String EVENT_LOOP_THREADS_KEY = "event-loop-threads";
+    public static final String EVENT_LOOP_THREAD_NAME_FORMAT = "event-loop-%s";
+    public static final String VIRTUAL_THREADS_KEY = "virtual-threads";
+    public static final String VIRTUAL_THREADS_ENABLED = "yes";
+    public static final String IO_THREADS_KEY = "io-threads";
+    /** REPLY WRITER */
+    public static final int RESP_WRITER_INITIAL_CAPACITY = 1024;
+    public static final int RESP_WRITER_MAX_RETAINED_CAPACITY = 1024 * 1024;
+    public static final int SHARED_INTEGERS = 10000;
+    public static final int LONG_MAX_DECIMAL_LENGTH = 20; // "-9223372036854775808"
+    public static final String OUTPUT_BUFFER_HIGH_WATER_MARK_KEY = "output-buffer-high-water-mark";
+    public static final int DEFAULT_OUTPUT_BUFFER_HIGH_WATER_MARK = 64 * 1024;
+    /** ACTIVE EXPIRE */
+    public static final int ACTIVE_EXPIRE_CYCLE_KEYS_PER_LOOP = 1000;
+    public static final long ACTIVE_EXPIRE_CYCLE_TIME_LIMIT_NANOS = 25_000_000L;
+    public static final long ACTIVE_EXPIRE_CYCLE_FAST_PAUSE_MILLIS = 1L;
+    public static final long ACTIVE_EXPIRE_CYCLE_MAX_SLEEP_MILLIS = 100L;
+    public static final long TTL_MISSING_KEY = -2L;
+    public static final long TTL_NON_VOLATILE_KEY = -1L;
+    /** KEYSPACE */
+    public static final int KEYSPACE_LOCK_STRIPES = 1024; // power of two
+    public static final String KEYSPACE_SHARDS_KEY = "keyspace-shards";
+    public static final String KEYSPACE_SHARDS_AUTO = "auto";
+    /** SCAN */
+    public static final int SCAN_DEFAULT_COUNT = 10;
+    public static final long SCAN_CURSOR_MAX = 0xFFFFFFFFL;
+    public static final String INVALID_CURSOR_ERROR = "ERR invalid cursor";
+    public static final String UNKNOWN_TYPE_NAME_ERROR = "ERR unknown type name '%s'";
+    public static final long SCAN_KEY_INDEX_IDLE_MILLIS = 60_000L;
+    /** MAXMEMORY */
+    public static final long MEMORY_ENTRY_OVERHEAD = 64L; // map node and CacheDto
+    public static final long MEMORY_OBJECT_OVERHEAD = 16L;
+    public static final long MEMORY_STRING_OVERHEAD = 40L; // String and its backing array
+    public static final long MEMORY_BYTES_OVERHEAD = 16L; // byte array header
+    public static final long MEMORY_LIST_OVERHEAD = 72L; // quicklist and its first node
+    public static final long MEMORY_LIST_ENTRY_OVERHEAD = 8L; // array slot and its share of the node
+    public static final long MEMORY_ZSET_LISTPACK_OVERHEAD = 64L; // ZSet, listpack and its two arrays
+    public static final long MEMORY_ZSET_LISTPACK_ENTRY_OVERHEAD = 16L; // member slot and score
+    public static final long MEMORY_ZSET_OVERHEAD = 200L; // ZSet, member map, skip list and its header, scan index
+    public static final long MEMORY_ZSET_MEMBER_OVERHEAD = 128L; // map node, skip list node and its level arrays, ScanEntryDto
+    public static final long MEMORY_STREAM_OVERHEAD = 64L;
+    public static final long MEMORY_STREAM_ENTRY_OVERHEAD = 96L; // EntryDto, its LinkedHashMap and list slot
+    public static final long MEMORY_STREAM_FIELD_OVERHEAD = 40L; // LinkedHashMap entry
+    public static final int MEMORY_USAGE_DEFAULT_SAMPLES = 5;
+    public static final String MEMORY_STATS_PEAK_ALLOCATED = "peak.allocated";
+    public static final String MEMORY_STATS_TOTAL_ALLOCATED = "total.allocated";
+    public static final String MEMORY_STATS_KEYS_COUNT = "keys.count";
+    public static final String MEMORY_STATS_KEYS_BYTES_PER_KEY = "keys.bytes-per-key";
+    public static final String MEMORY_STATS_EXPIRES_COUNT = "expires.count";
+    public static final String MEMORY_STATS_EVICTED_KEYS = "evicted.keys";
+    public static final String MEMORY_STATS_JVM_HEAP_USED = "jvm.heap.used";
+    public static final String USED_MEMORY = "used_memory";
+    public static final String USED_MEMORY_PEAK = "used_memory_peak";
+    public static final String EVICTED_KEYS = "evicted_keys";
+    public static final String MAXMEMORY_KEY = "maxmemory";
+    public static final String MAXMEMORY_POLICY_KEY = "maxmemory-policy";
+    public static final String MAXMEMORY_SAMPLES_KEY = "maxmemory-samples";
+    public static final int DEFAULT_MAXMEMORY_SAMPLES = 5;
+    public static final int EVICTION_POOL_SIZE = 16;
+    public static final int LRU_CLOCK_MAX = (1 << 24) - 1;
+    public static final int LRU_CLOCK_RESOLUTION_MILLIS = 1000;
+    public static final int LFU_INIT_VAL = 5;
+    public static final int LFU_COUNTER_MAX = 255;
+    public static final int LFU_LOG_FACTOR = 10;
+    public static final int LFU_DECAY_TIME_MINUTES = 1;
 }
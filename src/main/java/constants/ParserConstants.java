@@ -19,6 +19,11 @@ public class ParserConstants {
     public static final String REDIS_RDB_DB_ID = "db.id";
     public static final int SC_TO_MS_VALUE_CONVERTER = 1000;
     public static final Integer RESP_PARSER_BUFFER_SIZE = 5000;
+    public static final int RESP_DECODER_INITIAL_CAPACITY = 16 * 1024;
+    public static final int RESP_DECODER_MIN_READ_SIZE = 4 * 1024;
+    public static final int RESP_DECODER_MAX_RETAINED_CAPACITY = 1024 * 1024;
+    public static final int PROTO_MAX_BULK_LENGTH = 512 * 1024 * 1024;
+    public static final int PROTO_MAX_MULTI_BULK_LENGTH = 1024 * 1024;
 
     // REDIS RDB SECTION INDICATOR
     public static final int REDIS_RDB_OPCODE_MODULE_AUX = 247;
@@ -1,24 +0,0 @@
-package domain;
-
-import java.net.Socket;
-
-public class BlockListDto {
-    private Socket socket;
-    private String key;
-
-    public Socket getSocket() {
-        return socket;
-    }
-
-    public void setSocket(Socket socket) {
-        this.socket = socket;
-    }
-
-    public String getKey() {
-        return key;
-    }
-
-    public void setKey(String key) {
-        this.key = key;
-    }
-}
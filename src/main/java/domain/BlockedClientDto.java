@@ -0,0 +1,145 @@
+package domain;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * a client blocked by BLPOP, BRPOP or BLMOVE until one of its keys has an element, by XREAD BLOCK until one of its
+ * streams has a new entry, or by WAIT until enough replicas acknowledged, at most until its timeout is reached.
+ * The reply is set once, by the thread serving the key or by the timer thread, then handed to the connection
+ */
+public class BlockedClientDto {
+    private final String clientId;
+    private final List<String> keys;
+    private final boolean isFromLeft;
+    private final String destination; // BLMOVE only
+    private final boolean isToLeft;
+    private final List<Long[]> streamStartIds; // XREAD only, per key the id entries are read after
+    private final int numReplicas; // WAIT only
+    private final long timeoutAt; // 0 to wait forever
+    private boolean isWaiting; // guarded by the registry lock of BlockingUtils
+    private byte[] reply;
+    private Consumer<byte[]> replyHandler;
+
+    public BlockedClientDto(String clientId, List<String> keys, boolean isFromLeft, String destination, boolean isToLeft, long timeoutAt) {
+        this(clientId, keys, isFromLeft, destination, isToLeft, null, 0, timeoutAt);
+    }
+
+    public BlockedClientDto(String clientId, List<String> keys, List<Long[]> streamStartIds, long timeoutAt) {
+        this(clientId, keys, false, null, false, streamStartIds, 0, timeoutAt);
+    }
+
+    public BlockedClientDto(String clientId, int numReplicas, long timeoutAt) {
+        this(clientId, List.of(), false, null, false, null, numReplicas, timeoutAt);
+    }
+
+    private BlockedClientDto(String clientId, List<String> keys, boolean isFromLeft, String destination, boolean isToLeft,
+                             List<Long[]> streamStartIds, int numReplicas, long timeoutAt) {
+        this.clientId = clientId;
+        this.keys = keys;
+        this.isFromLeft = isFromLeft;
+        this.destination = destination;
+        this.isToLeft = isToLeft;
+        this.streamStartIds = streamStartIds;
+        this.numReplicas = numReplicas;
+        this.timeoutAt = timeoutAt;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    public boolean isFromLeft() {
+        return isFromLeft;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public boolean isToLeft() {
+        return isToLeft;
+    }
+
+    public boolean isStreamRead() {
+        return streamStartIds != null;
+    }
+
+    /**
+     * @param key one of the keys of the client
+     * @return id entries of key are read after
+     */
+    public Long[] getStreamStartId(String key) {
+        return streamStartIds.get(keys.indexOf(key));
+    }
+
+    public boolean isReplicaWait() {
+        return numReplicas > 0;
+    }
+
+    public int getNumReplicas() {
+        return numReplicas;
+    }
+
+    public long getTimeoutAt() {
+        return timeoutAt;
+    }
+
+    public boolean isWaiting() {
+        return isWaiting;
+    }
+
+    public void setWaiting(boolean isWaiting) {
+        this.isWaiting = isWaiting;
+    }
+
+    /**
+     * set the reply and hand it to the reply handler if there is one already
+     * @param reply encoded reply
+     * @return whether reply was set, false if the client already has one
+     */
+    public boolean complete(byte[] reply) {
+        Consumer<byte[]> handler;
+        synchronized (this) {
+            if (this.reply != null) {
+                return false;
+            }
+            this.reply = reply;
+            handler = replyHandler;
+            notifyAll();
+        }
+        if (handler != null) {
+            handler.accept(reply);
+        }
+        return true;
+    }
+
+    /**
+     * @param handler called once with the reply, right away if the client was already served
+     */
+    public void onReply(Consumer<byte[]> handler) {
+        byte[] currentReply;
+        synchronized (this) {
+            if (reply == null) {
+                replyHandler = handler;
+                return;
+            }
+            currentReply = reply;
+        }
+        handler.accept(currentReply);
+    }
+
+    /**
+     * @return reply, waiting on the current thread until it is set
+     */
+    public synchronized byte[] awaitReply() throws InterruptedException {
+        while (reply == null) {
+            wait();
+        }
+        return reply;
+    }
+}
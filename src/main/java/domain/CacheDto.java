@@ -4,8 +4,10 @@ import enums.ValueType;
 
 public class CacheDto {
     private Object value;
-    private Long expireTime;
+    private volatile Long expireTime; // changed in place by EXPIRE and PERSIST, read by the active expire cycle
     private ValueType valueType;
+    private int lru; // LRU clock of last access, or LFU last decrement time and counter, see EvictionUtils
+    private long memoryUsage; // bytes accounted in used memory, see MemoryUtils
 
     public Object getValue() {
         return value;
@@ -31,6 +33,22 @@ public class CacheDto {
         this.valueType = valueType;
     }
 
+    public int getLru() {
+        return lru;
+    }
+
+    public void setLru(int lru) {
+        this.lru = lru;
+    }
+
+    public long getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    public void setMemoryUsage(long memoryUsage) {
+        this.memoryUsage = memoryUsage;
+    }
+
     @Override
     public String toString() {
         return "CacheDto{" +
@@ -0,0 +1,76 @@
+package domain;
+
+import enums.CommandType;
+import handler.command.CommandHandler;
+
+/**
+ * everything dispatch needs to know about a command, resolved once per command by a single table lookup
+ */
+public class CommandDescriptorDto {
+    private final CommandType commandType;
+    private final CommandHandler handler;
+    private final boolean isWrite;
+    private final int arity;
+    private final boolean isAllowedInSubscribedMode;
+    private final boolean isDenyOom;
+    private final boolean isSingleKey;
+    private final boolean isBlockingPop;
+
+    public CommandDescriptorDto(CommandType commandType, CommandHandler handler) {
+        this.commandType = commandType;
+        this.handler = handler;
+        this.isWrite = commandType.isWrite();
+        this.arity = commandType.getArity();
+        this.isAllowedInSubscribedMode = CommandType.isAllowedInSubscribedMode(commandType);
+        this.isDenyOom = CommandType.isDenyOom(commandType);
+        this.isSingleKey = CommandType.isSingleKey(commandType);
+        this.isBlockingPop = CommandType.isBlockingPop(commandType);
+    }
+
+    /**
+     * @param numArgs number of arguments including command name
+     * @return whether numArgs satisfies arity, negative arity means at least -arity arguments
+     */
+    public boolean isValidArity(int numArgs) {
+        return arity >= 0 ? numArgs == arity : numArgs >= -arity;
+    }
+
+    public CommandType getCommandType() {
+        return commandType;
+    }
+
+    public CommandHandler getHandler() {
+        return handler;
+    }
+
+    public boolean isWrite() {
+        return isWrite;
+    }
+
+    public int getArity() {
+        return arity;
+    }
+
+    public boolean isAllowedInSubscribedMode() {
+        return isAllowedInSubscribedMode;
+    }
+
+    public boolean isDenyOom() {
+        return isDenyOom;
+    }
+
+    public boolean isSingleKey() {
+        return isSingleKey;
+    }
+
+    public boolean isBlockingPop() {
+        return isBlockingPop;
+    }
+
+    /**
+     * @return whether the command can run on the shard owning its key in share-nothing mode
+     */
+    public boolean isRoutableToShard() {
+        return isSingleKey;
+    }
+}
@@ -0,0 +1,69 @@
+package domain;
+
+import service.RESPWriter;
+import stream.RESPDecoder;
+
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class ConnectionDto {
+
+    private final String id;
+    private final SocketChannel channel;
+    private volatile SelectionKey selectionKey;
+    private final ConcurrentLinkedQueue<ByteBuffer> outboundQueue; // written by any thread, drained by the owning event loop
+    private final RESPDecoder decoder;
+    private final RESPWriter writer; // replies of the current batch, moved to outbound queue once the batch is done
+    private volatile BlockedClientDto blockedClient; // set while the connection waits for the reply of BLPOP and friends
+
+    public ConnectionDto(String id, SocketChannel channel) {
+        this.id = id;
+        this.channel = channel;
+        this.outboundQueue = new ConcurrentLinkedQueue<>();
+        this.decoder = new RESPDecoder();
+        this.writer = new RESPWriter();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public SocketChannel getChannel() {
+        return channel;
+    }
+
+    public Socket getSocket() {
+        return channel.socket();
+    }
+
+    public SelectionKey getSelectionKey() {
+        return selectionKey;
+    }
+
+    public void setSelectionKey(SelectionKey selectionKey) {
+        this.selectionKey = selectionKey;
+    }
+
+    public ConcurrentLinkedQueue<ByteBuffer> getOutboundQueue() {
+        return outboundQueue;
+    }
+
+    public RESPDecoder getDecoder() {
+        return decoder;
+    }
+
+    public RESPWriter getWriter() {
+        return writer;
+    }
+
+    public BlockedClientDto getBlockedClient() {
+        return blockedClient;
+    }
+
+    public void setBlockedClient(BlockedClientDto blockedClient) {
+        this.blockedClient = blockedClient;
+    }
+}
@@ -0,0 +1,19 @@
+package domain;
+
+public class EvictionPoolEntryDto {
+    private final String key;
+    private final long idle;
+
+    public EvictionPoolEntryDto(String key, long idle) {
+        this.key = key;
+        this.idle = idle;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getIdle() {
+        return idle;
+    }
+}
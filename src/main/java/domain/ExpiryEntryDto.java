@@ -0,0 +1,19 @@
+package domain;
+
+public class ExpiryEntryDto {
+    private final String key;
+    private final long expireTime;
+
+    public ExpiryEntryDto(String key, long expireTime) {
+        this.key = key;
+        this.expireTime = expireTime;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getExpireTime() {
+        return expireTime;
+    }
+}
@@ -2,18 +2,20 @@ package domain;
 
 import constants.OutputConstants;
 import enums.JobType;
+import stream.RESPDecoder;
 
 import java.net.Socket;
 import java.util.LinkedList;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 public class JobDto {
     public static class Builder {
         private JobType jobType;
         private Socket socket;
         private int freq;
-        private ConcurrentLinkedQueue<TaskDto> taskQueue;
+        private LinkedBlockingQueue<TaskDto> taskQueue;
         private LinkedList<CommandDto> commandDtoList;
+        private RESPDecoder decoder;
 
         public Builder(JobType jobType) {
             this.jobType = jobType;
@@ -30,7 +32,7 @@ public class JobDto {
         }
 
         public Builder addTaskQueue() {
-            this.taskQueue = new ConcurrentLinkedQueue<>();
+            this.taskQueue = new LinkedBlockingQueue<>();
             return this;
         }
 
@@ -39,6 +41,11 @@ public class JobDto {
             return this;
         }
 
+        public Builder addDecoder() {
+            this.decoder = new RESPDecoder();
+            return this;
+        }
+
         public JobDto build() {
             JobDto jobDto = new JobDto();
             jobDto.setJobType(this.jobType);
@@ -47,6 +54,7 @@ public class JobDto {
             jobDto.setCommandAtomic(OutputConstants.DEFAULT_VALUE_IS_ATOMIC_PER_JOB);
             jobDto.setTaskQueue(this.taskQueue);
             jobDto.setCommandDtoList(this.commandDtoList);
+            jobDto.setDecoder(this.decoder);
             return jobDto;
         }
     }
@@ -55,8 +63,10 @@ public class JobDto {
     private Socket socket;
     private int freq;
     private boolean isCommandAtomic;
-    private ConcurrentLinkedQueue<TaskDto> taskQueue; // post RESP parser
+    private LinkedBlockingQueue<TaskDto> taskQueue; // post RESP parser
     private LinkedList<CommandDto> commandDtoList; // pre RESP parser
+    private Thread processTaskThread; // parked on task queue while idle
+    private RESPDecoder decoder; // keeps partial frames between socket reads
 
     public JobType getJobType() {
         return jobType;
@@ -90,11 +100,11 @@ public class JobDto {
         isCommandAtomic = commandAtomic;
     }
 
-    public ConcurrentLinkedQueue<TaskDto> getTaskQueue() {
+    public LinkedBlockingQueue<TaskDto> getTaskQueue() {
         return taskQueue;
     }
 
-    public void setTaskQueue(ConcurrentLinkedQueue<TaskDto> taskQueue) {
+    public void setTaskQueue(LinkedBlockingQueue<TaskDto> taskQueue) {
         this.taskQueue = taskQueue;
     }
 
@@ -105,4 +115,20 @@ public class JobDto {
     public void setCommandDtoList(LinkedList<CommandDto> commandDtoList) {
         this.commandDtoList = commandDtoList;
     }
+
+    public Thread getProcessTaskThread() {
+        return processTaskThread;
+    }
+
+    public void setProcessTaskThread(Thread processTaskThread) {
+        this.processTaskThread = processTaskThread;
+    }
+
+    public RESPDecoder getDecoder() {
+        return decoder;
+    }
+
+    public void setDecoder(RESPDecoder decoder) {
+        this.decoder = decoder;
+    }
 }
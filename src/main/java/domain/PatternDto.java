@@ -0,0 +1,27 @@
+package domain;
+
+import service.GlobPattern;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class PatternDto {
+    private final GlobPattern globPattern;
+
+    /**
+     * Map<key=subscriberId, value=subscriberDto>
+     */
+    private final Map<String, SubscriberDto> subscriberMap = new ConcurrentHashMap<>();
+
+    public PatternDto(GlobPattern globPattern) {
+        this.globPattern = globPattern;
+    }
+
+    public GlobPattern getGlobPattern() {
+        return globPattern;
+    }
+
+    public Map<String, SubscriberDto> getSubscriberMap() {
+        return subscriberMap;
+    }
+}
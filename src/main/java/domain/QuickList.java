@@ -0,0 +1,593 @@
+package domain;
+
+import constants.OutputConstants;
+import service.MemoryUtils;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Notes:
+ *  1. list value encoded as in redis quicklist: a doubly linked chain of nodes, each one a packed array of at most
+ *     QUICKLIST_NODE_CAPACITY elements, instead of one linked node per element
+ *  2. a node keeps its elements in a contiguous slice of its array, with room on both sides,
+ *     so pushes and pops at either end of the list are O(1). Arrays start small and grow up to the node capacity
+ *  3. nodes know their element count, an index seek skips whole nodes from the nearest end: O(n/capacity)
+ *  4. elements are stored string values, raw bytes or Long, see StringValueUtils
+ *  5. inserting into a full node splits it in half, as redis does, so no node ever grows past the capacity
+ *  6. each node keeps the estimated size of its elements, see MemoryUtils.estimateListElement, so removing a range
+ *     from either end drops whole nodes and their size without visiting their elements: LTRIM frees memory in bulk
+ *  7. not thread-safe, commands access a list holding the lock of its key
+ */
+public class QuickList extends AbstractCollection<Object> {
+
+    private Node head;
+    private Node tail;
+    private int size;
+    private int numNodes;
+    private long numBytes;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    /**
+     * @return estimated size of all elements, sum of MemoryUtils.estimateListElement
+     */
+    public long getNumBytes() {
+        return numBytes;
+    }
+
+    @Override
+    public boolean add(Object value) {
+        addLast(value);
+        return true;
+    }
+
+    public void addFirst(Object value) {
+        if (head == null || head.count == OutputConstants.QUICKLIST_NODE_CAPACITY) {
+            linkFirst(new Node());
+        }
+        numBytes += head.addFirst(value);
+        size++;
+    }
+
+    public void addLast(Object value) {
+        if (tail == null || tail.count == OutputConstants.QUICKLIST_NODE_CAPACITY) {
+            linkLast(new Node());
+        }
+        numBytes += tail.addLast(value);
+        size++;
+    }
+
+    /**
+     * @return first element removed from the list, null if empty
+     */
+    public Object pollFirst() {
+        if (head == null) {
+            return null;
+        }
+        Object value = head.removeFirst();
+        numBytes -= MemoryUtils.estimateListElement(value);
+        size--;
+        if (head.count == 0) {
+            unlink(head);
+        }
+        return value;
+    }
+
+    /**
+     * @return last element removed from the list, null if empty
+     */
+    public Object pollLast() {
+        if (tail == null) {
+            return null;
+        }
+        Object value = tail.removeLast();
+        numBytes -= MemoryUtils.estimateListElement(value);
+        size--;
+        if (tail.count == 0) {
+            unlink(tail);
+        }
+        return value;
+    }
+
+    /**
+     * @param index index from 0 to size-1
+     * @return element at index
+     */
+    public Object get(int index) {
+        checkIndex(index);
+        Cursor cursor = seek(index);
+        return cursor.node.get(cursor.offset);
+    }
+
+    /**
+     * @param index index from 0 to size-1
+     * @param value new element
+     * @return element replaced
+     */
+    public Object set(int index, Object value) {
+        checkIndex(index);
+        Cursor cursor = seek(index);
+        Object oldValue = cursor.node.set(cursor.offset, value);
+        numBytes += MemoryUtils.estimateListElement(value) - MemoryUtils.estimateListElement(oldValue);
+        return oldValue;
+    }
+
+    /**
+     * @param index index from 0 to size, size appends
+     * @param value new element, inserted before the element at index
+     */
+    public void add(int index, Object value) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+        }
+        if (index == 0) {
+            addFirst(value);
+            return;
+        }
+        if (index == size) {
+            addLast(value);
+            return;
+        }
+        Cursor cursor = seek(index);
+        Node node = cursor.node;
+        int offset = cursor.offset;
+        if (node.count == OutputConstants.QUICKLIST_NODE_CAPACITY) {
+            Node newNode = node.split();
+            linkAfter(node, newNode);
+            if (offset > node.count) {
+                offset -= node.count;
+                node = newNode;
+            }
+        }
+        numBytes += node.add(offset, value);
+        size++;
+    }
+
+    /**
+     * @param index index from 0 to size-1
+     * @return element removed
+     */
+    public Object remove(int index) {
+        checkIndex(index);
+        Cursor cursor = seek(index);
+        Object value = cursor.node.remove(cursor.offset);
+        numBytes -= MemoryUtils.estimateListElement(value);
+        size--;
+        if (cursor.node.count == 0) {
+            unlink(cursor.node);
+        }
+        return value;
+    }
+
+    /**
+     * remove the first n elements, whole nodes are unlinked without visiting their elements
+     * @param n number of elements, from 0 to size
+     * @return estimated size of the removed elements
+     */
+    public long removeFirst(int n) {
+        checkCount(n);
+        size -= n;
+        long removedBytes = 0L;
+        while (n > 0 && head.count <= n) {
+            n -= head.count;
+            removedBytes += head.numBytes;
+            unlink(head);
+        }
+        if (n > 0) {
+            removedBytes += head.removeFirst(n);
+        }
+        numBytes -= removedBytes;
+        return removedBytes;
+    }
+
+    /**
+     * remove the last n elements, whole nodes are unlinked without visiting their elements
+     * @param n number of elements, from 0 to size
+     * @return estimated size of the removed elements
+     */
+    public long removeLast(int n) {
+        checkCount(n);
+        size -= n;
+        long removedBytes = 0L;
+        while (n > 0 && tail.count <= n) {
+            n -= tail.count;
+            removedBytes += tail.numBytes;
+            unlink(tail);
+        }
+        if (n > 0) {
+            removedBytes += tail.removeLast(n);
+        }
+        numBytes -= removedBytes;
+        return removedBytes;
+    }
+
+    @Override
+    public void clear() {
+        head = null;
+        tail = null;
+        size = 0;
+        numNodes = 0;
+        numBytes = 0L;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return iterator(0);
+    }
+
+    /**
+     * @param fromIndex index of the first element returned, from 0 to size
+     * @return iterator starting at fromIndex, reached by skipping whole nodes. Supports remove
+     */
+    public Iterator<Object> iterator(int fromIndex) {
+        if (fromIndex < 0 || fromIndex > size) {
+            throw new IndexOutOfBoundsException("index=" + fromIndex + ", size=" + size);
+        }
+        Cursor start = fromIndex < size ? seek(fromIndex) : new Cursor(null, 0);
+        return new Iterator<>() {
+            private Node node = start.node;
+            private int offset = start.offset;
+            private Node lastNode;
+            private int lastOffset;
+
+            @Override
+            public boolean hasNext() {
+                return node != null;
+            }
+
+            @Override
+            public Object next() {
+                if (node == null) {
+                    throw new NoSuchElementException();
+                }
+                lastNode = node;
+                lastOffset = offset;
+                Object value = node.get(offset++);
+                if (offset == node.count) {
+                    node = node.next;
+                    offset = 0;
+                }
+                return value;
+            }
+
+            @Override
+            public void remove() {
+                if (lastNode == null) {
+                    throw new IllegalStateException();
+                }
+                numBytes -= MemoryUtils.estimateListElement(lastNode.remove(lastOffset));
+                size--;
+                if (node == lastNode) {
+                    // next element moved one slot towards the removed one
+                    offset--;
+                }
+                if (lastNode.count == 0) {
+                    unlink(lastNode);
+                }
+                lastNode = null;
+            }
+        };
+    }
+
+    /**
+     * @return iterator from the last element to the first one. Supports remove
+     */
+    public Iterator<Object> descendingIterator() {
+        return new Iterator<>() {
+            private Node node = tail;
+            private int offset = tail != null ? tail.count-1 : 0;
+            private Node lastNode;
+            private int lastOffset;
+
+            @Override
+            public boolean hasNext() {
+                return node != null;
+            }
+
+            @Override
+            public Object next() {
+                if (node == null) {
+                    throw new NoSuchElementException();
+                }
+                lastNode = node;
+                lastOffset = offset;
+                Object value = node.get(offset--);
+                if (offset < 0) {
+                    node = node.prev;
+                    offset = node != null ? node.count-1 : 0;
+                }
+                return value;
+            }
+
+            @Override
+            public void remove() {
+                if (lastNode == null) {
+                    throw new IllegalStateException();
+                }
+                // elements before the removed one keep their offsets
+                numBytes -= MemoryUtils.estimateListElement(lastNode.remove(lastOffset));
+                size--;
+                if (lastNode.count == 0) {
+                    unlink(lastNode);
+                }
+                lastNode = null;
+            }
+        };
+    }
+
+    private Cursor seek(int index) {
+        if (index < size/2) {
+            Node node = head;
+            while (index >= node.count) {
+                index -= node.count;
+                node = node.next;
+            }
+            return new Cursor(node, index);
+        }
+        Node node = tail;
+        int fromEnd = size-1-index;
+        while (fromEnd >= node.count) {
+            fromEnd -= node.count;
+            node = node.prev;
+        }
+        return new Cursor(node, node.count-1-fromEnd);
+    }
+
+    private void linkFirst(Node node) {
+        node.next = head;
+        if (head != null) {
+            head.prev = node;
+        } else {
+            tail = node;
+        }
+        head = node;
+        numNodes++;
+    }
+
+    private void linkLast(Node node) {
+        node.prev = tail;
+        if (tail != null) {
+            tail.next = node;
+        } else {
+            head = node;
+        }
+        tail = node;
+        numNodes++;
+    }
+
+    private void linkAfter(Node node, Node newNode) {
+        newNode.prev = node;
+        newNode.next = node.next;
+        if (node.next != null) {
+            node.next.prev = newNode;
+        } else {
+            tail = newNode;
+        }
+        node.next = newNode;
+        numNodes++;
+    }
+
+    private void unlink(Node node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            head = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        } else {
+            tail = node.prev;
+        }
+        numNodes--;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+        }
+    }
+
+    private void checkCount(int n) {
+        if (n < 0 || n > size) {
+            throw new IndexOutOfBoundsException("count=" + n + ", size=" + size);
+        }
+    }
+
+    /**
+     * position of an element: its node and its offset in the node
+     */
+    private static class Cursor {
+        private final Node node;
+        private final int offset;
+
+        private Cursor(Node node, int offset) {
+            this.node = node;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * elements are elements[start] to elements[start+count-1]
+     */
+    private static class Node {
+        private Object[] elements = new Object[OutputConstants.QUICKLIST_NODE_INITIAL_CAPACITY];
+        private int start = elements.length/2;
+        private int count;
+        private long numBytes;
+        private Node prev;
+        private Node next;
+
+        private Object get(int offset) {
+            return elements[start+offset];
+        }
+
+        private Object set(int offset, Object value) {
+            Object oldValue = elements[start+offset];
+            elements[start+offset] = value;
+            numBytes += MemoryUtils.estimateListElement(value) - MemoryUtils.estimateListElement(oldValue);
+            return oldValue;
+        }
+
+        /**
+         * @return estimated size of value
+         */
+        private long addFirst(Object value) {
+            if (start == 0) {
+                makeRoom(true);
+            }
+            elements[--start] = value;
+            count++;
+            return addBytes(value);
+        }
+
+        /**
+         * @return estimated size of value
+         */
+        private long addLast(Object value) {
+            if (start+count == elements.length) {
+                makeRoom(false);
+            }
+            elements[start+count] = value;
+            count++;
+            return addBytes(value);
+        }
+
+        private Object removeFirst() {
+            Object value = elements[start];
+            elements[start++] = null;
+            count--;
+            numBytes -= MemoryUtils.estimateListElement(value);
+            return value;
+        }
+
+        private Object removeLast() {
+            Object value = elements[start+count-1];
+            elements[start+count-1] = null;
+            count--;
+            numBytes -= MemoryUtils.estimateListElement(value);
+            return value;
+        }
+
+        /**
+         * insert value before offset, shifting the shorter side of the slice
+         * @return estimated size of value
+         */
+        private long add(int offset, Object value) {
+            if (start == 0 && start+count == elements.length) {
+                makeRoom(offset < count/2);
+            }
+            if (start > 0 && (offset < count/2 || start+count == elements.length)) {
+                System.arraycopy(elements, start, elements, start-1, offset);
+                start--;
+            } else {
+                System.arraycopy(elements, start+offset, elements, start+offset+1, count-offset);
+            }
+            elements[start+offset] = value;
+            count++;
+            return addBytes(value);
+        }
+
+        /**
+         * remove the element at offset, shifting the shorter side of the slice
+         */
+        private Object remove(int offset) {
+            Object value = elements[start+offset];
+            if (offset < count/2) {
+                System.arraycopy(elements, start, elements, start+1, offset);
+                elements[start++] = null;
+            } else {
+                System.arraycopy(elements, start+offset+1, elements, start+offset, count-offset-1);
+                elements[start+count-1] = null;
+            }
+            count--;
+            numBytes -= MemoryUtils.estimateListElement(value);
+            return value;
+        }
+
+        /**
+         * @return estimated size of the removed elements
+         */
+        private long removeFirst(int n) {
+            long removedBytes = subtractBytes(start, start+n);
+            Arrays.fill(elements, start, start+n, null);
+            start += n;
+            count -= n;
+            return removedBytes;
+        }
+
+        /**
+         * @return estimated size of the removed elements
+         */
+        private long removeLast(int n) {
+            long removedBytes = subtractBytes(start+count-n, start+count);
+            Arrays.fill(elements, start+count-n, start+count, null);
+            count -= n;
+            return removedBytes;
+        }
+
+        private long addBytes(Object value) {
+            long valueBytes = MemoryUtils.estimateListElement(value);
+            numBytes += valueBytes;
+            return valueBytes;
+        }
+
+        /**
+         * subtract the size of elements[from] to elements[to-1] from the node
+         * @return size of these elements
+         */
+        private long subtractBytes(int from, int to) {
+            long sum = 0L;
+            for (int i=from; i<to; i++) {
+                sum += MemoryUtils.estimateListElement(elements[i]);
+            }
+            numBytes -= sum;
+            return sum;
+        }
+
+        /**
+         * move the second half of a full node to a new node
+         * @return new node, to be linked after this one
+         */
+        private Node split() {
+            int numMoved = count - count/2;
+            Node node = new Node();
+            node.elements = new Object[elements.length];
+            node.start = (elements.length-numMoved)/2;
+            node.count = numMoved;
+            System.arraycopy(elements, start+count-numMoved, node.elements, node.start, numMoved);
+            node.numBytes = removeLast(numMoved);
+            return node;
+        }
+
+        /**
+         * grow the array up to the node capacity, or move elements to the other end once it is reached
+         */
+        private void makeRoom(boolean isAtFront) {
+            int length = Math.min(OutputConstants.QUICKLIST_NODE_CAPACITY, Math.max(elements.length*2, count+1));
+            Object[] newElements = length > elements.length ? new Object[length] : elements;
+            int newStart = isAtFront ? length-count : 0;
+            if (newElements == elements) {
+                System.arraycopy(elements, start, elements, newStart, count);
+                if (isAtFront) {
+                    Arrays.fill(elements, start, Math.min(start+count, newStart), null);
+                } else {
+                    Arrays.fill(elements, Math.max(count, start), start+count, null);
+                }
+            } else {
+                System.arraycopy(elements, start, newElements, newStart, count);
+            }
+            elements = newElements;
+            start = newStart;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package domain;
+
+import constants.ParserConstants;
+import stream.RESPArgs;
+
+/**
+ * one complete top-level RESP frame emitted by RESPDecoder, reused by the decoder for every frame
+ */
+public class RESPFrameDto {
+
+    private byte type;
+    private RESPArgs args; // array elements
+    private String value; // simple string or bulk string
+    private int byteRead;
+
+    public boolean isArray() {
+        return type == ParserConstants.ARRAY_ASTERISK;
+    }
+
+    public byte getType() {
+        return type;
+    }
+
+    public void setType(byte type) {
+        this.type = type;
+    }
+
+    public RESPArgs getArgs() {
+        return args;
+    }
+
+    public void setArgs(RESPArgs args) {
+        this.args = args;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public int getByteRead() {
+        return byteRead;
+    }
+
+    public void setByteRead(int byteRead) {
+        this.byteRead = byteRead;
+    }
+}
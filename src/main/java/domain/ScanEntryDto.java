@@ -0,0 +1,19 @@
+package domain;
+
+public class ScanEntryDto {
+    private final int reverseHash;
+    private final String key;
+
+    public ScanEntryDto(int reverseHash, String key) {
+        this.reverseHash = reverseHash;
+        this.key = key;
+    }
+
+    public int getReverseHash() {
+        return reverseHash;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,43 @@
+package domain;
+
+import enums.ValueType;
+import service.GlobPattern;
+
+public class ScanOptionDto {
+    private long cursor;
+    private GlobPattern pattern; // null to match every key
+    private int count;
+    private ValueType valueType; // null to match every type
+
+    public long getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(long cursor) {
+        this.cursor = cursor;
+    }
+
+    public GlobPattern getPattern() {
+        return pattern;
+    }
+
+    public void setPattern(GlobPattern pattern) {
+        this.pattern = pattern;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public ValueType getValueType() {
+        return valueType;
+    }
+
+    public void setValueType(ValueType valueType) {
+        this.valueType = valueType;
+    }
+}
@@ -0,0 +1,104 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Notes:
+ *  1. hashed timer wheel: a ring of slots, each one holding the timers due in one tick modulo the ring length,
+ *     so adding or cancelling a timer is O(1) whatever the number of timers
+ *  2. advancing visits only the slots of the ticks elapsed since the last advance, a timer more than one rotation
+ *     away stays in its slot until its deadline is reached
+ *  3. not thread-safe, the owner serializes calls
+ */
+public class TimerWheel<T> {
+    private final long tickMillis;
+    private final List<Set<T>> slots;
+    private final Map<T, Long> timerTicks = new HashMap<>(); // tick of the slot holding each timer
+    private long currentTick;
+
+    /**
+     * @param tickMillis duration of a tick, timers fire at most one tick after their deadline
+     * @param numSlots number of slots of the ring
+     * @param now current time in milliseconds
+     */
+    public TimerWheel(long tickMillis, int numSlots, long now) {
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(numSlots);
+        for (int i=0; i<numSlots; i++) {
+            slots.add(new LinkedHashSet<>());
+        }
+        this.currentTick = now / tickMillis;
+    }
+
+    /**
+     * @param timer timer, added once
+     * @param deadline time in milliseconds at which timer fires
+     */
+    public void add(T timer, long deadline) {
+        // rounded up so a timer never fires before its deadline, a deadline already passed fires on the next advance
+        long tick = Math.max((deadline + tickMillis - 1) / tickMillis, currentTick + 1);
+        timerTicks.put(timer, tick);
+        slots.get(getSlotIndex(tick)).add(timer);
+    }
+
+    /**
+     * @param timer timer
+     * @return whether timer was pending
+     */
+    public boolean remove(T timer) {
+        Long tick = timerTicks.remove(timer);
+        if (tick == null) {
+            return false;
+        }
+        slots.get(getSlotIndex(tick)).remove(timer);
+        return true;
+    }
+
+    public int size() {
+        return timerTicks.size();
+    }
+
+    /**
+     * fire every timer whose deadline is reached, each one is removed before it is handed to consumer
+     * @param now current time in milliseconds
+     * @param consumer called with each fired timer
+     */
+    public void advance(long now, Consumer<T> consumer) {
+        long nowTick = now / tickMillis;
+        if (nowTick <= currentTick) {
+            return;
+        }
+        // a late advance needs one rotation at most to see every slot
+        long fromTick = Math.max(currentTick + 1, nowTick - slots.size() + 1);
+        List<T> firedTimers = new ArrayList<>();
+        for (long tick=fromTick; tick<=nowTick; tick++) {
+            Iterator<T> iter = slots.get(getSlotIndex(tick)).iterator();
+            while (iter.hasNext()) {
+                T timer = iter.next();
+                if (timerTicks.get(timer) <= nowTick) {
+                    iter.remove();
+                    timerTicks.remove(timer);
+                    firedTimers.add(timer);
+                }
+            }
+        }
+        currentTick = nowTick;
+        firedTimers.forEach(consumer);
+    }
+
+    public void clear() {
+        slots.forEach(Set::clear);
+        timerTicks.clear();
+    }
+
+    private int getSlotIndex(long tick) {
+        return (int) (tick % slots.size());
+    }
+}
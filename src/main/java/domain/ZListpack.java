@@ -0,0 +1,109 @@
+package domain;
+
+import constants.OutputConstants;
+
+import java.util.Arrays;
+
+/**
+ * Notes:
+ *  1. compact encoding of a small sorted set, as redis listpack: members and their scores packed in two parallel
+ *     arrays sorted by score then member, no node, map entry or boxed score per member
+ *  2. a member is found by a linear scan, an insertion point by binary search, and inserts and removals shift the
+ *     tail of the arrays: O(n), cheap while the set stays below zset-max-listpack-entries
+ *  3. not thread-safe, commands access a sorted set holding the lock of its key
+ */
+public class ZListpack {
+
+    private String[] members = new String[OutputConstants.ZSET_LISTPACK_INITIAL_CAPACITY];
+    private double[] scores = new double[OutputConstants.ZSET_LISTPACK_INITIAL_CAPACITY];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public String getMember(int index) {
+        return members[index];
+    }
+
+    public double getScore(int index) {
+        return scores[index];
+    }
+
+    /**
+     * @param member member
+     * @return index of member, which is also its rank, -1 if it is not in the listpack
+     */
+    public int indexOf(String member) {
+        for (int i=0; i<size; i++) {
+            if (members[i].equals(member)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param member member, not in the listpack yet
+     * @param score score of member
+     */
+    public void insert(String member, double score) {
+        int index = search(member, score);
+        if (index >= 0) {
+            throw new IllegalStateException("ZListpack: member already exists");
+        }
+        index = -(index + 1);
+        if (size == members.length) {
+            members = Arrays.copyOf(members, size * 2);
+            scores = Arrays.copyOf(scores, size * 2);
+        }
+        System.arraycopy(members, index, members, index+1, size-index);
+        System.arraycopy(scores, index, scores, index+1, size-index);
+        members[index] = member;
+        scores[index] = score;
+        size++;
+    }
+
+    public void remove(int index) {
+        System.arraycopy(members, index+1, members, index, size-index-1);
+        System.arraycopy(scores, index+1, scores, index, size-index-1);
+        size--;
+        members[size] = null;
+    }
+
+    /**
+     * @param index index of the member
+     * @param score new score, the member moves to keep the arrays sorted
+     */
+    public void updateScore(int index, double score) {
+        if (Double.compare(scores[index], score) == 0) {
+            return;
+        }
+        String member = members[index];
+        remove(index);
+        insert(member, score);
+    }
+
+    /**
+     * @return index of member with score, or -(insertion point + 1) if it is not in the listpack
+     */
+    private int search(String member, double score) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int compare = Double.compare(scores[mid], score);
+            if (compare == 0) {
+                compare = members[mid].compareTo(member);
+            }
+            if (compare < 0) {
+                low = mid + 1;
+            } else if (compare > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
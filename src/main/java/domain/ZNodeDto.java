@@ -1,41 +0,0 @@
-package domain;
-
-import java.util.Objects;
-
-public class ZNodeDto {
-    private final String member;
-    private Double score;
-
-    public ZNodeDto(String member) {
-        this(member, null);
-    }
-
-    public ZNodeDto(String member, Double score) {
-        this.member = member;
-        this.score = score;
-    }
-
-    public String getMember() {
-        return member;
-    }
-
-    public Double getScore() {
-        return score;
-    }
-
-    public void setScore(Double score) {
-        this.score = score;
-    }
-
-    @Override
-    public boolean equals(Object object) {
-        if (this == object) return true;
-        if (!(object instanceof ZNodeDto zNodeDto)) return false;
-        return Objects.equals(getMember(), zNodeDto.getMember());
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(getMember());
-    }
-}
@@ -1,25 +1,224 @@
 package domain;
 
-import comparator.ZNodeComparator;
+import service.ScanUtils;
+import service.SystemPropHelper;
 
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.NavigableSet;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.Predicate;
 
+/**
+ * Notes:
+ *  1. two encodings as in redis: a listpack while the set has at most zset-max-listpack-entries members, none of them
+ *     longer than zset-max-listpack-value, then a skip list with a map from member to its node
+ *  2. an add crossing either threshold converts the set to the skip list encoding, it is never converted back
+ *  3. scores are primitive doubles in both encodings, the member map reads them from the skip list nodes
+ *  4. not thread-safe, commands access a sorted set holding the lock of its key
+ */
 public class ZSet {
 
+    private static volatile int maxListpackEntries = SystemPropHelper.getZSetMaxListpackEntriesOrDefault();
+    private static volatile int maxListpackValue = SystemPropHelper.getZSetMaxListpackValueOrDefault();
+
+    /**
+     * listpack encoding, null once converted to the skip list encoding
+     */
+    private ZListpack listpack = new ZListpack();
+
+    /**
+     * Map<key=member, value=its skip list node>
+     */
+    private Map<String, ZSkipList.Node> memberMap;
+
+    /**
+     * members sorted by score then member, with O(log n) rank lookups, for ZRANK and ZRANGE
+     */
+    private ZSkipList skipList;
+
+    /**
+     * members sorted by reversed hash, for ZSCAN
+     */
+    private NavigableSet<ScanEntryDto> scanIndex;
+
+    /**
+     * @param maxEntries largest number of members of a listpack encoded set
+     * @param maxValue length of the longest member of a listpack encoded set
+     */
+    public static void configure(int maxEntries, int maxValue) {
+        maxListpackEntries = maxEntries;
+        maxListpackValue = maxValue;
+    }
+
+    public static int getMaxListpackEntries() {
+        return maxListpackEntries;
+    }
+
+    public static int getMaxListpackValue() {
+        return maxListpackValue;
+    }
+
+    public boolean isListpack() {
+        return listpack != null;
+    }
+
+    public int size() {
+        return listpack != null ? listpack.size() : skipList.size();
+    }
+
+    /**
+     * @param member member
+     * @return score of member, null if it is not in the set
+     */
+    public Double getScore(String member) {
+        if (listpack != null) {
+            int index = listpack.indexOf(member);
+            return index >= 0 ? listpack.getScore(index) : null;
+        }
+        ZSkipList.Node node = memberMap.get(member);
+        return node != null ? node.getScore() : null;
+    }
+
+    /**
+     * add member or update its score
+     * @param member member
+     * @param score score of member
+     * @return whether member is new
+     */
+    public boolean add(String member, double score) {
+        if (listpack != null) {
+            int index = listpack.indexOf(member);
+            if (index >= 0) {
+                listpack.updateScore(index, score);
+                return false;
+            }
+            if (listpack.size() < maxListpackEntries && member.length() <= maxListpackValue) {
+                listpack.insert(member, score);
+                return true;
+            }
+            convertToSkipList();
+        }
+        ZSkipList.Node node = memberMap.get(member);
+        if (node != null) {
+            if (Double.compare(node.getScore(), score) != 0) {
+                memberMap.put(member, skipList.updateScore(member, node.getScore(), score));
+            }
+            return false;
+        }
+        memberMap.put(member, skipList.insert(member, score));
+        scanIndex.add(ScanUtils.toScanEntry(member));
+        return true;
+    }
+
+    /**
+     * @param member member
+     * @return whether member was in the set
+     */
+    public boolean remove(String member) {
+        if (listpack != null) {
+            int index = listpack.indexOf(member);
+            if (index < 0) {
+                return false;
+            }
+            listpack.remove(index);
+            return true;
+        }
+        ZSkipList.Node node = memberMap.remove(member);
+        if (node == null) {
+            return false;
+        }
+        skipList.delete(member, node.getScore());
+        scanIndex.remove(ScanUtils.toScanEntry(member));
+        return true;
+    }
+
+    /**
+     * @param member member
+     * @return 0-based rank of member by ascending score, -1 if it is not in the set
+     */
+    public int getRank(String member) {
+        if (listpack != null) {
+            return listpack.indexOf(member);
+        }
+        ZSkipList.Node node = memberMap.get(member);
+        return node != null ? skipList.getRank(member, node.getScore()) : -1;
+    }
+
+    /**
+     * @param start 0-based rank of the first member, within the set
+     * @param end 0-based rank of the last member, within the set
+     * @param consumer called with each member and its score in rank order
+     */
+    public void forEachInRange(int start, int end, ObjDoubleConsumer<String> consumer) {
+        if (listpack != null) {
+            for (int i=start; i<=end; i++) {
+                consumer.accept(listpack.getMember(i), listpack.getScore(i));
+            }
+            return;
+        }
+        Iterator<ZSkipList.Node> iter = skipList.iterator(start);
+        for (int i=start; i<=end; i++) {
+            ZSkipList.Node node = iter.next();
+            consumer.accept(node.getMember(), node.getScore());
+        }
+    }
+
     /**
-     * Map<key=member, value=its score>
+     * @return read-only view of the members, in rank order for the listpack encoding only
      */
-    private final Map<String, Double> ZSET_SCORE_MAP = new ConcurrentHashMap<>();
+    public Collection<String> getMembers() {
+        if (listpack != null) {
+            ZListpack currentListpack = listpack;
+            return new AbstractList<>() {
+                @Override
+                public String get(int index) {
+                    return currentListpack.getMember(index);
+                }
 
-    private final ConcurrentSkipListSet<ZNodeDto> ZSET_SKIP_LIST = new ConcurrentSkipListSet<>(new ZNodeComparator());
+                @Override
+                public int size() {
+                    return currentListpack.size();
+                }
+            };
+        }
+        return Collections.unmodifiableSet(memberMap.keySet());
+    }
 
-    public Map<String, Double> getZSET_SCORE_MAP() {
-        return ZSET_SCORE_MAP;
+    /**
+     * visit members for ZSCAN. A listpack encoded set is visited as a whole and cursor 0 is returned, as redis does
+     * @param cursor cursor returned by the previous call, 0 to start
+     * @param count number of members to visit
+     * @param filter members to return
+     * @param members returned members
+     * @return cursor of the next call, 0 once every member was visited
+     */
+    public long scan(long cursor, int count, Predicate<String> filter, List<String> members) {
+        if (listpack != null) {
+            for (int i=0; i<listpack.size(); i++) {
+                if (filter.test(listpack.getMember(i))) {
+                    members.add(listpack.getMember(i));
+                }
+            }
+            return 0L;
+        }
+        return ScanUtils.scan(scanIndex, cursor, count, filter, members);
     }
 
-    public ConcurrentSkipListSet<ZNodeDto> getZSET_SKIP_LIST() {
-        return ZSET_SKIP_LIST;
+    private void convertToSkipList() {
+        memberMap = new HashMap<>();
+        skipList = new ZSkipList();
+        scanIndex = ScanUtils.newIndex();
+        for (int i=0; i<listpack.size(); i++) {
+            String member = listpack.getMember(i);
+            memberMap.put(member, skipList.insert(member, listpack.getScore(i)));
+            scanIndex.add(ScanUtils.toScanEntry(member));
+        }
+        listpack = null;
     }
 }
@@ -0,0 +1,273 @@
+package domain;
+
+import constants.OutputConstants;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Notes:
+ *  1. sorted set members ordered by score then member, as in redis zskiplist: each node has a random number of levels,
+ *     a level above the first one being kept with probability ZSKIPLIST_P, up to ZSKIPLIST_MAX_LEVEL
+ *  2. every forward pointer carries its span, the number of nodes it skips, so the rank of a node is the sum of the
+ *     spans walked to reach it and a rank is reached by walking spans: O(log n) for both
+ *  3. the first level is doubly linked through backward pointers, for reverse iteration
+ *  4. a member is present once, the caller keeps its node to read its score and find it again: the member map of ZSet
+ *  5. not thread-safe, commands access a sorted set holding the lock of its key
+ */
+public class ZSkipList {
+
+    private final Node header = new Node(null, 0, OutputConstants.ZSKIPLIST_MAX_LEVEL);
+    private int length;
+    private int level = 1;
+
+    public int size() {
+        return length;
+    }
+
+    /**
+     * @param member member, not in the list yet
+     * @param score score of member
+     * @return node of member
+     */
+    public Node insert(String member, double score) {
+        Node[] update = new Node[OutputConstants.ZSKIPLIST_MAX_LEVEL];
+        int[] rank = new int[OutputConstants.ZSKIPLIST_MAX_LEVEL];
+        Node node = header;
+        for (int i=level-1; i>=0; i--) {
+            // rank of the node the search stops at, on each level
+            rank[i] = i == level-1 ? 0 : rank[i+1];
+            while (node.forward[i] != null && compare(node.forward[i], member, score) < 0) {
+                rank[i] += node.span[i];
+                node = node.forward[i];
+            }
+            update[i] = node;
+        }
+
+        int newLevel = randomLevel();
+        if (newLevel > level) {
+            for (int i=level; i<newLevel; i++) {
+                rank[i] = 0;
+                update[i] = header;
+                update[i].span[i] = length;
+            }
+            level = newLevel;
+        }
+        Node newNode = new Node(member, score, newLevel);
+        for (int i=0; i<newLevel; i++) {
+            newNode.forward[i] = update[i].forward[i];
+            update[i].forward[i] = newNode;
+            // the span of update[i] is split around the new node
+            newNode.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+        // levels above the new node skip one more node
+        for (int i=newLevel; i<level; i++) {
+            update[i].span[i]++;
+        }
+
+        newNode.backward = update[0] == header ? null : update[0];
+        if (newNode.forward[0] != null) {
+            newNode.forward[0].backward = newNode;
+        }
+        length++;
+        return newNode;
+    }
+
+    /**
+     * @param member member
+     * @param score current score of member
+     * @return whether member was found and removed
+     */
+    public boolean delete(String member, double score) {
+        Node[] update = new Node[OutputConstants.ZSKIPLIST_MAX_LEVEL];
+        Node node = header;
+        for (int i=level-1; i>=0; i--) {
+            while (node.forward[i] != null && compare(node.forward[i], member, score) < 0) {
+                node = node.forward[i];
+            }
+            update[i] = node;
+        }
+        node = node.forward[0];
+        if (node == null || compare(node, member, score) != 0) {
+            return false;
+        }
+        unlink(node, update);
+        return true;
+    }
+
+    /**
+     * move member to its new score, in place if its position does not change, as redis zslUpdateScore
+     * @param member member
+     * @param currentScore current score of member
+     * @param newScore new score of member
+     * @return node of member, a new one if it moved
+     */
+    public Node updateScore(String member, double currentScore, double newScore) {
+        Node[] update = new Node[OutputConstants.ZSKIPLIST_MAX_LEVEL];
+        Node node = header;
+        for (int i=level-1; i>=0; i--) {
+            while (node.forward[i] != null && compare(node.forward[i], member, currentScore) < 0) {
+                node = node.forward[i];
+            }
+            update[i] = node;
+        }
+        node = node.forward[0];
+        if (node == null || compare(node, member, currentScore) != 0) {
+            throw new IllegalStateException("ZSkipList: member not found");
+        }
+        if ((node.backward == null || compare(node.backward, member, newScore) < 0)
+                && (node.forward[0] == null || compare(node.forward[0], member, newScore) > 0)) {
+            node.score = newScore;
+            return node;
+        }
+        unlink(node, update);
+        return insert(member, newScore);
+    }
+
+    /**
+     * @param member member
+     * @param score current score of member
+     * @return 0-based rank of member, -1 if it is not in the list
+     */
+    public int getRank(String member, double score) {
+        int rank = 0;
+        Node node = header;
+        for (int i=level-1; i>=0; i--) {
+            while (node.forward[i] != null && compare(node.forward[i], member, score) <= 0) {
+                rank += node.span[i];
+                node = node.forward[i];
+            }
+            if (node != header && compare(node, member, score) == 0) {
+                return rank - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param rank 0-based rank
+     * @return node at rank, null if rank is out of range
+     */
+    public Node getByRank(int rank) {
+        if (rank < 0 || rank >= length) {
+            return null;
+        }
+        // header is at rank 0 when spans are summed, nodes start at 1
+        int traversed = 0;
+        Node node = header;
+        for (int i=level-1; i>=0; i--) {
+            while (node.forward[i] != null && traversed + node.span[i] <= rank + 1) {
+                traversed += node.span[i];
+                node = node.forward[i];
+            }
+            if (traversed == rank + 1) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param rank 0-based rank of the first node
+     * @return nodes from rank to the tail, the first one is reached in O(log n)
+     */
+    public Iterator<Node> iterator(int rank) {
+        return new NodeIterator(getByRank(rank), false);
+    }
+
+    /**
+     * @param rank 0-based rank of the first node
+     * @return nodes from rank to the head
+     */
+    public Iterator<Node> descendingIterator(int rank) {
+        return new NodeIterator(getByRank(rank), true);
+    }
+
+    /**
+     * @param update last node before node on each level
+     */
+    private void unlink(Node node, Node[] update) {
+        for (int i=0; i<level; i++) {
+            if (update[i].forward[i] == node) {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].forward[i] = node.forward[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        if (node.forward[0] != null) {
+            node.forward[0].backward = node.backward;
+        }
+        while (level > 1 && header.forward[level-1] == null) {
+            level--;
+        }
+        length--;
+    }
+
+    private static int compare(Node node, String member, double score) {
+        int scoreCompare = Double.compare(node.score, score);
+        if (scoreCompare != 0) {
+            return scoreCompare;
+        }
+        return node.member.compareTo(member);
+    }
+
+    private static int randomLevel() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int newLevel = 1;
+        while (newLevel < OutputConstants.ZSKIPLIST_MAX_LEVEL && random.nextDouble() < OutputConstants.ZSKIPLIST_P) {
+            newLevel++;
+        }
+        return newLevel;
+    }
+
+    public static class Node {
+        private final String member;
+        private double score;
+        private Node backward;
+        private final Node[] forward;
+        private final int[] span;
+
+        private Node(String member, double score, int level) {
+            this.member = member;
+            this.score = score;
+            this.forward = new Node[level];
+            this.span = new int[level];
+        }
+
+        public String getMember() {
+            return member;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    private static class NodeIterator implements Iterator<Node> {
+        private Node next;
+        private final boolean isDescending;
+
+        private NodeIterator(Node next, boolean isDescending) {
+            this.next = next;
+            this.isDescending = isDescending;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Node next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Node node = next;
+            next = isDescending ? node.backward : node.forward[0];
+            return node;
+        }
+    }
+}
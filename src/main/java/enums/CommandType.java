@@ -1,68 +1,136 @@
 package enums;
 
+import java.util.EnumSet;
 import java.util.Objects;
+import java.util.Set;
 
 public enum CommandType {
-    PING("ping", false),
-    ECHO("echo", false),
-    GET("get", false),
-    SET("set", true),
+    PING("ping", false, -1),
+    ECHO("echo", false, 2),
+    GET("get", false, 2),
+    SET("set", true, -3),
     PX("px", true),
-    CONFIG("config", false),
-    SAVE("save", false),
-    KEYS("keys", false),
-    INFO("info", false),
+    EX("ex", true),
+    PXAT("pxat", true),
+    EXAT("exat", true),
+    KEEPTTL("keepttl", true),
+    NX("nx", true),
+    XX("xx", true),
+    GT("gt", true),
+    LT("lt", true),
+    EXPIRE("expire", true, -3),
+    PEXPIRE("pexpire", true, -3),
+    EXPIREAT("expireat", true, -3),
+    PEXPIREAT("pexpireat", true, -3),
+    TTL("ttl", false, 2),
+    PTTL("pttl", false, 2),
+    PERSIST("persist", true, 2),
+    DEL("del", true, -2),
+    CONFIG("config", false, -2),
+    SAVE("save", false, 1),
+    KEYS("keys", false, 2),
+    SCAN("scan", false, -2),
+    INFO("info", false, -1),
     REPLICATION("replication", false),
-    REPLCONF("replconf", false),
+    REPLCONF("replconf", false, -1),
     LISTENING_PORT("listening-port", false),
     CAPA("capa", false),
-    PSYNC("psync", false),
+    PSYNC("psync", false, -3),
     GETACK("getack", false),
     ACK("ack", false),
-    WAIT("wait", false),
-    TYPE("type", false),
-    XADD("xadd", true),
-    XRANGE("xrange", false),
-    XREAD("xread", false),
+    WAIT("wait", false, 3),
+    TYPE("type", false, 2),
+    XADD("xadd", true, -5),
+    XRANGE("xrange", false, -4),
+    XREAD("xread", false, -4),
     BLOCK("block", false),
-    INCR("incr", true),
-    MULTI("multi", false),
-    EXEC("exec", false),
-    DISCARD("discard", false),
-    RPUSH("rpush", true),
-    LRANGE("lrange", false),
-    LPUSH("lpush", true),
-    LLEN("llen", false),
-    LPOP("lpop", true),
-    BLPOP("blpop", true),
-    SUBSCRIBE("subscribe", true),
-    PSUBSSCRIBE("psubsscribe", true),
-    SSUBSCRIBE("ssubscribe", true),
-    UNSUBSCRIBE("unsubscribe", true),
-    PUNSUBSCRIBE("punsubscribe", true),
-    SUNSUBSCRIBE("sunsubscribe", true),
-    QUIT("quit", false),
-    RESET("reset", false),
-    PUBLISH("publish", false),
-    ZADD("zadd", true),
-    ZRANK("zrank", false),
-    ZRANGE("zrange", false),
-    ZCARD("zcard", false),
-    ZSCORE("zscore", false),
-    ZREM("zrem", true),
-    GEOADD("geoadd", true),
-    GEOPOS("geopos", false),
-    GEODIST("geodist", false),
-    GEOSEARCH("geosearch", false),
-    ACL("acl", false),
-    AUTH("auth", false);
+    INCR("incr", true, 2),
+    INCRBY("incrby", true, 3),
+    DECR("decr", true, 2),
+    DECRBY("decrby", true, 3),
+    INCRBYFLOAT("incrbyfloat", true, 3),
+    MGET("mget", false, -2),
+    MSET("mset", true, -3),
+    MSETNX("msetnx", true, -3),
+    MULTI("multi", false, 1),
+    EXEC("exec", false, 1),
+    DISCARD("discard", false, 1),
+    RPUSH("rpush", true, -3),
+    LRANGE("lrange", false, 4),
+    LPUSH("lpush", true, -3),
+    LLEN("llen", false, 2),
+    LPOP("lpop", true, -2),
+    RPOP("rpop", true, -2),
+    LINDEX("lindex", false, 3),
+    LSET("lset", true, 4),
+    LINSERT("linsert", true, 5),
+    BEFORE("before", true),
+    AFTER("after", true),
+    LREM("lrem", true, 4),
+    LTRIM("ltrim", true, 4),
+    LPOS("lpos", false, -3),
+    RANK("rank", false),
+    MAXLEN("maxlen", false),
+    BLPOP("blpop", true, -3),
+    BRPOP("brpop", true, -3),
+    BLMOVE("blmove", true, 6),
+    LMOVE("lmove", true, 5),
+    LEFT("left", false),
+    RIGHT("right", false),
+    SUBSCRIBE("subscribe", true, -2),
+    PSUBSCRIBE("psubscribe", true, -2),
+    SSUBSCRIBE("ssubscribe", true, -2),
+    UNSUBSCRIBE("unsubscribe", true, -1),
+    PUNSUBSCRIBE("punsubscribe", true, -1),
+    SUNSUBSCRIBE("sunsubscribe", true, -1),
+    QUIT("quit", false, -1),
+    RESET("reset", false, 1),
+    PUBLISH("publish", false, 3),
+    ZADD("zadd", true, -4),
+    ZRANK("zrank", false, -3),
+    ZREVRANK("zrevrank", false, -3),
+    ZRANGE("zrange", false, -4),
+    ZCARD("zcard", false, 2),
+    ZSCORE("zscore", false, 3),
+    ZREM("zrem", true, -3),
+    ZSCAN("zscan", false, -3),
+    GEOADD("geoadd", true, -5),
+    GEOPOS("geopos", false, -2),
+    GEODIST("geodist", false, -4),
+    GEOSEARCH("geosearch", false, -7),
+    MEMORY("memory", false, -2),
+    USAGE("usage", false),
+    STATS("stats", false),
+    SAMPLES("samples", false),
+    MATCH("match", false),
+    COUNT("count", false),
+    ACL("acl", false, -2),
+    AUTH("auth", false, -2);
+
+    private static final Set<CommandType> ALLOWED_COMMANDS_IN_SUBSCRIBED_MODE = EnumSet.of(
+            SUBSCRIBE, PSUBSCRIBE, SSUBSCRIBE, UNSUBSCRIBE, PUNSUBSCRIBE, SUNSUBSCRIBE, PING, QUIT, RESET);
+    private static final Set<CommandType> SINGLE_KEY_COMMANDS = EnumSet.of(
+            GET, SET, EXPIRE, PEXPIRE, EXPIREAT, PEXPIREAT, TTL, PTTL, PERSIST, TYPE, XADD, XRANGE,
+            INCR, INCRBY, DECR, DECRBY, INCRBYFLOAT, RPUSH, LRANGE, LPUSH, LLEN, LPOP,
+            RPOP, LINDEX, LSET, LINSERT, LREM, LTRIM, LPOS,
+            ZADD, ZRANK, ZREVRANK, ZRANGE, ZCARD, ZSCORE, ZREM, ZSCAN,
+            GEOADD, GEOPOS, GEODIST, GEOSEARCH);
+    private static final Set<CommandType> DENY_OOM_COMMANDS = EnumSet.of(
+            SET, MSET, MSETNX, XADD, INCR, INCRBY, DECR, DECRBY, INCRBYFLOAT, RPUSH, LPUSH, LSET, LINSERT, LMOVE, ZADD, GEOADD);
+    private static final Set<CommandType> BLOCKING_POP_COMMANDS = EnumSet.of(BLPOP, BRPOP, BLMOVE);
 
     private final String alias;
     private final boolean isWrite;
+    private final int arity; // number of arguments including command name, negative for a minimum, 0 for a sub-command token
 
     CommandType(String alias, boolean isWrite) {
+        this(alias, isWrite, 0);
+    }
+
+    CommandType(String alias, boolean isWrite, int arity) {
         this.alias = alias;
         this.isWrite = isWrite;
+        this.arity = arity;
     }
 
     public static CommandType fromAlias(String alias) {
@@ -96,18 +164,33 @@ public enum CommandType {
                 && command.toLowerCase().contains(PSYNC.getAlias());
     }
 
-    public static boolean isAllowedCommandInSubscribedMode(String command) {
-        return Objects.nonNull(command)
-                && (command.toLowerCase().contains(SUBSCRIBE.getAlias())
-                || command.toLowerCase().contains(PSUBSSCRIBE.getAlias())
-                || command.toLowerCase().contains(SSUBSCRIBE.getAlias())
-                || command.toLowerCase().contains(UNSUBSCRIBE.getAlias())
-                || command.toLowerCase().contains(PUNSUBSCRIBE.getAlias())
-                || command.toLowerCase().contains(SUNSUBSCRIBE.getAlias())
-                || command.toLowerCase().contains(PING.getAlias())
-                || command.toLowerCase().contains(QUIT.getAlias())
-                || command.toLowerCase().contains(RESET.getAlias())
-        );
+    public static boolean isAllowedInSubscribedMode(CommandType commandType) {
+        return ALLOWED_COMMANDS_IN_SUBSCRIBED_MODE.contains(commandType);
+    }
+
+    /**
+     * @param commandType command
+     * @return whether the first argument of command is the only key it reads or writes
+     */
+    public static boolean isSingleKey(CommandType commandType) {
+        return SINGLE_KEY_COMMANDS.contains(commandType);
+    }
+
+    /**
+     * @param commandType command
+     * @return whether command may grow memory, so it is rejected once maxmemory is reached and nothing can be evicted
+     */
+    public static boolean isDenyOom(CommandType commandType) {
+        return DENY_OOM_COMMANDS.contains(commandType);
+    }
+
+    /**
+     * @param commandType command
+     * @return whether command may block its client waiting for a list element. It is not propagated as is,
+     *         the pop it ends up running is propagated instead
+     */
+    public static boolean isBlockingPop(CommandType commandType) {
+        return BLOCKING_POP_COMMANDS.contains(commandType);
     }
 
     public String getAlias() {
@@ -117,4 +200,8 @@ public enum CommandType {
     public boolean isWrite() {
         return isWrite;
     }
+
+    public int getArity() {
+        return arity;
+    }
 }
@@ -0,0 +1,39 @@
+package enums;
+
+import java.util.Objects;
+
+public enum EvictionPolicyType {
+    NOEVICTION("noeviction"),
+    ALLKEYS_LRU("allkeys-lru"),
+    ALLKEYS_LFU("allkeys-lfu"),
+    VOLATILE_LRU("volatile-lru"),
+    VOLATILE_TTL("volatile-ttl"),
+    ALLKEYS_RANDOM("allkeys-random");
+
+    private final String alias;
+
+    EvictionPolicyType(String alias) {
+        this.alias = alias;
+    }
+
+    public static EvictionPolicyType fromAlias(String alias) {
+        for (EvictionPolicyType evictionPolicyType: values()) {
+            if (evictionPolicyType.getAlias().equalsIgnoreCase(alias)) {
+                return evictionPolicyType;
+            }
+        }
+        return null;
+    }
+
+    public static boolean isLfu(EvictionPolicyType evictionPolicyType) {
+        return Objects.equals(evictionPolicyType, ALLKEYS_LFU);
+    }
+
+    public static boolean isVolatile(EvictionPolicyType evictionPolicyType) {
+        return Objects.equals(evictionPolicyType, VOLATILE_LRU) || Objects.equals(evictionPolicyType, VOLATILE_TTL);
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+}
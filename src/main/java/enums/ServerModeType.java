@@ -0,0 +1,31 @@
+package enums;
+
+import java.util.Objects;
+
+public enum ServerModeType {
+    BLOCKING("blocking"),
+    NIO("nio");
+
+    private final String alias;
+
+    ServerModeType(String alias) {
+        this.alias = alias;
+    }
+
+    public static ServerModeType fromAlias(String alias) {
+        for (ServerModeType serverModeType: values()) {
+            if (serverModeType.getAlias().equalsIgnoreCase(alias)) {
+                return serverModeType;
+            }
+        }
+        return null;
+    }
+
+    public static boolean isNio(ServerModeType serverModeType) {
+        return Objects.equals(serverModeType, NIO);
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+}
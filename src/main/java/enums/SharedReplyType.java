@@ -0,0 +1,32 @@
+package enums;
+
+import constants.OutputConstants;
+
+/**
+ * replies that never change, encoded once and shared by every connection, see {@link service.RESPSharedReplies}
+ */
+public enum SharedReplyType {
+    OK(OutputConstants.PLUS + OutputConstants.OK + OutputConstants.CRLF),
+    PONG(OutputConstants.PLUS + OutputConstants.PONG + OutputConstants.CRLF),
+    QUEUED(OutputConstants.PLUS + OutputConstants.RESP_QUEUED_MULTI_COMMAND + OutputConstants.CRLF),
+    NULL_BULK_STRING(OutputConstants.DOLLAR_SIZE + OutputConstants.NULL_BULK + OutputConstants.CRLF),
+    NULL_ARRAY(OutputConstants.ASTERISK + OutputConstants.NULL_BULK + OutputConstants.CRLF),
+    EMPTY_ARRAY(OutputConstants.ASTERISK + OutputConstants.LRANGE_EMPTY_ARRAY_LENGTH + OutputConstants.CRLF),
+    ERR_NOT_INTEGER(OutputConstants.DASH_DELIMITER + OutputConstants.INCR_COMMAND_ERROR_NOT_VALID_INT + OutputConstants.CRLF),
+    ERR_WRONG_TYPE(OutputConstants.DASH_DELIMITER + OutputConstants.WRONG_TYPE_ERROR + OutputConstants.CRLF),
+    ERR_SYNTAX(OutputConstants.DASH_DELIMITER + OutputConstants.SYNTAX_ERROR + OutputConstants.CRLF),
+    ERR_EXEC_WITHOUT_MULTI(OutputConstants.DASH_DELIMITER + OutputConstants.EXEC_WITHOUT_MULTI_COMMAND_ERROR + OutputConstants.CRLF),
+    ERR_DISCARD_WITHOUT_MULTI(OutputConstants.DASH_DELIMITER + OutputConstants.DISCARD_WITHOUT_MULTI_COMMAND_ERROR + OutputConstants.CRLF),
+    ERR_NOAUTH(OutputConstants.DASH_DELIMITER + OutputConstants.ERROR_MESSAGE_NOAUTH_AUTHENTICATION + OutputConstants.CRLF),
+    ERR_OOM(OutputConstants.DASH_DELIMITER + OutputConstants.OOM_ERROR + OutputConstants.CRLF);
+
+    private final String reply;
+
+    SharedReplyType(String reply) {
+        this.reply = reply;
+    }
+
+    public String getReply() {
+        return reply;
+    }
+}
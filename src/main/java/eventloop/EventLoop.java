@@ -0,0 +1,335 @@
+package eventloop;
+
+import domain.BlockedClientDto;
+import domain.ConnectionDto;
+import domain.ParserDto;
+import service.BlockingUtils;
+import service.IoThreadsUtils;
+import service.RESPParser;
+import service.RESPParserUtils;
+import service.RESPWriter;
+import service.SystemPropHelper;
+import stream.RESPArgs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Logger;
+
+/**
+ * single-threaded selector loop: owns a subset of connections and reads, parses, dispatches and writes
+ * for all of them. The thread only wakes up on readiness events, registrations, queued tasks or cross-thread writes.
+ * In io-threads mode the loop reads and parses only, a read batch is handed to the main thread without waiting
+ * and its replies come back as cross-thread writes
+ */
+public class EventLoop implements Runnable {
+    private static final Logger logger = Logger.getLogger(EventLoop.class.getName());
+
+    private final Selector selector;
+    private final Queue<ConnectionDto> pendingConnectionQueue;
+    private final Queue<Runnable> pendingTaskQueue;
+    private final int outputBufferHighWaterMark;
+
+    public EventLoop() throws IOException {
+        this.selector = Selector.open();
+        this.pendingConnectionQueue = new ConcurrentLinkedQueue<>();
+        this.pendingTaskQueue = new ConcurrentLinkedQueue<>();
+        this.outputBufferHighWaterMark = SystemPropHelper.getOutputBufferHighWaterMarkOrDefault();
+    }
+
+    /**
+     * called from the acceptor thread, the channel is registered by the loop thread itself
+     * @param connection accepted connection
+     */
+    public void register(ConnectionDto connection) {
+        pendingConnectionQueue.add(connection);
+        selector.wakeup();
+    }
+
+    /**
+     * run task on the loop thread, called from any thread
+     * @param task task touching connections of this loop
+     */
+    public void execute(Runnable task) {
+        pendingTaskQueue.add(task);
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        while (selector.isOpen()) {
+            try {
+                selector.select();
+                registerPendingConnections();
+                runPendingTasks();
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    handleKey(key);
+                }
+            } catch (IOException e) {
+                logger.warning("EventLoop: failed to select due to " + e.getMessage());
+            }
+        }
+    }
+
+    private void registerPendingConnections() {
+        ConnectionDto connection;
+        while ((connection = pendingConnectionQueue.poll()) != null) {
+            try {
+                SelectionKey key = connection.getChannel().register(selector, SelectionKey.OP_READ, connection);
+                connection.setSelectionKey(key);
+                // replies queued before the key existed
+                if (!connection.getOutboundQueue().isEmpty()) {
+                    key.interestOpsOr(SelectionKey.OP_WRITE);
+                }
+            } catch (IOException e) {
+                EventLoopGroup.closeConnection(connection);
+            }
+        }
+    }
+
+    private void runPendingTasks() {
+        Runnable task;
+        while ((task = pendingTaskQueue.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void handleKey(SelectionKey key) {
+        ConnectionDto connection = (ConnectionDto) key.attachment();
+        try {
+            if (key.isValid() && key.isWritable()) {
+                flush(connection);
+            }
+            if (key.isValid() && key.isReadable()) {
+                read(connection);
+            }
+        } catch (IOException | CancelledKeyException e) {
+            EventLoopGroup.closeConnection(connection);
+        } catch (RuntimeException e) {
+            // same as blocking mode: a failing command terminates its connection, not the loop
+            logger.warning("EventLoop: closing connection=" + connection.getId() + " due to " + e.getMessage());
+            EventLoopGroup.closeConnection(connection);
+        }
+    }
+
+    private void read(ConnectionDto connection) throws IOException {
+        int numBytes = connection.getDecoder().readFrom(connection.getChannel());
+        if (numBytes == -1) {
+            EventLoopGroup.closeConnection(connection);
+            return;
+        }
+        if (numBytes == 0) {
+            return;
+        }
+        RESPParser parser = new RESPParser.Builder()
+                .addClientSocket(connection.getSocket())
+                .addDecoder(connection.getDecoder())
+                .build();
+        if (IoThreadsUtils.isEnabled()) {
+            List<ParserDto<List<String>>> commands = parseCommands(parser);
+            if (!commands.isEmpty()) {
+                // the main thread owns the connection until the batch is done, this loop moves on to other connections
+                suspend(connection);
+                IoThreadsUtils.dispatch(() -> processOnMainThread(connection, commands.iterator()));
+            }
+            return;
+        }
+        processCommands(connection, parser);
+        flush(connection);
+    }
+
+    /**
+     * decode every complete command of a read batch, detached from the decoder buffer as it is refilled by later reads
+     * @param parser parser over the connection decoder
+     * @return commands in order
+     */
+    private List<ParserDto<List<String>>> parseCommands(RESPParser parser) {
+        List<ParserDto<List<String>>> commands = new ArrayList<>();
+        ParserDto<List<String>> parserDto;
+        while ((parserDto = parser.processNextCommand()) != null) {
+            parserDto.setValue(RESPArgs.copyOf(parserDto.getValue()));
+            commands.add(parserDto);
+        }
+        return commands;
+    }
+
+    /**
+     * execute every command of a read batch in order on the loop thread. A command blocking its client (BLPOP,
+     * XREAD BLOCK, WAIT) suspends the connection, the rest of the batch continues on the loop once the client gets
+     * its reply
+     * @param connection client connection
+     * @param parser parser over the connection decoder
+     * @return whether the batch is done, false if the connection waits for a blocked client
+     */
+    private boolean processCommands(ConnectionDto connection, RESPParser parser) throws IOException {
+        RESPWriter writer = connection.getWriter();
+        ParserDto<List<String>> parserDto;
+        while ((parserDto = parser.processNextCommand()) != null) {
+            BlockedClientDto blockedClient = RESPParserUtils.processOrBlock(parserDto, writer);
+            if (blockedClient != null) {
+                drainWriter(connection, false);
+                suspend(connection);
+                if (attachBlockedClient(connection, blockedClient)) {
+                    blockedClient.onReply(reply -> execute(() -> processUnblockedCommands(connection, parser, reply)));
+                }
+                return false;
+            }
+            if (writer.size() >= outputBufferHighWaterMark) {
+                // large batch: flush early instead of buffering every reply of it
+                drainWriter(connection, false);
+                flush(connection);
+            }
+        }
+        drainWriter(connection, false);
+        return true;
+    }
+
+    /**
+     * write the reply of a blocked client then continue the batch it interrupted, on the loop thread
+     * @param connection client connection
+     * @param parser parser over the connection decoder
+     * @param reply reply of the blocked client
+     */
+    private void processUnblockedCommands(ConnectionDto connection, RESPParser parser, byte[] reply) {
+        connection.setBlockedClient(null);
+        if (!connection.getChannel().isOpen()) {
+            return;
+        }
+        try {
+            connection.getWriter().writeRaw(reply);
+            if (processCommands(connection, parser)) {
+                resume(connection);
+            }
+            flush(connection);
+        } catch (IOException | RuntimeException e) {
+            logger.warning("EventLoop: closing connection=" + connection.getId() + " due to " + e.getMessage());
+            EventLoopGroup.closeConnection(connection);
+        }
+    }
+
+    /**
+     * io-threads mode: execute commands of a read batch in order on the main thread, replies are written
+     * cross-thread. A command blocking its client keeps the connection suspended, the rest of the batch
+     * is dispatched to the main thread again once the client gets its reply
+     * @param connection client connection, suspended
+     * @param commands commands of the batch not executed yet
+     */
+    private void processOnMainThread(ConnectionDto connection, Iterator<ParserDto<List<String>>> commands) {
+        if (!connection.getChannel().isOpen()) {
+            return;
+        }
+        try {
+            RESPWriter writer = connection.getWriter();
+            while (commands.hasNext()) {
+                BlockedClientDto blockedClient = RESPParserUtils.processOrBlock(commands.next(), writer);
+                if (blockedClient != null) {
+                    drainWriter(connection, true);
+                    if (attachBlockedClient(connection, blockedClient)) {
+                        blockedClient.onReply(reply -> IoThreadsUtils.dispatch(() -> {
+                            connection.setBlockedClient(null);
+                            writer.writeRaw(reply);
+                            processOnMainThread(connection, commands);
+                        }));
+                    }
+                    return;
+                }
+                if (writer.size() >= outputBufferHighWaterMark) {
+                    drainWriter(connection, true);
+                }
+            }
+            drainWriter(connection, true);
+            resume(connection);
+        } catch (IOException | RuntimeException e) {
+            logger.warning("EventLoop: closing connection=" + connection.getId() + " due to " + e.getMessage());
+            EventLoopGroup.closeConnection(connection);
+        }
+    }
+
+    /**
+     * @return whether the connection waits for the client, false if it was closed before the client was attached to it
+     */
+    private boolean attachBlockedClient(ConnectionDto connection, BlockedClientDto blockedClient) {
+        connection.setBlockedClient(blockedClient);
+        if (!connection.getChannel().isOpen()) {
+            BlockingUtils.cancel(blockedClient);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * move replies encoded into the connection writer to the socket. On the loop thread with nothing queued ahead,
+     * the writer is written to the channel directly and only bytes the socket did not accept are copied to the queue
+     * @param connection client connection
+     * @param isOffloaded whether the current thread is the main thread of io-threads mode instead of the loop thread
+     */
+    private void drainWriter(ConnectionDto connection, boolean isOffloaded) throws IOException {
+        RESPWriter writer = connection.getWriter();
+        if (writer.isEmpty()) {
+            return;
+        }
+        if (isOffloaded) {
+            EventLoopGroup.write(connection, writer.toByteArray());
+            writer.clear();
+            return;
+        }
+        if (connection.getOutboundQueue().isEmpty()) {
+            writer.writeTo(connection.getChannel());
+        }
+        if (!writer.isEmpty()) {
+            // the loop thread flushes once per read batch
+            connection.getOutboundQueue().add(ByteBuffer.wrap(writer.toByteArray()));
+        }
+        writer.clear();
+    }
+
+    /**
+     * drain the outbound queue; on a partial write keep OP_WRITE so the loop resumes once the socket is writable
+     * @param connection client connection
+     */
+    private void flush(ConnectionDto connection) throws IOException {
+        SelectionKey key = connection.getSelectionKey();
+        Queue<ByteBuffer> outboundQueue = connection.getOutboundQueue();
+        ByteBuffer buffer;
+        while ((buffer = outboundQueue.peek()) != null) {
+            connection.getChannel().write(buffer);
+            if (buffer.hasRemaining()) {
+                key.interestOpsOr(SelectionKey.OP_WRITE);
+                return;
+            }
+            outboundQueue.poll();
+        }
+        key.interestOpsAnd(~SelectionKey.OP_WRITE);
+        // a writer on another thread may have enqueued between the drain and clearing OP_WRITE
+        if (!outboundQueue.isEmpty()) {
+            key.interestOpsOr(SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void suspend(ConnectionDto connection) {
+        connection.getSelectionKey().interestOpsAnd(~SelectionKey.OP_READ);
+    }
+
+    private void resume(ConnectionDto connection) {
+        SelectionKey key = connection.getSelectionKey();
+        if (!key.isValid()) {
+            return;
+        }
+        key.interestOpsOr(SelectionKey.OP_READ);
+        key.selector().wakeup();
+    }
+
+    public void close() throws IOException {
+        selector.close();
+    }
+}
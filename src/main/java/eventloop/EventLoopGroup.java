@@ -0,0 +1,117 @@
+package eventloop;
+
+import constants.OutputConstants;
+import domain.BlockedClientDto;
+import domain.ConnectionDto;
+import domain.JobDto;
+import enums.JobType;
+import handler.job.JobHandler;
+import service.BlockingUtils;
+import service.ServerUtils;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * fixed group of event loops; accepted connections are assigned round-robin and stay on their loop for life
+ */
+public class EventLoopGroup {
+    private static final Logger logger = Logger.getLogger(EventLoopGroup.class.getName());
+    public static final Map<String, ConnectionDto> CONNECTION_MAP = new ConcurrentHashMap<>();
+
+    private final EventLoop[] eventLoops;
+    private int nextEventLoopIndex;
+
+    public EventLoopGroup(int numThreads) throws IOException {
+        this.eventLoops = new EventLoop[numThreads];
+        for (int i=0; i<numThreads; i++) {
+            this.eventLoops[i] = new EventLoop();
+        }
+    }
+
+    public void start() {
+        logger.info("EventLoopGroup: starting numEventLoops=" + eventLoops.length);
+        for (int i=0; i<eventLoops.length; i++) {
+            Thread thread = new Thread(eventLoops[i], String.format(OutputConstants.EVENT_LOOP_THREAD_NAME_FORMAT, i));
+            thread.start();
+        }
+    }
+
+    public void register(SocketChannel channel) throws IOException {
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        String id = ServerUtils.formatIdFromSocket(channel.socket());
+        ConnectionDto connection = new ConnectionDto(id, channel);
+        JobDto jobDto = new JobDto.Builder(JobType.RESP)
+                .addSocket(channel.socket())
+                .addCommandDtoList()
+                .build();
+        JobHandler.JOB_MAP.put(id, jobDto);
+        CONNECTION_MAP.put(id, connection);
+        EventLoop eventLoop = eventLoops[nextEventLoopIndex];
+        nextEventLoopIndex = (nextEventLoopIndex+1) % eventLoops.length;
+        eventLoop.register(connection);
+    }
+
+    public void close() throws IOException {
+        for (EventLoop eventLoop: eventLoops) {
+            eventLoop.close();
+        }
+    }
+
+    public static boolean isEventLoopSocket(Socket socket) {
+        return Objects.nonNull(socket)
+                && Objects.nonNull(socket.getChannel())
+                && !socket.getChannel().isBlocking();
+    }
+
+    /**
+     * thread-safe write: the bytes are queued and the owning loop is woken up to flush them
+     * @param socket client socket owned by an event loop
+     * @param bytes RESP reply
+     */
+    public static void write(Socket socket, byte[] bytes) throws IOException {
+        ConnectionDto connection = CONNECTION_MAP.get(ServerUtils.formatIdFromSocket(socket));
+        if (connection == null) {
+            throw new IOException("connection is closed");
+        }
+        write(connection, bytes);
+    }
+
+    static void write(ConnectionDto connection, byte[] bytes) {
+        connection.getOutboundQueue().add(ByteBuffer.wrap(bytes));
+        SelectionKey key = connection.getSelectionKey();
+        if (key == null) {
+            // not registered yet, the loop subscribes to OP_WRITE on registration
+            return;
+        }
+        try {
+            key.interestOpsOr(SelectionKey.OP_WRITE);
+            key.selector().wakeup();
+        } catch (CancelledKeyException e) {
+            closeConnection(connection);
+        }
+    }
+
+    static void closeConnection(ConnectionDto connection) {
+        CONNECTION_MAP.remove(connection.getId());
+        JobHandler.removeJob(connection.getId());
+        BlockedClientDto blockedClient = connection.getBlockedClient();
+        if (blockedClient != null) {
+            BlockingUtils.cancel(blockedClient);
+        }
+        try {
+            connection.getChannel().close();
+        } catch (IOException e) {
+            logger.warning("EventLoopGroup: failed to close connection=" + connection.getId() + " due to " + e.getMessage());
+        }
+    }
+}
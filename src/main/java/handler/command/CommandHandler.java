@@ -1,5 +1,8 @@
 package handler.command;
 
+import service.RESPUtils;
+import service.RESPWriter;
+
 import java.net.Socket;
 import java.util.HashMap;
 import java.util.List;
@@ -10,4 +13,15 @@ public interface CommandHandler {
 
     void register();
     String process(Socket clientSocket, List list);
-}
\ No newline at end of file
+
+    /**
+     * encode reply into the connection writer. Handlers on hot paths override it to skip the intermediate String
+     * @param clientSocket client socket
+     * @param list command arguments
+     * @param writer connection reply writer
+     */
+    default void process(Socket clientSocket, List list, RESPWriter writer) {
+        String val = process(clientSocket, list);
+        writer.writeRaw(val != null ? val : RESPUtils.getBulkNullString());
+    }
+}
@@ -0,0 +1,109 @@
+package handler.command;
+
+import domain.CommandDescriptorDto;
+import enums.CommandType;
+import stream.RESPArgs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Notes:
+ *  1. dispatch table filled while handlers register at startup, resolves a command name to its descriptor in one lookup
+ *  2. open addressing over a power-of-two array keyed on lower-case ASCII names. Names are hashed and compared with
+ *     ASCII case folding, so raw argument bytes are matched case-insensitively without allocating a lower-case String
+ *  3. registration happens before the server accepts connections, lookups afterwards are read-only
+ */
+public class CommandTable {
+    private static final int CAPACITY = 256; // power of two, well above twice the number of commands
+    private static final int MASK = CAPACITY-1;
+    private static final byte[][] NAMES = new byte[CAPACITY][];
+    private static final CommandDescriptorDto[] DESCRIPTORS = new CommandDescriptorDto[CAPACITY];
+
+    /**
+     * register handler of a command, also exposed through {@link CommandHandler#HANDLER_MAP}
+     * @param commandType command
+     * @param handler command handler
+     */
+    public static synchronized void register(CommandType commandType, CommandHandler handler) {
+        CommandHandler.HANDLER_MAP.put(commandType.getAlias(), handler);
+        byte[] name = commandType.getAlias().getBytes(StandardCharsets.US_ASCII);
+        int i = hash(name) & MASK;
+        while (NAMES[i] != null && !Arrays.equals(NAMES[i], name)) {
+            i = (i+1) & MASK;
+        }
+        NAMES[i] = name;
+        DESCRIPTORS[i] = new CommandDescriptorDto(commandType, handler);
+    }
+
+    /**
+     * @param list command name followed by arguments
+     * @return descriptor of the command, or null if the command is unknown
+     */
+    public static CommandDescriptorDto lookup(List<String> list) {
+        if (list == null || list.isEmpty()) {
+            return null;
+        }
+        if (list instanceof RESPArgs args) {
+            return lookup(args);
+        }
+        return lookup(list.get(0));
+    }
+
+    private static CommandDescriptorDto lookup(RESPArgs args) {
+        int i = args.hashIgnoreCase(0) & MASK;
+        while (NAMES[i] != null) {
+            if (args.equalsIgnoreCase(0, NAMES[i])) {
+                return DESCRIPTORS[i];
+            }
+            i = (i+1) & MASK;
+        }
+        return null;
+    }
+
+    public static CommandDescriptorDto lookup(String alias) {
+        if (alias == null) {
+            return null;
+        }
+        int h = 0;
+        for (int j=0; j<alias.length(); j++) {
+            h = 31*h + toLowerCase(alias.charAt(j));
+        }
+        int i = h & MASK;
+        while (NAMES[i] != null) {
+            if (equalsIgnoreCase(alias, NAMES[i])) {
+                return DESCRIPTORS[i];
+            }
+            i = (i+1) & MASK;
+        }
+        return null;
+    }
+
+    /**
+     * same hash as {@link RESPArgs#hashIgnoreCase(int)} for lower-case ASCII names
+     */
+    private static int hash(byte[] name) {
+        int h = 0;
+        for (byte b: name) {
+            h = 31*h + b;
+        }
+        return h;
+    }
+
+    private static boolean equalsIgnoreCase(String alias, byte[] name) {
+        if (alias.length() != name.length) {
+            return false;
+        }
+        for (int j=0; j<name.length; j++) {
+            if (toLowerCase(alias.charAt(j)) != name[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int toLowerCase(char c) {
+        return c >= 'A' && c <= 'Z' ? c+('a'-'A') : c;
+    }
+}
@@ -3,6 +3,7 @@ package handler.command.impl.auth;
 import domain.AclConfigDto;
 import enums.CommandType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import service.*;
 
 import java.net.Socket;
@@ -26,7 +27,7 @@ public class AclHandler implements CommandHandler {
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.ACL.getAlias(), this);
+        CommandTable.register(CommandType.ACL, this);
     }
 
     @Override
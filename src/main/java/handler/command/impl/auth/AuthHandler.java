@@ -3,6 +3,7 @@ package handler.command.impl.auth;
 import domain.AclConfigDto;
 import enums.CommandType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import service.*;
 
 import java.net.Socket;
@@ -24,7 +25,7 @@ public class AuthHandler implements CommandHandler {
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.AUTH.getAlias(), this);
+        CommandTable.register(CommandType.AUTH, this);
     }
 
     @Override
@@ -1,8 +1,11 @@
 package handler.command.impl.core;
 
 import constants.OutputConstants;
+import domain.ZSet;
 import enums.CommandType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.EvictionUtils;
 import service.RESPUtils;
 
 import java.net.Socket;
@@ -17,7 +20,7 @@ public class ConfigHandler implements CommandHandler {
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.CONFIG.name().toLowerCase(), this);
+        CommandTable.register(CommandType.CONFIG, this);
         SUB_COMMANDS.put(
                 CommandType.GET.name().toLowerCase(), this::handleGet
         );
@@ -50,6 +53,18 @@ public class ConfigHandler implements CommandHandler {
                 return RESPUtils.toArray(List.of(param1, val));
             }
         }
+        if (OutputConstants.MAXMEMORY_KEY.equalsIgnoreCase(param1)) {
+            return RESPUtils.toArray(List.of(param1, String.valueOf(EvictionUtils.getMaxMemory())));
+        }
+        if (OutputConstants.MAXMEMORY_POLICY_KEY.equalsIgnoreCase(param1)) {
+            return RESPUtils.toArray(List.of(param1, EvictionUtils.getPolicy().getAlias()));
+        }
+        if (OutputConstants.ZSET_MAX_LISTPACK_ENTRIES_KEY.equalsIgnoreCase(param1)) {
+            return RESPUtils.toArray(List.of(param1, String.valueOf(ZSet.getMaxListpackEntries())));
+        }
+        if (OutputConstants.ZSET_MAX_LISTPACK_VALUE_KEY.equalsIgnoreCase(param1)) {
+            return RESPUtils.toArray(List.of(param1, String.valueOf(ZSet.getMaxListpackValue())));
+        }
         return OutputConstants.EMPTY;
     }
 }
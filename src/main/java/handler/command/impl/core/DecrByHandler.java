@@ -0,0 +1,46 @@
+package handler.command.impl.core;
+
+import constants.OutputConstants;
+import enums.CommandType;
+import enums.SharedReplyType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.RESPWriter;
+import service.StringValueUtils;
+
+import java.net.Socket;
+import java.util.List;
+
+public class DecrByHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.DECRBY, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.size() < 2) {
+            throw new RuntimeException("invalid param");
+        }
+        long decrement;
+        try {
+            decrement = Long.parseLong((String) list.get(1));
+        } catch (NumberFormatException e) {
+            writer.writeShared(SharedReplyType.ERR_NOT_INTEGER);
+            return;
+        }
+        if (decrement == Long.MIN_VALUE) {
+            // cannot be negated into an increment
+            writer.writeError(OutputConstants.DECR_OVERFLOW_ERROR);
+            return;
+        }
+        StringValueUtils.processIncrBy((String) list.get(0), -decrement, writer);
+    }
+}
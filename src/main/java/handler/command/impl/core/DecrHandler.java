@@ -0,0 +1,33 @@
+package handler.command.impl.core;
+
+import constants.OutputConstants;
+import enums.CommandType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.RESPWriter;
+import service.StringValueUtils;
+
+import java.net.Socket;
+import java.util.List;
+
+public class DecrHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.DECR, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.isEmpty()) {
+            throw new RuntimeException("invalid param");
+        }
+        StringValueUtils.processIncrBy((String) list.get(0), -OutputConstants.INCREMENT_VALUE_INCR_COMMAND, writer);
+    }
+}
@@ -0,0 +1,57 @@
+package handler.command.impl.core;
+
+import domain.CacheDto;
+import enums.CommandType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.ExpiryUtils;
+import service.RESPWriter;
+import service.RedisLocalMap;
+import service.ShardUtils;
+
+import java.net.Socket;
+import java.util.List;
+
+/**
+ * Notes:
+ *  1. each key is removed holding its own lock, DEL is not atomic across keys, as MGET. In share-nothing mode keys
+ *     fan out to the shards owning them, the key lock is still taken as MSET and MSETNX write from connection threads
+ *  2. an expired key not reclaimed yet is removed too but not counted, it no longer existed
+ *  3. a master also propagates DEL for the keys it evicts, so replicas drop the same keys
+ */
+public class DelHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.DEL, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.isEmpty()) {
+            throw new RuntimeException("invalid param");
+        }
+        // each key is removed on the shard owning it in share-nothing mode, shards run their share of keys in parallel
+        long currentTime = System.currentTimeMillis();
+        List<Boolean> isRemovedList = ShardUtils.executeAll((List<String>) list, key -> {
+            CacheDto cache;
+            synchronized (RedisLocalMap.getLock(key)) {
+                cache = RedisLocalMap.remove(key);
+            }
+            return cache != null && !ExpiryUtils.isExpired(cache, currentTime);
+        });
+        int numRemoved = 0;
+        for (boolean isRemoved: isRemovedList) {
+            if (isRemoved) {
+                numRemoved++;
+            }
+        }
+        writer.writeInteger(numRemoved);
+    }
+}
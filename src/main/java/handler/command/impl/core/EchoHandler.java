@@ -2,7 +2,8 @@ package handler.command.impl.core;
 
 import enums.CommandType;
 import handler.command.CommandHandler;
-import service.RESPUtils;
+import handler.command.CommandTable;
+import service.RESPWriter;
 
 import java.net.Socket;
 import java.util.List;
@@ -10,14 +11,21 @@ import java.util.List;
 public class EchoHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.ECHO.name().toLowerCase(), this);
+        CommandTable.register(CommandType.ECHO, this);
     }
 
     @Override
     public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
         if (list == null || list.isEmpty()) {
             throw new RuntimeException("invalid param");
         }
-        return RESPUtils.getRESPEcho((String) list.getFirst());
+        writer.writeBulkString((String) list.getFirst());
     }
 }
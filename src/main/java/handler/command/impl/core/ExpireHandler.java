@@ -0,0 +1,30 @@
+package handler.command.impl.core;
+
+import enums.CommandType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.ExpiryUtils;
+import service.RESPWriter;
+
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class ExpireHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.EXPIRE, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        ExpiryUtils.processExpire(list, writer, CommandType.EXPIRE, TimeUnit.SECONDS, false);
+    }
+}
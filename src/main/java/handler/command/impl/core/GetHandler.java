@@ -4,8 +4,10 @@ import domain.CacheDto;
 import enums.CommandType;
 import enums.ValueType;
 import handler.command.CommandHandler;
-import service.RESPUtils;
+import handler.command.CommandTable;
+import service.RESPWriter;
 import service.RedisLocalMap;
+import service.StringValueUtils;
 
 import java.net.Socket;
 import java.util.List;
@@ -14,24 +16,31 @@ import java.util.Objects;
 public class GetHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.GET.name().toLowerCase(), this);
+        CommandTable.register(CommandType.GET, this);
     }
 
     @Override
     public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
         if (list == null || list.isEmpty()) {
             throw new RuntimeException("invalid param");
         }
         String key = (String) list.get(0);
-        if (!RedisLocalMap.LOCAL_MAP.containsKey(key)) {
-            return RESPUtils.getBulkNullString();
+        CacheDto cache = RedisLocalMap.get(key);
+        if (cache == null) {
+            writer.writeNullBulkString();
         } else {
-            CacheDto cache = RedisLocalMap.LOCAL_MAP.get(key);
             if (!Objects.equals(cache.getValueType(), ValueType.STRING)) {
-                return RESPUtils.getBulkNullString();
+                writer.writeNullBulkString();
+                return;
             }
-            String value = (String) cache.getValue();
-            return RESPUtils.toBulkString(value);
+            StringValueUtils.write(writer, cache.getValue());
         }
     }
 }
@@ -0,0 +1,32 @@
+package handler.command.impl.core;
+
+import enums.CommandType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.RESPWriter;
+import service.StringValueUtils;
+
+import java.net.Socket;
+import java.util.List;
+
+public class IncrByFloatHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.INCRBYFLOAT, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.size() < 2) {
+            throw new RuntimeException("invalid param");
+        }
+        StringValueUtils.processIncrByFloat((String) list.get(0), (String) list.get(1), writer);
+    }
+}
@@ -0,0 +1,40 @@
+package handler.command.impl.core;
+
+import enums.CommandType;
+import enums.SharedReplyType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.RESPWriter;
+import service.StringValueUtils;
+
+import java.net.Socket;
+import java.util.List;
+
+public class IncrByHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.INCRBY, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.size() < 2) {
+            throw new RuntimeException("invalid param");
+        }
+        long increment;
+        try {
+            increment = Long.parseLong((String) list.get(1));
+        } catch (NumberFormatException e) {
+            writer.writeShared(SharedReplyType.ERR_NOT_INTEGER);
+            return;
+        }
+        StringValueUtils.processIncrBy((String) list.get(0), increment, writer);
+    }
+}
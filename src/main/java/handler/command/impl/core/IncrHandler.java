@@ -1,47 +1,33 @@
 package handler.command.impl.core;
 
 import constants.OutputConstants;
-import domain.CacheDto;
 import enums.CommandType;
-import enums.ValueType;
 import handler.command.CommandHandler;
-import service.RESPUtils;
-import service.RedisLocalMap;
+import handler.command.CommandTable;
+import service.RESPWriter;
+import service.StringValueUtils;
 
 import java.net.Socket;
 import java.util.List;
-import java.util.Objects;
 
 public class IncrHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.INCR.getAlias(), this);
+        CommandTable.register(CommandType.INCR, this);
     }
 
     @Override
     public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
         if (list == null || list.isEmpty()) {
             throw new RuntimeException("invalid param");
         }
-        String key = (String) list.get(0);
-        CacheDto cacheDto = RedisLocalMap.LOCAL_MAP.get(key);
-        if (Objects.isNull(cacheDto)) {
-            cacheDto = new CacheDto();
-            cacheDto.setValueType(ValueType.STRING);
-            cacheDto.setValue(String.valueOf(OutputConstants.DEFAULT_VALUE_IF_NOT_EXIST_INCR_COMMAND));
-            RedisLocalMap.LOCAL_MAP.put(key, cacheDto);
-        } else {
-            if (!Objects.equals(cacheDto.getValueType(), ValueType.STRING)) {
-                throw new RuntimeException("unable to apply incr to non-string value");
-            }
-            String val = (String) cacheDto.getValue();
-            if (Objects.isNull(val) || !val.matches(OutputConstants.VALID_DIGIT_REGEX_EXPRESSION)) {
-                return RESPUtils.toSimpleError(OutputConstants.INCR_COMMAND_ERROR_NOT_VALID_INT);
-            }
-        }
-        int val = Integer.parseInt((String) cacheDto.getValue());
-        int newVal = val+OutputConstants.INCREMENT_VALUE_INCR_COMMAND;
-        cacheDto.setValue(String.valueOf(newVal));
-        return RESPUtils.toSimpleInt(newVal);
+        StringValueUtils.processIncrBy((String) list.get(0), OutputConstants.INCREMENT_VALUE_INCR_COMMAND, writer);
     }
 }
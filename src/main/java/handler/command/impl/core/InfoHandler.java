@@ -3,6 +3,9 @@ package handler.command.impl.core;
 import constants.OutputConstants;
 import enums.CommandType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.EvictionUtils;
+import service.MemoryUtils;
 import service.RESPUtils;
 import service.SystemPropHelper;
 
@@ -16,10 +19,13 @@ public class InfoHandler implements CommandHandler {
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.INFO.name().toLowerCase(), this);
+        CommandTable.register(CommandType.INFO, this);
         SUB_COMMANDS.put(
                 CommandType.REPLICATION.name().toLowerCase(), this::processReplication
         );
+        SUB_COMMANDS.put(
+                CommandType.MEMORY.getAlias(), this::processMemory
+        );
     }
 
     @Override
@@ -41,10 +47,23 @@ public class InfoHandler implements CommandHandler {
             throw new RuntimeException("invalid param");
         }
         Map<String, String> replicationMap = getReplicationMap();
-        String data  = getDataFromReplicationMap(replicationMap);
+        String data  = getDataFromInfoMap(replicationMap);
         return RESPUtils.toBulkString(data);
     }
 
+    private String processMemory(List list) {
+        if (!list.isEmpty()) {
+            throw new RuntimeException("invalid param");
+        }
+        Map<String, String> memoryMap = new LinkedHashMap<>();
+        memoryMap.put(OutputConstants.USED_MEMORY, String.valueOf(MemoryUtils.getUsedMemory()));
+        memoryMap.put(OutputConstants.USED_MEMORY_PEAK, String.valueOf(MemoryUtils.getPeakUsedMemory()));
+        memoryMap.put(OutputConstants.MAXMEMORY_KEY, String.valueOf(EvictionUtils.getMaxMemory()));
+        memoryMap.put(OutputConstants.MAXMEMORY_POLICY_KEY.replace('-', '_'), EvictionUtils.getPolicy().getAlias());
+        memoryMap.put(OutputConstants.EVICTED_KEYS, String.valueOf(EvictionUtils.getNumEvictedKeys()));
+        return RESPUtils.toBulkString(getDataFromInfoMap(memoryMap));
+    }
+
     private Map<String, String> getReplicationMap() {
         Map<String, String> map = new HashMap<>();
         String role = SystemPropHelper.getSetServerRoleOrDefault();
@@ -55,9 +74,9 @@ public class InfoHandler implements CommandHandler {
         return map;
     }
 
-    private String getDataFromReplicationMap(Map<String, String> replicationMap) {
+    private String getDataFromInfoMap(Map<String, String> infoMap) {
         StringJoiner joiner = new StringJoiner(OutputConstants.CRLF);
-        for (Map.Entry<String, String> entry: replicationMap.entrySet()) {
+        for (Map.Entry<String, String> entry: infoMap.entrySet()) {
             joiner.add(entry.getKey() + OutputConstants.COLON_DELIMITER + entry.getValue());
         }
         return joiner.toString();
@@ -1,13 +1,16 @@
 package handler.command.impl.core;
 
-import constants.OutputConstants;
 import domain.CacheDto;
 import enums.CommandType;
 import handler.command.CommandHandler;
-import service.RESPUtils;
+import handler.command.CommandTable;
+import service.ExpiryUtils;
+import service.GlobPattern;
+import service.RESPWriter;
 import service.RedisLocalMap;
 
 import java.net.Socket;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -15,63 +18,35 @@ public class KeysHandler implements CommandHandler {
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.KEYS.name().toLowerCase(), this);
+        CommandTable.register(CommandType.KEYS, this);
     }
 
     @Override
     public String process(Socket clientSocket, List list) {
-        if (list == null || list.isEmpty()) {
-            throw new RuntimeException("invalid param");
-        }
-        String arg = (String) list.get(0);
-        List<String> ffix = parseFix(arg);
-        if (ffix.isEmpty()) {
-            throw new RuntimeException("invalid param");
-        }
-        if (ffix.size() == 1) {
-            return handleSingleKey(clientSocket, ffix);
-        }
-        if (ffix.size() == 2) {
-            return handlePreSuffix(ffix);
-        }
-        return OutputConstants.EMPTY;
-    }
-
-    private List<String> parseFix(String str) {
-        if (str == null || str.isBlank()) {
-            return List.of();
-        }
-        if (!str.contains(OutputConstants.KEYS_DELIMITER)) {
-            return List.of(str);
-        }
-        int i = str.indexOf(OutputConstants.KEYS_DELIMITER);
-        return List.of(str.substring(0, i), str.substring(i+1));
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
     }
 
-    private String handleSingleKey(Socket clientSocket, List<String> ffix) {
-        return CommandHandler.HANDLER_MAP.get(CommandType.GET.name().toLowerCase()).process(clientSocket, ffix);
-    }
-
-    private String handlePreSuffix(List<String> ffix) {
-        String prefix = ffix.get(0);
-        String suffix = ffix.get(1);
-        List<Map.Entry<String, CacheDto>> caches = RedisLocalMap.LOCAL_MAP.entrySet().stream().toList();
-        if (!prefix.isBlank()) {
-            caches = caches.stream()
-                    .filter(e -> e.getKey().startsWith(prefix))
-                    .toList();
-        }
-        if (!suffix.isBlank()) {
-            caches = caches.stream()
-                    .filter(e -> e.getKey().endsWith(suffix))
-                    .toList();
-        }
-        if (caches.isEmpty()) {
-            return OutputConstants.EMPTY;
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.isEmpty()) {
+            throw new RuntimeException("invalid param");
         }
-        List<String> keys = caches.stream()
-                .map(Map.Entry::getKey)
-                .toList();
-        return RESPUtils.toArray(keys);
+        GlobPattern pattern = GlobPattern.compile((String) list.get(0));
+        if (pattern.isLiteral()) {
+            // matches at most one key, no need to walk the keyspace
+            String key = pattern.getLiteral();
+            writer.writeArray(RedisLocalMap.get(key) != null ? List.of(key) : List.of());
+            return;
+        }
+        long currentTime = System.currentTimeMillis();
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, CacheDto> entry: RedisLocalMap.LOCAL_MAP.entrySet()) {
+            if (pattern.matches(entry.getKey()) && !ExpiryUtils.isExpired(entry.getValue(), currentTime)) {
+                keys.add(entry.getKey());
+            }
+        }
+        writer.writeArray(keys);
     }
 }
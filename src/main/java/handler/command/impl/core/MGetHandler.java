@@ -0,0 +1,49 @@
+package handler.command.impl.core;
+
+import domain.CacheDto;
+import enums.CommandType;
+import enums.ValueType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.RESPWriter;
+import service.RedisLocalMap;
+import service.ShardUtils;
+import service.StringValueUtils;
+
+import java.net.Socket;
+import java.util.List;
+import java.util.Objects;
+
+public class MGetHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.MGET, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.isEmpty()) {
+            throw new RuntimeException("invalid param");
+        }
+        // one lookup per key, grouped per shard in share-nothing mode, then one array streamed into the writer
+        List<Object> values = ShardUtils.executeAll((List<String>) list, key -> {
+            CacheDto cache = RedisLocalMap.get(key);
+            return cache != null && Objects.equals(cache.getValueType(), ValueType.STRING) ? cache.getValue() : null;
+        });
+        writer.writeArrayHeader(values.size());
+        for (Object value: values) {
+            if (value == null) {
+                writer.writeNullBulkString();
+            } else {
+                StringValueUtils.write(writer, value);
+            }
+        }
+    }
+}
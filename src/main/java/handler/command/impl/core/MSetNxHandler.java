@@ -0,0 +1,29 @@
+package handler.command.impl.core;
+
+import enums.CommandType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.RESPWriter;
+import service.StringValueUtils;
+
+import java.net.Socket;
+import java.util.List;
+
+public class MSetNxHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.MSETNX, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        StringValueUtils.processMSet(list, writer, true);
+    }
+}
@@ -0,0 +1,100 @@
+package handler.command.impl.core;
+
+import constants.OutputConstants;
+import domain.CacheDto;
+import enums.CommandType;
+import enums.SharedReplyType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.EvictionUtils;
+import service.ExpiryUtils;
+import service.MemoryUtils;
+import service.RESPWriter;
+import service.RedisLocalMap;
+
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public class MemoryHandler implements CommandHandler {
+
+    private static final Map<String, Function<List<Object>, String>> SUB_COMMANDS = new HashMap<>();
+
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.MEMORY, this);
+        SUB_COMMANDS.put(CommandType.USAGE.getAlias(), this::handleUsage);
+        SUB_COMMANDS.put(CommandType.STATS.getAlias(), this::handleStats);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        if (list == null || list.isEmpty()) {
+            throw new RuntimeException("invalid param");
+        }
+        String subCommand = ((String) list.get(0)).toLowerCase();
+        if (!SUB_COMMANDS.containsKey(subCommand)) {
+            throw new RuntimeException("invalid param");
+        }
+        return SUB_COMMANDS.get(subCommand).apply(list.subList(1, list.size()));
+    }
+
+    /**
+     * MEMORY USAGE key [SAMPLES count], aggregate values are extrapolated from count elements, 0 samples all of them
+     */
+    private String handleUsage(List<Object> params) {
+        RESPWriter writer = new RESPWriter();
+        if (params.isEmpty() || params.size() == 2 || params.size() > 3
+                || (params.size() == 3 && !CommandType.SAMPLES.getAlias().equalsIgnoreCase((String) params.get(1)))) {
+            return writer.writeShared(SharedReplyType.ERR_SYNTAX).toString();
+        }
+        int numSamples = OutputConstants.MEMORY_USAGE_DEFAULT_SAMPLES;
+        if (params.size() == 3) {
+            try {
+                numSamples = Integer.parseInt((String) params.get(2));
+            } catch (NumberFormatException e) {
+                return writer.writeShared(SharedReplyType.ERR_NOT_INTEGER).toString();
+            }
+            if (numSamples < 0) {
+                return writer.writeShared(SharedReplyType.ERR_SYNTAX).toString();
+            }
+        }
+        String key = (String) params.get(0);
+        // values are walked, hold the lock of key as commands changing them do
+        synchronized (RedisLocalMap.getLock(key)) {
+            CacheDto cache = RedisLocalMap.get(key);
+            if (cache == null) {
+                return writer.writeNullBulkString().toString();
+            }
+            return writer.writeInteger(MemoryUtils.estimate(key, cache, numSamples)).toString();
+        }
+    }
+
+    private String handleStats(List<Object> params) {
+        RESPWriter writer = new RESPWriter();
+        if (!params.isEmpty()) {
+            return writer.writeShared(SharedReplyType.ERR_SYNTAX).toString();
+        }
+        long usedMemory = MemoryUtils.getUsedMemory();
+        int numKeys = RedisLocalMap.LOCAL_MAP.size();
+        Runtime runtime = Runtime.getRuntime();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put(OutputConstants.MEMORY_STATS_PEAK_ALLOCATED, MemoryUtils.getPeakUsedMemory());
+        stats.put(OutputConstants.MEMORY_STATS_TOTAL_ALLOCATED, usedMemory);
+        stats.put(OutputConstants.MEMORY_STATS_KEYS_COUNT, (long) numKeys);
+        stats.put(OutputConstants.MEMORY_STATS_KEYS_BYTES_PER_KEY, numKeys > 0 ? usedMemory / numKeys : 0L);
+        stats.put(OutputConstants.MEMORY_STATS_EXPIRES_COUNT, (long) ExpiryUtils.getNumVolatileKeys());
+        stats.put(OutputConstants.MEMORY_STATS_EVICTED_KEYS, EvictionUtils.getNumEvictedKeys());
+        stats.put(OutputConstants.MAXMEMORY_KEY, EvictionUtils.getMaxMemory());
+        stats.put(OutputConstants.MEMORY_STATS_JVM_HEAP_USED, runtime.totalMemory() - runtime.freeMemory());
+        writer.writeArrayHeader(stats.size()*2);
+        for (Map.Entry<String, Long> stat: stats.entrySet()) {
+            writer.writeBulkString(stat.getKey());
+            writer.writeInteger(stat.getValue());
+        }
+        return writer.toString();
+    }
+}
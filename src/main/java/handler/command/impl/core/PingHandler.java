@@ -2,8 +2,10 @@ package handler.command.impl.core;
 
 import constants.OutputConstants;
 import enums.CommandType;
+import enums.SharedReplyType;
 import handler.command.CommandHandler;
-import service.RESPUtils;
+import handler.command.CommandTable;
+import service.RESPWriter;
 import service.RedisLocalMap;
 import service.ServerUtils;
 
@@ -15,17 +17,25 @@ public class PingHandler implements CommandHandler {
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.PING.name().toLowerCase(), this);
+        CommandTable.register(CommandType.PING, this);
     }
 
     @Override
     public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
         String clientSocketId = ServerUtils.formatIdFromSocket(clientSocket);
         Boolean isSubscribeMode = RedisLocalMap.SUBSCRIBE_MODE_SET.contains(clientSocketId);
         if (Objects.equals(Boolean.TRUE, isSubscribeMode)) {
-            return RESPUtils.toArray(List.of(OutputConstants.PONG.toLowerCase(), OutputConstants.EMPTY));
+            writer.writeArray(List.of(OutputConstants.PONG.toLowerCase(), OutputConstants.EMPTY));
+            return;
         }
 
-        return RESPUtils.toSimpleString(OutputConstants.PONG);
+        writer.writeShared(SharedReplyType.PONG);
     }
 }
@@ -0,0 +1,58 @@
+package handler.command.impl.core;
+
+import domain.CacheDto;
+import domain.ScanOptionDto;
+import enums.CommandType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.ExpiryUtils;
+import service.RESPWriter;
+import service.RedisLocalMap;
+import service.ScanUtils;
+
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ScanHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.SCAN, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    /**
+     * SCAN cursor [MATCH pattern] [COUNT count] [TYPE type]
+     */
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.isEmpty()) {
+            throw new RuntimeException("invalid param");
+        }
+        ScanOptionDto scanOptionDto = ScanUtils.parseScanOptions(list, 0, true, writer);
+        if (scanOptionDto == null) {
+            return;
+        }
+        long currentTime = System.currentTimeMillis();
+        List<String> keys = new ArrayList<>();
+        long cursor = ScanUtils.scan(RedisLocalMap.getKeyIndex(), scanOptionDto.getCursor(), scanOptionDto.getCount(), key -> {
+            if (!ScanUtils.isMatch(scanOptionDto.getPattern(), key)) {
+                return false;
+            }
+            // expired keys are skipped, not removed, so a scan does not write
+            CacheDto cache = RedisLocalMap.LOCAL_MAP.get(key);
+            return cache != null
+                    && !ExpiryUtils.isExpired(cache, currentTime)
+                    && (scanOptionDto.getValueType() == null || scanOptionDto.getValueType() == cache.getValueType());
+        }, keys);
+        writer.writeArrayHeader(2);
+        writer.writeBulkString(String.valueOf(cursor));
+        writer.writeArray(keys);
+    }
+}
@@ -1,44 +1,98 @@
 package handler.command.impl.core;
 
+import constants.OutputConstants;
 import domain.CacheDto;
 import enums.CommandType;
+import enums.SharedReplyType;
 import enums.ValueType;
 import handler.command.CommandHandler;
-import service.RESPUtils;
+import handler.command.CommandTable;
+import service.RESPWriter;
 import service.RedisLocalMap;
+import service.StringValueUtils;
 
 import java.net.Socket;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 public class SetHandler implements CommandHandler {
+    private static final Set<CommandType> EXPIRE_OPTIONS = EnumSet.of(CommandType.EX, CommandType.PX, CommandType.EXAT, CommandType.PXAT);
+
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.SET.name().toLowerCase(), this);
+        CommandTable.register(CommandType.SET, this);
     }
 
     @Override
     public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
         if (list == null || list.isEmpty() || list.size() < 2) {
             throw new RuntimeException("invalid param");
         }
         String key = (String) list.get(0);
-        Object value = list.get(1);
+        // keep raw bytes of the decoder buffer, integers are stored as Long
+        Object value = StringValueUtils.encode(list, 1);
 
-        Long expiry = null;
-        if (list.size() > 2) {
-            String px = (String) list.get(2);
-            if (CommandType.PX.name().toLowerCase().equalsIgnoreCase(px)) {
-                expiry = Long.parseLong((String) list.get(3));
+        Long expireTime = null;
+        boolean isKeepTtl = false;
+        try {
+            for (int i=2; i<list.size(); i++) {
+                CommandType option = CommandType.fromAlias((String) list.get(i));
+                if (Objects.equals(option, CommandType.KEEPTTL) && expireTime == null && !isKeepTtl) {
+                    isKeepTtl = true;
+                    continue;
+                }
+                if (!EXPIRE_OPTIONS.contains(option) || expireTime != null || isKeepTtl || i+1 == list.size()) {
+                    writer.writeShared(SharedReplyType.ERR_SYNTAX);
+                    return;
+                }
+                expireTime = toExpireTime(option, Long.parseLong((String) list.get(++i)));
             }
+        } catch (NumberFormatException e) {
+            writer.writeShared(SharedReplyType.ERR_NOT_INTEGER);
+            return;
+        } catch (ArithmeticException e) {
+            writer.writeError(String.format(OutputConstants.INVALID_EXPIRE_TIME_ERROR, CommandType.SET.getAlias()));
+            return;
         }
 
-        CacheDto cache = new CacheDto();
-        cache.setValue(value);
-        cache.setValueType(ValueType.STRING);
-        if (expiry != null) {
-            cache.setExpireTime(System.currentTimeMillis() + expiry);
+        synchronized (RedisLocalMap.getLock(key)) {
+            if (isKeepTtl) {
+                CacheDto currentCache = RedisLocalMap.get(key);
+                expireTime = currentCache != null ? currentCache.getExpireTime() : null;
+            }
+            CacheDto cache = new CacheDto();
+            cache.setValue(value);
+            cache.setValueType(ValueType.STRING);
+            cache.setExpireTime(expireTime);
+            RedisLocalMap.put(key, cache);
+            writer.writeShared(SharedReplyType.OK);
+        }
+    }
+
+    /**
+     * @param option EX, PX, EXAT or PXAT
+     * @param time time argument of option
+     * @return expire time in ms
+     * @throws ArithmeticException if time is not positive or overflows
+     */
+    private long toExpireTime(CommandType option, long time) {
+        if (time <= 0) {
+            throw new ArithmeticException("expire time is not positive");
         }
-        RedisLocalMap.LOCAL_MAP.put(key, cache);
-        return RESPUtils.getRESPOk();
+        return switch (option) {
+            case EX -> Math.addExact(System.currentTimeMillis(), Math.multiplyExact(time, 1000L));
+            case PX -> Math.addExact(System.currentTimeMillis(), time);
+            case EXAT -> Math.multiplyExact(time, 1000L);
+            default -> time;
+        };
     }
 }
@@ -0,0 +1,34 @@
+package handler.command.impl.core;
+
+import enums.CommandType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.ExpiryUtils;
+import service.RESPWriter;
+
+import java.net.Socket;
+import java.util.List;
+
+public class TtlHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.TTL, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.isEmpty()) {
+            throw new RuntimeException("invalid param");
+        }
+        long ttl = ExpiryUtils.getTtlMillis((String) list.get(0));
+        // negative replies are status codes, not durations
+        writer.writeInteger(ttl < 0 ? ttl : (ttl+500)/1000);
+    }
+}
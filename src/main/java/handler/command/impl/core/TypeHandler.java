@@ -5,6 +5,7 @@ import domain.CacheDto;
 import enums.CommandType;
 import enums.ValueType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import service.RESPUtils;
 import service.RedisLocalMap;
 
@@ -15,7 +16,7 @@ import java.util.Objects;
 public class TypeHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.TYPE.getAlias(), this);
+        CommandTable.register(CommandType.TYPE, this);
     }
 
     @Override
@@ -24,10 +25,10 @@ public class TypeHandler implements CommandHandler {
             throw new RuntimeException("invalid param");
         }
         String key = (String) list.getFirst();
-        if (!RedisLocalMap.LOCAL_MAP.containsKey(key)) {
+        CacheDto cache = RedisLocalMap.get(key);
+        if (cache == null) {
             return RESPUtils.toSimpleString(OutputConstants.NONE_COMMAND_TYPE_FOR_MISSING_KEY);
         }
-        CacheDto cache = RedisLocalMap.LOCAL_MAP.get(key);
         ValueType valueType = cache.getValueType();
         if (!Objects.equals(valueType, ValueType.STRING) && !Objects.equals(valueType, ValueType.STREAM)) {
             return RESPUtils.toSimpleString(OutputConstants.NONE_COMMAND_TYPE_FOR_MISSING_KEY);
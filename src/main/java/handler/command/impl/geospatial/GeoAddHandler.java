@@ -3,6 +3,7 @@ package handler.command.impl.geospatial;
 import domain.GeoDto;
 import enums.CommandType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import service.GeoUtils;
 import service.RESPUtils;
 
@@ -16,7 +17,7 @@ import static constants.OutputConstants.*;
 public class GeoAddHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.GEOADD.getAlias(), this);
+        CommandTable.register(CommandType.GEOADD, this);
     }
 
     @Override
@@ -5,6 +5,7 @@ import constants.ParserConstants;
 import domain.RESPResultDto;
 import enums.CommandType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import service.GeoUtils;
 import service.RESPParser;
 import service.RESPUtils;
@@ -21,7 +22,7 @@ public class GeoDistHandler implements CommandHandler {
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.GEODIST.getAlias(), this);
+        CommandTable.register(CommandType.GEODIST, this);
     }
 
     @Override
@@ -5,6 +5,7 @@ import domain.GeoDto;
 import domain.RESPResultDto;
 import enums.CommandType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import service.GeoUtils;
 import service.RESPParser;
 import service.RESPUtils;
@@ -22,7 +23,7 @@ public class GeoPosHandler implements CommandHandler {
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.GEOPOS.getAlias(), this);
+        CommandTable.register(CommandType.GEOPOS, this);
     }
 
     @Override
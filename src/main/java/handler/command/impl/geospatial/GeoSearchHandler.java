@@ -9,6 +9,7 @@ import enums.CommandType;
 import enums.UnitType;
 import enums.ValueType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import service.GeoUtils;
 import service.RESPParser;
 import service.RESPUtils;
@@ -20,7 +21,6 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 import java.util.logging.Logger;
 
 public class GeoSearchHandler implements CommandHandler {
@@ -28,7 +28,7 @@ public class GeoSearchHandler implements CommandHandler {
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.GEOSEARCH.getAlias(), this);
+        CommandTable.register(CommandType.GEOSEARCH, this);
     }
 
     @Override
@@ -52,18 +52,19 @@ public class GeoSearchHandler implements CommandHandler {
             radius = radius * UnitType.MILLIMETER.getConvertValue();
         }
 
-        if (!RedisLocalMap.LOCAL_MAP.containsKey(zSetGeoKey)) {
-            return RESPUtils.getEmptyArray();
-        }
+        List<String> zSetGeoMemberList;
+        synchronized (RedisLocalMap.getLock(zSetGeoKey)) {
+            CacheDto cache = RedisLocalMap.get(zSetGeoKey);
+            if (cache == null) {
+                return RESPUtils.getEmptyArray();
+            }
 
-        CacheDto cache = RedisLocalMap.LOCAL_MAP.get(zSetGeoKey);
-        if (!ValueType.isZSet(cache.getValueType()) || !(cache.getValue() instanceof ZSet zSet)) {
-            throw new RuntimeException("ZAddHandler: command not applied to stored value");
+            if (!ValueType.isZSet(cache.getValueType()) || !(cache.getValue() instanceof ZSet zSet)) {
+                throw new RuntimeException("ZAddHandler: command not applied to stored value");
+            }
+            zSetGeoMemberList = new ArrayList<>(zSet.getMembers());
         }
-
-        Set<String> zSetGeoMemberSet = zSet.getZSET_SCORE_MAP().keySet();
-        logger.info("GeoSearchHandler: zSetGeoMemberSet=" + zSetGeoMemberSet);
-        List<String> zSetGeoMemberList = new ArrayList<>(zSetGeoMemberSet);
+        logger.info("GeoSearchHandler: zSetGeoMemberList=" + zSetGeoMemberList);
         List<String> geoPosCommandlist = new ArrayList<>(List.of(zSetGeoKey));
         geoPosCommandlist.addAll(zSetGeoMemberList);
 
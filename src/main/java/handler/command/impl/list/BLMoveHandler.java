@@ -0,0 +1,29 @@
+package handler.command.impl.list;
+
+import enums.CommandType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.BlockingUtils;
+import service.RESPWriter;
+
+import java.net.Socket;
+import java.util.List;
+
+public class BLMoveHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.BLMOVE, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return BlockingUtils.toReply(clientSocket, writer);
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        BlockingUtils.processBlockingMove(clientSocket, list, writer);
+    }
+}
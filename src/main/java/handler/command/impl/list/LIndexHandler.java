@@ -0,0 +1,69 @@
+package handler.command.impl.list;
+
+import domain.CacheDto;
+import domain.QuickList;
+import enums.CommandType;
+import enums.SharedReplyType;
+import enums.ValueType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.RESPWriter;
+import service.RedisLocalMap;
+import service.StringValueUtils;
+
+import java.net.Socket;
+import java.util.List;
+
+public class LIndexHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.LINDEX, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    /**
+     * LINDEX key index, a negative index counts from the tail
+     */
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.size() < 2) {
+            throw new RuntimeException("invalid param");
+        }
+
+        String key = (String) list.get(0);
+        long index;
+        try {
+            index = Long.parseLong((String) list.get(1));
+        } catch (NumberFormatException e) {
+            writer.writeShared(SharedReplyType.ERR_NOT_INTEGER);
+            return;
+        }
+
+        synchronized (RedisLocalMap.getLock(key)) {
+            CacheDto cache = RedisLocalMap.get(key);
+            if (cache == null) {
+                writer.writeNullBulkString();
+                return;
+            }
+
+            if (!ValueType.isList(cache.getValueType()) || !(cache.getValue() instanceof QuickList cacheValue)) {
+                writer.writeShared(SharedReplyType.ERR_WRONG_TYPE);
+                return;
+            }
+
+            index = index >= 0 ? index : cacheValue.size() + index;
+            if (index < 0 || index >= cacheValue.size()) {
+                writer.writeNullBulkString();
+                return;
+            }
+            // seeks from the nearest end, skipping whole nodes
+            StringValueUtils.write(writer, cacheValue.get((int) index));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package handler.command.impl.list;
+
+import domain.CacheDto;
+import domain.QuickList;
+import enums.CommandType;
+import enums.SharedReplyType;
+import enums.ValueType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.MemoryUtils;
+import service.RESPWriter;
+import service.RedisLocalMap;
+import service.StringValueUtils;
+
+import java.net.Socket;
+import java.util.Iterator;
+import java.util.List;
+
+public class LInsertHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.LINSERT, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    /**
+     * LINSERT key BEFORE|AFTER pivot element, replies the new length, -1 if pivot is not found, 0 if key does not exist
+     */
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.size() < 4) {
+            throw new RuntimeException("invalid param");
+        }
+
+        String key = (String) list.get(0);
+        String position = (String) list.get(1);
+        boolean isAfter = CommandType.AFTER.getAlias().equalsIgnoreCase(position);
+        if (!isAfter && !CommandType.BEFORE.getAlias().equalsIgnoreCase(position)) {
+            writer.writeShared(SharedReplyType.ERR_SYNTAX);
+            return;
+        }
+        Object pivot = StringValueUtils.encode(list, 2);
+        Object value = StringValueUtils.encode(list, 3);
+
+        synchronized (RedisLocalMap.getLock(key)) {
+            CacheDto cache = RedisLocalMap.get(key);
+            if (cache == null) {
+                writer.writeInteger(0);
+                return;
+            }
+
+            if (!ValueType.isList(cache.getValueType()) || !(cache.getValue() instanceof QuickList cacheValue)) {
+                writer.writeShared(SharedReplyType.ERR_WRONG_TYPE);
+                return;
+            }
+
+            int pivotIndex = 0;
+            Iterator<Object> iter = cacheValue.iterator();
+            while (iter.hasNext() && !StringValueUtils.isEqual(iter.next(), pivot)) {
+                pivotIndex++;
+            }
+            if (pivotIndex == cacheValue.size()) {
+                writer.writeInteger(-1);
+                return;
+            }
+            // a full node is split in half to make room
+            cacheValue.add(isAfter ? pivotIndex+1 : pivotIndex, value);
+            MemoryUtils.adjust(cache, MemoryUtils.estimateListElement(value));
+            writer.writeInteger(cacheValue.size());
+        }
+    }
+}
@@ -1,39 +1,50 @@
 package handler.command.impl.list;
 
 import domain.CacheDto;
+import domain.QuickList;
 import enums.CommandType;
 import enums.ValueType;
 import handler.command.CommandHandler;
-import service.RESPUtils;
+import handler.command.CommandTable;
+import service.RESPWriter;
 import service.RedisLocalMap;
 
 import java.net.Socket;
-import java.util.Collection;
 import java.util.List;
 
 public class LLenHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.LLEN.getAlias(), this);
+        CommandTable.register(CommandType.LLEN, this);
     }
 
     @Override
     public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
         if (list == null || list.isEmpty()) {
             throw new RuntimeException("invalid param");
         }
 
         String key = (String) list.get(0);
 
-        if (!RedisLocalMap.LOCAL_MAP.containsKey(key)) {
-            return RESPUtils.toSimpleInt(0);
-        }
+        synchronized (RedisLocalMap.getLock(key)) {
+            CacheDto cache = RedisLocalMap.get(key);
+            if (cache == null) {
+                writer.writeInteger(0);
+                return;
+            }
 
-        CacheDto cache = RedisLocalMap.LOCAL_MAP.get(key);
-        if (!ValueType.isList(cache.getValueType()) || !(cache.getValue() instanceof Collection<?> cacheValue)) {
-            throw new RuntimeException("LLenHandler: command not applied to stored value");
-        }
+            if (!ValueType.isList(cache.getValueType()) || !(cache.getValue() instanceof QuickList cacheValue)) {
+                throw new RuntimeException("LLenHandler: command not applied to stored value");
+            }
 
-        return RESPUtils.toSimpleInt((cacheValue.size()));
+            writer.writeInteger(cacheValue.size());
+        }
     }
 }
@@ -0,0 +1,32 @@
+package handler.command.impl.list;
+
+import enums.CommandType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.BlockingUtils;
+import service.RESPWriter;
+
+import java.net.Socket;
+import java.util.List;
+
+public class LMoveHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.LMOVE, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    /**
+     * LMOVE source destination LEFT|RIGHT LEFT|RIGHT, removes the source once its last element is moved
+     */
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        BlockingUtils.processMove(list, writer);
+    }
+}
@@ -1,64 +1,32 @@
 package handler.command.impl.list;
 
-import domain.CacheDto;
 import enums.CommandType;
-import enums.ValueType;
 import handler.command.CommandHandler;
-import service.RESPUtils;
-import service.RedisLocalMap;
+import handler.command.CommandTable;
+import service.ListUtils;
+import service.RESPWriter;
 
 import java.net.Socket;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.BlockingDeque;
 
 public class LPopHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.LPOP.getAlias(), this);
+        CommandTable.register(CommandType.LPOP, this);
     }
 
     @Override
     public String process(Socket clientSocket, List list) {
-        if (list == null || list.isEmpty()) {
-            throw new RuntimeException("invalid param");
-        }
-
-        String key = (String) list.get(0);
-
-        if (!RedisLocalMap.LOCAL_MAP.containsKey(key)) {
-            return RESPUtils.getBulkNullString();
-        }
-
-        CacheDto cache = RedisLocalMap.LOCAL_MAP.get(key);
-        if (!ValueType.isList(cache.getValueType()) || !(cache.getValue() instanceof BlockingDeque<?> cacheValue)) {
-            throw new RuntimeException("LLenHandler: command not applied to stored value");
-        }
-
-        if (cacheValue.isEmpty()) {
-            return RESPUtils.getBulkNullString();
-        }
-
-        boolean hasOptArg = list.size() == 2;
-        if (hasOptArg) {
-            int numsToRemove = Integer.parseInt((String) list.get(1));
-            return processWithOptArg(cacheValue, numsToRemove);
-        } else {
-            return processWithoutOptArg(cacheValue);
-        }
-    }
-
-    private String processWithOptArg(BlockingDeque<?> cacheValue, int numsToRemove) {
-        List<String> removedNums = new ArrayList<>();
-        int cacheValueLength = cacheValue.size();
-        for (int i=0; i<Math.min(numsToRemove, cacheValueLength); i++) {
-            removedNums.add((String) cacheValue.removeFirst());
-        }
-        return RESPUtils.toArray(removedNums);
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
     }
 
-    private String processWithoutOptArg(BlockingDeque<?> cacheValue) {
-        String removedValue = (String) cacheValue.removeFirst();
-        return RESPUtils.toBulkString(removedValue);
+    /**
+     * LPOP key [count], removes the key once its last element is popped
+     */
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        ListUtils.processPop(list, writer, true);
     }
 }
@@ -0,0 +1,136 @@
+package handler.command.impl.list;
+
+import constants.OutputConstants;
+import domain.CacheDto;
+import domain.QuickList;
+import enums.CommandType;
+import enums.SharedReplyType;
+import enums.ValueType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.RESPWriter;
+import service.RedisLocalMap;
+import service.StringValueUtils;
+
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class LPosHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.LPOS, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    /**
+     * LPOS key element [RANK rank] [COUNT num-matches] [MAXLEN len]
+     * a negative rank searches from the tail, COUNT 0 returns every match, MAXLEN 0 compares every element
+     */
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.size() < 2) {
+            throw new RuntimeException("invalid param");
+        }
+
+        String key = (String) list.get(0);
+        Object value = StringValueUtils.encode(list, 1);
+        long rank = 1;
+        long count = -1; // no COUNT option, reply a single position
+        long maxLen = 0;
+        for (int i=2; i<list.size(); i+=2) {
+            String option = (String) list.get(i);
+            if (i+1 >= list.size()) {
+                writer.writeShared(SharedReplyType.ERR_SYNTAX);
+                return;
+            }
+            long optionValue;
+            try {
+                optionValue = Long.parseLong((String) list.get(i+1));
+            } catch (NumberFormatException e) {
+                writer.writeShared(SharedReplyType.ERR_NOT_INTEGER);
+                return;
+            }
+            if (CommandType.RANK.getAlias().equalsIgnoreCase(option)) {
+                if (optionValue == 0 || optionValue == Long.MIN_VALUE) {
+                    writer.writeError(OutputConstants.LPOS_RANK_ZERO_ERROR);
+                    return;
+                }
+                rank = optionValue;
+            } else if (CommandType.COUNT.getAlias().equalsIgnoreCase(option)) {
+                if (optionValue < 0) {
+                    writer.writeError(OutputConstants.LPOS_NEGATIVE_COUNT_ERROR);
+                    return;
+                }
+                count = optionValue;
+            } else if (CommandType.MAXLEN.getAlias().equalsIgnoreCase(option)) {
+                if (optionValue < 0) {
+                    writer.writeError(OutputConstants.LPOS_NEGATIVE_MAXLEN_ERROR);
+                    return;
+                }
+                maxLen = optionValue;
+            } else {
+                writer.writeShared(SharedReplyType.ERR_SYNTAX);
+                return;
+            }
+        }
+        boolean hasCount = count >= 0;
+
+        synchronized (RedisLocalMap.getLock(key)) {
+            CacheDto cache = RedisLocalMap.get(key);
+            if (cache == null) {
+                if (hasCount) {
+                    writer.writeArrayHeader(0);
+                } else {
+                    writer.writeNullBulkString();
+                }
+                return;
+            }
+
+            if (!ValueType.isList(cache.getValueType()) || !(cache.getValue() instanceof QuickList cacheValue)) {
+                writer.writeShared(SharedReplyType.ERR_WRONG_TYPE);
+                return;
+            }
+
+            boolean isFromTail = rank < 0;
+            long numSkipped = Math.abs(rank) - 1;
+            long maxMatches = hasCount && count > 0 ? count : (hasCount ? Long.MAX_VALUE : 1);
+            long maxCompared = maxLen > 0 ? maxLen : Long.MAX_VALUE;
+            List<Long> positions = new ArrayList<>();
+            Iterator<Object> iter = isFromTail ? cacheValue.descendingIterator() : cacheValue.iterator();
+            long index = isFromTail ? cacheValue.size()-1 : 0;
+            long numCompared = 0;
+            while (iter.hasNext() && positions.size() < maxMatches && numCompared < maxCompared) {
+                if (StringValueUtils.isEqual(iter.next(), value)) {
+                    if (numSkipped > 0) {
+                        numSkipped--;
+                    } else {
+                        positions.add(index);
+                    }
+                }
+                index += isFromTail ? -1 : 1;
+                numCompared++;
+            }
+
+            if (!hasCount) {
+                if (positions.isEmpty()) {
+                    writer.writeNullBulkString();
+                } else {
+                    writer.writeInteger(positions.get(0));
+                }
+                return;
+            }
+            writer.writeArrayHeader(positions.size());
+            for (Long position: positions) {
+                writer.writeInteger(position);
+            }
+        }
+    }
+}
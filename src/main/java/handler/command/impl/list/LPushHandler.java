@@ -1,16 +1,19 @@
 package handler.command.impl.list;
 
 import domain.CacheDto;
+import domain.QuickList;
 import enums.CommandType;
 import enums.ValueType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.BlockingUtils;
+import service.MemoryUtils;
 import service.RESPUtils;
 import service.RedisLocalMap;
+import service.StringValueUtils;
 
 import java.net.Socket;
-import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.LinkedBlockingDeque;
 import java.util.logging.Logger;
 
 public class LPushHandler implements CommandHandler {
@@ -18,7 +21,7 @@ public class LPushHandler implements CommandHandler {
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.LPUSH.getAlias(), this);
+        CommandTable.register(CommandType.LPUSH, this);
     }
 
     @Override
@@ -29,26 +32,33 @@ public class LPushHandler implements CommandHandler {
 
         String key = (String) list.get(0);
 
-        CacheDto cache;
-        if (RedisLocalMap.LOCAL_MAP.containsKey(key)) {
-            cache = RedisLocalMap.LOCAL_MAP.get(key);
-            if (!ValueType.isList(cache.getValueType()) || !(cache.getValue() instanceof Collection<?>)) {
-                throw new RuntimeException("RPushHandler: command not applied to stored value");
+        synchronized (RedisLocalMap.getLock(key)) {
+            CacheDto cache = RedisLocalMap.get(key);
+            if (cache != null) {
+                if (!ValueType.isList(cache.getValueType()) || !(cache.getValue() instanceof QuickList)) {
+                    throw new RuntimeException("RPushHandler: command not applied to stored value");
+                }
+            } else {
+                cache = new CacheDto();
+                cache.setValueType(ValueType.LIST);
+                cache.setValue(new QuickList());
+                RedisLocalMap.put(key, cache);
             }
-        } else {
-            cache = new CacheDto();
-            cache.setValueType(ValueType.LIST);
-            cache.setValue(new LinkedBlockingDeque<>());
-            RedisLocalMap.LOCAL_MAP.put(key, cache);
-        }
 
-        LinkedBlockingDeque<Object> storedList = (LinkedBlockingDeque<Object>) cache.getValue();
-        for (int i=1; i<list.size(); i++) {
-            storedList.addFirst(list.get(i));
-        }
+            QuickList storedList = (QuickList) cache.getValue();
+            long addedMemory = 0L;
+            for (int i=1; i<list.size(); i++) {
+                Object value = StringValueUtils.encode(list, i);
+                storedList.addFirst(value);
+                addedMemory += MemoryUtils.estimateListElement(value);
+            }
+            MemoryUtils.adjust(cache, addedMemory);
+            // clients blocked on key are served once this command completes
+            BlockingUtils.signalKeyAsReady(key);
 
-        int storedListSize = storedList.size();
-        logger.info(String.format("LPushHandler: added new item for key=%s; cacheValueSize=%s", key, storedListSize));
-        return RESPUtils.toSimpleInt(storedListSize);
+            int storedListSize = storedList.size();
+            logger.info(String.format("LPushHandler: added new item for key=%s; cacheValueSize=%s", key, storedListSize));
+            return RESPUtils.toSimpleInt(storedListSize);
+        }
     }
 }
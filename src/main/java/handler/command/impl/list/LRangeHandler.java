@@ -1,27 +1,35 @@
 package handler.command.impl.list;
 
+import constants.OutputConstants;
 import domain.CacheDto;
+import domain.QuickList;
 import enums.CommandType;
 import enums.ValueType;
 import handler.command.CommandHandler;
-import service.RESPUtils;
+import handler.command.CommandTable;
+import service.RESPWriter;
 import service.RedisLocalMap;
+import service.StringValueUtils;
 
 import java.net.Socket;
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.LinkedBlockingDeque;
 
 public class LRangeHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.LRANGE.getAlias(), this);
+        CommandTable.register(CommandType.LRANGE, this);
     }
 
     @Override
     public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
         if (list == null || list.isEmpty() || list.size() < 3) {
             throw new RuntimeException("invalid param");
         }
@@ -30,34 +38,36 @@ public class LRangeHandler implements CommandHandler {
         int start = Integer.parseInt((String) list.get(1));
         int end = Integer.parseInt((String) list.get(2));
 
-        if (!RedisLocalMap.LOCAL_MAP.containsKey(key)) {
-            return RESPUtils.getEmptyArray();
-        }
+        // list values are not thread-safe, read them holding the lock of key
+        synchronized (RedisLocalMap.getLock(key)) {
+            CacheDto cacheDto = RedisLocalMap.get(key);
+            if (cacheDto == null) {
+                writer.writeArrayHeader(OutputConstants.LRANGE_EMPTY_ARRAY_LENGTH);
+                return;
+            }
 
-        CacheDto cacheDto = RedisLocalMap.LOCAL_MAP.get(key);
-        if (!ValueType.isList(cacheDto.getValueType()) || !(cacheDto.getValue() instanceof BlockingDeque<?>)) {
-            throw new RuntimeException("LRangeHandler: command not applied to stored value");
-        }
+            if (!ValueType.isList(cacheDto.getValueType()) || !(cacheDto.getValue() instanceof QuickList storedList)) {
+                throw new RuntimeException("LRangeHandler: command not applied to stored value");
+            }
 
-        LinkedBlockingDeque<Object> storedList = (LinkedBlockingDeque<Object>) cacheDto.getValue();
-        int storedListLength = storedList.size();
+            int storedListLength = storedList.size();
 
-        start = start >= 0 ? start : (Math.abs(start) >= storedListLength ? 0 : storedListLength + start);
-        end = end >= 0 ? end : (Math.abs(end) > storedListLength ? 0 : storedListLength + end);
-        if (storedList.size() <= start || end < start) {
-            return RESPUtils.getEmptyArray();
-        }
+            start = start >= 0 ? start : (Math.abs(start) >= storedListLength ? 0 : storedListLength + start);
+            end = end >= 0 ? end : (Math.abs(end) > storedListLength ? 0 : storedListLength + end);
+            if (storedList.size() <= start || end < start) {
+                writer.writeArrayHeader(OutputConstants.LRANGE_EMPTY_ARRAY_LENGTH);
+                return;
+            }
 
-        Iterator<Object> iter = storedList.iterator();
-        for (int i=0; i<start; i++) {
-            iter.next();
-        }
+            // whole nodes before start are skipped
+            Iterator<Object> iter = storedList.iterator(start);
 
-        List<String> valueList = new ArrayList<>();
-        for (int i=start; i<Math.min(end+1, storedListLength); i++) {
-            valueList.add((String) iter.next());
+            // elements are encoded as they are iterated, no intermediate list
+            int endExclusive = Math.min(end+1, storedListLength);
+            writer.writeArrayHeader(endExclusive-start);
+            for (int i=start; i<endExclusive; i++) {
+                StringValueUtils.write(writer, iter.next());
+            }
         }
-
-        return RESPUtils.toArray(valueList);
     }
 }
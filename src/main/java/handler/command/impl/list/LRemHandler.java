@@ -0,0 +1,83 @@
+package handler.command.impl.list;
+
+import domain.CacheDto;
+import domain.QuickList;
+import enums.CommandType;
+import enums.SharedReplyType;
+import enums.ValueType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.MemoryUtils;
+import service.RESPWriter;
+import service.RedisLocalMap;
+import service.StringValueUtils;
+
+import java.net.Socket;
+import java.util.Iterator;
+import java.util.List;
+
+public class LRemHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.LREM, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    /**
+     * LREM key count element, removes count occurrences from the head, from the tail if count is negative, all if 0
+     */
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.size() < 3) {
+            throw new RuntimeException("invalid param");
+        }
+
+        String key = (String) list.get(0);
+        long count;
+        try {
+            count = Long.parseLong((String) list.get(1));
+        } catch (NumberFormatException e) {
+            writer.writeShared(SharedReplyType.ERR_NOT_INTEGER);
+            return;
+        }
+        Object value = StringValueUtils.encode(list, 2);
+        long maxRemoved = count == 0 || count == Long.MIN_VALUE ? Long.MAX_VALUE : Math.abs(count);
+
+        synchronized (RedisLocalMap.getLock(key)) {
+            CacheDto cache = RedisLocalMap.get(key);
+            if (cache == null) {
+                writer.writeInteger(0);
+                return;
+            }
+
+            if (!ValueType.isList(cache.getValueType()) || !(cache.getValue() instanceof QuickList cacheValue)) {
+                writer.writeShared(SharedReplyType.ERR_WRONG_TYPE);
+                return;
+            }
+
+            long numRemoved = 0;
+            long removedMemory = 0L;
+            Iterator<Object> iter = count < 0 ? cacheValue.descendingIterator() : cacheValue.iterator();
+            while (numRemoved < maxRemoved && iter.hasNext()) {
+                Object element = iter.next();
+                if (StringValueUtils.isEqual(element, value)) {
+                    iter.remove();
+                    numRemoved++;
+                    removedMemory += MemoryUtils.estimateListElement(element);
+                }
+            }
+            if (cacheValue.isEmpty()) {
+                RedisLocalMap.remove(key, cache);
+            } else if (numRemoved > 0) {
+                MemoryUtils.adjust(cache, -removedMemory);
+            }
+            writer.writeInteger(numRemoved);
+        }
+    }
+}
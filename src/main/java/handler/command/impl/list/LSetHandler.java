@@ -0,0 +1,73 @@
+package handler.command.impl.list;
+
+import constants.OutputConstants;
+import domain.CacheDto;
+import domain.QuickList;
+import enums.CommandType;
+import enums.SharedReplyType;
+import enums.ValueType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.MemoryUtils;
+import service.RESPWriter;
+import service.RedisLocalMap;
+import service.StringValueUtils;
+
+import java.net.Socket;
+import java.util.List;
+
+public class LSetHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.LSET, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    /**
+     * LSET key index element, a negative index counts from the tail
+     */
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.size() < 3) {
+            throw new RuntimeException("invalid param");
+        }
+
+        String key = (String) list.get(0);
+        long index;
+        try {
+            index = Long.parseLong((String) list.get(1));
+        } catch (NumberFormatException e) {
+            writer.writeShared(SharedReplyType.ERR_NOT_INTEGER);
+            return;
+        }
+        Object value = StringValueUtils.encode(list, 2);
+
+        synchronized (RedisLocalMap.getLock(key)) {
+            CacheDto cache = RedisLocalMap.get(key);
+            if (cache == null) {
+                writer.writeError(OutputConstants.NO_SUCH_KEY_ERROR);
+                return;
+            }
+
+            if (!ValueType.isList(cache.getValueType()) || !(cache.getValue() instanceof QuickList cacheValue)) {
+                writer.writeShared(SharedReplyType.ERR_WRONG_TYPE);
+                return;
+            }
+
+            index = index >= 0 ? index : cacheValue.size() + index;
+            if (index < 0 || index >= cacheValue.size()) {
+                writer.writeError(OutputConstants.INDEX_OUT_OF_RANGE_ERROR);
+                return;
+            }
+            Object oldValue = cacheValue.set((int) index, value);
+            MemoryUtils.adjust(cache, MemoryUtils.estimateListElement(value) - MemoryUtils.estimateListElement(oldValue));
+            writer.writeShared(SharedReplyType.OK);
+        }
+    }
+}
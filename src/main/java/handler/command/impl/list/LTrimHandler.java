@@ -0,0 +1,80 @@
+package handler.command.impl.list;
+
+import domain.CacheDto;
+import domain.QuickList;
+import enums.CommandType;
+import enums.SharedReplyType;
+import enums.ValueType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.MemoryUtils;
+import service.RESPWriter;
+import service.RedisLocalMap;
+
+import java.net.Socket;
+import java.util.List;
+
+public class LTrimHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.LTRIM, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    /**
+     * LTRIM key start stop, keeps elements from start to stop inclusive and removes the key if none is left
+     */
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.size() < 3) {
+            throw new RuntimeException("invalid param");
+        }
+
+        String key = (String) list.get(0);
+        long start;
+        long end;
+        try {
+            start = Long.parseLong((String) list.get(1));
+            end = Long.parseLong((String) list.get(2));
+        } catch (NumberFormatException e) {
+            writer.writeShared(SharedReplyType.ERR_NOT_INTEGER);
+            return;
+        }
+
+        synchronized (RedisLocalMap.getLock(key)) {
+            CacheDto cache = RedisLocalMap.get(key);
+            if (cache == null) {
+                writer.writeShared(SharedReplyType.OK);
+                return;
+            }
+
+            if (!ValueType.isList(cache.getValueType()) || !(cache.getValue() instanceof QuickList cacheValue)) {
+                writer.writeShared(SharedReplyType.ERR_WRONG_TYPE);
+                return;
+            }
+
+            int size = cacheValue.size();
+            start = start >= 0 ? start : Math.max(size + start, 0);
+            end = end >= 0 ? Math.min(end, size-1) : size + end;
+            if (start > end || start >= size) {
+                // nothing is left, the whole value is released at once
+                RedisLocalMap.remove(key, cache);
+                writer.writeShared(SharedReplyType.OK);
+                return;
+            }
+
+            // whole nodes are unlinked with their size, only the elements cut from the 2 boundary nodes are visited
+            long removedMemory = cacheValue.removeFirst((int) start) + cacheValue.removeLast(size - 1 - (int) end);
+            if (removedMemory > 0) {
+                MemoryUtils.adjust(cache, -removedMemory);
+            }
+            writer.writeShared(SharedReplyType.OK);
+        }
+    }
+}
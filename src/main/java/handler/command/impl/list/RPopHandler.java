@@ -0,0 +1,32 @@
+package handler.command.impl.list;
+
+import enums.CommandType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.ListUtils;
+import service.RESPWriter;
+
+import java.net.Socket;
+import java.util.List;
+
+public class RPopHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.RPOP, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    /**
+     * RPOP key [count], removes the key once its last element is popped
+     */
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        ListUtils.processPop(list, writer, false);
+    }
+}
@@ -1,20 +1,19 @@
 package handler.command.impl.list;
 
-import domain.BlockListDto;
 import domain.CacheDto;
+import domain.QuickList;
 import enums.CommandType;
 import enums.ValueType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.BlockingUtils;
+import service.MemoryUtils;
 import service.RESPUtils;
 import service.RedisLocalMap;
-import service.ServerUtils;
+import service.StringValueUtils;
 
 import java.net.Socket;
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.LinkedBlockingDeque;
 import java.util.logging.Logger;
 
 public class RPushHandler implements CommandHandler {
@@ -22,7 +21,7 @@ public class RPushHandler implements CommandHandler {
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.RPUSH.getAlias(), this);
+        CommandTable.register(CommandType.RPUSH, this);
     }
 
     @Override
@@ -33,53 +32,33 @@ public class RPushHandler implements CommandHandler {
 
         String key = (String) list.get(0);
 
-        CacheDto cache;
-        if (RedisLocalMap.LOCAL_MAP.containsKey(key)) {
-            cache = RedisLocalMap.LOCAL_MAP.get(key);
-            if (!ValueType.isList(cache.getValueType()) || !(cache.getValue() instanceof Collection<?>)) {
-                throw new RuntimeException("RPushHandler: command not applied to stored value");
+        synchronized (RedisLocalMap.getLock(key)) {
+            CacheDto cache = RedisLocalMap.get(key);
+            if (cache != null) {
+                if (!ValueType.isList(cache.getValueType()) || !(cache.getValue() instanceof QuickList)) {
+                    throw new RuntimeException("RPushHandler: command not applied to stored value");
+                }
+            } else {
+                cache = new CacheDto();
+                cache.setValueType(ValueType.LIST);
+                cache.setValue(new QuickList());
+                RedisLocalMap.put(key, cache);
             }
-        } else {
-            cache = new CacheDto();
-            cache.setValueType(ValueType.LIST);
-            cache.setValue(new LinkedBlockingDeque<>());
-            RedisLocalMap.LOCAL_MAP.put(key, cache);
-        }
 
-        LinkedBlockingDeque<Object> cacheValue = (LinkedBlockingDeque<Object>) cache.getValue();
-        for (int i=1; i<list.size(); i++) {
-            cacheValue.addLast(list.get(i));
-        }
+            QuickList cacheValue = (QuickList) cache.getValue();
+            long addedMemory = 0L;
+            for (int i=1; i<list.size(); i++) {
+                Object value = StringValueUtils.encode(list, i);
+                cacheValue.addLast(value);
+                addedMemory += MemoryUtils.estimateListElement(value);
+            }
+            MemoryUtils.adjust(cache, addedMemory);
+            BlockingUtils.signalKeyAsReady(key);
 
-        int cacheValueSize = cacheValue.size();
-        logger.info(String.format("RPushHandler: added new item for key=%s; cacheValueSize=%s", key, cacheValueSize));
+            int cacheValueSize = cacheValue.size();
+            logger.info(String.format("RPushHandler: added new item for key=%s; cacheValueSize=%s", key, cacheValueSize));
 
-        if (!RedisLocalMap.BLPOP_CLIENT_BLOCK_QUEUE.isEmpty()) {
-            try {
-                BlockListDto blockListDto = null;
-                int blpopClientBlockQueueSize = RedisLocalMap.BLPOP_CLIENT_BLOCK_QUEUE.size();
-                int index = 0;
-                while (index < blpopClientBlockQueueSize) {
-                    BlockListDto blockListDtoFromQueue = RedisLocalMap.BLPOP_CLIENT_BLOCK_QUEUE.takeFirst();
-                    String blpopKey = blockListDtoFromQueue.getKey();
-                    if (Objects.equals(blpopKey, key)) {
-                        blockListDto = blockListDtoFromQueue;
-                        break;
-                    }
-                    RedisLocalMap.BLPOP_CLIENT_BLOCK_QUEUE.addLast(blockListDtoFromQueue);
-                    index++;
-                }
-                if (Objects.nonNull(blockListDto)) {
-                    Socket blpopClientSocket = blockListDto.getSocket();
-                    String value = (String) cacheValue.takeFirst();
-                    List<String> resultList = new ArrayList<>(List.of(key, value));
-                    ServerUtils.writeThenFlushString(blpopClientSocket, RESPUtils.toArray(resultList));
-                }
-            } catch (Exception e) {
-                logger.warning("RPushHandler: failed to write cacheValue for key=" + key);
-            }
+            return RESPUtils.toSimpleInt(cacheValueSize);
         }
-
-        return RESPUtils.toSimpleInt(cacheValueSize);
     }
 }
@@ -0,0 +1,58 @@
+package handler.command.impl.pubsub;
+
+import domain.ChannelDto;
+import domain.PatternDto;
+import domain.SubscriberDto;
+import enums.CommandType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.GlobPattern;
+import service.RESPUtils;
+import service.RedisLocalMap;
+import service.ServerUtils;
+
+import java.net.Socket;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class PSubscribeHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.PSUBSCRIBE, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        if (list == null || list.isEmpty()) {
+            throw new RuntimeException("invalid param");
+        }
+
+        String pattern = (String) list.get(0);
+        String subscriberId = ServerUtils.formatIdFromSocket(clientSocket);
+
+        SubscriberDto subscriberDto = new SubscriberDto();
+        subscriberDto.setId(subscriberId);
+        subscriberDto.setSocket(clientSocket);
+
+        // update PATTERN_MAP, the pattern is compiled once for every message published while it is subscribed
+        PatternDto patternDto = RedisLocalMap.PATTERN_MAP.computeIfAbsent(pattern, p -> new PatternDto(GlobPattern.compile(p)));
+        patternDto.getSubscriberMap().putIfAbsent(subscriberId, subscriberDto);
+
+        // update SUBSCRIBER_PATTERN_MAP
+        Set<String> patternSet = RedisLocalMap.SUBSCRIBER_PATTERN_MAP.computeIfAbsent(subscriberId, id -> ConcurrentHashMap.newKeySet());
+        patternSet.add(pattern);
+
+        // mark the connection to be in subscribed mode
+        RedisLocalMap.SUBSCRIBE_MODE_SET.add(subscriberId);
+
+        Map<String, ChannelDto> channelMap = RedisLocalMap.SUBSCRIBER_MAP.get(subscriberId);
+        int numSubscriptions = patternSet.size() + (channelMap != null ? channelMap.size() : 0);
+        List<Object> responseList = List.of(
+                CommandType.PSUBSCRIBE.getAlias(),
+                pattern,
+                numSubscriptions);
+        return RESPUtils.toBulkStringFromNestedList(responseList);
+    }
+}
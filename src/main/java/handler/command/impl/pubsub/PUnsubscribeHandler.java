@@ -0,0 +1,98 @@
+package handler.command.impl.pubsub;
+
+import constants.OutputConstants;
+import domain.ChannelDto;
+import domain.PatternDto;
+import enums.CommandType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.RESPUtils;
+import service.RedisLocalMap;
+import service.ServerUtils;
+
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+public class PUnsubscribeHandler implements CommandHandler {
+    private static final Logger logger = Logger.getLogger(PUnsubscribeHandler.class.getName());
+
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.PUNSUBSCRIBE, this);
+    }
+
+    /**
+     * PUNSUBSCRIBE [pattern [pattern ...]]
+     * without patterns, the client is unsubscribed from every pattern it subscribes to
+     * @return one reply per pattern with the subscriptions left, a single reply with a nil pattern if there was none
+     */
+    @Override
+    public String process(Socket clientSocket, List list) {
+        if (list == null) {
+            throw new RuntimeException("invalid param");
+        }
+
+        String subscriberId = ServerUtils.formatIdFromSocket(clientSocket);
+        Set<String> patternSet = RedisLocalMap.SUBSCRIBER_PATTERN_MAP.get(subscriberId);
+        List<String> patternList = new ArrayList<>();
+        if (!list.isEmpty()) {
+            for (Object pattern: list) {
+                patternList.add((String) pattern);
+            }
+        } else if (patternSet != null) {
+            patternList.addAll(patternSet);
+        }
+
+        if (patternList.isEmpty()) {
+            leaveSubscribeModeIfIdle(subscriberId, patternSet);
+            return OutputConstants.ASTERISK + 3 + OutputConstants.CRLF
+                    + RESPUtils.toBulkString(CommandType.PUNSUBSCRIBE.getAlias())
+                    + RESPUtils.getBulkNullString()
+                    + RESPUtils.toSimpleInt(getNumSubscriptions(subscriberId, patternSet));
+        }
+
+        StringBuilder response = new StringBuilder();
+        for (String pattern: patternList) {
+            logger.info("PUnsubscribeHandler: begin to unsubscribe from pattern=" + pattern);
+
+            // update PATTERN_MAP, dropping the compiled pattern once nobody subscribes to it
+            RedisLocalMap.PATTERN_MAP.computeIfPresent(pattern, (p, patternDto) -> {
+                patternDto.getSubscriberMap().remove(subscriberId);
+                return patternDto.getSubscriberMap().isEmpty() ? null : patternDto;
+            });
+
+            // update SUBSCRIBER_PATTERN_MAP
+            if (patternSet != null) {
+                patternSet.remove(pattern);
+            }
+
+            List<Object> responseList = List.of(
+                    CommandType.PUNSUBSCRIBE.getAlias(),
+                    pattern,
+                    getNumSubscriptions(subscriberId, patternSet));
+            response.append(RESPUtils.toBulkStringFromNestedList(responseList));
+        }
+        leaveSubscribeModeIfIdle(subscriberId, patternSet);
+        return response.toString();
+    }
+
+    private static int getNumSubscriptions(String subscriberId, Set<String> patternSet) {
+        Map<String, ChannelDto> channelMap = RedisLocalMap.SUBSCRIBER_MAP.get(subscriberId);
+        return (patternSet != null ? patternSet.size() : 0) + (channelMap != null ? channelMap.size() : 0);
+    }
+
+    /**
+     * the connection leaves subscribed mode once it has no channel nor pattern left, so regular commands run again
+     */
+    private static void leaveSubscribeModeIfIdle(String subscriberId, Set<String> patternSet) {
+        if (getNumSubscriptions(subscriberId, patternSet) > 0) {
+            return;
+        }
+        RedisLocalMap.SUBSCRIBER_PATTERN_MAP.remove(subscriberId);
+        RedisLocalMap.SUBSCRIBE_MODE_SET.remove(subscriberId);
+    }
+}
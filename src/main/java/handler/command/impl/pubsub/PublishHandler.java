@@ -1,9 +1,12 @@
 package handler.command.impl.pubsub;
 
 import constants.OutputConstants;
+import domain.PatternDto;
 import domain.SubscriberDto;
 import enums.CommandType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.GlobPattern;
 import service.RESPUtils;
 import service.RedisLocalMap;
 import service.ServerUtils;
@@ -18,7 +21,7 @@ public class PublishHandler implements CommandHandler {
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.PUBLISH.getAlias(), this);
+        CommandTable.register(CommandType.PUBLISH, this);
     }
 
     @Override
@@ -31,15 +34,30 @@ public class PublishHandler implements CommandHandler {
         String message = (String) list.get(1);
 
         logger.info("PublishHandler: begin to publish message=" + message + "; to channelName=" + channelName);
+        int numReceivers = 0;
         Map<String, SubscriberDto> channel = RedisLocalMap.CHANNEL_MAP.get(channelName);
-        if (channel == null || channel.isEmpty()) {
-            return RESPUtils.toSimpleInt(0);
+        if (channel != null && !channel.isEmpty()) {
+            String publishedMessage = RESPUtils.toArray(List.of(OutputConstants.PUBLISH_MESSAGE, channelName, message));
+            numReceivers += publish(channel, publishedMessage, message, channelName);
+        }
+
+        for (PatternDto patternDto: RedisLocalMap.PATTERN_MAP.values()) {
+            GlobPattern globPattern = patternDto.getGlobPattern();
+            if (!globPattern.matches(channelName)) {
+                continue;
+            }
+            String publishedMessage = RESPUtils.toArray(
+                    List.of(OutputConstants.PUBLISH_PMESSAGE, globPattern.getPattern(), channelName, message));
+            numReceivers += publish(patternDto.getSubscriberMap(), publishedMessage, message, channelName);
         }
 
-        for (Map.Entry<String, SubscriberDto> entry: channel.entrySet()) {
+        return RESPUtils.toSimpleInt(numReceivers);
+    }
+
+    private int publish(Map<String, SubscriberDto> subscriberMap, String publishedMessage, String message, String channelName) {
+        for (Map.Entry<String, SubscriberDto> entry: subscriberMap.entrySet()) {
             SubscriberDto subscriberDto = entry.getValue();
             Socket socket = subscriberDto.getSocket();
-            String publishedMessage = RESPUtils.toArray(List.of(OutputConstants.PUBLISH_MESSAGE, channelName, message));
             try {
                 ServerUtils.writeThenFlushString(socket, publishedMessage);
                 logger.info("PublishHandler: published message=" + message + "; to channelName=" + channelName);
@@ -49,7 +67,6 @@ public class PublishHandler implements CommandHandler {
                         + "; to channelName=" + channelName);
             }
         }
-
-        return RESPUtils.toSimpleInt(channel.size());
+        return subscriberMap.size();
     }
 }
@@ -4,6 +4,7 @@ import domain.ChannelDto;
 import domain.SubscriberDto;
 import enums.CommandType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import service.RESPUtils;
 import service.RedisLocalMap;
 import service.ServerUtils;
@@ -16,7 +17,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public class SubscribeHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.SUBSCRIBE.getAlias(), this);
+        CommandTable.register(CommandType.SUBSCRIBE, this);
     }
 
     @Override
@@ -4,6 +4,7 @@ import domain.ChannelDto;
 import domain.SubscriberDto;
 import enums.CommandType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import service.RESPUtils;
 import service.RedisLocalMap;
 import service.ServerUtils;
@@ -18,7 +19,7 @@ public class UnsubscribeHandler implements CommandHandler {
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.UNSUBSCRIBE.getAlias(), this);
+        CommandTable.register(CommandType.UNSUBSCRIBE, this);
     }
 
     @Override
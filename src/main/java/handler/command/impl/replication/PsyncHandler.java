@@ -7,6 +7,7 @@ import enums.CommandType;
 import enums.JobType;
 import enums.PropagateType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import handler.job.impl.PropagateHandler;
 import replication.MasterManager;
 import service.RESPUtils;
@@ -19,7 +20,7 @@ import java.util.List;
 public class PsyncHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.PSYNC.name().toLowerCase(), this);
+        CommandTable.register(CommandType.PSYNC, this);
     }
 
     @Override
@@ -3,7 +3,9 @@ package handler.command.impl.replication;
 import constants.OutputConstants;
 import enums.CommandType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import replication.MasterManager;
+import service.BlockingUtils;
 import service.RESPUtils;
 
 import java.net.Socket;
@@ -18,7 +20,7 @@ public class ReplConfigHandler implements CommandHandler {
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.REPLCONF.name().toLowerCase(), this);
+        CommandTable.register(CommandType.REPLCONF, this);
         SUB_COMMANDS.put(CommandType.LISTENING_PORT.getAlias().toLowerCase(), this::handleListeningPort);
         SUB_COMMANDS.put(CommandType.CAPA.name().toLowerCase(), this::handleCapa);
         SUB_COMMANDS.put(CommandType.GETACK.name().toLowerCase(), this::handleGetAck);
@@ -71,6 +73,7 @@ public class ReplConfigHandler implements CommandHandler {
      */
     private String handleAck(Socket socket, List list) {
         MasterManager.setACKedReplica(socket);
+        BlockingUtils.signalReplicaAcked();
         return OutputConstants.EMPTY;
     }
 }
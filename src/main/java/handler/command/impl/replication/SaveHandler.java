@@ -2,6 +2,7 @@ package handler.command.impl.replication;
 
 import enums.CommandType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import service.RDBLoaderUtils;
 import service.RESPUtils;
 
@@ -12,7 +13,7 @@ public class SaveHandler implements CommandHandler {
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.SAVE.name().toLowerCase(), this);
+        CommandTable.register(CommandType.SAVE, this);
     }
 
     @Override
@@ -2,7 +2,10 @@ package handler.command.impl.replication;
 
 import enums.CommandType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import replication.MasterManager;
+import service.BlockingUtils;
+import service.RESPWriter;
 
 import java.net.Socket;
 import java.util.List;
@@ -10,34 +13,43 @@ import java.util.List;
 public class WaitHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.WAIT.getAlias(), this);
+        CommandTable.register(CommandType.WAIT, this);
     }
 
     @Override
     public String process(Socket clientSocket, List list) {
-        if (list == null || list.isEmpty()) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return BlockingUtils.toReply(clientSocket, writer);
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.size() < 2) {
             throw new RuntimeException("invalid param");
         }
         try {
             int expectedNumACKedReplica = Integer.parseInt((String) list.get(0));
-            int timeout = Integer.parseInt((String) list.get(1));
+            long timeoutAt = BlockingUtils.parseTimeoutMillis((String) list.get(1), writer);
+            if (timeoutAt < 0) {
+                return;
+            }
 
             // step 1: check if Master has propagated any WRITE command to Replicas
             if (!MasterManager.isMasterPropagateAnyWriteCommand()) {
                 // temporary solution: right after Master's handshake completes, getNumACKedReplica() is always 0
                 // if WAIT command is called, it means this request needs getNumConnectedReplica()
-                return MasterManager.getRespNumConnectedReplica();
+                writer.writeRaw(MasterManager.getRespNumConnectedReplica());
+                return;
             }
 
-            // step 2: if not enough expected num of ACKs from Replicas, request GETACK to Replicas
-            String resp = MasterManager.requestThenGetRespNumACKedReplica(expectedNumACKedReplica, timeout);
-
-            // step 3: reset num of ACKs from Replicas
-            MasterManager.resetNumACKedReplica();
-            return resp;
+            // step 2: request GETACK to Replicas, then reply if enough of them ACKed already or block until they do.
+            // No thread waits here, the client is served by a later ACK or the timer
+            MasterManager.requestReplicaAcks();
+            BlockingUtils.processReplicaWait(clientSocket, expectedNumACKedReplica, timeoutAt, writer);
         } catch (Exception e) {
             System.out.println("failed to get num connected replicas due to " + e.getMessage());
-            return MasterManager.getDefaultZeroNumReplica();
+            writer.writeRaw(MasterManager.getDefaultZeroNumReplica());
         }
     }
 }
@@ -1,11 +1,12 @@
 package handler.command.impl.sortedset;
 
 import domain.CacheDto;
-import domain.ZNodeDto;
 import domain.ZSet;
 import enums.CommandType;
 import enums.ValueType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.MemoryUtils;
 import service.RESPUtils;
 import service.RedisLocalMap;
 
@@ -15,7 +16,7 @@ import java.util.List;
 public class ZAddHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.ZADD.getAlias(), this);
+        CommandTable.register(CommandType.ZADD, this);
     }
 
     @Override
@@ -29,33 +30,34 @@ public class ZAddHandler implements CommandHandler {
         Double score = Double.parseDouble(scoreStr);
         String zSetMember = (String) list.get(2);
 
-        // get/set cacheDto from RedisLocalMap
-        CacheDto cache;
-        if (RedisLocalMap.LOCAL_MAP.containsKey(zSetKey)) {
-            cache = RedisLocalMap.LOCAL_MAP.get(zSetKey);
-            if (!ValueType.isZSet(cache.getValueType()) || !(cache.getValue() instanceof ZSet)) {
-                throw new RuntimeException("ZAddHandler: command not applied to stored value");
+        synchronized (RedisLocalMap.getLock(zSetKey)) {
+            // get/set cacheDto from RedisLocalMap
+            CacheDto cache = RedisLocalMap.get(zSetKey);
+            if (cache != null) {
+                if (!ValueType.isZSet(cache.getValueType()) || !(cache.getValue() instanceof ZSet)) {
+                    throw new RuntimeException("ZAddHandler: command not applied to stored value");
+                }
+            } else {
+                cache = new CacheDto();
+                cache.setValueType(ValueType.ZSET);
+                cache.setValue(new ZSet());
+                RedisLocalMap.put(zSetKey, cache);
             }
-        } else {
-            cache = new CacheDto();
-            cache.setValueType(ValueType.ZSET);
-            cache.setValue(new ZSet());
-            RedisLocalMap.LOCAL_MAP.put(zSetKey, cache);
-        }
 
-        int zSetNewMemberCount = 0;
-        ZSet zSet = (ZSet) cache.getValue();
+            int zSetNewMemberCount = 0;
+            ZSet zSet = (ZSet) cache.getValue();
+
+            // update zSet data structure, a new member may convert it from listpack to skip list
+            boolean isListpack = zSet.isListpack();
+            if (zSet.add(zSetMember, score)) {
+                zSetNewMemberCount++;
+                if (isListpack && !zSet.isListpack()) {
+                    MemoryUtils.adjust(cache, MemoryUtils.estimateZSetConversion(zSet.size()-1));
+                }
+                MemoryUtils.adjust(cache, MemoryUtils.estimateZSetMember(zSet, zSetMember));
+            }
 
-        // update zSet data structure
-        if (!zSet.getZSET_SCORE_MAP().containsKey(zSetMember)) {
-            zSetNewMemberCount++;
+            return RESPUtils.toSimpleInt(zSetNewMemberCount);
         }
-        zSet.getZSET_SCORE_MAP().put(zSetMember, score);
-
-        ZNodeDto zNodeDto = new ZNodeDto(zSetMember, score);
-        zSet.getZSET_SKIP_LIST().remove(zNodeDto); // equals() and hashCode() only depend on member, not score
-        zSet.getZSET_SKIP_LIST().add(zNodeDto);
-
-        return RESPUtils.toSimpleInt(zSetNewMemberCount);
     }
 }
@@ -5,6 +5,7 @@ import domain.ZSet;
 import enums.CommandType;
 import enums.ValueType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import service.RESPUtils;
 import service.RedisLocalMap;
 
@@ -18,7 +19,7 @@ public class ZCardHandler implements CommandHandler {
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.ZCARD.getAlias(), this);
+        CommandTable.register(CommandType.ZCARD, this);
     }
 
     @Override
@@ -29,16 +30,18 @@ public class ZCardHandler implements CommandHandler {
 
         String zSetKey = (String) list.get(0);
 
-        CacheDto cache = RedisLocalMap.LOCAL_MAP.get(zSetKey);
-        if (Objects.isNull(cache)) {
-            logger.info("ZCardHandler: cardinality=0 for zSet key=" + zSetKey + " due to missing key");
-            return RESPUtils.toSimpleInt(0);
+        int cardinality;
+        synchronized (RedisLocalMap.getLock(zSetKey)) {
+            CacheDto cache = RedisLocalMap.get(zSetKey);
+            if (Objects.isNull(cache)) {
+                logger.info("ZCardHandler: cardinality=0 for zSet key=" + zSetKey + " due to missing key");
+                return RESPUtils.toSimpleInt(0);
+            }
+            if (!ValueType.isZSet(cache.getValueType()) || !(cache.getValue() instanceof ZSet zSet)) {
+                throw new RuntimeException("ZCardHandler: command not applied to stored value");
+            }
+            cardinality = zSet.size();
         }
-        if (!ValueType.isZSet(cache.getValueType()) || !(cache.getValue() instanceof ZSet zSet)) {
-            throw new RuntimeException("ZCardHandler: command not applied to stored value");
-        }
-
-        int cardinality = zSet.getZSET_SCORE_MAP().size();
         logger.info("ZCardHandler: cardinality=" + cardinality + " for zSet key=" + zSetKey);
         return RESPUtils.toSimpleInt(cardinality);
     }
@@ -1,11 +1,11 @@
 package handler.command.impl.sortedset;
 
 import domain.CacheDto;
-import domain.ZNodeDto;
 import domain.ZSet;
 import enums.CommandType;
 import enums.ValueType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import service.RESPUtils;
 import service.RedisLocalMap;
 
@@ -17,7 +17,7 @@ import java.util.Objects;
 public class ZRangeHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.ZRANGE.getAlias(), this);
+        CommandTable.register(CommandType.ZRANGE, this);
     }
 
     @Override
@@ -30,37 +30,31 @@ public class ZRangeHandler implements CommandHandler {
         int startIndex = Integer.parseInt((String) list.get(1));
         int endIndex = Integer.parseInt((String) list.get(2));
 
-        CacheDto cache = RedisLocalMap.LOCAL_MAP.get(zSetKey);
-        if (Objects.isNull(cache)) {
-            return RESPUtils.getEmptyArray();
-        }
-        if (!ValueType.isZSet(cache.getValueType()) || !(cache.getValue() instanceof ZSet zSet)) {
-            throw new RuntimeException("ZRangeHandler: command not applied to stored value");
-        }
-
-        int cardinality = zSet.getZSET_SCORE_MAP().size();
-        startIndex = startIndex < 0 ? startIndex + cardinality : startIndex;
-        endIndex = endIndex < 0 ? endIndex + cardinality : endIndex;
-        if (startIndex > endIndex) {
-            return RESPUtils.getEmptyArray();
-        }
-        if (startIndex >= cardinality) {
-            return RESPUtils.getEmptyArray();
-        }
-        endIndex = Math.min(endIndex, cardinality);
+        // the skip list is not thread-safe, read it holding the lock of key
+        synchronized (RedisLocalMap.getLock(zSetKey)) {
+            CacheDto cache = RedisLocalMap.get(zSetKey);
+            if (Objects.isNull(cache)) {
+                return RESPUtils.getEmptyArray();
+            }
+            if (!ValueType.isZSet(cache.getValueType()) || !(cache.getValue() instanceof ZSet zSet)) {
+                throw new RuntimeException("ZRangeHandler: command not applied to stored value");
+            }
 
-        int index = 0;
-        List<String> memberList = new ArrayList<>();
-        for (ZNodeDto zNodeDto: zSet.getZSET_SKIP_LIST()) {
-            if (index > endIndex) {
-                break;
+            int cardinality = zSet.size();
+            startIndex = startIndex < 0 ? Math.max(startIndex + cardinality, 0) : startIndex;
+            endIndex = endIndex < 0 ? endIndex + cardinality : endIndex;
+            if (startIndex > endIndex) {
+                return RESPUtils.getEmptyArray();
             }
-            if (startIndex <= index) {
-                memberList.add(zNodeDto.getMember());
+            if (startIndex >= cardinality) {
+                return RESPUtils.getEmptyArray();
             }
-            index++;
-        }
+            endIndex = Math.min(endIndex, cardinality-1);
 
-        return RESPUtils.toArray(memberList);
+            // the start member is reached through skip list spans, only the returned members are walked
+            List<String> memberList = new ArrayList<>(endIndex-startIndex+1);
+            zSet.forEachInRange(startIndex, endIndex, (member, score) -> memberList.add(member));
+            return RESPUtils.toArray(memberList);
+        }
     }
 }
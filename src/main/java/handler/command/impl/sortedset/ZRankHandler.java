@@ -1,11 +1,11 @@
 package handler.command.impl.sortedset;
 
 import domain.CacheDto;
-import domain.ZNodeDto;
 import domain.ZSet;
 import enums.CommandType;
 import enums.ValueType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import service.RESPUtils;
 import service.RedisLocalMap;
 
@@ -16,11 +16,21 @@ import java.util.Objects;
 public class ZRankHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.ZRANK.getAlias(), this);
+        CommandTable.register(CommandType.ZRANK, this);
     }
 
     @Override
     public String process(Socket clientSocket, List list) {
+        return processRank(list, false);
+    }
+
+    /**
+     * ZRANK and ZREVRANK: rank of a member, summed from skip list spans once the set outgrows the listpack encoding
+     * @param list key then member
+     * @param isReversed whether members are ranked from the highest score
+     * @return rank of member, null bulk string if key or member does not exist
+     */
+    static String processRank(List list, boolean isReversed) {
         if (list == null || list.size() < 2) {
             throw new RuntimeException("invalid param");
         }
@@ -28,25 +38,21 @@ public class ZRankHandler implements CommandHandler {
         String zSetKey = (String) list.get(0);
         String zSetMember = (String) list.get(1);
 
-        CacheDto cache = RedisLocalMap.LOCAL_MAP.get(zSetKey);
-        if (Objects.isNull(cache)) {
-            return RESPUtils.getBulkNullString();
-        }
-        if (!ValueType.isZSet(cache.getValueType()) || !(cache.getValue() instanceof ZSet zSet)) {
-            throw new RuntimeException("ZRankHandler: command not applied to stored value");
-        }
-
-        if (!zSet.getZSET_SCORE_MAP().containsKey(zSetMember)) {
-            return RESPUtils.getBulkNullString();
-        }
+        // the skip list is not thread-safe, read it holding the lock of key
+        synchronized (RedisLocalMap.getLock(zSetKey)) {
+            CacheDto cache = RedisLocalMap.get(zSetKey);
+            if (Objects.isNull(cache)) {
+                return RESPUtils.getBulkNullString();
+            }
+            if (!ValueType.isZSet(cache.getValueType()) || !(cache.getValue() instanceof ZSet zSet)) {
+                throw new RuntimeException((isReversed ? "ZRevRankHandler" : "ZRankHandler") + ": command not applied to stored value");
+            }
 
-        int index = 0;
-        for (ZNodeDto zNodeDto : zSet.getZSET_SKIP_LIST()) {
-            if (zNodeDto.getMember().equalsIgnoreCase(zSetMember)) {
-                break;
+            int rank = zSet.getRank(zSetMember);
+            if (rank < 0) {
+                return RESPUtils.getBulkNullString();
             }
-            index++;
+            return RESPUtils.toSimpleInt(isReversed ? zSet.size() - 1 - rank : rank);
         }
-        return RESPUtils.toSimpleInt(index);
     }
 }
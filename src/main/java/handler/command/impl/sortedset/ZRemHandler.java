@@ -1,11 +1,12 @@
 package handler.command.impl.sortedset;
 
 import domain.CacheDto;
-import domain.ZNodeDto;
 import domain.ZSet;
 import enums.CommandType;
 import enums.ValueType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.MemoryUtils;
 import service.RESPUtils;
 import service.RedisLocalMap;
 
@@ -16,7 +17,7 @@ import java.util.Objects;
 public class ZRemHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.ZREM.getAlias(), this);
+        CommandTable.register(CommandType.ZREM, this);
     }
 
     @Override
@@ -28,23 +29,21 @@ public class ZRemHandler implements CommandHandler {
         String zSetKey = (String) list.get(0);
         String zSetMember = (String) list.get(1);
 
-        CacheDto cache = RedisLocalMap.LOCAL_MAP.get(zSetKey);
-        if (Objects.isNull(cache)) {
-            return RESPUtils.toSimpleInt(0);
+        synchronized (RedisLocalMap.getLock(zSetKey)) {
+            CacheDto cache = RedisLocalMap.get(zSetKey);
+            if (Objects.isNull(cache)) {
+                return RESPUtils.toSimpleInt(0);
+            }
+            if (!ValueType.isZSet(cache.getValueType()) || !(cache.getValue() instanceof ZSet zSet)) {
+                throw new RuntimeException("ZRemHandler: command not applied to stored value");
+            }
+
+            if (!zSet.remove(zSetMember)) {
+                return RESPUtils.toSimpleInt(0);
+            }
+            MemoryUtils.adjust(cache, -MemoryUtils.estimateZSetMember(zSet, zSetMember));
+
+            return RESPUtils.toSimpleInt(1);
         }
-        if (!ValueType.isZSet(cache.getValueType()) || !(cache.getValue() instanceof ZSet zSet)) {
-            throw new RuntimeException("ZRemHandler: command not applied to stored value");
-        }
-
-        if (!zSet.getZSET_SCORE_MAP().containsKey(zSetMember)) {
-            return RESPUtils.toSimpleInt(0);
-        }
-
-        Double zSetMemberScore = zSet.getZSET_SCORE_MAP().get(zSetMember);
-        zSet.getZSET_SCORE_MAP().remove(zSetMember);
-        ZNodeDto zNodeDto = new ZNodeDto(zSetMember, zSetMemberScore);
-        zSet.getZSET_SKIP_LIST().remove(zNodeDto);
-
-        return RESPUtils.toSimpleInt(1);
     }
 }
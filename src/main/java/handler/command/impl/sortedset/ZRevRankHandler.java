@@ -0,0 +1,20 @@
+package handler.command.impl.sortedset;
+
+import enums.CommandType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+
+import java.net.Socket;
+import java.util.List;
+
+public class ZRevRankHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.ZREVRANK, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        return ZRankHandler.processRank(list, true);
+    }
+}
@@ -5,6 +5,7 @@ import domain.ZSet;
 import enums.CommandType;
 import enums.ValueType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import service.RESPUtils;
 import service.RedisLocalMap;
 
@@ -18,7 +19,7 @@ public class ZSCoreHandler implements CommandHandler {
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.ZSCORE.getAlias(), this);
+        CommandTable.register(CommandType.ZSCORE, this);
     }
 
     @Override
@@ -30,19 +31,21 @@ public class ZSCoreHandler implements CommandHandler {
         String zSetKey = (String) list.get(0);
         String zSetMember = (String) list.get(1);
 
-        CacheDto cache = RedisLocalMap.LOCAL_MAP.get(zSetKey);
-        if (Objects.isNull(cache)) {
-            return RESPUtils.getBulkNullString();
-        }
-        if (!ValueType.isZSet(cache.getValueType()) || !(cache.getValue() instanceof ZSet zSet)) {
-            throw new RuntimeException("ZSCoreHandler: command not applied to stored value");
+        Double score;
+        synchronized (RedisLocalMap.getLock(zSetKey)) {
+            CacheDto cache = RedisLocalMap.get(zSetKey);
+            if (Objects.isNull(cache)) {
+                return RESPUtils.getBulkNullString();
+            }
+            if (!ValueType.isZSet(cache.getValueType()) || !(cache.getValue() instanceof ZSet zSet)) {
+                throw new RuntimeException("ZSCoreHandler: command not applied to stored value");
+            }
+            score = zSet.getScore(zSetMember);
         }
 
-        if (!zSet.getZSET_SCORE_MAP().containsKey(zSetMember)) {
+        if (score == null) {
             return RESPUtils.getBulkNullString();
         }
-
-        Double score = zSet.getZSET_SCORE_MAP().get(zSetMember);
         logger.info("ZSCoreHandler: score=" + score + " for zSet key=" + zSetKey + "; zSet member key=" + zSetMember);
         return RESPUtils.toBulkString(String.valueOf(score));
     }
@@ -0,0 +1,71 @@
+package handler.command.impl.sortedset;
+
+import domain.CacheDto;
+import domain.ScanOptionDto;
+import domain.ZSet;
+import enums.CommandType;
+import enums.ValueType;
+import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.RESPWriter;
+import service.RedisLocalMap;
+import service.ScanUtils;
+
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ZScanHandler implements CommandHandler {
+    @Override
+    public void register() {
+        CommandTable.register(CommandType.ZSCAN, this);
+    }
+
+    @Override
+    public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return writer.toString();
+    }
+
+    /**
+     * ZSCAN key cursor [MATCH pattern] [COUNT count], reply holds member and score pairs
+     */
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.size() < 2) {
+            throw new RuntimeException("invalid param");
+        }
+        ScanOptionDto scanOptionDto = ScanUtils.parseScanOptions(list, 1, false, writer);
+        if (scanOptionDto == null) {
+            return;
+        }
+        String zSetKey = (String) list.get(0);
+        long cursor;
+        List<String> pairs;
+        synchronized (RedisLocalMap.getLock(zSetKey)) {
+            CacheDto cache = RedisLocalMap.get(zSetKey);
+            if (cache == null) {
+                writer.writeArrayHeader(2);
+                writer.writeBulkString("0");
+                writer.writeArrayHeader(0);
+                return;
+            }
+            if (!ValueType.isZSet(cache.getValueType()) || !(cache.getValue() instanceof ZSet zSet)) {
+                throw new RuntimeException("ZScanHandler: command not applied to stored value");
+            }
+
+            List<String> members = new ArrayList<>();
+            cursor = zSet.scan(scanOptionDto.getCursor(), scanOptionDto.getCount(),
+                    member -> ScanUtils.isMatch(scanOptionDto.getPattern(), member), members);
+            pairs = new ArrayList<>(members.size()*2);
+            for (String member: members) {
+                pairs.add(member);
+                pairs.add(String.valueOf(zSet.getScore(member)));
+            }
+        }
+        writer.writeArrayHeader(2);
+        writer.writeBulkString(String.valueOf(cursor));
+        writer.writeArray(pairs);
+    }
+}
@@ -6,6 +6,9 @@ import domain.StreamDto;
 import enums.CommandType;
 import enums.ValueType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.BlockingUtils;
+import service.MemoryUtils;
 import service.RESPUtils;
 import service.RedisLocalMap;
 import service.StreamUtils;
@@ -17,7 +20,7 @@ import java.util.Objects;
 public class XAddHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.XADD.getAlias(), this);
+        CommandTable.register(CommandType.XADD, this);
     }
 
     @Override
@@ -27,42 +30,46 @@ public class XAddHandler implements CommandHandler {
         }
         String streamKey = (String) list.get(0);
 
-        // step 1: fill cacheDto (if not exist) and streamDto (if not exist)
-        CacheDto cacheDto = RedisLocalMap.LOCAL_MAP.get(streamKey);
-        StreamDto streamDto;
-        if (Objects.nonNull(cacheDto) && Objects.equals(cacheDto.getValueType(), ValueType.STREAM)) {
-            streamDto = (StreamDto) cacheDto.getValue();
-        } else {
-            cacheDto = new CacheDto();
-            streamDto = new StreamDto();
-            cacheDto.setValueType(ValueType.STREAM);
-            cacheDto.setValue(streamDto);
-            RedisLocalMap.LOCAL_MAP.put(streamKey, cacheDto);
-        }
+        synchronized (RedisLocalMap.getLock(streamKey)) {
+            // step 1: fill cacheDto (if not exist) and streamDto (if not exist)
+            CacheDto cacheDto = RedisLocalMap.get(streamKey);
+            StreamDto streamDto;
+            if (Objects.nonNull(cacheDto) && Objects.equals(cacheDto.getValueType(), ValueType.STREAM)) {
+                streamDto = (StreamDto) cacheDto.getValue();
+            } else {
+                cacheDto = new CacheDto();
+                streamDto = new StreamDto();
+                cacheDto.setValueType(ValueType.STREAM);
+                cacheDto.setValue(streamDto);
+                RedisLocalMap.put(streamKey, cacheDto);
+            }
 
-        // step 2: parse stream key
-        String eventId = (String) list.get(1);
-        Long[] parsedEventIdArr = parseEventId(streamDto, eventId);
+            // step 2: parse stream key
+            String eventId = (String) list.get(1);
+            Long[] parsedEventIdArr = parseEventId(streamDto, eventId);
 
 
-        // step 3: pre-check stream key
-        String error = validateEntryId(streamDto, parsedEventIdArr);
-        if (!error.isEmpty()) {
-            return error;
-        }
+            // step 3: pre-check stream key
+            String error = validateEntryId(streamDto, parsedEventIdArr);
+            if (!error.isEmpty()) {
+                return error;
+            }
 
-        // step 4: populate kv pairs to streamDto
-        String finalEventId = StreamUtils.formatEventId(parsedEventIdArr);
-        StreamDto.EntryDto entryDto = new StreamDto.EntryDto(finalEventId);
-        for (int i=2; i<list.size(); i+=2) {
-            String key = (String) list.get(i);
-            String value = (String) list.get(i+1);
-            entryDto.getKvPair().put(key, value);
-        }
-        streamDto.getStreamList().add(entryDto);
+            // step 4: populate kv pairs to streamDto
+            String finalEventId = StreamUtils.formatEventId(parsedEventIdArr);
+            StreamDto.EntryDto entryDto = new StreamDto.EntryDto(finalEventId);
+            for (int i=2; i<list.size(); i+=2) {
+                String key = (String) list.get(i);
+                String value = (String) list.get(i+1);
+                entryDto.getKvPair().put(key, value);
+            }
+            streamDto.getStreamList().add(entryDto);
+            MemoryUtils.adjust(cacheDto, MemoryUtils.estimateStreamEntry(entryDto));
+            BlockingUtils.signalKeyAsReady(streamKey);
 
-        // step 5: return RESP
-        return RESPUtils.toBulkString(finalEventId);
+            // step 5: return RESP
+            return RESPUtils.toBulkString(finalEventId);
+        }
     }
 
     private Long[] parseEventId(StreamDto streamDto, String eventId) {
@@ -5,6 +5,7 @@ import domain.StreamDto;
 import enums.CommandType;
 import enums.ValueType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import service.RESPUtils;
 import service.RedisLocalMap;
 import service.StreamUtils;
@@ -16,7 +17,7 @@ import java.util.Objects;
 public class XRangeHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.XRANGE.getAlias(), this);
+        CommandTable.register(CommandType.XRANGE, this);
     }
 
     /**
@@ -32,7 +33,7 @@ public class XRangeHandler implements CommandHandler {
         }
 
         String streamKey = (String) list.get(0);
-        CacheDto cacheDto = RedisLocalMap.LOCAL_MAP.get(streamKey);
+        CacheDto cacheDto = RedisLocalMap.get(streamKey);
         if (Objects.isNull(cacheDto)
                 || !Objects.equals(cacheDto.getValueType(), ValueType.STREAM)
                 || Objects.isNull(cacheDto.getValue())) {
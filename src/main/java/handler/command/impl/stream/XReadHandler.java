@@ -3,29 +3,32 @@ package handler.command.impl.stream;
 import constants.OutputConstants;
 import enums.CommandType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
+import service.BlockingUtils;
 import service.RESPUtils;
+import service.RESPWriter;
+import service.RedisLocalMap;
 import service.StreamUtils;
 
 import java.net.Socket;
-import java.time.Duration;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.logging.Logger;
 
 public class XReadHandler implements CommandHandler {
-    private static final Logger logger = Logger.getLogger(XReadHandler.class.getName());
 
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.XREAD.getAlias(), this);
+        CommandTable.register(CommandType.XREAD, this);
     }
 
     @Override
     public String process(Socket clientSocket, List list) {
+        RESPWriter writer = new RESPWriter();
+        process(clientSocket, list, writer);
+        return BlockingUtils.toReply(clientSocket, writer);
+    }
+
+    @Override
+    public void process(Socket clientSocket, List list, RESPWriter writer) {
         if (list == null || list.size() < 3) {
             throw new RuntimeException("invalid param");
         }
@@ -33,9 +36,14 @@ public class XReadHandler implements CommandHandler {
         // step 1: check command params if it has block
         boolean hasBlockCommand;
         int offset;
+        long timeoutAt = 0;
         if (Objects.equals(list.get(0), CommandType.BLOCK.getAlias())) {
             hasBlockCommand = true;
             offset = OutputConstants.XREAD_COMMAND_PARAM_OFFSET_WITH_BLOCKING;
+            timeoutAt = BlockingUtils.parseTimeoutMillis((String) list.get(1), writer);
+            if (timeoutAt < 0) {
+                return;
+            }
         } else {
             hasBlockCommand = false;
             offset = OutputConstants.XREAD_COMMAND_PARAM_OFFSET_WITHOUT_BLOCKING;
@@ -45,16 +53,32 @@ public class XReadHandler implements CommandHandler {
         List<String> streamKeyList = parseStreamKeyList(list, offset);
         List<String> entryIdList = parseEntryIdList(list, offset+streamKeyList.size(), streamKeyList.size());
 
-        // step 3: separate logic to handle either block or no block
-        List<Object> objList = new ArrayList<>();
-        if (hasBlockCommand) {
-            handleXReadWithBlocking(list, streamKeyList, entryIdList, objList);
-        } else {
-            handleXReadWithoutBlocking(streamKeyList, entryIdList, objList);
-        }
-
-        // step 4: convert to RESP format then return
-        return RESPUtils.toBulkStringFromNestedList(objList);
+        // step 3: read entries, or block until one of the streams has an entry. No thread waits here,
+        // a blocked client is served by a later XADD or the timer
+        long finalTimeoutAt = timeoutAt;
+        RedisLocalMap.runWithLocks(streamKeyList, () -> {
+            List<Long[]> startEventIdsList = parseStartEventIdsList(streamKeyList, entryIdList);
+            List<Object> objList = new ArrayList<>();
+            for (int i=0; i<streamKeyList.size(); i++) {
+                String streamKey = streamKeyList.get(i);
+                List<Object> streamListByRange = StreamUtils.getStreamListAfter(streamKey, startEventIdsList.get(i));
+                if (streamListByRange != null && !streamListByRange.isEmpty()) {
+                    List<Object> subObjList = new ArrayList<>();
+                    subObjList.add(streamKey);
+                    subObjList.add(streamListByRange);
+                    objList.add(subObjList);
+                }
+            }
+            if (!objList.isEmpty() || !hasBlockCommand) {
+                writer.writeRaw(RESPUtils.toBulkStringFromNestedList(objList));
+                return;
+            }
+            if (!BlockingUtils.isBlockingAllowed(clientSocket)) {
+                writer.writeNullArray();
+                return;
+            }
+            BlockingUtils.blockOnStreams(clientSocket, streamKeyList, startEventIdsList, finalTimeoutAt);
+        });
     }
 
     private List<String> parseStreamKeyList(List list, int offset) {
@@ -78,109 +102,19 @@ public class XReadHandler implements CommandHandler {
         return entryIdList;
     }
 
-    private void handleXReadWithBlocking(List list,
-                                         List<String> streamKeyList,
-                                         List<String> entryIdList,
-                                         List<Object> objList) {
-        Map<Object, Object> orderMap = Collections.synchronizedMap(new LinkedHashMap<>());
-
-        Runnable task = () -> {
-           try {
-               int streamKeySize = streamKeyList.size();
-
-               // workaround to make sure startEventIds will not be incremented constantly in the sleep loop below
-               List<Long[]> cachedStartEventIdsList = generateDefaultCacheStartEventIds(streamKeySize);
-
-               outerLoop: while (true) {
-                   for (int i=0; i<streamKeySize; i++) {
-                       String streamKey = streamKeyList.get(i);
-                       String entryId = entryIdList.get(i);
-
-                       Long[] parsedStartEventIds;
-                       if (Objects.equals(entryId, OutputConstants.DOLLAR_SIZE)) {
-                           Long[] cachedStartEventIds = cachedStartEventIdsList.get(i);
-                           if (cachedStartEventIds != null) {
-                               parsedStartEventIds = new Long[]{cachedStartEventIds[0], cachedStartEventIds[1]};
-                           } else {
-                               parsedStartEventIds = StreamUtils.getLastEventIds(streamKey);
-                               Long[] newCachedStartEventIds = new Long[]{parsedStartEventIds[0], parsedStartEventIds[1]};
-                               cachedStartEventIdsList.set(i, newCachedStartEventIds);
-                           }
-                       } else {
-                           parsedStartEventIds = StreamUtils.parseStartEventId(entryId);
-                       }
-
-                       Long[] parsedEndEventIds = StreamUtils.parseEndEventId(OutputConstants.DEFAULT_END_EVENT_ID);
-
-                       // workaround to make sure query by range is exclusive
-                       StreamUtils.incrementEventIdSequenceNumber(parsedStartEventIds);
-                       List<Object> streamListByRange = StreamUtils.getStreamListByRange(streamKey, parsedStartEventIds, parsedEndEventIds);
-                       if (streamListByRange != null && !streamListByRange.isEmpty()) {
-                           orderMap.remove(streamKey);
-                           orderMap.put(streamKey, streamListByRange);
-                           break outerLoop;
-                       }
-                   }
-                   Thread.sleep(Duration.of(OutputConstants.THREAD_SLEEP_100_MICROS, ChronoUnit.MICROS));
-               }
-           } catch (InterruptedException ignore) {
-               // ignore handling exception
-           }
-        };
-
-        try {
-            long timeout = Long.parseLong((String) list.get(1));
-            if (timeout > 0) {
-                ExecutorService executor = Executors.newSingleThreadExecutor();
-                Future<?> future = executor.submit(task);
-                future.get(timeout, TimeUnit.MILLISECONDS);
-            } else {
-                // this client will be blocked indefinitely until a new entry is added
-                // due to the task's busy-spinning
-                task.run();
-            }
-        } catch (Exception ignore) {
-            // ignore handling exception
-        }
-
-        orderMap.forEach((k,v) -> {
-            String castK = (String) k;
-            List<Object> castV = (List<Object>) v;
-            if (Objects.nonNull(castK) && Objects.nonNull(castV) && !castV.isEmpty()) {
-                List<Object> subObjList = new ArrayList<>();
-                subObjList.add(castK);
-                subObjList.add(castV);
-                objList.add(subObjList);
-            }
-        });
-    }
-
-    private List<Long[]> generateDefaultCacheStartEventIds(int streamKeySize) {
-        List<Long[]> cacheStartEventIds = new ArrayList<>();
-        for (int i=0; i<streamKeySize; i++) {
-            cacheStartEventIds.add(null);
-        }
-        return cacheStartEventIds;
-    }
-
-    private void handleXReadWithoutBlocking(List<String> streamKeyList,
-                                            List<String> entryIdList,
-                                            List<Object> objList) {
+    /**
+     * $ is resolved once, to the last entry id when the command runs, so a blocked client only gets newer entries
+     */
+    private List<Long[]> parseStartEventIdsList(List<String> streamKeyList, List<String> entryIdList) {
+        List<Long[]> startEventIdsList = new ArrayList<>(streamKeyList.size());
         for (int i=0; i<streamKeyList.size(); i++) {
-            String streamKey = streamKeyList.get(i);
             String entryId = entryIdList.get(i);
-            Long[] parsedStartEventIds = StreamUtils.parseStartEventId(entryId);
-            Long[] parsedEndEventIds = StreamUtils.parseEndEventId(OutputConstants.DEFAULT_END_EVENT_ID);
-
-            // workaround to make sure query by range is exclusive
-            StreamUtils.incrementEventIdSequenceNumber(parsedStartEventIds);
-            List<Object> streamListByRange = StreamUtils.getStreamListByRange(streamKey, parsedStartEventIds, parsedEndEventIds);
-            if (streamListByRange != null && !streamListByRange.isEmpty()) {
-                List<Object> subObjList = new ArrayList<>();
-                subObjList.add(streamKey);
-                subObjList.add(streamListByRange);
-                objList.add(subObjList);
+            if (Objects.equals(entryId, OutputConstants.DOLLAR_SIZE)) {
+                startEventIdsList.add(StreamUtils.getLastEventIds(streamKeyList.get(i)));
+            } else {
+                startEventIdsList.add(StreamUtils.parseStartEventId(entryId));
             }
         }
+        return startEventIdsList;
     }
 }
@@ -1,10 +1,11 @@
 package handler.command.impl.transaction;
 
-import constants.OutputConstants;
 import domain.CommandDto;
 import domain.JobDto;
 import enums.CommandType;
+import enums.SharedReplyType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import handler.job.JobHandler;
 import service.RESPUtils;
 import service.ServerUtils;
@@ -16,7 +17,7 @@ import java.util.List;
 public class DiscardHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.DISCARD.getAlias(), this);
+        CommandTable.register(CommandType.DISCARD, this);
     }
 
     @Override
@@ -27,7 +28,7 @@ public class DiscardHandler implements CommandHandler {
         String jobId = ServerUtils.formatIdFromSocket(clientSocket);
         JobDto jobDto = JobHandler.JOB_MAP.get(jobId);
         if (jobDto == null || !jobDto.isCommandAtomic()) {
-            return RESPUtils.toSimpleError(OutputConstants.DISCARD_WITHOUT_MULTI_COMMAND_ERROR);
+            return SharedReplyType.ERR_DISCARD_WITHOUT_MULTI.getReply();
         }
         jobDto.setCommandAtomic(Boolean.FALSE);
         LinkedList<CommandDto> commandDtos = jobDto.getCommandDtoList();
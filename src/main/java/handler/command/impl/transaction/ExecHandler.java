@@ -1,15 +1,21 @@
 package handler.command.impl.transaction;
 
-import constants.OutputConstants;
+import domain.CommandDescriptorDto;
 import domain.CommandDto;
 import domain.JobDto;
 import domain.ParserDto;
 import enums.CommandType;
+import enums.SharedReplyType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import handler.job.JobHandler;
+import service.BlockingUtils;
+import service.EvictionUtils;
 import service.RESPParserUtils;
 import service.RESPUtils;
+import service.RedisLocalMap;
 import service.ServerUtils;
+import service.ShardUtils;
 
 import java.net.Socket;
 import java.util.ArrayList;
@@ -19,7 +25,7 @@ import java.util.List;
 public class ExecHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.EXEC.getAlias(), this);
+        CommandTable.register(CommandType.EXEC, this);
     }
 
     @Override
@@ -30,13 +36,28 @@ public class ExecHandler implements CommandHandler {
         String jobId = ServerUtils.formatIdFromSocket(clientSocket);
         JobDto jobDto = JobHandler.JOB_MAP.get(jobId);
         if (jobDto == null || !jobDto.isCommandAtomic()) {
-            return RESPUtils.toSimpleError(OutputConstants.EXEC_WITHOUT_MULTI_COMMAND_ERROR);
+            return SharedReplyType.ERR_EXEC_WITHOUT_MULTI.getReply();
         }
         jobDto.setCommandAtomic(Boolean.FALSE);
         LinkedList<CommandDto> commandDtos = jobDto.getCommandDtoList();
         if (commandDtos.isEmpty()) {
             return RESPUtils.toArray(List.of());
         }
+        // queued commands do not evict, they may run holding the locks of their keys. Memory is freed once for all of them
+        if (hasWrite(commandDtos)) {
+            EvictionUtils.performEvictions();
+        }
+        if (ShardUtils.isEnabled()) {
+            List<String> keys = getShardKeys(commandDtos);
+            if (keys != null) {
+                return RESPUtils.toArrayV2(processOnShard(clientSocket, commandDtos, keys));
+            }
+            return RESPUtils.toArrayV2(processExclusive(clientSocket, commandDtos));
+        }
+        return RESPUtils.toArrayV2(BlockingUtils.callInTransaction(() -> processQueued(clientSocket, commandDtos)));
+    }
+
+    private List<String> processQueued(Socket clientSocket, LinkedList<CommandDto> commandDtos) {
         List<String> respList = new ArrayList<>();
         while (!commandDtos.isEmpty()) {
             CommandDto commandDto = commandDtos.poll();
@@ -44,6 +65,60 @@ public class ExecHandler implements CommandHandler {
             String respStr = RESPParserUtils.convertList2Str(parserDto);
             respList.add(respStr);
         }
-        return RESPUtils.toArrayV2(respList);
+        return respList;
+    }
+
+    private boolean hasWrite(List<CommandDto> commandDtos) {
+        for (CommandDto commandDto: commandDtos) {
+            CommandDescriptorDto descriptor = CommandTable.lookup(commandDto.getList());
+            if (descriptor != null && descriptor.isWrite()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return keys of the queued commands if every command is routable and all keys belong to one shard, else null
+     */
+    private List<String> getShardKeys(List<CommandDto> commandDtos) {
+        List<String> keys = new ArrayList<>(commandDtos.size());
+        for (CommandDto commandDto: commandDtos) {
+            CommandDescriptorDto descriptor = CommandTable.lookup(commandDto.getList());
+            if (descriptor == null
+                    || !descriptor.isRoutableToShard()
+                    || !descriptor.isValidArity(commandDto.getList().size())) {
+                return null;
+            }
+            String key = commandDto.getList().get(1);
+            if (!keys.isEmpty() && ShardUtils.getShardIndex(key) != ShardUtils.getShardIndex(keys.get(0))) {
+                return null;
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    /**
+     * run queued commands of a single shard on that shard, in one hop. The locks of their keys are held from the
+     * first command to the last, so commands running on connection threads never see part of the transaction
+     */
+    private List<String> processOnShard(Socket clientSocket, LinkedList<CommandDto> commandDtos, List<String> keys) {
+        return ShardUtils.getResult(ShardUtils.submit(keys.get(0), () -> BlockingUtils.callInTransaction(() -> {
+            List<String> respList = new ArrayList<>(commandDtos.size());
+            RedisLocalMap.runWithLocks(keys, () -> respList.addAll(processQueued(clientSocket, commandDtos)));
+            return respList;
+        })));
+    }
+
+    /**
+     * run queued commands spanning several shards, or not routable to a shard, on this thread while every shard is
+     * parked and every key lock is held, so no other command runs in the middle of the transaction
+     */
+    private List<String> processExclusive(Socket clientSocket, LinkedList<CommandDto> commandDtos) {
+        List<String> respList = new ArrayList<>(commandDtos.size());
+        ShardUtils.runExclusive(() -> RedisLocalMap.runWithAllLocks(
+                () -> respList.addAll(BlockingUtils.callInTransaction(() -> processQueued(clientSocket, commandDtos)))));
+        return respList;
     }
 }
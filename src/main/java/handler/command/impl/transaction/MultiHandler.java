@@ -1,13 +1,15 @@
 package handler.command.impl.transaction;
 
-import constants.OutputConstants;
 import domain.CommandDto;
 import domain.JobDto;
 import enums.CommandType;
+import enums.SharedReplyType;
 import handler.command.CommandHandler;
+import handler.command.CommandTable;
 import handler.job.JobHandler;
 import service.RESPUtils;
 import service.ServerUtils;
+import stream.RESPArgs;
 
 import java.net.Socket;
 import java.util.LinkedList;
@@ -16,7 +18,7 @@ import java.util.List;
 public class MultiHandler implements CommandHandler {
     @Override
     public void register() {
-        CommandHandler.HANDLER_MAP.put(CommandType.MULTI.getAlias(), this);
+        CommandTable.register(CommandType.MULTI, this);
     }
 
     @Override
@@ -34,7 +36,8 @@ public class MultiHandler implements CommandHandler {
         String jobId = ServerUtils.formatIdFromSocket(clientSocket);
         JobDto jobDto = JobHandler.JOB_MAP.get(jobId);
         LinkedList<CommandDto> commandDtoList = jobDto.getCommandDtoList();
-        commandDtoList.add(new CommandDto(list));
-        return RESPUtils.toSimpleString(OutputConstants.RESP_QUEUED_MULTI_COMMAND);
+        // arguments may be a view of the decoder buffer, queued commands own a copy of their raw bytes
+        commandDtoList.add(new CommandDto(RESPArgs.copyOf(list)));
+        return SharedReplyType.QUEUED.getReply();
     }
 }
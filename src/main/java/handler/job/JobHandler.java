@@ -1,14 +1,48 @@
 package handler.job;
 
 import domain.JobDto;
+import service.SystemPropHelper;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public interface JobHandler {
-    Map<String, JobDto> JOB_MAP = new HashMap<>();
+    Map<String, JobDto> JOB_MAP = new ConcurrentHashMap<>();
 
     void registerJob(JobDto jobDto);
     void listenTask(String jobId);
     void processTask(String jobId);
+
+    /**
+     * job threads only park on socket reads and task queue takes, so they can run as virtual threads
+     * @param task job loop
+     * @return started thread
+     */
+    static Thread startThread(Runnable task) {
+        if (SystemPropHelper.isVirtualThreadsEnabled()) {
+            return Thread.ofVirtual().start(task);
+        }
+        Thread thread = new Thread(task);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * remove the job registered under jobId and wake up its process thread
+     * @param jobId job ID
+     */
+    static void removeJob(String jobId) {
+        stopJob(JOB_MAP.remove(jobId));
+    }
+
+    /**
+     * process thread is parked on its task queue and would never notice the socket is closed
+     * @param jobDto job
+     */
+    static void stopJob(JobDto jobDto) {
+        if (jobDto == null || jobDto.getProcessTaskThread() == null) {
+            return;
+        }
+        jobDto.getProcessTaskThread().interrupt();
+    }
 }
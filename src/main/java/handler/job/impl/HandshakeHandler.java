@@ -1,7 +1,6 @@
 package handler.job.impl;
 
 import constants.OutputConstants;
-import constants.ParserConstants;
 import domain.JobDto;
 import domain.RESPResultDto;
 import domain.TaskDto;
@@ -12,14 +11,15 @@ import service.RESPParser;
 import service.RESPUtils;
 import service.ServerUtils;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.net.Socket;
-import java.time.Duration;
-import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 public class HandshakeHandler implements JobHandler {
     private static final ConcurrentHashMap<String, Integer> REPLICA_STATUS_MAP = new ConcurrentHashMap<>();
@@ -47,8 +47,8 @@ public class HandshakeHandler implements JobHandler {
         JobHandler.JOB_MAP.put(jobId, jobDto);
         HandshakeHandler.REPLICA_STATUS_MAP.put(jobId, ReplCommandType.DEFAULT.getStatus());
         HandshakeHandler.REPLICA_OFFSET_MAP.put(jobId, OutputConstants.CLIENT_REPL_OFFSET_DEFAULT);
-        new Thread(() -> listenTask(jobId)).start();
-        new Thread(() -> processTask(jobId)).start();
+        jobDto.setProcessTaskThread(JobHandler.startThread(() -> processTask(jobId)));
+        JobHandler.startThread(() -> listenTask(jobId));
     }
 
     @Override
@@ -60,7 +60,7 @@ public class HandshakeHandler implements JobHandler {
             while (!handshakeSocket.isClosed()) {
                 RESPResultDto result = new RESPParser.Builder()
                         .addClientSocket(handshakeSocket)
-                        .addBufferSize(ParserConstants.RESP_PARSER_BUFFER_SIZE)
+                        .addDecoder(jobDto.getDecoder())
                         .build()
                         .process();
                 result.setPipeline(Boolean.FALSE);
@@ -70,12 +70,13 @@ public class HandshakeHandler implements JobHandler {
                 if (!taskDtoList.isEmpty()) {
                     jobDto.getTaskQueue().addAll(taskDtoList);
                 }
-                Thread.sleep(Duration.of(jobDto.getFreq(), ChronoUnit.MICROS));
             }
-        } catch (IOException | InterruptedException e) {
+        } catch (EOFException e) {
+            // master closed connection
+        } catch (IOException e) {
             e.printStackTrace();
         } finally {
-            JobHandler.JOB_MAP.remove(jobId);
+            JobHandler.removeJob(jobId);
             try {
                 if (!handshakeSocket.isClosed()) {
                     handshakeSocket.close();
@@ -92,26 +93,17 @@ public class HandshakeHandler implements JobHandler {
         Socket clientSocket = jobDto.getSocket();
 
         try {
+            LinkedBlockingQueue<TaskDto> taskQueue = jobDto.getTaskQueue();
+            List<TaskDto> pendingTaskList = new LinkedList<>();
             while (!clientSocket.isClosed()) {
-                ConcurrentLinkedQueue<TaskDto> taskQueue = jobDto.getTaskQueue();
-                while(!taskQueue.isEmpty()) {
-                    TaskDto taskDto = taskQueue.poll();
-                    if (canProcessTask(taskDto)) {
-                        if (canWriteTask(taskDto)) {
-                            String commandStr = updateCommandReplConfAckOffsetIfMatch(taskDto);
-                            ServerUtils.writeThenFlushString(taskDto.getSocket(), commandStr);
-                        }
-                        // it is important to consider order of below methods
-                        updateReplicaOffsetByTask(taskDto);
-                        incrementReplicaStatusByTask(taskDto);
-                    } else {
-                        taskQueue.add(taskDto);
-                    }
-                    Thread.sleep(Duration.of(taskDto.getFreq(), ChronoUnit.MICROS));
-                }
-                Thread.sleep(Duration.of(jobDto.getFreq(), ChronoUnit.MICROS));
+                // parks until a new task arrives, which is the only event that can unblock a pending task
+                pendingTaskList.add(taskQueue.take());
+                taskQueue.drainTo(pendingTaskList);
+                processPendingTasks(pendingTaskList);
             }
-        } catch (IOException | InterruptedException e) {
+        } catch (InterruptedException e) {
+            // job is stopped
+        } catch (IOException e) {
             e.printStackTrace();
         } finally {
             JobHandler.JOB_MAP.remove(jobId);
@@ -125,6 +117,34 @@ public class HandshakeHandler implements JobHandler {
         }
     }
 
+    /**
+     * handshake status only advances here, so keep processing pending tasks in queue order until none can proceed
+     * @param pendingTaskList tasks not processed yet
+     * @throws IOException failed to write to master
+     */
+    private void processPendingTasks(List<TaskDto> pendingTaskList) throws IOException {
+        boolean hasProcessedTask = true;
+        while (hasProcessedTask) {
+            hasProcessedTask = false;
+            Iterator<TaskDto> iterator = pendingTaskList.iterator();
+            while (iterator.hasNext()) {
+                TaskDto taskDto = iterator.next();
+                if (!canProcessTask(taskDto)) {
+                    continue;
+                }
+                iterator.remove();
+                if (canWriteTask(taskDto)) {
+                    String commandStr = updateCommandReplConfAckOffsetIfMatch(taskDto);
+                    ServerUtils.writeThenFlushString(taskDto.getSocket(), commandStr);
+                }
+                // it is important to consider order of below methods
+                updateReplicaOffsetByTask(taskDto);
+                incrementReplicaStatusByTask(taskDto);
+                hasProcessedTask = true;
+            }
+        }
+    }
+
     private boolean canProcessTask(TaskDto taskDto) {
         if (taskDto == null
                 || taskDto.getSocket() == null
@@ -15,10 +15,12 @@ import java.io.IOException;
 import java.net.Socket;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 public class PropagateHandler implements JobHandler {
     private static final ConcurrentHashMap<String, Integer> MASTER_STATUS_MAP = new ConcurrentHashMap<>();
@@ -36,8 +38,8 @@ public class PropagateHandler implements JobHandler {
         String jobId = ServerUtils.formatIdFromSocket(jobDto.getSocket());
         JobHandler.JOB_MAP.put(jobId, jobDto);
         PropagateHandler.MASTER_STATUS_MAP.put(jobId, PropagateType.DEFAULT.getStatus());
-        new Thread(() -> processTask(jobId)).start();
-        new Thread(() -> listenTask(jobId)).start();
+        jobDto.setProcessTaskThread(JobHandler.startThread(() -> processTask(jobId)));
+        JobHandler.startThread(() -> listenTask(jobId));
     }
 
     @Override
@@ -50,25 +52,17 @@ public class PropagateHandler implements JobHandler {
         Socket clientSocket = jobDto.getSocket();
 
         try {
+            LinkedBlockingQueue<TaskDto> taskQueue = jobDto.getTaskQueue();
+            List<TaskDto> pendingTaskList = new LinkedList<>();
             while (!clientSocket.isClosed()) {
-                ConcurrentLinkedQueue<TaskDto> taskQueue = jobDto.getTaskQueue();
-                while(!taskQueue.isEmpty()) {
-                    TaskDto taskDto = taskQueue.poll();
-                    Thread.sleep(Duration.of(taskDto.getFreq(), ChronoUnit.MICROS)); // issue: fullresync comes after empty rdb
-                    if (canProcessTask(taskDto)) {
-                        if (canWriteTask(taskDto)) {
-                            ServerUtils.writeThenFlush(clientSocket, taskDto.getCommandStr(), taskDto.getCommand());
-                        }
-                        // it is important to consider order of below methods
-                        incrementNumPropagateTaskSent(taskDto);
-                        incrementMasterStatus(taskDto);
-                    } else {
-                        taskQueue.add(taskDto);
-                    }
-                }
-                Thread.sleep(Duration.of(jobDto.getFreq(), ChronoUnit.MICROS));
+                // parks until a new task arrives, which is the only event that can unblock a pending task
+                pendingTaskList.add(taskQueue.take());
+                taskQueue.drainTo(pendingTaskList);
+                processPendingTasks(clientSocket, pendingTaskList);
             }
-        } catch (IOException | InterruptedException e) {
+        } catch (InterruptedException e) {
+            // job is stopped
+        } catch (IOException e) {
             e.printStackTrace();
         } finally {
             JobHandler.JOB_MAP.remove(jobId);
@@ -82,6 +76,37 @@ public class PropagateHandler implements JobHandler {
         }
     }
 
+    /**
+     * master status and num task sent only advance here, so keep processing pending tasks in queue order
+     * until none can proceed
+     * @param clientSocket replica socket
+     * @param pendingTaskList tasks not processed yet
+     * @throws IOException failed to write to replica
+     * @throws InterruptedException job is stopped
+     */
+    private void processPendingTasks(Socket clientSocket, List<TaskDto> pendingTaskList) throws IOException, InterruptedException {
+        boolean hasProcessedTask = true;
+        while (hasProcessedTask) {
+            hasProcessedTask = false;
+            Iterator<TaskDto> iterator = pendingTaskList.iterator();
+            while (iterator.hasNext()) {
+                TaskDto taskDto = iterator.next();
+                if (!canProcessTask(taskDto)) {
+                    continue;
+                }
+                iterator.remove();
+                Thread.sleep(Duration.of(taskDto.getFreq(), ChronoUnit.MICROS)); // issue: fullresync comes after empty rdb
+                if (canWriteTask(taskDto)) {
+                    ServerUtils.writeThenFlush(clientSocket, taskDto.getCommandStr(), taskDto.getCommand());
+                }
+                // it is important to consider order of below methods
+                incrementNumPropagateTaskSent(taskDto);
+                incrementMasterStatus(taskDto);
+                hasProcessedTask = true;
+            }
+        }
+    }
+
     private boolean canProcessTask(TaskDto taskDto) {
         if (taskDto == null
                 || taskDto.getSocket() == null
@@ -1,22 +1,25 @@
 package handler.job.impl;
 
-import constants.ParserConstants;
+import constants.OutputConstants;
 import domain.JobDto;
-import domain.RESPResultDto;
 import domain.TaskDto;
 import enums.JobType;
 import handler.job.JobHandler;
+import service.BlockingUtils;
 import service.RESPParser;
-import service.RESPUtils;
+import service.RESPWriter;
 import service.ServerUtils;
+import service.SystemPropHelper;
 
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.Socket;
-import java.time.Duration;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 public class RespHandler implements JobHandler {
 
@@ -24,8 +27,8 @@ public class RespHandler implements JobHandler {
     public void registerJob(JobDto jobDto) {
         String jobId = ServerUtils.formatIdFromSocket(jobDto.getSocket());
         JobHandler.JOB_MAP.put(jobId, jobDto);
-        new Thread(() -> listenTask(jobId)).start();
-        new Thread(() -> processTask(jobId)).start();
+        jobDto.setProcessTaskThread(JobHandler.startThread(() -> processTask(jobId)));
+        JobHandler.startThread(() -> listenTask(jobId));
     }
 
     @Override
@@ -34,26 +37,27 @@ public class RespHandler implements JobHandler {
         Socket clientSocket = jobDto.getSocket();
 
         try {
-            // handle multiple commands from redis client
+            RESPParser parser = new RESPParser.Builder()
+                    .addClientSocket(clientSocket)
+                    .addDecoder(jobDto.getDecoder())
+                    .build();
+            RESPWriter writer = new RESPWriter();
+            int highWaterMark = SystemPropHelper.getOutputBufferHighWaterMarkOrDefault();
+            // handle multiple commands from redis client, parser blocks until the next read
             while (!clientSocket.isClosed()) {
-                RESPResultDto result = new RESPParser.Builder()
-                        .addClientSocket(clientSocket)
-                        .addBufferSize(ParserConstants.RESP_PARSER_BUFFER_SIZE)
-                        .build()
-                        .process();
-                result.setPipeline(Boolean.TRUE);
-                result.setUseBytes(Boolean.TRUE);
-                result.setJobType(JobType.RESP);
-                List<TaskDto> taskDtoList = RESPUtils.convertToTasks(result);
-                if (!taskDtoList.isEmpty()) {
-                    jobDto.getTaskQueue().addAll(taskDtoList);
-                }
-                Thread.sleep(Duration.of(jobDto.getFreq(), ChronoUnit.MICROS));
+                // replies of a read batch are queued as one task, or one per high-water mark for a large batch
+                parser.processTo(writer, highWaterMark, w -> queueReplies(jobDto, w));
             }
-        } catch (IOException | InterruptedException e) {
+        } catch (EOFException e) {
+            // client closed connection
+        } catch (IOException e) {
             e.printStackTrace();
         } finally {
-            JobHandler.JOB_MAP.remove(jobId);
+            // a client blocked by the last command must not be handed a push once its connection is gone
+            BlockingUtils.cancel(jobId);
+            // the job registered under this socket may have been replaced, e.g. by PropagateHandler after PSYNC
+            JobHandler.removeJob(jobId);
+            JobHandler.stopJob(jobDto);
             try {
                 if (!clientSocket.isClosed()) {
                     clientSocket.close();
@@ -64,28 +68,49 @@ public class RespHandler implements JobHandler {
         }
     }
 
+    private void queueReplies(JobDto jobDto, RESPWriter writer) {
+        TaskDto taskDto = new TaskDto.Builder()
+                .addTaskId(OutputConstants.DEFAULT_INVALID_TASK_DTO_ID)
+                .addJobType(JobType.RESP)
+                .addSocket(jobDto.getSocket())
+                .addCommand(writer.toByteArray())
+                .addFreq(OutputConstants.THREAD_SLEEP_100_MICROS)
+                .addInputByteRead(0) // n/a
+                .build();
+        jobDto.getTaskQueue().add(taskDto);
+        writer.clear();
+    }
+
     @Override
     public void processTask(String jobId) {
         JobDto jobDto = JobHandler.JOB_MAP.get(jobId);
         Socket clientSocket = jobDto.getSocket();
         try {
+            LinkedBlockingQueue<TaskDto> taskQueue = jobDto.getTaskQueue();
+            // coalesce every task queued since the last flush, a task larger than the buffer is written through
+            OutputStream outputStream = new BufferedOutputStream(clientSocket.getOutputStream(),
+                    SystemPropHelper.getOutputBufferHighWaterMarkOrDefault());
+            List<TaskDto> pendingTaskList = new ArrayList<>();
             while (!clientSocket.isClosed()) {
-                ConcurrentLinkedQueue<TaskDto> taskQueue = jobDto.getTaskQueue();
-                while(!taskQueue.isEmpty()) {
-                    TaskDto taskDto = taskQueue.poll();
+                pendingTaskList.add(taskQueue.take()); // parks until listenTask queues replies
+                taskQueue.drainTo(pendingTaskList);
+                for (TaskDto taskDto: pendingTaskList) {
+                    // a task without reply bytes never becomes writable, so drop instead of re-queueing it
                     if (canProcessTask(taskDto)) {
-                        ServerUtils.writeThenFlush(clientSocket, taskDto.getCommandStr(), taskDto.getCommand());
-                    } else {
-                        taskQueue.add(taskDto);
+                        outputStream.write(taskDto.getCommand());
                     }
-                    Thread.sleep(Duration.of(taskDto.getFreq(), ChronoUnit.MICROS));
                 }
-                Thread.sleep(Duration.of(jobDto.getFreq(), ChronoUnit.MICROS));
+                pendingTaskList.clear();
+                outputStream.flush();
             }
-        } catch (IOException | InterruptedException e) {
+        } catch (InterruptedException e) {
+            // job is stopped
+        } catch (IOException e) {
             e.printStackTrace();
         } finally {
             JobHandler.JOB_MAP.remove(jobId);
+            // wakes up listenTask if it waits for the reply of a blocked client, the reply could not be written anyway
+            BlockingUtils.cancel(jobId);
             try {
                 if (!clientSocket.isClosed()) {
                     clientSocket.close();
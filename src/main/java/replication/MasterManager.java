@@ -10,17 +10,15 @@ import handler.job.impl.PropagateHandler;
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Hex;
 import service.RESPUtils;
+import service.RESPWriter;
 import service.ServerUtils;
 import service.SystemPropHelper;
+import stream.RESPArgs;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.net.Socket;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.concurrent.*;
 
 public class MasterManager {
 
@@ -80,13 +78,20 @@ public class MasterManager {
      * @param list
      */
     public static void propagate(List list) {
-        if (list == null || list.isEmpty() || list.size() < 2) {
+        if (list == null || list.isEmpty()) {
             throw new RuntimeException("invalid param");
         }
-        List<String> strings = new ArrayList<>();
-        list.forEach(e -> strings.add((String) e));
-        String command = RESPUtils.toArray(strings);
-        registerCommand(command);
+        // arguments are re-encoded from their raw bytes, so binary values reach replicas unchanged
+        RESPWriter writer = new RESPWriter();
+        writer.writeArrayHeader(list.size());
+        for (int i=0; i<list.size(); i++) {
+            if (list instanceof RESPArgs args) {
+                writer.writeBulkString(args.getBytes(i));
+            } else {
+                writer.writeBulkString((String) list.get(i));
+            }
+        }
+        registerCommand(writer.toByteArray());
     }
 
     public static void setHasWriteReplicas() {
@@ -126,47 +131,19 @@ public class MasterManager {
     }
 
     /**
-     * return number of ACKed replicas after master's propagated WRITE command
-     * @param expectedNumACKReplica expected number of ACKed replicas (return immediately if reach expected num)
-     * @param timeout return immediately if reach timeout
-     * @return RESP-formatted simple integer
+     * request GETACK to replicas that received any WRITE command but have not ACKed yet, WAIT is served
+     * once their ACKs arrive
      */
-    public static String requestThenGetRespNumACKedReplica(int expectedNumACKReplica, int timeout) {
-        ExecutorService executor = Executors.newSingleThreadExecutor();
+    public static void requestReplicaAcks() {
+        precheckValidMasterNode();
         String masterNodeId = SystemPropHelper.getSetMasterNodeId();
         MasterNodeDto masterNode = MASTER_NODE_MAP.get(masterNodeId);
-        Callable<String> task = () -> {
-            try {
-                // step 1: list replication connections that receive any WRITE command before but has not ACKed yet
-                List<MasterReplicaDto> notACKedMrDtoList = masterNode.getMasterReplicaDtoList().stream()
-                        .filter(mrDto -> mrDto.isHasWriteBefore() && !mrDto.isACKed())
-                        .toList();
-
-                // step 2: request GETACK to those replicas
-                String getAckCommand = RESPUtils.requestRESPReplConfAck();
-                for (MasterReplicaDto mrDto: notACKedMrDtoList) {
-                    registerCommandPerHandshakeConn(mrDto, getAckCommand);
-                }
-
-                // step 3: continuously check if get enough num of ACKs from Replicas
-                while (true) {
-                    int ans = getNumACKedReplica();
-                    if (ans >= expectedNumACKReplica) {
-                        return RESPUtils.toSimpleInt(ans);
-                    }
-                    Thread.sleep(Duration.of(OutputConstants.THREAD_SLEEP_100_MICROS, ChronoUnit.MICROS));
-                }
-            } catch (Exception e) {
-                System.out.printf("failed to get num ACKed replicas due to %s, return current number of ACKed instead\n", e.getMessage());
-                return RESPUtils.toSimpleInt(getNumACKedReplica());
-            }
-        };
-        Future<String> future = executor.submit(task);
-        try {
-            return future.get(timeout, TimeUnit.MILLISECONDS);
-        } catch (Exception e) {
-            System.out.printf("failed to get num ACKed replicas due to timeout, return current number of ACKed instead\n", e.getMessage());
-            return RESPUtils.toSimpleInt(getNumACKedReplica());
+        List<MasterReplicaDto> notACKedMrDtoList = masterNode.getMasterReplicaDtoList().stream()
+                .filter(mrDto -> mrDto.isHasWriteBefore() && !mrDto.isACKed())
+                .toList();
+        String getAckCommand = RESPUtils.requestRESPReplConfAck();
+        for (MasterReplicaDto mrDto: notACKedMrDtoList) {
+            registerCommandPerHandshakeConn(mrDto, getAckCommand);
         }
     }
 
@@ -195,7 +172,7 @@ public class MasterManager {
      * see {@link PropagateHandler#isMasterCompletePropagate(String)}
      * @param command RESP command
      */
-    private static void registerCommand(String command) {
+    private static void registerCommand(byte[] command) {
         String masterNodeId = SystemPropHelper.getSetMasterNodeId();
         MasterNodeDto masterNode = MASTER_NODE_MAP.get(masterNodeId);
         if (masterNode == null) {
@@ -211,7 +188,7 @@ public class MasterManager {
             TaskDto taskDto = new TaskDto.Builder()
                     .addTaskId(curNumTaskQueued+1)
                     .addSocket(socket)
-                    .addCommandStr(command)
+                    .addCommand(command)
                     .addJobType(JobType.PROPAGATE)
                     .addFreq(OutputConstants.THREAD_SLEEP_100_MICROS)
                     .addInputByteRead(0)
@@ -255,10 +232,7 @@ public class MasterManager {
                 continue;
             }
             try {
-                Socket socket = mrDto.getSocket();
-                OutputStream outputStream = socket.getOutputStream();
-                outputStream.write(command.getBytes(StandardCharsets.UTF_8));
-                outputStream.flush();
+                ServerUtils.writeThenFlushString(mrDto.getSocket(), command);
             } catch (IOException e) {
                 System.out.println("failed to propagate command from master to replica due to " + e.getMessage());
             }
@@ -278,7 +252,7 @@ public class MasterManager {
         return masterNode.getNumConnectedReplicas();
     }
 
-    private static int getNumACKedReplica() {
+    public static int getNumACKedReplica() {
         precheckValidMasterNode();
         String masterNodeId = SystemPropHelper.getSetMasterNodeId();
         MasterNodeDto masterNode = MASTER_NODE_MAP.get(masterNodeId);
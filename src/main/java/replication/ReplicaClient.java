@@ -5,6 +5,7 @@ import domain.JobDto;
 import domain.MasterNodeDto;
 import enums.CommandType;
 import enums.JobType;
+import handler.job.JobHandler;
 import handler.job.impl.HandshakeHandler;
 import service.RESPUtils;
 import service.ServerUtils;
@@ -23,6 +24,7 @@ public class ReplicaClient {
                 .addSocket(replica2Master)
                 .addFreq(OutputConstants.THREAD_SLEEP_100_MICROS)
                 .addTaskQueue()
+                .addDecoder()
                 .build();
         new HandshakeHandler().registerJob(jobDto);
         String jobId = ServerUtils.formatIdFromSocket(replica2Master);
@@ -44,6 +46,15 @@ public class ReplicaClient {
         }
     }
 
+    /**
+     * @param socket connection socket
+     * @return whether socket is the connection of this replica to its master, the commands read from it are propagated
+     */
+    public static boolean isMasterLink(Socket socket) {
+        JobDto jobDto = JobHandler.JOB_MAP.get(ServerUtils.formatIdFromSocket(socket));
+        return jobDto != null && Objects.equals(jobDto.getJobType(), JobType.HANDSHAKE);
+    }
+
     public static String getRESPReplConfListeningPort() {
         String replicaPort = String.valueOf(SystemPropHelper.getServerPortOrDefault());
         List<String> list = List.of(CommandType.REPLCONF.name(), CommandType.LISTENING_PORT.getAlias(), replicaPort);
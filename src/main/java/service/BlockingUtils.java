@@ -0,0 +1,693 @@
+package service;
+
+import constants.OutputConstants;
+import domain.BlockedClientDto;
+import domain.CacheDto;
+import domain.QuickList;
+import domain.StreamDto;
+import domain.TimerWheel;
+import enums.CommandType;
+import enums.SharedReplyType;
+import enums.ValueType;
+import replication.MasterManager;
+import replication.ReplicaClient;
+
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Notes:
+ *  1. BLPOP, BRPOP and BLMOVE finding no element register their client here instead of parking a thread:
+ *     a FIFO set of waiters per key, same as redis blocking_keys
+ *  2. pushes signal their key as ready while holding its lock, ready keys are served after the command completes,
+ *     same as redis handleClientsBlockedOnKeys, so a MULTI pushing then popping a key keeps its own element
+ *  3. serving a key pops one element per waiter in FIFO order while the key has elements. A client waiting on
+ *     several keys is removed from all of them once served. BLMOVE pushes to its destination, which becomes ready
+ *  4. timeouts are kept in a timer wheel advanced by a single timer thread, a timed out client gets a null reply
+ *  5. the connection of a blocked client runs no command until the reply is ready: the event loop suspends it
+ *     without a thread, a thread-per-connection client waits on its own connection thread. A client whose
+ *     connection is gone is cancelled with an empty reply, which wakes up that thread
+ *  6. locks are taken as key locks then the registry lock, the timer thread takes the registry lock only
+ *  7. inside EXEC a blocking command never blocks, it replies null if no element is available, and ready keys are
+ *     served once EXEC completes, same as redis
+ *  8. XREAD BLOCK and WAIT register their client the same way: XADD signals its stream as ready and every waiter
+ *     with entries after its start id is served, entries are not consumed. A replica acknowledging serves WAIT clients
+ *     once enough replicas did, a timed out WAIT gets the number of replicas that acknowledged so far
+ *  9. a blocking pop is propagated to replicas as the pop it runs, LPOP, RPOP or LMOVE of the key served, whether
+ *     right away or once served, same as redis. A replica never blocks on the commands of its master
+ */
+public class BlockingUtils {
+    private static final Logger logger = Logger.getLogger(BlockingUtils.class.getName());
+    private static final Object REGISTRY_LOCK = new Object();
+    private static final Map<String, Set<BlockedClientDto>> BLOCKED_CLIENTS_BY_KEY = new HashMap<>();
+    private static final Set<String> READY_KEYS = new LinkedHashSet<>();
+    private static final Set<BlockedClientDto> REPLICA_WAITERS = new LinkedHashSet<>();
+    private static final Map<String, BlockedClientDto> BLOCKED_CLIENTS_BY_ID = new HashMap<>();
+    private static final TimerWheel<BlockedClientDto> TIMER_WHEEL = new TimerWheel<>(
+            OutputConstants.BLOCKING_TIMER_TICK_MILLIS, OutputConstants.BLOCKING_TIMER_NUM_SLOTS, System.currentTimeMillis());
+    private static final AtomicInteger NUM_BLOCKED_CLIENTS = new AtomicInteger();
+    // clients blocked by the command that just ran, until their connection takes them
+    private static final Map<String, BlockedClientDto> PENDING_CLIENT_MAP = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Boolean> IS_IN_TRANSACTION = new ThreadLocal<>();
+
+    private static volatile boolean hasReadyKeys;
+    private static ScheduledExecutorService timerExecutor;
+
+    /**
+     * BLPOP key [key ...] timeout, BRPOP key [key ...] timeout
+     * @param clientSocket client socket
+     * @param list keys then timeout
+     * @param writer reply writer, nothing is written if the client blocks
+     * @param isFromLeft whether elements are popped from the head
+     */
+    public static void processBlockingPop(Socket clientSocket, List list, RESPWriter writer, boolean isFromLeft) {
+        if (list == null || list.size() < 2) {
+            throw new RuntimeException("invalid param");
+        }
+        long timeoutAt = parseTimeout((String) list.get(list.size()-1), writer);
+        if (timeoutAt < 0) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(list.size()-1);
+        for (int i=0; i<list.size()-1; i++) {
+            keys.add((String) list.get(i));
+        }
+        RedisLocalMap.runWithLocks(keys, () -> {
+            for (String key: keys) {
+                CacheDto cache = RedisLocalMap.get(key);
+                if (cache == null) {
+                    continue;
+                }
+                if (!ValueType.isList(cache.getValueType()) || !(cache.getValue() instanceof QuickList storedList)) {
+                    writer.writeShared(SharedReplyType.ERR_WRONG_TYPE);
+                    return;
+                }
+                if (!storedList.isEmpty()) {
+                    writer.writeRaw(pop(key, cache, storedList, isFromLeft, null, false, true));
+                    return;
+                }
+            }
+            if (!isBlockingAllowed(clientSocket)) {
+                writer.writeNullArray();
+                return;
+            }
+            // registered holding the key locks, so a push to any of the keys either came before or will see it
+            block(new BlockedClientDto(ServerUtils.formatIdFromSocket(clientSocket), keys, isFromLeft, null, false, timeoutAt));
+        });
+    }
+
+    /**
+     * BLMOVE source destination LEFT|RIGHT LEFT|RIGHT timeout
+     * @param clientSocket client socket
+     * @param list source, destination, directions then timeout
+     * @param writer reply writer, nothing is written if the client blocks
+     */
+    public static void processBlockingMove(Socket clientSocket, List list, RESPWriter writer) {
+        if (list == null || list.size() < 5) {
+            throw new RuntimeException("invalid param");
+        }
+        String source = (String) list.get(0);
+        String destination = (String) list.get(1);
+        Boolean isFromLeft = parseDirection((String) list.get(2));
+        Boolean isToLeft = parseDirection((String) list.get(3));
+        if (isFromLeft == null || isToLeft == null) {
+            writer.writeShared(SharedReplyType.ERR_SYNTAX);
+            return;
+        }
+        long timeoutAt = parseTimeout((String) list.get(4), writer);
+        if (timeoutAt < 0) {
+            return;
+        }
+        RedisLocalMap.runWithLocks(List.of(source, destination), () -> {
+            CacheDto cache = RedisLocalMap.get(source);
+            if (cache != null) {
+                if (!ValueType.isList(cache.getValueType()) || !(cache.getValue() instanceof QuickList storedList)) {
+                    writer.writeShared(SharedReplyType.ERR_WRONG_TYPE);
+                    return;
+                }
+                if (!storedList.isEmpty()) {
+                    writer.writeRaw(pop(source, cache, storedList, isFromLeft, destination, isToLeft, true));
+                    return;
+                }
+            }
+            if (!isBlockingAllowed(clientSocket)) {
+                writer.writeNullArray();
+                return;
+            }
+            block(new BlockedClientDto(ServerUtils.formatIdFromSocket(clientSocket), List.of(source), isFromLeft, destination, isToLeft, timeoutAt));
+        });
+    }
+
+    /**
+     * LMOVE source destination LEFT|RIGHT LEFT|RIGHT, the non-blocking BLMOVE, also what a served BLMOVE is propagated as
+     * @param list source, destination then directions
+     * @param writer reply writer, the element moved, or nil if the source does not exist
+     */
+    public static void processMove(List list, RESPWriter writer) {
+        if (list == null || list.size() < 4) {
+            throw new RuntimeException("invalid param");
+        }
+        String source = (String) list.get(0);
+        String destination = (String) list.get(1);
+        Boolean isFromLeft = parseDirection((String) list.get(2));
+        Boolean isToLeft = parseDirection((String) list.get(3));
+        if (isFromLeft == null || isToLeft == null) {
+            writer.writeShared(SharedReplyType.ERR_SYNTAX);
+            return;
+        }
+        RedisLocalMap.runWithLocks(List.of(source, destination), () -> {
+            CacheDto cache = RedisLocalMap.get(source);
+            if (cache == null) {
+                writer.writeNullBulkString();
+                return;
+            }
+            if (!ValueType.isList(cache.getValueType()) || !(cache.getValue() instanceof QuickList storedList)) {
+                writer.writeShared(SharedReplyType.ERR_WRONG_TYPE);
+                return;
+            }
+            writer.writeRaw(pop(source, cache, storedList, isFromLeft, destination, isToLeft, false));
+        });
+    }
+
+    /**
+     * XREAD BLOCK finding no entry, called holding the locks of keys
+     * @param clientSocket client socket, blocking must be allowed for it
+     * @param keys stream keys
+     * @param startIds per key, the id entries are read after
+     * @param timeoutAt time at which the client times out, 0 to wait forever
+     */
+    public static void blockOnStreams(Socket clientSocket, List<String> keys, List<Long[]> startIds, long timeoutAt) {
+        // registered holding the key locks, so an XADD to any of the keys either came before or will see it
+        block(new BlockedClientDto(ServerUtils.formatIdFromSocket(clientSocket), keys, startIds, timeoutAt));
+    }
+
+    /**
+     * WAIT numreplicas timeout, once GETACK was sent to the replicas
+     * @param clientSocket client socket
+     * @param numReplicas number of replicas that must acknowledge
+     * @param timeoutAt time at which the client times out, 0 to wait forever
+     * @param writer reply writer, the number of replicas that acknowledged, nothing is written if the client blocks
+     */
+    public static void processReplicaWait(Socket clientSocket, int numReplicas, long timeoutAt, RESPWriter writer) {
+        // acknowledgements are counted holding the registry lock, so one arriving now either is counted or serves the client
+        synchronized (REGISTRY_LOCK) {
+            int numACKedReplicas = MasterManager.getNumACKedReplica();
+            if (numACKedReplicas >= numReplicas || !isBlockingAllowed(clientSocket)) {
+                writer.writeInteger(numACKedReplicas);
+                resetReplicaAcks();
+                return;
+            }
+            block(new BlockedClientDto(ServerUtils.formatIdFromSocket(clientSocket), numReplicas, timeoutAt));
+        }
+    }
+
+    /**
+     * called once a replica acknowledged the writes propagated to it
+     */
+    public static void signalReplicaAcked() {
+        synchronized (REGISTRY_LOCK) {
+            if (REPLICA_WAITERS.isEmpty()) {
+                return;
+            }
+            int numACKedReplicas = MasterManager.getNumACKedReplica();
+            for (BlockedClientDto client: new ArrayList<>(REPLICA_WAITERS)) {
+                if (numACKedReplicas >= client.getNumReplicas()) {
+                    completeReplicaWait(client, numACKedReplicas);
+                }
+            }
+        }
+    }
+
+    /**
+     * called by commands adding elements to a list or entries to a stream, holding the lock of key
+     * @param key key of the list
+     */
+    public static void signalKeyAsReady(String key) {
+        // a waiter of key registers holding the lock of key, so it is counted here if there is one
+        if (NUM_BLOCKED_CLIENTS.get() == 0) {
+            return;
+        }
+        synchronized (REGISTRY_LOCK) {
+            if (BLOCKED_CLIENTS_BY_KEY.containsKey(key)) {
+                READY_KEYS.add(key);
+                hasReadyKeys = true;
+            }
+        }
+    }
+
+    /**
+     * serve clients blocked on keys signalled as ready, called after every command. Keys a BLMOVE pushes to
+     * become ready in turn and are served in the same call
+     */
+    public static void handleReadyKeys() {
+        if (Boolean.TRUE.equals(IS_IN_TRANSACTION.get())) {
+            return;
+        }
+        while (hasReadyKeys) {
+            List<String> readyKeys;
+            synchronized (REGISTRY_LOCK) {
+                readyKeys = new ArrayList<>(READY_KEYS);
+                READY_KEYS.clear();
+                hasReadyKeys = false;
+            }
+            for (String key: readyKeys) {
+                serveKey(key);
+            }
+        }
+    }
+
+    /**
+     * @param clientSocket client socket
+     * @return client blocked by the command that just ran on this connection, null if it did not block
+     */
+    public static BlockedClientDto takeBlockedClient(Socket clientSocket) {
+        if (PENDING_CLIENT_MAP.isEmpty() || clientSocket == null) {
+            return null;
+        }
+        return PENDING_CLIENT_MAP.remove(ServerUtils.formatIdFromSocket(clientSocket));
+    }
+
+    /**
+     * @param clientSocket client socket
+     * @param writer writer the command encoded its reply into
+     * @return reply of the command, waiting for it if the client blocked
+     */
+    public static String toReply(Socket clientSocket, RESPWriter writer) {
+        BlockedClientDto blockedClient = takeBlockedClient(clientSocket);
+        if (blockedClient == null) {
+            return writer.toString();
+        }
+        return new String(awaitReply(blockedClient), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * wait on the current thread until the client is served or times out
+     * @param blockedClient blocked client
+     * @return reply of the client
+     */
+    public static byte[] awaitReply(BlockedClientDto blockedClient) {
+        try {
+            return blockedClient.awaitReply();
+        } catch (InterruptedException e) {
+            cancel(blockedClient);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while blocked", e);
+        }
+    }
+
+    /**
+     * stop waiting for keys, e.g. when the connection of the client is closed. The client gets an empty reply,
+     * which wakes up a thread waiting for it without writing anything
+     * @param blockedClient blocked client
+     */
+    public static void cancel(BlockedClientDto blockedClient) {
+        synchronized (REGISTRY_LOCK) {
+            unregister(blockedClient);
+        }
+        blockedClient.complete(new byte[0]);
+    }
+
+    /**
+     * cancel the client blocked on a connection that is gone, e.g. once the thread of a thread-per-connection
+     * client ends, so no push is handed to it
+     * @param clientId id of the client connection
+     */
+    public static void cancel(String clientId) {
+        BlockedClientDto blockedClient = PENDING_CLIENT_MAP.remove(clientId);
+        synchronized (REGISTRY_LOCK) {
+            if (blockedClient == null) {
+                blockedClient = BLOCKED_CLIENTS_BY_ID.get(clientId);
+            }
+        }
+        if (blockedClient != null) {
+            cancel(blockedClient);
+        }
+    }
+
+    /**
+     * run the commands queued by MULTI: blocking commands reply right away, ready keys wait for the end of EXEC
+     * @param task task running commands
+     * @return result of task
+     */
+    public static <T> T callInTransaction(Supplier<T> task) {
+        Boolean isInTransaction = IS_IN_TRANSACTION.get();
+        IS_IN_TRANSACTION.set(Boolean.TRUE);
+        try {
+            return task.get();
+        } finally {
+            IS_IN_TRANSACTION.set(isInTransaction);
+        }
+    }
+
+    /**
+     * @return whether the current thread runs the commands queued by MULTI
+     */
+    public static boolean isInTransaction() {
+        return Boolean.TRUE.equals(IS_IN_TRANSACTION.get());
+    }
+
+    public static int getNumBlockedClients() {
+        return NUM_BLOCKED_CLIENTS.get();
+    }
+
+    /**
+     * forget every blocked client and ready key
+     */
+    public static void clear() {
+        synchronized (REGISTRY_LOCK) {
+            BLOCKED_CLIENTS_BY_KEY.clear();
+            READY_KEYS.clear();
+            REPLICA_WAITERS.clear();
+            BLOCKED_CLIENTS_BY_ID.clear();
+            TIMER_WHEEL.clear();
+            NUM_BLOCKED_CLIENTS.set(0);
+            PENDING_CLIENT_MAP.clear();
+            hasReadyKeys = false;
+        }
+    }
+
+    /**
+     * @param clientSocket client socket
+     * @return whether a command of the client may block it, false inside EXEC and for the commands a replica runs
+     *         from its master, which would stop the replication stream
+     */
+    public static boolean isBlockingAllowed(Socket clientSocket) {
+        return clientSocket != null
+                && !Boolean.TRUE.equals(IS_IN_TRANSACTION.get())
+                && !ReplicaClient.isMasterLink(clientSocket);
+    }
+
+    /**
+     * called holding the locks of the keys of client
+     */
+    private static void block(BlockedClientDto client) {
+        synchronized (REGISTRY_LOCK) {
+            for (String key: client.getKeys()) {
+                BLOCKED_CLIENTS_BY_KEY.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(client);
+            }
+            if (client.isReplicaWait()) {
+                REPLICA_WAITERS.add(client);
+            }
+            BLOCKED_CLIENTS_BY_ID.put(client.getClientId(), client);
+            if (client.getTimeoutAt() > 0) {
+                startTimer();
+                TIMER_WHEEL.add(client, client.getTimeoutAt());
+            }
+            client.setWaiting(true);
+            NUM_BLOCKED_CLIENTS.incrementAndGet();
+        }
+        PENDING_CLIENT_MAP.put(client.getClientId(), client);
+    }
+
+    /**
+     * called holding the registry lock
+     */
+    private static void unregister(BlockedClientDto client) {
+        if (!client.isWaiting()) {
+            return;
+        }
+        for (String key: client.getKeys()) {
+            Set<BlockedClientDto> clients = BLOCKED_CLIENTS_BY_KEY.get(key);
+            if (clients != null && clients.remove(client) && clients.isEmpty()) {
+                BLOCKED_CLIENTS_BY_KEY.remove(key);
+            }
+        }
+        REPLICA_WAITERS.remove(client);
+        BLOCKED_CLIENTS_BY_ID.remove(client.getClientId(), client);
+        TIMER_WHEEL.remove(client);
+        client.setWaiting(false);
+        NUM_BLOCKED_CLIENTS.decrementAndGet();
+    }
+
+    /**
+     * called holding the registry lock
+     */
+    private static void completeReplicaWait(BlockedClientDto client, int numACKedReplicas) {
+        unregister(client);
+        client.complete(RESPUtils.toSimpleInt(numACKedReplicas).getBytes(StandardCharsets.UTF_8));
+        resetReplicaAcks();
+    }
+
+    /**
+     * acknowledgements are counted per replica, not per write, so they are reset once no WAIT is in progress,
+     * called holding the registry lock
+     */
+    private static void resetReplicaAcks() {
+        if (REPLICA_WAITERS.isEmpty()) {
+            MasterManager.resetNumACKedReplica();
+        }
+    }
+
+    /**
+     * pop elements of key for its list waiters or read entries of key for its stream waiters, holding the locks of key and of the destinations of its BLMOVE waiters
+     */
+    private static void serveKey(String key) {
+        while (true) {
+            List<String> lockedKeys = new ArrayList<>();
+            lockedKeys.add(key);
+            synchronized (REGISTRY_LOCK) {
+                Set<BlockedClientDto> clients = BLOCKED_CLIENTS_BY_KEY.get(key);
+                if (clients == null) {
+                    return;
+                }
+                for (BlockedClientDto client: clients) {
+                    if (client.getDestination() != null) {
+                        lockedKeys.add(client.getDestination());
+                    }
+                }
+            }
+            boolean[] isRetry = new boolean[1];
+            RedisLocalMap.runWithLocks(lockedKeys, () -> {
+                synchronized (REGISTRY_LOCK) {
+                    CacheDto streamCache = RedisLocalMap.get(key);
+                    if (streamCache != null && streamCache.getValue() instanceof StreamDto) {
+                        serveStream(key);
+                        return;
+                    }
+                    Set<BlockedClientDto> clients;
+                    while ((clients = BLOCKED_CLIENTS_BY_KEY.get(key)) != null) {
+                        BlockedClientDto client = clients.iterator().next();
+                        if (client.getDestination() != null && !lockedKeys.contains(client.getDestination())) {
+                            // blocked after the locks were chosen, take them again
+                            isRetry[0] = true;
+                            return;
+                        }
+                        // clients stay blocked while key is missing or not a list, same as redis
+                        CacheDto cache = RedisLocalMap.get(key);
+                        if (cache == null || !(cache.getValue() instanceof QuickList storedList) || storedList.isEmpty()) {
+                            return;
+                        }
+                        unregister(client);
+                        client.complete(pop(key, cache, storedList, client.isFromLeft(), client.getDestination(), client.isToLeft(), true));
+                    }
+                }
+            });
+            if (!isRetry[0]) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * reply to every XREAD waiter of key having entries after its start id, holding the lock of key and the registry lock
+     */
+    private static void serveStream(String key) {
+        Set<BlockedClientDto> clients = BLOCKED_CLIENTS_BY_KEY.get(key);
+        if (clients == null) {
+            return;
+        }
+        for (BlockedClientDto client: new ArrayList<>(clients)) {
+            if (!client.isStreamRead()) {
+                continue;
+            }
+            List<Object> streamList = StreamUtils.getStreamListAfter(key, client.getStreamStartId(key));
+            if (streamList == null || streamList.isEmpty()) {
+                continue;
+            }
+            unregister(client);
+            List<Object> objList = new ArrayList<>();
+            objList.add(List.of(key, streamList));
+            client.complete(RESPUtils.toBulkStringFromNestedList(objList).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * pop an element of a non-empty list and encode the reply of a blocking command,
+     * called holding the locks of key and destination
+     * @param destination list the element is pushed to for BLMOVE and LMOVE, null for BLPOP and BRPOP
+     * @param isPropagated whether the pop is propagated here, false for LMOVE which is propagated as is
+     * @return [key, element] for BLPOP and BRPOP, element for BLMOVE and LMOVE
+     */
+    private static byte[] pop(String key, CacheDto cache, QuickList storedList, boolean isFromLeft, String destination,
+                              boolean isToLeft, boolean isPropagated) {
+        RESPWriter writer = new RESPWriter();
+        CacheDto destinationCache = destination != null ? RedisLocalMap.get(destination) : null;
+        if (destinationCache != null && (!ValueType.isList(destinationCache.getValueType()) || !(destinationCache.getValue() instanceof QuickList))) {
+            return writer.writeShared(SharedReplyType.ERR_WRONG_TYPE).toByteArray();
+        }
+
+        Object value = isFromLeft ? storedList.pollFirst() : storedList.pollLast();
+        long elementMemory = MemoryUtils.estimateListElement(value);
+        if (storedList.isEmpty()) {
+            RedisLocalMap.remove(key, cache);
+        } else {
+            MemoryUtils.adjust(cache, -elementMemory);
+        }
+        if (isPropagated) {
+            propagatePop(key, isFromLeft, destination, isToLeft);
+        }
+        if (destination == null) {
+            writer.writeArrayHeader(2);
+            writer.writeBulkString(key);
+            StringValueUtils.write(writer, value);
+            return writer.toByteArray();
+        }
+
+        // looked up again, the source may be the destination and has just been removed
+        destinationCache = RedisLocalMap.get(destination);
+        if (destinationCache == null) {
+            destinationCache = new CacheDto();
+            destinationCache.setValueType(ValueType.LIST);
+            destinationCache.setValue(new QuickList());
+            RedisLocalMap.put(destination, destinationCache);
+        }
+        QuickList destinationList = (QuickList) destinationCache.getValue();
+        if (isToLeft) {
+            destinationList.addFirst(value);
+        } else {
+            destinationList.addLast(value);
+        }
+        MemoryUtils.adjust(destinationCache, elementMemory);
+        signalKeyAsReady(destination);
+        StringValueUtils.write(writer, value);
+        return writer.toByteArray();
+    }
+
+    /**
+     * queue a pop to replicas in its non-blocking form: LPOP or RPOP of the key served, LMOVE for BLMOVE.
+     * Called holding the key locks, once the element is moved
+     */
+    private static void propagatePop(String key, boolean isFromLeft, String destination, boolean isToLeft) {
+        if (!MasterManager.isMasterNode()) {
+            return;
+        }
+        if (destination == null) {
+            MasterManager.propagate(List.of((isFromLeft ? CommandType.LPOP : CommandType.RPOP).name(), key));
+        } else {
+            MasterManager.propagate(List.of(CommandType.LMOVE.name(), key, destination,
+                    (isFromLeft ? CommandType.LEFT : CommandType.RIGHT).name(), (isToLeft ? CommandType.LEFT : CommandType.RIGHT).name()));
+        }
+        MasterManager.setHasWriteReplicas();
+    }
+
+    /**
+     * @param timeout timeout argument in seconds, 0 to wait forever
+     * @param writer reply writer, an error if timeout is invalid
+     * @return time at which the client times out, 0 to wait forever, -1 if timeout is invalid
+     */
+    private static long parseTimeout(String timeout, RESPWriter writer) {
+        double timeoutInSec;
+        try {
+            timeoutInSec = Double.parseDouble(timeout);
+        } catch (NumberFormatException e) {
+            writer.writeError(OutputConstants.TIMEOUT_NOT_FLOAT_ERROR);
+            return -1;
+        }
+        if (Double.isNaN(timeoutInSec) || Double.isInfinite(timeoutInSec)) {
+            writer.writeError(OutputConstants.TIMEOUT_NOT_FLOAT_ERROR);
+            return -1;
+        }
+        if (timeoutInSec < 0) {
+            writer.writeError(OutputConstants.TIMEOUT_NEGATIVE_ERROR);
+            return -1;
+        }
+        if (timeoutInSec == 0) {
+            return 0;
+        }
+        long timeoutInMillis = Math.max(1L, (long) (timeoutInSec * OutputConstants.SECOND_TO_MILLISECOND));
+        return System.currentTimeMillis() + timeoutInMillis;
+    }
+
+    /**
+     * @param timeout timeout argument in milliseconds, 0 to wait forever
+     * @param writer reply writer, an error if timeout is invalid
+     * @return time at which the client times out, 0 to wait forever, -1 if timeout is invalid
+     */
+    public static long parseTimeoutMillis(String timeout, RESPWriter writer) {
+        long timeoutInMillis;
+        try {
+            timeoutInMillis = Long.parseLong(timeout);
+        } catch (NumberFormatException e) {
+            writer.writeError(OutputConstants.TIMEOUT_NOT_INTEGER_ERROR);
+            return -1;
+        }
+        if (timeoutInMillis < 0) {
+            writer.writeError(OutputConstants.TIMEOUT_NEGATIVE_ERROR);
+            return -1;
+        }
+        if (timeoutInMillis == 0) {
+            return 0;
+        }
+        return System.currentTimeMillis() + timeoutInMillis;
+    }
+
+    /**
+     * @return true for LEFT, false for RIGHT, null otherwise
+     */
+    private static Boolean parseDirection(String direction) {
+        if (CommandType.LEFT.getAlias().equalsIgnoreCase(direction)) {
+            return Boolean.TRUE;
+        }
+        if (CommandType.RIGHT.getAlias().equalsIgnoreCase(direction)) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    /**
+     * start the timer thread on the first client blocking with a timeout, called holding the registry lock
+     */
+    private static void startTimer() {
+        if (timerExecutor != null) {
+            return;
+        }
+        timerExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "blocking-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timerExecutor.scheduleAtFixedRate(BlockingUtils::expireTimeouts, OutputConstants.BLOCKING_TIMER_TICK_MILLIS,
+                OutputConstants.BLOCKING_TIMER_TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private static void expireTimeouts() {
+        // an exception escaping a scheduled task cancels its next runs
+        try {
+            synchronized (REGISTRY_LOCK) {
+                TIMER_WHEEL.advance(System.currentTimeMillis(), client -> {
+                    if (client.isReplicaWait()) {
+                        completeReplicaWait(client, MasterManager.getNumACKedReplica());
+                        return;
+                    }
+                    unregister(client);
+                    client.complete(SharedReplyType.NULL_ARRAY.getReply().getBytes(StandardCharsets.UTF_8));
+                });
+            }
+        } catch (RuntimeException e) {
+            logger.warning("failed to expire blocked clients: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package service;
+
+import constants.OutputConstants;
+import domain.CacheDto;
+import domain.EvictionPoolEntryDto;
+import enums.CommandType;
+import enums.EvictionPolicyType;
+import replication.MasterManager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Notes:
+ *  1. eviction is approximated as in Redis: a few keys are sampled per round and the best candidates are kept
+ *     in a small pool across rounds, instead of keeping every key in a global LRU list updated on each access
+ *  2. access info lives in the 24 bits of {@link CacheDto#getLru()}: the LRU clock in seconds, or for LFU
+ *     the last decrement time in minutes (16 bits) and a logarithmic access counter (8 bits)
+ *  3. ConcurrentHashMap has no random access, samples are taken from a rolling iterator over the keys instead.
+ *     Iteration follows hash order, so consecutive keys are unrelated to their access pattern
+ *  4. volatile-ttl takes the earliest expiring key straight from the expiry index, no sampling needed
+ *  5. evictions run on the command thread before a write, one thread at a time, and hold the lock of the evicted key
+ *     so that a command changing its value in place does not write to a value already evicted
+ */
+public class EvictionUtils {
+    private static final Object EVICTION_LOCK = new Object();
+    private static final List<EvictionPoolEntryDto> EVICTION_POOL = new ArrayList<>(OutputConstants.EVICTION_POOL_SIZE);
+    private static final AtomicLong NUM_EVICTED_KEYS = new AtomicLong();
+
+    private static volatile long maxMemory = SystemPropHelper.getMaxMemoryOrDefault();
+    private static volatile EvictionPolicyType policy = SystemPropHelper.getMaxMemoryPolicyOrDefault();
+    private static volatile int numSamples = SystemPropHelper.getMaxMemorySamplesOrDefault();
+
+    private static Iterator<String> keyIterator;
+    private static Iterator<String> volatileKeyIterator;
+
+    public static void configure(long maxMemory, EvictionPolicyType policy, int numSamples) {
+        synchronized (EVICTION_LOCK) {
+            EvictionUtils.maxMemory = maxMemory;
+            EvictionUtils.policy = policy;
+            EvictionUtils.numSamples = numSamples;
+            EVICTION_POOL.clear();
+        }
+    }
+
+    public static long getMaxMemory() {
+        return maxMemory;
+    }
+
+    public static EvictionPolicyType getPolicy() {
+        return policy;
+    }
+
+    public static long getNumEvictedKeys() {
+        return NUM_EVICTED_KEYS.get();
+    }
+
+    /**
+     * set access info of a value about to be stored
+     * @param cache value
+     */
+    public static void initAccess(CacheDto cache) {
+        if (EvictionPolicyType.isLfu(policy)) {
+            cache.setLru((getLfuTimeInMinutes() << 8) | OutputConstants.LFU_INIT_VAL);
+        } else {
+            cache.setLru(getLruClock());
+        }
+    }
+
+    /**
+     * update access info of a value read or written by a command
+     * @param cache value
+     */
+    public static void updateAccess(CacheDto cache) {
+        if (EvictionPolicyType.isLfu(policy)) {
+            int counter = logIncr(decrLfuCounter(cache));
+            cache.setLru((getLfuTimeInMinutes() << 8) | counter);
+        } else {
+            cache.setLru(getLruClock());
+        }
+    }
+
+    /**
+     * @return whether used memory fits in maxmemory, always true for replicas:
+     *         they follow the evictions of their master, propagated as DEL
+     */
+    public static boolean isWithinMaxMemory() {
+        return maxMemory <= 0 || MemoryUtils.getUsedMemory() <= maxMemory || SystemPropHelper.isReplica();
+    }
+
+    /**
+     * evict keys until used memory fits in maxmemory
+     * @return whether used memory fits, false if the policy does not allow eviction or nothing is left to evict
+     */
+    public static boolean performEvictions() {
+        if (isWithinMaxMemory()) {
+            return true;
+        }
+        if (policy == EvictionPolicyType.NOEVICTION) {
+            return false;
+        }
+        synchronized (EVICTION_LOCK) {
+            while (MemoryUtils.getUsedMemory() > maxMemory) {
+                String key = findKeyToEvict();
+                if (key == null) {
+                    return false;
+                }
+                synchronized (RedisLocalMap.getLock(key)) {
+                    if (RedisLocalMap.remove(key) != null) {
+                        NUM_EVICTED_KEYS.incrementAndGet();
+                        propagateEviction(key);
+                    } else {
+                        // a stale index entry would be picked again forever
+                        RedisLocalMap.unindexIfAbsent(key);
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * queue a DEL of the evicted key to replicas, as redis does. It is queued before the write that triggered
+     * the eviction is propagated, so replicas apply both in the same order as the master
+     * @param key evicted key
+     */
+    private static void propagateEviction(String key) {
+        if (!MasterManager.isMasterNode()) {
+            return;
+        }
+        MasterManager.propagate(List.of(CommandType.DEL.name(), key));
+        MasterManager.setHasWriteReplicas();
+    }
+
+    private static String findKeyToEvict() {
+        return switch (policy) {
+            case ALLKEYS_RANDOM -> nextKey(false);
+            case VOLATILE_TTL -> ExpiryUtils.getNextExpireKey();
+            case ALLKEYS_LRU, ALLKEYS_LFU, VOLATILE_LRU -> findKeyToEvictFromPool();
+            default -> null;
+        };
+    }
+
+    private static String findKeyToEvictFromPool() {
+        boolean isVolatile = EvictionPolicyType.isVolatile(policy);
+        for (int i=0; i<numSamples; i++) {
+            String key = nextKey(isVolatile);
+            if (key == null) {
+                break;
+            }
+            CacheDto cache = RedisLocalMap.LOCAL_MAP.get(key);
+            if (cache != null) {
+                populatePool(key, getIdle(cache));
+            }
+        }
+        // best candidate is at the end of the pool, it may have been deleted or overwritten since it was sampled
+        while (!EVICTION_POOL.isEmpty()) {
+            String key = EVICTION_POOL.remove(EVICTION_POOL.size()-1).getKey();
+            CacheDto cache = RedisLocalMap.LOCAL_MAP.get(key);
+            if (cache != null && (!isVolatile || cache.getExpireTime() != null)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * keep the pool sorted by ascending idle, dropping the least idle entry once full
+     */
+    private static void populatePool(String key, long idle) {
+        int size = EVICTION_POOL.size();
+        if (size == OutputConstants.EVICTION_POOL_SIZE && idle <= EVICTION_POOL.get(0).getIdle()) {
+            return;
+        }
+        for (int i=0; i<size; i++) {
+            if (EVICTION_POOL.get(i).getKey().equals(key)) {
+                EVICTION_POOL.remove(i);
+                size--;
+                break;
+            }
+        }
+        int index = 0;
+        while (index < size && EVICTION_POOL.get(index).getIdle() < idle) {
+            index++;
+        }
+        EVICTION_POOL.add(index, new EvictionPoolEntryDto(key, idle));
+        if (EVICTION_POOL.size() > OutputConstants.EVICTION_POOL_SIZE) {
+            EVICTION_POOL.remove(0);
+        }
+    }
+
+    /**
+     * @return higher is a better candidate: idle time in ms for LRU, inverted access counter for LFU
+     */
+    private static long getIdle(CacheDto cache) {
+        if (EvictionPolicyType.isLfu(policy)) {
+            return OutputConstants.LFU_COUNTER_MAX - decrLfuCounter(cache);
+        }
+        int clock = getLruClock();
+        int lru = cache.getLru() & OutputConstants.LRU_CLOCK_MAX;
+        long idleClocks = clock >= lru ? clock - lru : OutputConstants.LRU_CLOCK_MAX - lru + clock;
+        return idleClocks * OutputConstants.LRU_CLOCK_RESOLUTION_MILLIS;
+    }
+
+    private static String nextKey(boolean isVolatile) {
+        Set<String> keys = isVolatile ? ExpiryUtils.getVolatileKeys() : RedisLocalMap.LOCAL_MAP.keySet();
+        Iterator<String> iterator = isVolatile ? volatileKeyIterator : keyIterator;
+        if (iterator == null || !iterator.hasNext()) {
+            iterator = keys.iterator();
+            if (!iterator.hasNext()) {
+                return null;
+            }
+        }
+        if (isVolatile) {
+            volatileKeyIterator = iterator;
+        } else {
+            keyIterator = iterator;
+        }
+        return iterator.next();
+    }
+
+    private static int getLruClock() {
+        return (int) ((System.currentTimeMillis() / OutputConstants.LRU_CLOCK_RESOLUTION_MILLIS) & OutputConstants.LRU_CLOCK_MAX);
+    }
+
+    private static int getLfuTimeInMinutes() {
+        return (int) ((System.currentTimeMillis() / 60000) & 0xFFFF);
+    }
+
+    /**
+     * @return access counter decremented by one per decay period elapsed since the last decrement
+     */
+    private static int decrLfuCounter(CacheDto cache) {
+        int lru = cache.getLru();
+        int lastDecrementTime = (lru >> 8) & 0xFFFF;
+        int counter = lru & 0xFF;
+        int now = getLfuTimeInMinutes();
+        int elapsed = now >= lastDecrementTime ? now - lastDecrementTime : 0xFFFF - lastDecrementTime + now;
+        int numPeriods = elapsed / OutputConstants.LFU_DECAY_TIME_MINUTES;
+        return Math.max(0, counter - numPeriods);
+    }
+
+    /**
+     * increment counter with a probability decreasing as it grows, so 8 bits cover millions of accesses
+     */
+    private static int logIncr(int counter) {
+        if (counter == OutputConstants.LFU_COUNTER_MAX) {
+            return counter;
+        }
+        double baseValue = Math.max(0, counter - OutputConstants.LFU_INIT_VAL);
+        double p = 1.0 / (baseValue * OutputConstants.LFU_LOG_FACTOR + 1);
+        return ThreadLocalRandom.current().nextDouble() < p ? counter + 1 : counter;
+    }
+}
@@ -0,0 +1,249 @@
+package service;
+
+import comparator.ExpiryEntryComparator;
+import constants.OutputConstants;
+import domain.CacheDto;
+import domain.ExpiryEntryDto;
+import enums.CommandType;
+import enums.SharedReplyType;
+
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notes:
+ *  1. only volatile keys are indexed, ordered by expire time, so expiring keys never scans keys without a TTL
+ *  2. VOLATILE_KEY_MAP holds the indexed expire time per key, a TTL change replaces its index entry in O(log n)
+ *  3. reads expire keys lazily through {@link RedisLocalMap#get(String)}, the active cycle reclaims keys nobody reads.
+ *     The index is ordered, so instead of sampling random volatile keys the cycle takes the earliest ones
+ *     and every key it visits is due, within a budget of keys and time per cycle
+ *  4. index entries are checked against the stored value before removal, so a stale entry, e.g. after the key
+ *     was overwritten, never removes a live key
+ */
+public class ExpiryUtils {
+    private static final Map<String, Long> VOLATILE_KEY_MAP = new ConcurrentHashMap<>();
+    private static final NavigableSet<ExpiryEntryDto> EXPIRY_INDEX = new ConcurrentSkipListSet<>(new ExpiryEntryComparator());
+    private static final Set<CommandType> EXPIRE_CONDITIONS = EnumSet.of(CommandType.NX, CommandType.XX, CommandType.GT, CommandType.LT);
+
+    public static boolean isExpired(CacheDto cache, long currentTime) {
+        Long expireTime = cache.getExpireTime();
+        return expireTime != null && expireTime <= currentTime;
+    }
+
+    /**
+     * add, move or remove the index entry of key
+     * @param key key
+     * @param expireTime new expire time in ms, null if key no longer has a TTL
+     */
+    public static void index(String key, Long expireTime) {
+        if (expireTime == null && !VOLATILE_KEY_MAP.containsKey(key)) {
+            return;
+        }
+        VOLATILE_KEY_MAP.compute(key, (k, indexedExpireTime) -> {
+            if (indexedExpireTime != null) {
+                EXPIRY_INDEX.remove(new ExpiryEntryDto(k, indexedExpireTime));
+            }
+            if (expireTime != null) {
+                EXPIRY_INDEX.add(new ExpiryEntryDto(k, expireTime));
+            }
+            return expireTime;
+        });
+    }
+
+    public static void unindex(String key) {
+        index(key, null);
+    }
+
+    /**
+     * remove the index entry of key only if it still holds expireTime, i.e. key was not given a new TTL meanwhile
+     * @param key key
+     * @param expireTime expire time in ms of the removed value
+     */
+    public static void unindex(String key, long expireTime) {
+        if (VOLATILE_KEY_MAP.remove(key, expireTime)) {
+            EXPIRY_INDEX.remove(new ExpiryEntryDto(key, expireTime));
+        }
+    }
+
+    public static void clear() {
+        VOLATILE_KEY_MAP.clear();
+        EXPIRY_INDEX.clear();
+    }
+
+    public static int getNumVolatileKeys() {
+        return VOLATILE_KEY_MAP.size();
+    }
+
+    /**
+     * @return live view of volatile keys
+     */
+    public static Set<String> getVolatileKeys() {
+        return VOLATILE_KEY_MAP.keySet();
+    }
+
+    /**
+     * @return volatile key expiring first, or null if there is no volatile key
+     */
+    public static String getNextExpireKey() {
+        Iterator<ExpiryEntryDto> iterator = EXPIRY_INDEX.iterator();
+        return iterator.hasNext() ? iterator.next().getKey() : null;
+    }
+
+    /**
+     * @return earliest indexed expire time in ms, or null if there is no volatile key
+     */
+    public static Long getNextExpireTime() {
+        Iterator<ExpiryEntryDto> iterator = EXPIRY_INDEX.iterator();
+        return iterator.hasNext() ? iterator.next().getExpireTime() : null;
+    }
+
+    /**
+     * EXPIRE, PEXPIRE, EXPIREAT and PEXPIREAT share the same syntax: key, time and an optional condition
+     * @param list command arguments
+     * @param writer reply writer
+     * @param commandType command being processed, used in error replies
+     * @param unit unit of the time argument
+     * @param isAbsolute whether the time argument is a unix time instead of a time to live
+     */
+    public static void processExpire(List list, RESPWriter writer, CommandType commandType, TimeUnit unit, boolean isAbsolute) {
+        if (list == null || list.size() < 2) {
+            throw new RuntimeException("invalid param");
+        }
+        String key = (String) list.get(0);
+        CommandType condition = null;
+        if (list.size() > 2) {
+            condition = CommandType.fromAlias((String) list.get(2));
+            if (list.size() > 3 || !EXPIRE_CONDITIONS.contains(condition)) {
+                writer.writeShared(SharedReplyType.ERR_SYNTAX);
+                return;
+            }
+        }
+        long expireTime;
+        try {
+            long time = Math.multiplyExact(Long.parseLong((String) list.get(1)), unit.toMillis(1));
+            expireTime = isAbsolute ? time : Math.addExact(System.currentTimeMillis(), time);
+        } catch (NumberFormatException e) {
+            writer.writeShared(SharedReplyType.ERR_NOT_INTEGER);
+            return;
+        } catch (ArithmeticException e) {
+            writer.writeError(String.format(OutputConstants.INVALID_EXPIRE_TIME_ERROR, commandType.getAlias()));
+            return;
+        }
+        writer.writeInteger(expire(key, expireTime, condition) ? 1 : 0);
+    }
+
+    /**
+     * set the TTL of an existing key, an expire time in the past deletes the key
+     * @param key key
+     * @param expireTime new expire time in ms
+     * @param condition NX, XX, GT, LT or null
+     * @return whether the TTL was set
+     */
+    public static boolean expire(String key, long expireTime, CommandType condition) {
+        synchronized (RedisLocalMap.getLock(key)) {
+            CacheDto cache = RedisLocalMap.get(key);
+            if (cache == null || !isExpireConditionMet(cache.getExpireTime(), expireTime, condition)) {
+                return false;
+            }
+            if (expireTime <= System.currentTimeMillis()) {
+                RedisLocalMap.remove(key);
+                return true;
+            }
+            cache.setExpireTime(expireTime);
+            index(key, expireTime);
+            return true;
+        }
+    }
+
+    /**
+     * @param key key
+     * @return whether the TTL was removed
+     */
+    public static boolean persist(String key) {
+        synchronized (RedisLocalMap.getLock(key)) {
+            CacheDto cache = RedisLocalMap.get(key);
+            if (cache == null || cache.getExpireTime() == null) {
+                return false;
+            }
+            cache.setExpireTime(null);
+            index(key, null);
+            return true;
+        }
+    }
+
+    /**
+     * @param key key
+     * @return remaining time to live in ms, -2 if key does not exist, -1 if key has no TTL
+     */
+    public static long getTtlMillis(String key) {
+        CacheDto cache = RedisLocalMap.get(key);
+        if (cache == null) {
+            return OutputConstants.TTL_MISSING_KEY;
+        }
+        Long expireTime = cache.getExpireTime();
+        if (expireTime == null) {
+            return OutputConstants.TTL_NON_VOLATILE_KEY;
+        }
+        return Math.max(expireTime - System.currentTimeMillis(), 0);
+    }
+
+    /**
+     * a key without TTL is treated as having an infinite TTL by GT and LT
+     */
+    private static boolean isExpireConditionMet(Long currentExpireTime, long expireTime, CommandType condition) {
+        if (condition == null) {
+            return true;
+        }
+        return switch (condition) {
+            case NX -> currentExpireTime == null;
+            case XX -> currentExpireTime != null;
+            case GT -> currentExpireTime != null && expireTime > currentExpireTime;
+            case LT -> currentExpireTime == null || expireTime < currentExpireTime;
+            default -> false;
+        };
+    }
+
+    /**
+     * remove due keys in expire time order until none is due or the budget is spent
+     * @param currentTime current time in ms
+     * @param maxKeys maximum number of keys expired
+     * @param timeLimitNanos maximum time spent
+     * @return whether the cycle stopped on its budget with keys still due
+     */
+    public static boolean activeExpireCycle(long currentTime, int maxKeys, long timeLimitNanos) {
+        long deadline = System.nanoTime() + timeLimitNanos;
+        Iterator<ExpiryEntryDto> iterator = EXPIRY_INDEX.iterator();
+        int numExpired = 0;
+        while (iterator.hasNext()) {
+            ExpiryEntryDto entry = iterator.next();
+            if (entry.getExpireTime() > currentTime) {
+                return false;
+            }
+            if (numExpired == maxKeys || ((numExpired & 0xf) == 0xf && System.nanoTime() > deadline)) {
+                return true;
+            }
+            iterator.remove();
+            expireEntry(entry);
+            numExpired++;
+        }
+        return false;
+    }
+
+    private static void expireEntry(ExpiryEntryDto entry) {
+        String key = entry.getKey();
+        VOLATILE_KEY_MAP.remove(key, entry.getExpireTime()); // entry itself is already out of the index
+        synchronized (RedisLocalMap.getLock(key)) {
+            CacheDto cache = RedisLocalMap.LOCAL_MAP.get(key);
+            if (cache != null && cache.getExpireTime() != null && cache.getExpireTime() == entry.getExpireTime()) {
+                RedisLocalMap.remove(key, cache);
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Notes:
+ *  1. glob-style pattern of KEYS, SCAN MATCH and PSUBSCRIBE, same syntax as Redis stringmatchlen:
+ *     '*' any sequence, '?' any byte, '[abc]' '[^abc]' '[a-z]' a byte in or out of a set, '\x' the byte x
+ *  2. a pattern is compiled once per command into an array of single-byte ops, then matched against many keys
+ *  3. every op but '*' consumes exactly one byte, so matching only needs to remember the last '*' to backtrack to:
+ *     at most O(pattern length * key length) steps, never the exponential backtracking of a regex
+ *  4. patterns and keys are compared as UTF-8 bytes, ASCII keys are read from the String without encoding them
+ *  5. the leading literal bytes of a pattern are compared before any '*' is expanded, and a pattern with no
+ *     wildcard at all can be looked up directly instead of being matched against every key
+ */
+public class GlobPattern {
+    private static final int OP_ANY = -1;
+    private static final int OP_STAR = -2;
+    private static final int OP_CLASS = -3; // -3-i for the i-th class
+
+    private final String pattern;
+    private final int[] ops; // byte value 0-255 for a literal byte, or one of the OP_ values
+    private final long[][] classes; // 256-bit set of bytes matched by each class, negation already applied
+    private final int numLiteralPrefixOps;
+    private final int minLength;
+    private final boolean hasStar;
+
+    private GlobPattern(String pattern, int[] ops, long[][] classes) {
+        this.pattern = pattern;
+        this.ops = ops;
+        this.classes = classes;
+        int numLiteralPrefixOps = 0;
+        while (numLiteralPrefixOps < ops.length && ops[numLiteralPrefixOps] >= 0) {
+            numLiteralPrefixOps++;
+        }
+        this.numLiteralPrefixOps = numLiteralPrefixOps;
+        int minLength = 0;
+        for (int op: ops) {
+            if (op != OP_STAR) {
+                minLength++;
+            }
+        }
+        this.minLength = minLength;
+        this.hasStar = minLength < ops.length;
+    }
+
+    public static GlobPattern compile(String pattern) {
+        byte[] bytes = pattern.getBytes(StandardCharsets.UTF_8);
+        int[] ops = new int[bytes.length];
+        int numOps = 0;
+        List<long[]> classes = new ArrayList<>();
+        int i = 0;
+        while (i < bytes.length) {
+            int b = bytes[i] & 0xFF;
+            if (b == '*') {
+                if (numOps == 0 || ops[numOps-1] != OP_STAR) {
+                    // consecutive stars match the same as one
+                    ops[numOps++] = OP_STAR;
+                }
+                i++;
+            } else if (b == '?') {
+                ops[numOps++] = OP_ANY;
+                i++;
+            } else if (b == '[') {
+                long[] set = new long[4];
+                i = compileClass(bytes, i+1, set);
+                ops[numOps++] = OP_CLASS - classes.size();
+                classes.add(set);
+            } else if (b == '\\' && i+1 < bytes.length) {
+                ops[numOps++] = bytes[i+1] & 0xFF;
+                i += 2;
+            } else {
+                // a trailing backslash is a literal backslash
+                ops[numOps++] = b;
+                i++;
+            }
+        }
+        return new GlobPattern(pattern, Arrays.copyOf(ops, numOps), classes.toArray(new long[0][]));
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @return whether the pattern matches a single string, the one returned by {@link #getLiteral()}
+     */
+    public boolean isLiteral() {
+        return numLiteralPrefixOps == ops.length;
+    }
+
+    /**
+     * @return string matched by a literal pattern, i.e. the pattern with its escapes removed
+     */
+    public String getLiteral() {
+        byte[] bytes = new byte[ops.length];
+        for (int i=0; i<ops.length; i++) {
+            bytes[i] = (byte) ops[i];
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public boolean matches(String str) {
+        int length = str.length();
+        for (int i=0; i<length; i++) {
+            if (str.charAt(i) >= 0x80) {
+                return matches(str.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        // every char of an ASCII string is one byte of its UTF-8 encoding
+        return matches(null, str, length);
+    }
+
+    public boolean matches(byte[] bytes) {
+        return matches(bytes, null, bytes.length);
+    }
+
+    /**
+     * @param bytes input as bytes, or null to read ASCII chars of str
+     * @param str ASCII input, read if bytes is null
+     * @param length input length
+     */
+    private boolean matches(byte[] bytes, String str, int length) {
+        if (length < minLength || (!hasStar && length != minLength)) {
+            return false;
+        }
+        int p = 0;
+        int s = 0;
+        for (; p<numLiteralPrefixOps; p++, s++) {
+            if (ops[p] != getByte(bytes, str, s)) {
+                return false;
+            }
+        }
+        int starP = -1; // op after the last star, to backtrack to
+        int starS = 0;
+        while (s < length) {
+            if (p < ops.length && ops[p] == OP_STAR) {
+                starP = ++p;
+                starS = s;
+            } else if (p < ops.length && isMatch(ops[p], getByte(bytes, str, s))) {
+                p++;
+                s++;
+            } else if (starP >= 0) {
+                // let the last star consume one more byte and retry the ops after it
+                p = starP;
+                s = ++starS;
+            } else {
+                return false;
+            }
+        }
+        while (p < ops.length && ops[p] == OP_STAR) {
+            p++;
+        }
+        return p == ops.length;
+    }
+
+    private boolean isMatch(int op, int b) {
+        if (op >= 0) {
+            return op == b;
+        }
+        if (op == OP_ANY) {
+            return true;
+        }
+        long[] set = classes[OP_CLASS-op];
+        return (set[b >>> 6] & (1L << b)) != 0;
+    }
+
+    private static int getByte(byte[] bytes, String str, int i) {
+        return bytes != null ? bytes[i] & 0xFF : str.charAt(i);
+    }
+
+    /**
+     * compile the class starting after '[' into set, an unterminated class ends with the pattern
+     * @return index after the closing ']'
+     */
+    private static int compileClass(byte[] bytes, int i, long[] set) {
+        boolean isNegated = i < bytes.length && bytes[i] == '^';
+        if (isNegated) {
+            i++;
+        }
+        while (i < bytes.length && bytes[i] != ']') {
+            int b = bytes[i] & 0xFF;
+            if (b == '\\' && i+1 < bytes.length) {
+                addRange(set, bytes[i+1] & 0xFF, bytes[i+1] & 0xFF);
+                i += 2;
+            } else if (i+2 < bytes.length && bytes[i+1] == '-' && bytes[i+2] != ']') {
+                int end = bytes[i+2] & 0xFF;
+                // a reversed range matches the same bytes, as in Redis
+                addRange(set, Math.min(b, end), Math.max(b, end));
+                i += 3;
+            } else {
+                addRange(set, b, b);
+                i++;
+            }
+        }
+        if (isNegated) {
+            for (int j=0; j<set.length; j++) {
+                set[j] = ~set[j];
+            }
+        }
+        return i < bytes.length ? i+1 : i;
+    }
+
+    private static void addRange(long[] set, int from, int to) {
+        for (int b=from; b<=to; b++) {
+            set[b >>> 6] |= 1L << b;
+        }
+    }
+}
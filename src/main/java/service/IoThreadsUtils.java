@@ -0,0 +1,105 @@
+package service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Notes:
+ *  1. optional io-threads mode enabled with --io-threads N, modelled on Redis 6: N I/O threads read sockets, parse
+ *     RESP and write replies, while every command runs serially on one main thread, so handlers never race each other
+ *  2. in NIO mode the event loops are the I/O threads: a loop suspends a connection, hands its parsed read batch
+ *     to the main thread without waiting and moves on, replies come back as cross-thread writes and the connection
+ *     is resumed once the batch is done, which keeps replies of a connection in order. In blocking mode each
+ *     connection thread is an I/O thread serving one client, so it waits for the main thread per command
+ *  3. no command parks the main thread: BLPOP and friends, XREAD BLOCK and WAIT register a client they block
+ *     without waiting, the rest of its batch is dispatched again once it gets its reply
+ *  4. a task already running on the main thread runs inline, so EXEC and the commands it queued do not wait for themselves
+ *  5. io-threads mode takes precedence over share-nothing mode, there is a single owner for all keys
+ */
+public class IoThreadsUtils {
+    private static final ThreadLocal<Boolean> IS_MAIN_THREAD = new ThreadLocal<>();
+
+    private static volatile ExecutorService mainExecutor;
+
+    /**
+     * @param numIoThreads number of I/O threads, 0 to disable io-threads mode
+     */
+    public static synchronized void init(int numIoThreads) {
+        shutdown();
+        if (numIoThreads <= 0) {
+            return;
+        }
+        mainExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(() -> {
+                IS_MAIN_THREAD.set(Boolean.TRUE);
+                runnable.run();
+            }, "main-executor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized void shutdown() {
+        ExecutorService executor = mainExecutor;
+        mainExecutor = null;
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return mainExecutor != null;
+    }
+
+    /**
+     * @return whether the current thread is the main thread of io-threads mode
+     */
+    public static boolean isMainThread() {
+        return Boolean.TRUE.equals(IS_MAIN_THREAD.get());
+    }
+
+    /**
+     * run task on the main thread and wait for it, inline if io-threads mode is disabled
+     * @param task task reading or writing the keyspace
+     */
+    public static void execute(Runnable task) {
+        ShardUtils.getResult(submit(() -> {
+            task.run();
+            return null;
+        }));
+    }
+
+    /**
+     * queue task on the main thread without waiting for it, even from the main thread, so a task never runs
+     * nested in the command that completed a blocked client
+     * @param task task reading or writing the keyspace
+     */
+    public static void dispatch(Runnable task) {
+        ExecutorService executor = mainExecutor;
+        if (executor == null) {
+            throw new IllegalStateException("io-threads mode is disabled");
+        }
+        executor.execute(task);
+    }
+
+    /**
+     * @param task task reading or writing the keyspace
+     * @return result of task run on the main thread, already completed if it ran inline
+     */
+    public static <T> Future<T> submit(Callable<T> task) {
+        ExecutorService executor = mainExecutor;
+        if (executor == null || isMainThread()) {
+            try {
+                return CompletableFuture.completedFuture(task.call());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return executor.submit(task);
+    }
+}
@@ -0,0 +1,81 @@
+package service;
+
+import constants.OutputConstants;
+import domain.CacheDto;
+import domain.QuickList;
+import enums.SharedReplyType;
+import enums.ValueType;
+
+import java.util.List;
+
+/**
+ * Notes:
+ *  1. LPOP and RPOP share one pop path, only the end of the list differs
+ *  2. a list never stays empty: the key is removed with its last element, same as LREM, LTRIM and the blocking pops,
+ *     so TYPE and SCAN never see an empty list
+ *  3. a non-list key is replied WRONGTYPE, same as the blocking pops, instead of failing the connection
+ */
+public class ListUtils {
+
+    /**
+     * LPOP key [count] and RPOP key [count]
+     * @param list arguments, key then the optional count
+     * @param writer reply writer, the element, an array of elements with a count, or nil
+     * @param isFromLeft pop from the head for LPOP, from the tail for RPOP
+     */
+    public static void processPop(List list, RESPWriter writer, boolean isFromLeft) {
+        if (list == null || list.isEmpty()) {
+            throw new RuntimeException("invalid param");
+        }
+
+        String key = (String) list.get(0);
+        boolean hasOptArg = list.size() == 2;
+        int numsToRemove = 1;
+        if (hasOptArg) {
+            try {
+                numsToRemove = Integer.parseInt((String) list.get(1));
+            } catch (NumberFormatException e) {
+                writer.writeShared(SharedReplyType.ERR_NOT_INTEGER);
+                return;
+            }
+            if (numsToRemove < 0) {
+                writer.writeError(OutputConstants.VALUE_MUST_BE_POSITIVE_ERROR);
+                return;
+            }
+        }
+
+        synchronized (RedisLocalMap.getLock(key)) {
+            CacheDto cache = RedisLocalMap.get(key);
+            if (cache != null && (!ValueType.isList(cache.getValueType()) || !(cache.getValue() instanceof QuickList))) {
+                writer.writeShared(SharedReplyType.ERR_WRONG_TYPE);
+                return;
+            }
+
+            if (cache == null || ((QuickList) cache.getValue()).isEmpty()) {
+                if (hasOptArg) {
+                    writer.writeNullArray();
+                } else {
+                    writer.writeNullBulkString();
+                }
+                return;
+            }
+
+            QuickList cacheValue = (QuickList) cache.getValue();
+            int numRemoved = Math.min(numsToRemove, cacheValue.size());
+            if (hasOptArg) {
+                writer.writeArrayHeader(numRemoved);
+            }
+            long removedMemory = 0L;
+            for (int i=0; i<numRemoved; i++) {
+                Object removedValue = isFromLeft ? cacheValue.pollFirst() : cacheValue.pollLast();
+                StringValueUtils.write(writer, removedValue);
+                removedMemory += MemoryUtils.estimateListElement(removedValue);
+            }
+            if (cacheValue.isEmpty()) {
+                RedisLocalMap.remove(key, cache);
+            } else {
+                MemoryUtils.adjust(cache, -removedMemory);
+            }
+        }
+    }
+}
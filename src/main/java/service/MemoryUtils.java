@@ -0,0 +1,191 @@
+package service;
+
+import constants.OutputConstants;
+import domain.CacheDto;
+import domain.QuickList;
+import domain.StreamDto;
+import domain.ZSet;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Notes:
+ *  1. used memory is an estimate of bytes retained by the keyspace, kept as a running counter
+ *     instead of being measured from the heap, so it does not depend on when the GC runs
+ *  2. the estimate of a value is stored on its CacheDto when accounted, so removing it subtracts exactly what was added
+ *  3. values are estimated once when stored, then commands changing them in place report the size of the elements
+ *     they add or remove through {@link #adjust(CacheDto, long)}, so a write never walks a whole value
+ *  4. a string value stored as Long counts as one object whether it is shared or not, same as an unknown value
+ *  5. overheads are approximations of a 64-bit JVM with compressed references, see OutputConstants
+ */
+public class MemoryUtils {
+    private static final AtomicLong USED_MEMORY = new AtomicLong();
+    private static final AtomicLong PEAK_USED_MEMORY = new AtomicLong();
+
+    public static long getUsedMemory() {
+        return USED_MEMORY.get();
+    }
+
+    public static long getPeakUsedMemory() {
+        return PEAK_USED_MEMORY.get();
+    }
+
+    public static void reset() {
+        USED_MEMORY.set(0L);
+        PEAK_USED_MEMORY.set(0L);
+    }
+
+    /**
+     * @param key key
+     * @param cache value
+     * @return approximate number of bytes retained by key and value
+     */
+    public static long estimate(String key, CacheDto cache) {
+        return estimate(key, cache, 0);
+    }
+
+    /**
+     * @param key key
+     * @param cache value
+     * @param numSamples number of elements of an aggregate value to sample, 0 to visit all of them
+     * @return approximate number of bytes retained by key and value
+     */
+    public static long estimate(String key, CacheDto cache, int numSamples) {
+        return OutputConstants.MEMORY_ENTRY_OVERHEAD + estimateString(key) + estimateValue(cache.getValue(), numSamples);
+    }
+
+    /**
+     * account a value stored in the keyspace, replacing the value it overwrote
+     * @param key key
+     * @param cache stored value
+     * @param oldCache overwritten value, null if key was absent
+     */
+    public static void account(String key, CacheDto cache, CacheDto oldCache) {
+        if (oldCache == cache) {
+            // value put back after an in-place change, which was already reported through adjust
+            return;
+        }
+        long oldMemoryUsage = oldCache != null ? oldCache.getMemoryUsage() : 0L;
+        long memoryUsage = estimate(key, cache);
+        cache.setMemoryUsage(memoryUsage);
+        add(memoryUsage - oldMemoryUsage);
+    }
+
+    /**
+     * account an in-place change of a stored value
+     * @param cache stored value
+     * @param delta bytes added, negative if bytes were removed
+     */
+    public static void adjust(CacheDto cache, long delta) {
+        synchronized (cache) {
+            cache.setMemoryUsage(cache.getMemoryUsage() + delta);
+        }
+        add(delta);
+    }
+
+    public static void release(CacheDto cache) {
+        add(-cache.getMemoryUsage());
+    }
+
+    /**
+     * @param str string, counted by its encoded length as it is sent and stored by redis, not by its UTF-16 chars
+     * @return approximate number of bytes retained by str
+     */
+    public static long estimateString(String str) {
+        return OutputConstants.MEMORY_STRING_OVERHEAD + StringUtils.getUtf8Length(str);
+    }
+
+    /**
+     * @param value string value, stored as raw bytes or Long
+     * @return approximate number of bytes retained by value
+     */
+    public static long estimateStringValue(Object value) {
+        if (value instanceof String str) {
+            return estimateString(str);
+        }
+        if (value instanceof byte[] bytes) {
+            return OutputConstants.MEMORY_BYTES_OVERHEAD + bytes.length;
+        }
+        return OutputConstants.MEMORY_OBJECT_OVERHEAD;
+    }
+
+    public static long estimateListElement(Object element) {
+        return OutputConstants.MEMORY_LIST_ENTRY_OVERHEAD + estimateStringValue(element);
+    }
+
+    public static long estimateZSetMember(ZSet zSet, String member) {
+        long overhead = zSet.isListpack() ? OutputConstants.MEMORY_ZSET_LISTPACK_ENTRY_OVERHEAD : OutputConstants.MEMORY_ZSET_MEMBER_OVERHEAD;
+        return overhead + estimateString(member);
+    }
+
+    /**
+     * @param numMembers number of members of a sorted set converted from listpack to skip list
+     * @return memory added by the conversion, members themselves are not copied
+     */
+    public static long estimateZSetConversion(int numMembers) {
+        return OutputConstants.MEMORY_ZSET_OVERHEAD - OutputConstants.MEMORY_ZSET_LISTPACK_OVERHEAD
+                + numMembers * (OutputConstants.MEMORY_ZSET_MEMBER_OVERHEAD - OutputConstants.MEMORY_ZSET_LISTPACK_ENTRY_OVERHEAD);
+    }
+
+    public static long estimateStreamEntry(StreamDto.EntryDto entryDto) {
+        long size = OutputConstants.MEMORY_STREAM_ENTRY_OVERHEAD + estimateString(entryDto.getId());
+        for (Map.Entry<String, String> kv: entryDto.getKvPair().entrySet()) {
+            size += OutputConstants.MEMORY_STREAM_FIELD_OVERHEAD + estimateString(kv.getKey()) + estimateString(kv.getValue());
+        }
+        return size;
+    }
+
+    private static void add(long delta) {
+        long usedMemory = USED_MEMORY.addAndGet(delta);
+        if (delta > 0 && usedMemory > PEAK_USED_MEMORY.get()) {
+            PEAK_USED_MEMORY.accumulateAndGet(usedMemory, Math::max);
+        }
+    }
+
+    private static long estimateValue(Object value, int numSamples) {
+        if (value instanceof String || value instanceof byte[] || value instanceof Long) {
+            return estimateStringValue(value);
+        }
+        if (value instanceof QuickList quickList) {
+            // kept by the list as it changes, exact without sampling
+            return OutputConstants.MEMORY_LIST_OVERHEAD + quickList.getNumBytes();
+        }
+        if (value instanceof Collection<?> collection) {
+            return OutputConstants.MEMORY_LIST_OVERHEAD
+                    + estimateElements(collection.iterator(), collection.size(), numSamples, MemoryUtils::estimateListElement);
+        }
+        if (value instanceof ZSet zSet) {
+            Collection<String> members = zSet.getMembers();
+            long overhead = zSet.isListpack() ? OutputConstants.MEMORY_ZSET_LISTPACK_OVERHEAD : OutputConstants.MEMORY_ZSET_OVERHEAD;
+            return overhead
+                    + estimateElements(members.iterator(), members.size(), numSamples, member -> estimateZSetMember(zSet, (String) member));
+        }
+        if (value instanceof StreamDto streamDto) {
+            Collection<StreamDto.EntryDto> entries = streamDto.getStreamList();
+            return OutputConstants.MEMORY_STREAM_OVERHEAD
+                    + estimateElements(entries.iterator(), entries.size(), numSamples, entry -> estimateStreamEntry((StreamDto.EntryDto) entry));
+        }
+        return OutputConstants.MEMORY_OBJECT_OVERHEAD;
+    }
+
+    /**
+     * @return size of all elements, extrapolated from the first numSamples elements if numSamples is positive
+     */
+    private static long estimateElements(Iterator<?> iterator, int size, int numSamples,
+                                         ToLongFunction<Object> estimator) {
+        long sampledSize = 0L;
+        int numSampled = 0;
+        while (iterator.hasNext() && (numSamples <= 0 || numSampled < numSamples)) {
+            sampledSize += estimator.applyAsLong(iterator.next());
+            numSampled++;
+        }
+        if (numSampled == 0 || numSampled >= size) {
+            return sampledSize;
+        }
+        return sampledSize * size / numSampled;
+    }
+}
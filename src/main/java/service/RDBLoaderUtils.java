@@ -69,11 +69,11 @@ public class RDBLoaderUtils {
             return;
         }
         CacheDto cache = new CacheDto();
-        cache.setValue(value[0]);
+        cache.setValue(StringValueUtils.encode(value[0]));
         cache.setValueType(ValueType.STRING);
         if (value.length == 2) {
             cache.setExpireTime(Long.parseLong(value[1]));
         }
-        RedisLocalMap.LOCAL_MAP.put(key, cache);
+        RedisLocalMap.put(key, cache);
     }
 }
@@ -2,11 +2,14 @@ package service;
 
 import constants.OutputConstants;
 import domain.ParserDto;
+import domain.RESPFrameDto;
 import domain.RESPResultDto;
 import enums.RESPResultType;
+import stream.RESPDecoder;
 import stream.RedisInputStream;
 
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.net.Socket;
 import java.nio.charset.StandardCharsets;
@@ -14,8 +17,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import static constants.ParserConstants.*;
 
@@ -25,6 +28,7 @@ public class RESPParser {
         private Socket clientSocket;
         private Integer bufferSize;
         private ByteArrayInputStream byteArrayInputStream;
+        private RESPDecoder decoder;
         private Boolean isNoProcessCommandHandler;
 
         public Builder addClientSocket(Socket clientSocket) {
@@ -42,6 +46,16 @@ public class RESPParser {
             return this;
         }
 
+        /**
+         * per-connection decoder keeping partial frames between reads
+         * @param decoder RESP decoder
+         * @return builder
+         */
+        public Builder addDecoder(RESPDecoder decoder) {
+            this.decoder = decoder;
+            return this;
+        }
+
         public Builder isNoProcessCommandHandler(Boolean isNoProcessCommandHandler) {
             this.isNoProcessCommandHandler = isNoProcessCommandHandler;
             return this;
@@ -54,7 +68,8 @@ public class RESPParser {
                 throw new RuntimeException("cannot process both socket stream and in-memory input stream");
             }
             if (this.clientSocket != null) {
-                parser.setInputStream(new RedisInputStream(this.clientSocket.getInputStream(), this.bufferSize));
+                // socket stream is always decoded incrementally, so that a frame split across reads is not lost
+                parser.setDecoder(this.decoder != null ? this.decoder : new RESPDecoder());
             }
             if (this.byteArrayInputStream != null) {
                 parser.setInputStream(new RedisInputStream(this.byteArrayInputStream, this.bufferSize));
@@ -72,6 +87,9 @@ public class RESPParser {
     }};
 
     public RESPResultDto process() throws IOException {
+        if (decoder != null) {
+            return processDecodedFrames();
+        }
         List<String> list = new ArrayList<>();
         List<Integer> byteReads = new ArrayList<>();
         int byteHasRead = 0;
@@ -87,6 +105,75 @@ public class RESPParser {
             byteReads.add(byteRead);
             byteHasRead+=byteRead;
         }
+        return toResult(list, byteReads);
+    }
+
+    /**
+     * block on one socket read, then process every complete frame buffered so far.
+     * A partial frame stays in the decoder for the next call
+     */
+    private RESPResultDto processDecodedFrames() throws IOException {
+        if (decoder.readFrom(clientSocket.getInputStream()) == -1) {
+            throw new EOFException("connection closed by peer");
+        }
+        List<String> list = new ArrayList<>();
+        List<Integer> byteReads = new ArrayList<>();
+        int carriedByteRead = 0;
+        RESPFrameDto frame;
+        while ((frame = decoder.decode()) != null) {
+            String ans = convertFrame(frame);
+            if (ans == null || ans.isEmpty()) {
+                // no reply, but its bytes still count toward the replication offset
+                carriedByteRead += frame.getByteRead();
+                continue;
+            }
+            list.add(ans);
+            byteReads.add(frame.getByteRead()+carriedByteRead);
+            carriedByteRead = 0;
+        }
+        if (carriedByteRead > 0 && !byteReads.isEmpty()) {
+            byteReads.set(byteReads.size()-1, byteReads.get(byteReads.size()-1)+carriedByteRead);
+        }
+        return toResult(list, byteReads);
+    }
+
+    /**
+     * block on one socket read, then execute every complete frame buffered so far and encode the replies into writer.
+     * A partial frame stays in the decoder for the next call
+     * @param writer connection reply writer
+     * @param highWaterMark number of buffered reply bytes after which flusher is called before the batch is done
+     * @param flusher takes replies out of writer
+     */
+    public void processTo(RESPWriter writer, int highWaterMark, Consumer<RESPWriter> flusher) throws IOException {
+        if (decoder.readFrom(clientSocket.getInputStream()) == -1) {
+            throw new EOFException("connection closed by peer");
+        }
+        RESPFrameDto frame;
+        while ((frame = decoder.decode()) != null) {
+            if (frame.isArray()) {
+                RESPParserUtils.process(new ParserDto<>(this.clientSocket, frame.getArgs()), writer);
+            } else {
+                writer.writeRaw(RESPParserUtils.convertStr2Str(new ParserDto<>(this.clientSocket, frame.getValue())));
+            }
+            if (writer.size() >= highWaterMark) {
+                flusher.accept(writer);
+            }
+        }
+        if (!writer.isEmpty()) {
+            flusher.accept(writer);
+        }
+    }
+
+    private String convertFrame(RESPFrameDto frame) {
+        if (frame.isArray()) {
+            ParserDto<List<String>> parserDto = new ParserDto<>(this.clientSocket, frame.getArgs(), this.isNoProcessCommandHandler);
+            return toStringConvertor.get(ARRAY_ASTERISK_PARSER_CONVERTOR).apply(parserDto);
+        }
+        ParserDto<String> parserDto = new ParserDto<>(this.clientSocket, frame.getValue());
+        return toStringConvertor.get(DEFAULT_PARSER_CONVERTOR).apply(parserDto);
+    }
+
+    private RESPResultDto toResult(List<String> list, List<Integer> byteReads) {
         RESPResultDto result = new RESPResultDto();
         result.setList(list);
         result.setByteReads(byteReads);
@@ -124,6 +211,21 @@ public class RESPParser {
         };
     }
 
+    /**
+     * decode the next buffered command without reading from socket or executing it
+     * @return parsed command, or null once no complete command is buffered
+     */
+    public ParserDto<List<String>> processNextCommand() {
+        RESPFrameDto frame = decoder.decode();
+        if (frame == null) {
+            return null;
+        }
+        if (!frame.isArray()) {
+            throw new RuntimeException("unsupported RESP indicator b=" + frame.getType());
+        }
+        return new ParserDto<>(this.clientSocket, frame.getArgs(), this.isNoProcessCommandHandler);
+    }
+
     private ParserDto<List<String>> processNextArray() throws IOException {
         int size = processNextInt(inputStream);
         inputStream.skipCRLF();
@@ -142,17 +244,17 @@ public class RESPParser {
     }
 
     private ParserDto<String> processSimpleString() throws IOException {
-        List<Byte> byteList = new ArrayList<>();
+        byte[] buffer = inputStream.getBuffer();
+        int start = inputStream.getCount();
         while (true) {
             byte b = inputStream.peekCurrentByte();
             if (b == '\r' || b == '\n') {
-                inputStream.skipNByte(CRLF_LENGTH);
                 break;
             }
-            byteList.add(inputStream.readByte());
+            inputStream.readByte();
         }
-        byte[] bytes = RESPUtils.fromByteList(byteList);
-        String ans = new String(bytes, StandardCharsets.UTF_8);
+        String ans = new String(buffer, start, inputStream.getCount()-start, StandardCharsets.UTF_8);
+        inputStream.skipNByte(CRLF_LENGTH);
         return new ParserDto<>(this.clientSocket, ans);
     }
 
@@ -163,15 +265,24 @@ public class RESPParser {
     }
 
     private int processNextInt(RedisInputStream inputStream) throws IOException {
-        List<Integer> digits = new ArrayList<>();
+        boolean isNegative = inputStream.peekCurrentByte() == '-';
+        if (isNegative) {
+            inputStream.readByte();
+        }
+        int value = 0;
         while (inputStream.peekCurrentByte() != CR) {
-            digits.add(inputStream.read() - ((int) '0'));
+            int digit = inputStream.read() - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("invalid RESP length");
+            }
+            value = Math.addExact(Math.multiplyExact(value, 10), digit);
         }
-        return Integer.parseInt(digits.stream().map(String::valueOf).collect(Collectors.joining("")));
+        return isNegative ? -value : value;
     }
 
     private Socket clientSocket;
     private RedisInputStream inputStream;
+    private RESPDecoder decoder;
     private Boolean isNoProcessCommandHandler;
 
     public Socket getClientSocket() {
@@ -190,6 +301,14 @@ public class RESPParser {
         this.inputStream = inputStream;
     }
 
+    public RESPDecoder getDecoder() {
+        return decoder;
+    }
+
+    public void setDecoder(RESPDecoder decoder) {
+        this.decoder = decoder;
+    }
+
     public Boolean getNoProcessCommandHandler() {
         return isNoProcessCommandHandler;
     }
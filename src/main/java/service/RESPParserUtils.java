@@ -2,10 +2,13 @@ package service;
 
 import constants.OutputConstants;
 import domain.AclConfigDto;
+import domain.BlockedClientDto;
+import domain.CommandDescriptorDto;
 import domain.JobDto;
 import domain.ParserDto;
 import enums.CommandType;
-import handler.command.CommandHandler;
+import enums.SharedReplyType;
+import handler.command.CommandTable;
 import handler.command.impl.auth.AclHandler;
 import handler.command.impl.auth.AuthHandler;
 import handler.command.impl.transaction.MultiHandler;
@@ -23,6 +26,35 @@ public class RESPParserUtils {
     }
 
     public static String convertList2Str(ParserDto<List<String>> parserDto) {
+        List<String> list = parserDto.getValue();
+        if (!list.isEmpty() && Objects.equals(parserDto.getNoProcessCommandHandler(), Boolean.TRUE)) {
+            return String.join(OutputConstants.COMMA_DELIMITER, list);
+        }
+        RESPWriter writer = new RESPWriter();
+        process(parserDto, writer);
+        return writer.toString();
+    }
+
+    /**
+     * execute one command and encode its reply into writer, nothing is written for an unknown command.
+     * If the command blocks the client, the current thread waits for its reply, which keeps replies in order
+     * @param parserDto parsed command
+     * @param writer connection reply writer
+     */
+    public static void process(ParserDto<List<String>> parserDto, RESPWriter writer) {
+        BlockedClientDto blockedClient = processOrBlock(parserDto, writer);
+        if (blockedClient != null) {
+            writer.writeRaw(BlockingUtils.awaitReply(blockedClient));
+        }
+    }
+
+    /**
+     * execute one command and encode its reply into writer, without waiting for a client it blocks
+     * @param parserDto parsed command
+     * @param writer connection reply writer
+     * @return client blocked by the command, its reply is not in writer yet. Null if the command did not block
+     */
+    public static BlockedClientDto processOrBlock(ParserDto<List<String>> parserDto, RESPWriter writer) {
         // init
         List<String> list = parserDto.getValue();
         Socket clientSocket = parserDto.getSocket();
@@ -30,11 +62,7 @@ public class RESPParserUtils {
 
         // pre-check
         if (list.isEmpty()) {
-            return "";
-        }
-
-        if (Objects.equals(parserDto.getNoProcessCommandHandler(), Boolean.TRUE)) {
-            return String.join(OutputConstants.COMMA_DELIMITER, list);
+            return null;
         }
 
         AclConfigDto aclConfigDto = (AclConfigDto) RedisLocalMap.ACL_MAP.get(userName);
@@ -44,47 +72,74 @@ public class RESPParserUtils {
                 && !RedisLocalMap.AUTHENTICATED_CONNECTION_SET.contains(ServerUtils.formatIdFromSocket(clientSocket))
                 && !AclHandler.isAclSetUserPassword(list)
                 && !AuthHandler.isAuth(list)) {
-            return RESPUtils.toSimpleError(OutputConstants.ERROR_MESSAGE_NOAUTH_AUTHENTICATION);
+            writer.writeShared(SharedReplyType.ERR_NOAUTH);
+            return null;
         }
 
-        String alias = list.get(0);
-        CommandHandler commandHandler = CommandHandler.HANDLER_MAP.getOrDefault(alias.toLowerCase(), null);
-        if (commandHandler == null) {
-            return "";
+        // resolve handler, command type and flags in one lookup
+        CommandDescriptorDto descriptor = CommandTable.lookup(list);
+        if (descriptor == null) {
+            return null;
+        }
+        CommandType command = descriptor.getCommandType();
+        if (!descriptor.isValidArity(list.size())) {
+            writer.writeError(String.format(OutputConstants.WRONG_NUMBER_OF_ARGUMENTS_ERROR, command.getAlias()));
+            return null;
         }
 
         // handle queueing commands per multi
         String jobId = ServerUtils.formatIdFromSocket(clientSocket);
         JobDto jobDto = JobHandler.JOB_MAP.get(jobId);
         if (jobDto.isCommandAtomic()
-                && !Objects.equals(CommandType.fromAlias(alias), CommandType.EXEC)
-                && !Objects.equals(CommandType.fromAlias(alias), CommandType.DISCARD)) {
-            return MultiHandler.queueCommand(clientSocket, list);
+                && !Objects.equals(command, CommandType.EXEC)
+                && !Objects.equals(command, CommandType.DISCARD)) {
+            writer.writeRaw(MultiHandler.queueCommand(clientSocket, list));
+            return null;
         }
 
         // check if commands are in subscribed mode
-        String clientSocketId = ServerUtils.formatIdFromSocket(clientSocket);
-        Boolean isSubscribeMode = RedisLocalMap.SUBSCRIBE_MODE_SET.contains(clientSocketId);
-        if (Objects.equals(Boolean.TRUE, isSubscribeMode) && !CommandType.isAllowedCommandInSubscribedMode(alias)) {
-            return RESPUtils.getErrorMessageCommandInSubscribeMode(alias);
+        if (!descriptor.isAllowedInSubscribedMode() && RedisLocalMap.SUBSCRIBE_MODE_SET.contains(jobId)) {
+            writer.writeRaw(RESPUtils.getErrorMessageCommandInSubscribeMode(command.getAlias()));
+            return null;
         }
 
-        // process command
-        CommandType command = CommandType.fromAlias(alias);
+        // execute command, serially on the main thread in io-threads mode
+        if (IoThreadsUtils.isEnabled()) {
+            IoThreadsUtils.execute(() -> execute(descriptor, clientSocket, list, writer));
+        } else {
+            execute(descriptor, clientSocket, list, writer);
+        }
+        return BlockingUtils.takeBlockedClient(clientSocket);
+    }
+
+    private static void execute(CommandDescriptorDto descriptor, Socket clientSocket, List<String> list, RESPWriter writer) {
+        // free memory before writes, reject commands that may grow memory if nothing can be evicted.
+        // EXEC evicts once for its queued commands, which may run holding the locks of their keys
+        if (descriptor.isWrite()
+                && !(BlockingUtils.isInTransaction() ? EvictionUtils.isWithinMaxMemory() : EvictionUtils.performEvictions())
+                && descriptor.isDenyOom()) {
+            writer.writeShared(SharedReplyType.ERR_OOM);
+            return;
+        }
+
+        // process command, on the shard owning its key in share-nothing mode
         List args = list.subList(1, list.size());
-        String val = commandHandler.process(clientSocket, args);
+        if (ShardUtils.isEnabled() && descriptor.isRoutableToShard()) {
+            ShardUtils.execute(list.get(1), () -> descriptor.getHandler().process(clientSocket, args, writer));
+        } else {
+            descriptor.getHandler().process(clientSocket, args, writer);
+        }
 
-        // handle command propagate
-        if (command != null
-                && command.isWrite()
+        // handle command propagate, queued before serving blocked clients so the pops they are served reach replicas
+        // after the push. A blocking pop is not propagated as is, BlockingUtils propagates the pop it ran if any
+        if (descriptor.isWrite()
+                && !descriptor.isBlockingPop()
                 && MasterManager.isMasterNode()) {
-            new Thread(() -> {
-                MasterManager.propagate(list);
-                MasterManager.setHasWriteReplicas();
-            }).start();
+            MasterManager.propagate(list);
+            MasterManager.setHasWriteReplicas();
         }
 
-        // return
-        return val != null ? val : RESPUtils.getBulkNullString();
+        // serve clients blocked on keys the command pushed to, after the command as a whole
+        BlockingUtils.handleReadyKeys();
     }
 }
@@ -0,0 +1,48 @@
+package service;
+
+import constants.OutputConstants;
+import enums.SharedReplyType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Notes:
+ *  1. immutable pre-encoded replies shared by every connection, encoded once when the class is loaded
+ *  2. byte arrays are package-private, only {@link RESPWriter} copies them out so a shared reply cannot be mutated
+ *  3. integer replies from 0 to SHARED_INTEGERS-1 are shared as well, same range as redis shared integers
+ */
+public class RESPSharedReplies {
+    private static final byte[][] REPLY_BYTES = new byte[SharedReplyType.values().length][];
+    private static final String[] INTEGER_REPLIES = new String[OutputConstants.SHARED_INTEGERS];
+    private static final byte[][] INTEGER_REPLY_BYTES = new byte[OutputConstants.SHARED_INTEGERS][];
+
+    static {
+        for (SharedReplyType sharedReplyType: SharedReplyType.values()) {
+            REPLY_BYTES[sharedReplyType.ordinal()] = sharedReplyType.getReply().getBytes(StandardCharsets.UTF_8);
+        }
+        for (int i=0; i<OutputConstants.SHARED_INTEGERS; i++) {
+            INTEGER_REPLIES[i] = OutputConstants.COLON_DELIMITER + i + OutputConstants.CRLF;
+            INTEGER_REPLY_BYTES[i] = INTEGER_REPLIES[i].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    public static boolean isSharedInteger(long value) {
+        return value >= 0 && value < OutputConstants.SHARED_INTEGERS;
+    }
+
+    /**
+     * @param value integer in shared range
+     * @return encoded integer reply, e.g. ":1\r\n"
+     */
+    public static String getIntegerReply(long value) {
+        return INTEGER_REPLIES[(int) value];
+    }
+
+    static byte[] getIntegerReplyBytes(long value) {
+        return INTEGER_REPLY_BYTES[(int) value];
+    }
+
+    static byte[] getReplyBytes(SharedReplyType sharedReplyType) {
+        return REPLY_BYTES[sharedReplyType.ordinal()];
+    }
+}
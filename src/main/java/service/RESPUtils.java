@@ -6,6 +6,7 @@ import domain.RESPResultDto;
 import domain.TaskDto;
 import enums.CommandType;
 import enums.RESPResultType;
+import enums.SharedReplyType;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -20,7 +21,7 @@ public class RESPUtils {
         StringJoiner joiner = new StringJoiner(OutputConstants.CRLF, OutputConstants.EMPTY, OutputConstants.CRLF);
         joiner.add(OutputConstants.ASTERISK + list.size());
         for (String str: list) {
-            joiner.add(OutputConstants.DOLLAR_SIZE + str.length());
+            joiner.add(OutputConstants.DOLLAR_SIZE + StringUtils.getUtf8Length(str));
             joiner.add(str);
         }
         return joiner.toString();
@@ -40,7 +41,7 @@ public class RESPUtils {
 
     public static String toBulkString(String str) {
         StringJoiner joiner = new StringJoiner(OutputConstants.CRLF, OutputConstants.EMPTY, OutputConstants.CRLF);
-        joiner.add(OutputConstants.DOLLAR_SIZE + str.length());
+        joiner.add(OutputConstants.DOLLAR_SIZE + StringUtils.getUtf8Length(str));
         joiner.add(str);
         return joiner.toString();
     }
@@ -58,6 +59,9 @@ public class RESPUtils {
     }
 
     public static String toSimpleInt(int i) {
+        if (RESPSharedReplies.isSharedInteger(i)) {
+            return RESPSharedReplies.getIntegerReply(i);
+        }
         StringJoiner joiner = new StringJoiner(OutputConstants.EMPTY, OutputConstants.COLON_DELIMITER, OutputConstants.CRLF);
         joiner.add(String.valueOf(i));
         return joiner.toString();
@@ -90,7 +94,7 @@ public class RESPUtils {
         for (Object obj: list) {
             if (obj instanceof String) {
                 String str = (String) obj;
-                joiner.add(OutputConstants.DOLLAR_SIZE + str.length());
+                joiner.add(OutputConstants.DOLLAR_SIZE + StringUtils.getUtf8Length(str));
                 joiner.add(str);
             } else if (obj instanceof List) {
                 joiner.add(toBulkStringFromNestedList0((List<Object>) obj));
@@ -120,21 +124,15 @@ public class RESPUtils {
     }
 
     public static String getBulkNullString() {
-        StringJoiner joiner = new StringJoiner(OutputConstants.CRLF, OutputConstants.EMPTY, OutputConstants.CRLF);
-        joiner.add(OutputConstants.DOLLAR_SIZE + OutputConstants.NULL_BULK);
-        return joiner.toString();
+        return SharedReplyType.NULL_BULK_STRING.getReply();
     }
 
     public static String getBulkNullArray() {
-        StringJoiner joiner = new StringJoiner(OutputConstants.CRLF, OutputConstants.EMPTY, OutputConstants.CRLF);
-        joiner.add(OutputConstants.ASTERISK + OutputConstants.NULL_BULK);
-        return joiner.toString();
+        return SharedReplyType.NULL_ARRAY.getReply();
     }
 
     public static String getEmptyArray() {
-        StringJoiner joiner = new StringJoiner(OutputConstants.CRLF, OutputConstants.EMPTY, OutputConstants.CRLF);
-        joiner.add(OutputConstants.ASTERISK + OutputConstants.LRANGE_EMPTY_ARRAY_LENGTH);
-        return joiner.toString();
+        return SharedReplyType.EMPTY_ARRAY.getReply();
     }
 
     public static String getEmptyArrayWithoutEndingCRLF() {
@@ -144,7 +142,7 @@ public class RESPUtils {
     }
 
     public static String getRESPOk() {
-        return toSimpleString(OutputConstants.OK);
+        return SharedReplyType.OK.getReply();
     }
 
     public static String requestRESPReplConfAck() {
@@ -162,28 +160,8 @@ public class RESPUtils {
         return toArray(list);
     }
 
-    public static byte[] fromByteList(List<Byte> list) {
-        int l = list.size();
-        byte[] array = new byte[l];
-        for (int i=0; i<l; i++) {
-            array[i] = list.get(i);
-        }
-        return array;
-    }
-
     public static byte[] fromStringList(List<String> list) {
-        List<Byte> byteList = new ArrayList<>();
-        for (String str: list) {
-            byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
-            for (byte b: bytes) {
-                byteList.add(b);
-            }
-        }
-        byte[] ans = new byte[byteList.size()];
-        for (int i=0; i<ans.length; i++) {
-            ans[i] = byteList.get(i);
-        }
-        return ans;
+        return String.join(OutputConstants.EMPTY, list).getBytes(StandardCharsets.UTF_8);
     }
 
     public static byte[] combine2Bytes(byte[] b1, byte[] b2) {
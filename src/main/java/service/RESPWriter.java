@@ -0,0 +1,261 @@
+package service;
+
+import constants.OutputConstants;
+import enums.SharedReplyType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static constants.ParserConstants.*;
+
+/**
+ * Notes:
+ *  1. encodes RESP replies straight into a growable output buffer, one instance per connection
+ *  2. strings are encoded to UTF-8 in place, bulk lengths are byte lengths instead of String::length
+ *  3. not thread-safe, only the thread processing commands of the connection writes into it
+ *  4. buffer grows on demand for large replies and shrinks back on clear
+ */
+public class RESPWriter {
+    private static final byte[] CRLF_BYTES = {CR, LF};
+
+    private final int initialCapacity;
+    private ByteBuffer buffer;
+
+    public RESPWriter() {
+        this(OutputConstants.RESP_WRITER_INITIAL_CAPACITY);
+    }
+
+    public RESPWriter(int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+        this.buffer = ByteBuffer.allocate(initialCapacity);
+    }
+
+    public RESPWriter writeSimpleString(String str) {
+        put(SIMPLE_STRING_PLUS);
+        putUtf8(str);
+        return putCRLF();
+    }
+
+    public RESPWriter writeError(String error) {
+        put(SIMPLE_ERROR_MINUS);
+        putUtf8(error);
+        return putCRLF();
+    }
+
+    /**
+     * @param sharedReplyType pre-encoded reply
+     * @return writer
+     */
+    public RESPWriter writeShared(SharedReplyType sharedReplyType) {
+        put(RESPSharedReplies.getReplyBytes(sharedReplyType));
+        return this;
+    }
+
+    public RESPWriter writeInteger(long value) {
+        if (RESPSharedReplies.isSharedInteger(value)) {
+            put(RESPSharedReplies.getIntegerReplyBytes(value));
+            return this;
+        }
+        put(INTEGER_COLON);
+        putLong(value);
+        return putCRLF();
+    }
+
+    public RESPWriter writeBulkString(String str) {
+        if (str == null) {
+            return writeNullBulkString();
+        }
+        put(BULK_STRING_DOLLAR_SIGN);
+        putLong(StringUtils.getUtf8Length(str));
+        putCRLF();
+        putUtf8(str);
+        return putCRLF();
+    }
+
+    public RESPWriter writeBulkString(byte[] bytes) {
+        if (bytes == null) {
+            return writeNullBulkString();
+        }
+        put(BULK_STRING_DOLLAR_SIGN);
+        putLong(bytes.length);
+        putCRLF();
+        put(bytes);
+        return putCRLF();
+    }
+
+    /**
+     * @param value integer sent as a bulk string, printed in place without a String
+     * @return writer
+     */
+    public RESPWriter writeBulkString(long value) {
+        put(BULK_STRING_DOLLAR_SIGN);
+        putLong(StringUtils.getDecimalLength(value));
+        putCRLF();
+        putLong(value);
+        return putCRLF();
+    }
+
+    public RESPWriter writeNullBulkString() {
+        return writeShared(SharedReplyType.NULL_BULK_STRING);
+    }
+
+    public RESPWriter writeNullArray() {
+        return writeShared(SharedReplyType.NULL_ARRAY);
+    }
+
+    public RESPWriter writeArrayHeader(int size) {
+        if (size == 0) {
+            return writeShared(SharedReplyType.EMPTY_ARRAY);
+        }
+        put(ARRAY_ASTERISK);
+        putLong(size);
+        return putCRLF();
+    }
+
+    public RESPWriter writeArray(List<String> list) {
+        writeArrayHeader(list.size());
+        for (String str: list) {
+            writeBulkString(str);
+        }
+        return this;
+    }
+
+    /**
+     * @param resp reply already encoded in RESP, e.g. returned by a String-based command handler
+     * @return writer
+     */
+    public RESPWriter writeRaw(String resp) {
+        putUtf8(resp);
+        return this;
+    }
+
+    public RESPWriter writeRaw(byte[] resp) {
+        put(resp);
+        return this;
+    }
+
+    public int size() {
+        return buffer.position();
+    }
+
+    public boolean isEmpty() {
+        return buffer.position() == 0;
+    }
+
+    /**
+     * write buffered bytes to channel, bytes not accepted by the channel stay buffered
+     * @param channel non-blocking socket channel
+     * @return number of bytes written
+     */
+    public int writeTo(WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        try {
+            return channel.write(buffer);
+        } finally {
+            buffer.compact();
+        }
+    }
+
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[buffer.position()];
+        System.arraycopy(buffer.array(), 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    public void clear() {
+        if (buffer.capacity() > OutputConstants.RESP_WRITER_MAX_RETAINED_CAPACITY) {
+            buffer = ByteBuffer.allocate(initialCapacity);
+            return;
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+    }
+
+    private RESPWriter putCRLF() {
+        put(CRLF_BYTES);
+        return this;
+    }
+
+    private void put(byte b) {
+        ensureWritable(1);
+        buffer.put(b);
+    }
+
+    private void put(byte[] bytes) {
+        ensureWritable(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private void putLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            put(String.valueOf(value).getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        ensureWritable(OutputConstants.LONG_MAX_DECIMAL_LENGTH);
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int numDigits = 1;
+        for (long n = value; n >= 10; n /= 10) {
+            numDigits++;
+        }
+        int position = buffer.position();
+        byte[] array = buffer.array();
+        for (int i=position+numDigits-1; i>=position; i--) {
+            array[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        buffer.position(position+numDigits);
+    }
+
+    private void putUtf8(String str) {
+        int length = str.length();
+        ensureWritable(length);
+        for (int i=0; i<length; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                ensureWritable(1);
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                ensureWritable(2);
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i+1 < length && Character.isLowSurrogate(str.charAt(i+1))) {
+                int codePoint = Character.toCodePoint(c, str.charAt(++i));
+                ensureWritable(4);
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogate, same replacement as String::getBytes
+                ensureWritable(1);
+                buffer.put((byte) '?');
+            } else {
+                ensureWritable(3);
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private void ensureWritable(int size) {
+        if (buffer.remaining() >= size) {
+            return;
+        }
+        int capacity = Math.max(buffer.capacity()*2, buffer.position()+size);
+        ByteBuffer newBuffer = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        newBuffer.put(buffer);
+        buffer = newBuffer;
+    }
+}
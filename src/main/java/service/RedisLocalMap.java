@@ -1,21 +1,38 @@
 package service;
 
-import domain.BlockListDto;
+import constants.OutputConstants;
 import domain.CacheDto;
 import domain.ChannelDto;
+import domain.PatternDto;
+import domain.ScanEntryDto;
 import domain.SubscriberDto;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingDeque;
 
 public class RedisLocalMap {
 
     public static final Map<String, CacheDto> LOCAL_MAP = new ConcurrentHashMap<>();
 
-    public static final LinkedBlockingDeque<BlockListDto> BLPOP_CLIENT_BLOCK_QUEUE = new LinkedBlockingDeque<>();
+    /**
+     * keys of LOCAL_MAP sorted by reversed hash, for SCAN. Null while no SCAN ran lately, so writes only pay for it
+     * while an iteration may be in progress. An entry is added and removed inside the atomic update of its key,
+     * so the index never disagrees with LOCAL_MAP for keys stored and removed through this class
+     */
+    private static volatile NavigableSet<ScanEntryDto> keyIndex;
+    private static volatile long keyIndexAccessTime;
+    private static final Object KEY_INDEX_LOCK = new Object();
+
+    /**
+     * locks of the keyspace, a key is guarded by the stripe its hash falls in. Commands reading then writing a key
+     * hold its stripe, so concurrent writes to the same key are serialized while writes to other stripes
+     * run in parallel. Plain reads stay lock-free on LOCAL_MAP
+     */
+    private static final Object[] KEY_LOCKS = newKeyLocks();
 
     /**
      * Map<key=channelName, value=Map<key=subscriberId, value=subscriberDto>>
@@ -27,9 +44,216 @@ public class RedisLocalMap {
      */
     public static final Map<String, Map<String, ChannelDto>> SUBSCRIBER_MAP = new ConcurrentHashMap<>();
 
+    /**
+     * Map<key=pattern, value=compiled pattern and its subscribers>
+     */
+    public static final Map<String, PatternDto> PATTERN_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * Map<key=subscriberId, value=patterns>
+     */
+    public static final Map<String, Set<String>> SUBSCRIBER_PATTERN_MAP = new ConcurrentHashMap<>();
+
     public static final Set<String> SUBSCRIBE_MODE_SET = new HashSet<>();
 
     public static final Map<String, Object> ACL_MAP = new ConcurrentHashMap<>();
 
     public static final Set<String> AUTHENTICATED_CONNECTION_SET = new HashSet<>();
+
+    /**
+     * @param key key
+     * @return lock to hold while reading then writing key or its value, reentrant as a monitor
+     */
+    public static Object getLock(String key) {
+        return KEY_LOCKS[getLockIndex(key)];
+    }
+
+    /**
+     * run task holding the locks of all keys. Stripes are taken in ascending index order,
+     * so two commands locking several keys never wait for each other
+     * @param keys keys, duplicates and keys sharing a stripe are locked once
+     * @param task task reading then writing keys
+     */
+    public static void runWithLocks(List<String> keys, Runnable task) {
+        int[] lockIndexes = keys.stream().mapToInt(RedisLocalMap::getLockIndex).sorted().distinct().toArray();
+        runWithLocks(lockIndexes, 0, task);
+    }
+
+    /**
+     * run task holding every lock of the keyspace, taken in ascending index order as runWithLocks does,
+     * for a task whose keys are not known up front
+     * @param task task reading then writing any key
+     */
+    public static void runWithAllLocks(Runnable task) {
+        int[] lockIndexes = new int[KEY_LOCKS.length];
+        for (int i=0; i<lockIndexes.length; i++) {
+            lockIndexes[i] = i;
+        }
+        runWithLocks(lockIndexes, 0, task);
+    }
+
+    /**
+     * @param key key
+     * @return value of key, or null if key does not exist or has expired. An expired key is removed on access
+     */
+    public static CacheDto get(String key) {
+        CacheDto cache = LOCAL_MAP.get(key);
+        if (cache == null) {
+            return null;
+        }
+        if (!ExpiryUtils.isExpired(cache, System.currentTimeMillis())) {
+            EvictionUtils.updateAccess(cache);
+            return cache;
+        }
+        remove(key, cache);
+        return null;
+    }
+
+    /**
+     * @return key index for SCAN, built from LOCAL_MAP if no SCAN ran lately
+     */
+    public static NavigableSet<ScanEntryDto> getKeyIndex() {
+        NavigableSet<ScanEntryDto> index = keyIndex;
+        if (index == null) {
+            synchronized (KEY_INDEX_LOCK) {
+                index = keyIndex;
+                if (index == null) {
+                    index = ScanUtils.newIndex();
+                    // published before it is filled, so a key stored meanwhile is added by its own put
+                    keyIndex = index;
+                    for (String key: LOCAL_MAP.keySet()) {
+                        NavigableSet<ScanEntryDto> newIndex = index;
+                        // inside the atomic update of key, so a concurrent remove either comes before or removes it
+                        LOCAL_MAP.computeIfPresent(key, (k, cache) -> {
+                            newIndex.add(ScanUtils.toScanEntry(k));
+                            return cache;
+                        });
+                    }
+                }
+            }
+        }
+        keyIndexAccessTime = System.currentTimeMillis();
+        return index;
+    }
+
+    /**
+     * drop the key index once no SCAN used it for idleMillis, writes stop maintaining it.
+     * A later SCAN builds it again, a cursor stays valid since it does not depend on the index
+     * @param currentTime current time in milliseconds
+     * @param idleMillis time since the last SCAN after which the index is dropped
+     */
+    public static void dropIdleKeyIndex(long currentTime, long idleMillis) {
+        if (keyIndex != null && currentTime - keyIndexAccessTime >= idleMillis) {
+            keyIndex = null;
+        }
+    }
+
+    public static boolean containsKey(String key) {
+        return get(key) != null;
+    }
+
+    /**
+     * store value and keep the scan and expiry indexes and used memory in sync with it
+     * @param key key
+     * @param cache value
+     */
+    public static void put(String key, CacheDto cache) {
+        LOCAL_MAP.compute(key, (k, oldCache) -> {
+            NavigableSet<ScanEntryDto> index = keyIndex;
+            if (oldCache == null && index != null) {
+                index.add(ScanUtils.toScanEntry(k));
+            }
+            if (oldCache != cache) {
+                // handlers also put back a value they changed in place, which is an access, not a new value
+                EvictionUtils.initAccess(cache);
+            }
+            MemoryUtils.account(k, cache, oldCache);
+            ExpiryUtils.index(k, cache.getExpireTime());
+            return cache;
+        });
+    }
+
+    public static CacheDto remove(String key) {
+        CacheDto cache = LOCAL_MAP.get(key);
+        while (cache != null && !remove(key, cache)) {
+            // overwritten since it was read
+            cache = LOCAL_MAP.get(key);
+        }
+        return cache;
+    }
+
+    /**
+     * remove key only if it still holds cache, e.g. when it expired or was chosen for eviction
+     * @param key key
+     * @param cache value expected to be stored
+     * @return whether key was removed
+     */
+    public static boolean remove(String key, CacheDto cache) {
+        boolean[] isRemoved = new boolean[1];
+        LOCAL_MAP.computeIfPresent(key, (k, oldCache) -> {
+            if (oldCache != cache) {
+                return oldCache;
+            }
+            NavigableSet<ScanEntryDto> index = keyIndex;
+            if (index != null) {
+                index.remove(ScanUtils.toScanEntry(k));
+            }
+            if (cache.getExpireTime() != null) {
+                ExpiryUtils.unindex(k, cache.getExpireTime());
+            }
+            isRemoved[0] = true;
+            return null;
+        });
+        if (!isRemoved[0]) {
+            return false;
+        }
+        MemoryUtils.release(cache);
+        return true;
+    }
+
+    /**
+     * drop the expiry index entry of key if key is not stored, e.g. a leftover of a key removed from LOCAL_MAP
+     * directly. Checked inside the atomic update of key, so a concurrent put keeps its entry
+     * @param key key
+     */
+    public static void unindexIfAbsent(String key) {
+        LOCAL_MAP.computeIfAbsent(key, k -> {
+            ExpiryUtils.unindex(k);
+            return null;
+        });
+    }
+
+    /**
+     * remove every key, together with its scan and expiry index entries and used memory
+     */
+    public static void clear() {
+        LOCAL_MAP.clear();
+        keyIndex = null;
+        ExpiryUtils.clear();
+        MemoryUtils.reset();
+    }
+
+    private static void runWithLocks(int[] lockIndexes, int from, Runnable task) {
+        if (from == lockIndexes.length) {
+            task.run();
+            return;
+        }
+        synchronized (KEY_LOCKS[lockIndexes[from]]) {
+            runWithLocks(lockIndexes, from+1, task);
+        }
+    }
+
+    private static int getLockIndex(String key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return hash & (KEY_LOCKS.length-1);
+    }
+
+    private static Object[] newKeyLocks() {
+        Object[] locks = new Object[OutputConstants.KEYSPACE_LOCK_STRIPES];
+        for (int i=0; i<locks.length; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
 }
@@ -0,0 +1,144 @@
+package service;
+
+import comparator.ScanEntryComparator;
+import constants.OutputConstants;
+import domain.ScanEntryDto;
+import domain.ScanOptionDto;
+import enums.CommandType;
+import enums.SharedReplyType;
+import enums.ValueType;
+
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+
+/**
+ * Notes:
+ *  1. cursors follow the reverse binary iteration of Redis: a cursor is the hash of the next entry to visit,
+ *     and entries are visited by increasing reversed hash, i.e. incrementing the high bits of the cursor first
+ *  2. Redis walks the buckets of its hash table in that order, so a cursor survives a rehash. Here entries are kept
+ *     in a skip list sorted by reversed hash instead of being found through table buckets, which is the same order
+ *     at full hash resolution: it does not depend on a table size at all, and every entry present for a whole
+ *     iteration is returned exactly once however the keyspace grows or shrinks in between
+ *  3. entries sharing a hash are returned by the same call, so a cursor never falls between them
+ *  4. COUNT bounds the number of entries visited by a call, MATCH and TYPE filter them afterwards,
+ *     so a call may return fewer entries than COUNT, or none, before the iteration is over
+ *  5. the keyspace index is built by the first SCAN and dropped once SCAN is idle, so writes do not maintain
+ *     it otherwise. A cursor is a hash, not a position in the index, so it survives the index being rebuilt
+ */
+public class ScanUtils {
+
+    public static NavigableSet<ScanEntryDto> newIndex() {
+        return new ConcurrentSkipListSet<>(new ScanEntryComparator());
+    }
+
+    public static ScanEntryDto toScanEntry(String key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16; // fold high bits into the low bits that are reversed into the leading ones
+        return new ScanEntryDto(Integer.reverse(hash), key);
+    }
+
+    /**
+     * visit up to count entries of index from cursor on
+     * @param index entries sorted by reversed hash
+     * @param cursor 0 to start a new iteration, or a cursor returned by the previous call
+     * @param count number of entries to visit, entries sharing the hash of the last one are visited too
+     * @param filter keys to return among the visited ones
+     * @param keys returned keys are added to it
+     * @return cursor of the next call, 0 once every entry has been visited
+     */
+    public static long scan(NavigableSet<ScanEntryDto> index, long cursor, int count,
+                            Predicate<String> filter, List<String> keys) {
+        ScanEntryDto from = new ScanEntryDto(Integer.reverse((int) cursor), OutputConstants.EMPTY);
+        int numVisited = 0;
+        int lastReverseHash = 0;
+        for (ScanEntryDto entry: index.tailSet(from, true)) {
+            if (numVisited >= count && entry.getReverseHash() != lastReverseHash) {
+                return Integer.toUnsignedLong(Integer.reverse(entry.getReverseHash()));
+            }
+            numVisited++;
+            lastReverseHash = entry.getReverseHash();
+            if (filter.test(entry.getKey())) {
+                keys.add(entry.getKey());
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * parse cursor [MATCH pattern] [COUNT count] [TYPE type]
+     * @param list command arguments
+     * @param cursorIndex index of cursor in list, options follow it
+     * @param isTypeAllowed whether TYPE is an option of the command
+     * @param writer error reply is written to it
+     * @return options, or null if an error reply was written
+     */
+    public static ScanOptionDto parseScanOptions(List list, int cursorIndex, boolean isTypeAllowed, RESPWriter writer) {
+        ScanOptionDto scanOptionDto = new ScanOptionDto();
+        try {
+            scanOptionDto.setCursor(Long.parseLong((String) list.get(cursorIndex)));
+        } catch (NumberFormatException e) {
+            writer.writeError(OutputConstants.INVALID_CURSOR_ERROR);
+            return null;
+        }
+        if (scanOptionDto.getCursor() < 0 || scanOptionDto.getCursor() > OutputConstants.SCAN_CURSOR_MAX) {
+            writer.writeError(OutputConstants.INVALID_CURSOR_ERROR);
+            return null;
+        }
+        scanOptionDto.setCount(OutputConstants.SCAN_DEFAULT_COUNT);
+        for (int i=cursorIndex+1; i<list.size(); i+=2) {
+            String option = (String) list.get(i);
+            if (i+1 >= list.size()) {
+                writer.writeShared(SharedReplyType.ERR_SYNTAX);
+                return null;
+            }
+            String value = (String) list.get(i+1);
+            if (CommandType.MATCH.getAlias().equalsIgnoreCase(option)) {
+                scanOptionDto.setPattern(GlobPattern.compile(value));
+            } else if (CommandType.COUNT.getAlias().equalsIgnoreCase(option)) {
+                int count;
+                try {
+                    count = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    writer.writeShared(SharedReplyType.ERR_NOT_INTEGER);
+                    return null;
+                }
+                if (count < 1) {
+                    writer.writeShared(SharedReplyType.ERR_SYNTAX);
+                    return null;
+                }
+                scanOptionDto.setCount(count);
+            } else if (isTypeAllowed && CommandType.TYPE.getAlias().equalsIgnoreCase(option)) {
+                ValueType valueType = toValueType(value);
+                if (valueType == null) {
+                    writer.writeError(String.format(OutputConstants.UNKNOWN_TYPE_NAME_ERROR, value));
+                    return null;
+                }
+                scanOptionDto.setValueType(valueType);
+            } else {
+                writer.writeShared(SharedReplyType.ERR_SYNTAX);
+                return null;
+            }
+        }
+        return scanOptionDto;
+    }
+
+    /**
+     * @param pattern MATCH pattern, null to match every key
+     * @param key key
+     * @return whether key matches pattern
+     */
+    public static boolean isMatch(GlobPattern pattern, String key) {
+        return pattern == null || pattern.matches(key);
+    }
+
+    private static ValueType toValueType(String typeName) {
+        for (ValueType valueType: ValueType.values()) {
+            if (valueType.name().equalsIgnoreCase(typeName)) {
+                return valueType;
+            }
+        }
+        return null;
+    }
+}
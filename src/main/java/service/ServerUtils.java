@@ -1,6 +1,7 @@
 package service;
 
 import constants.OutputConstants;
+import eventloop.EventLoopGroup;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -18,12 +19,15 @@ public class ServerUtils {
     }
 
     public static void writeThenFlushString(Socket socket, String string) throws IOException {
-        OutputStream outputStream = socket.getOutputStream();
-        outputStream.write(string.getBytes(StandardCharsets.UTF_8));
-        outputStream.flush();
+        writeThenFlushBytes(socket, string.getBytes(StandardCharsets.UTF_8));
     }
 
     public static void writeThenFlushBytes(Socket socket, byte[] bytes) throws IOException {
+        // non-blocking channels are owned by an event loop, writing to their stream directly is not allowed
+        if (EventLoopGroup.isEventLoopSocket(socket)) {
+            EventLoopGroup.write(socket, bytes);
+            return;
+        }
         OutputStream outputStream = socket.getOutputStream();
         outputStream.write(bytes);
         outputStream.flush();
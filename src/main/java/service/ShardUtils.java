@@ -0,0 +1,242 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Notes:
+ *  1. optional share-nothing mode enabled with --keyspace-shards N: keys are partitioned into N shards by hash, and
+ *     each shard is owned by a single-threaded executor, so every command of a key runs on the same thread
+ *  2. connection threads keep reading, parsing and encoding. They hand a command of a single key to the shard owning
+ *     it and wait for it, commands without a key or blocking ones still run on the connection thread
+ *  3. multi-key work that is not atomic across keys fans out, as MGET and DEL: each shard runs its share of the keys,
+ *     results are gathered back in key order. MSET and MSETNX must be atomic across keys, so they run on the
+ *     connection thread holding the locks of their keys
+ *  4. a task already running on the owning shard runs inline, so a shard never waits for itself. Only connection
+ *     threads wait for other shards: two shards waiting for each other would deadlock
+ *  5. shards partition the ownership of keys, not their storage: LOCAL_MAP stays one map, as SCAN, KEYS, eviction
+ *     sampling, active expiry, MEMORY STATS and BLMOVE moving elements across keys read or write it as a whole.
+ *     Key locks stay in place for the commands still running on connection threads, between shards they are uncontended
+ *  6. work spanning shards that must be atomic, as EXEC, runs exclusively: every shard is parked between two tasks,
+ *     and the caller owns every key until it is done. Exclusive sections run one at a time
+ */
+public class ShardUtils {
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> IS_EXCLUSIVE = new ThreadLocal<>();
+    private static final Object EXCLUSIVE_LOCK = new Object();
+
+    private static volatile ExecutorService[] shardExecutors;
+
+    /**
+     * @param numShards number of shards, 0 to disable share-nothing mode
+     */
+    public static synchronized void init(int numShards) {
+        shutdown();
+        if (numShards <= 0) {
+            return;
+        }
+        ExecutorService[] executors = new ExecutorService[numShards];
+        for (int i=0; i<numShards; i++) {
+            int shardIndex = i;
+            executors[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(() -> {
+                    CURRENT_SHARD.set(shardIndex);
+                    runnable.run();
+                }, "shard-" + shardIndex);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        shardExecutors = executors;
+    }
+
+    public static synchronized void shutdown() {
+        ExecutorService[] executors = shardExecutors;
+        shardExecutors = null;
+        if (executors != null) {
+            Arrays.stream(executors).forEach(ExecutorService::shutdown);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return shardExecutors != null;
+    }
+
+    public static int getNumShards() {
+        ExecutorService[] executors = shardExecutors;
+        return executors != null ? executors.length : 0;
+    }
+
+    /**
+     * @param key key
+     * @return index of the shard owning key
+     */
+    public static int getShardIndex(String key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, getNumShards());
+    }
+
+    /**
+     * @return index of the shard running the current thread, null on any other thread
+     */
+    public static Integer getCurrentShardIndex() {
+        return CURRENT_SHARD.get();
+    }
+
+    /**
+     * run task on the shard owning key and wait for it, inline if share-nothing mode is disabled
+     * @param key key
+     * @param task task reading or writing key
+     */
+    public static void execute(String key, Runnable task) {
+        getResult(submit(key, () -> {
+            task.run();
+            return null;
+        }));
+    }
+
+    /**
+     * @param key key
+     * @param task task reading or writing key
+     * @return result of task run on the shard owning key, already completed if it ran inline
+     */
+    public static <T> Future<T> submit(String key, Callable<T> task) {
+        ExecutorService[] executors = shardExecutors;
+        int shardIndex = executors != null ? getShardIndex(key) : -1;
+        if (executors == null || Integer.valueOf(shardIndex).equals(CURRENT_SHARD.get()) || Boolean.TRUE.equals(IS_EXCLUSIVE.get())) {
+            try {
+                return CompletableFuture.completedFuture(task.call());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return executors[shardIndex].submit(task);
+    }
+
+    /**
+     * run task on the current thread while every shard is parked, tasks it submits run inline.
+     * Keys are still read and written by connection threads meanwhile, callers hold the locks of the keys of task
+     * @param task task reading or writing keys of any shard
+     */
+    public static void runExclusive(Runnable task) {
+        ExecutorService[] executors = shardExecutors;
+        if (executors == null || Boolean.TRUE.equals(IS_EXCLUSIVE.get())) {
+            task.run();
+            return;
+        }
+        if (CURRENT_SHARD.get() != null) {
+            // a shard would wait for itself to park
+            throw new IllegalStateException("exclusive section started from shard " + CURRENT_SHARD.get());
+        }
+        synchronized (EXCLUSIVE_LOCK) {
+            CountDownLatch parkedLatch = new CountDownLatch(executors.length);
+            CountDownLatch releaseLatch = new CountDownLatch(1);
+            IS_EXCLUSIVE.set(Boolean.TRUE);
+            try {
+                for (ExecutorService executor: executors) {
+                    executor.execute(() -> {
+                        parkedLatch.countDown();
+                        awaitUninterruptibly(releaseLatch);
+                    });
+                }
+                awaitUninterruptibly(parkedLatch);
+                task.run();
+            } finally {
+                IS_EXCLUSIVE.remove();
+                releaseLatch.countDown();
+            }
+        }
+    }
+
+    /**
+     * apply task to every key on the shard owning it, shards run their share of keys in parallel
+     * @param keys keys
+     * @param task task reading or writing one key
+     * @return results in the order of keys
+     */
+    public static <T> List<T> executeAll(List<String> keys, Function<String, T> task) {
+        int numShards = getNumShards();
+        if (numShards == 0) {
+            List<T> results = new ArrayList<>(keys.size());
+            for (String key: keys) {
+                results.add(task.apply(key));
+            }
+            return results;
+        }
+        // one batch per shard, holding the indexes of its keys
+        List<List<Integer>> batches = new ArrayList<>(numShards);
+        for (int i=0; i<numShards; i++) {
+            batches.add(new ArrayList<>());
+        }
+        for (int i=0; i<keys.size(); i++) {
+            batches.get(getShardIndex(keys.get(i))).add(i);
+        }
+        Object[] results = new Object[keys.size()];
+        List<Future<?>> futures = new ArrayList<>();
+        for (List<Integer> batch: batches) {
+            if (batch.isEmpty()) {
+                continue;
+            }
+            futures.add(submit(keys.get(batch.get(0)), () -> {
+                for (int i: batch) {
+                    results[i] = task.apply(keys.get(i));
+                }
+                return null;
+            }));
+        }
+        futures.forEach(ShardUtils::getResult);
+        List<T> resultList = new ArrayList<>(keys.size());
+        for (Object result: results) {
+            resultList.add((T) result);
+        }
+        return resultList;
+    }
+
+    /**
+     * @param future result of a task
+     * @return result once the task is done, exceptions of the task are thrown as is
+     */
+    public static <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean isInterrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -97,22 +97,36 @@ public class StreamUtils {
     }
 
     public static List<Object> getStreamListByRange(String streamKey, Long[] start, Long[] end) {
-        CacheDto cacheDto = RedisLocalMap.LOCAL_MAP.get(streamKey);
-        if (Objects.isNull(cacheDto)
-                || !Objects.equals(cacheDto.getValueType(), ValueType.STREAM)
-                || Objects.isNull(cacheDto.getValue())) {
-            return null;
-        }
-
-        List<StreamDto.EntryDto> streamList = ((StreamDto) cacheDto.getValue()).getStreamList();
-        if (streamList.isEmpty()) {
-            return null;
+        synchronized (RedisLocalMap.getLock(streamKey)) {
+            CacheDto cacheDto = RedisLocalMap.get(streamKey);
+            if (Objects.isNull(cacheDto)
+                    || !Objects.equals(cacheDto.getValueType(), ValueType.STREAM)
+                    || Objects.isNull(cacheDto.getValue())) {
+                return null;
+            }
+
+            List<StreamDto.EntryDto> streamList = ((StreamDto) cacheDto.getValue()).getStreamList();
+            if (streamList.isEmpty()) {
+                return null;
+            }
+
+            int startEventIndex = StreamUtils.getIndexFromStream(streamList, start, false);
+            int endEventIndex = StreamUtils.getIndexFromStream(streamList, end, true);
+            List<StreamDto.EntryDto> rangeStreamList = streamList.subList(startEventIndex, endEventIndex);
+            return StreamUtils.fromStreamEntryDto(rangeStreamList);
         }
+    }
 
-        int startEventIndex = StreamUtils.getIndexFromStream(streamList, start, false);
-        int endEventIndex = StreamUtils.getIndexFromStream(streamList, end, true);
-        List<StreamDto.EntryDto> rangeStreamList = streamList.subList(startEventIndex, endEventIndex);
-        return StreamUtils.fromStreamEntryDto(rangeStreamList);
+    /**
+     * entries of XREAD, exclusive of the start id
+     * @param streamKey stream key
+     * @param afterEventIds ([time part, sequence number]), left unchanged
+     * @return entries after afterEventIds, null or empty if there is none
+     */
+    public static List<Object> getStreamListAfter(String streamKey, Long[] afterEventIds) {
+        Long[] startEventIds = new Long[]{afterEventIds[0], afterEventIds[1]};
+        incrementEventIdSequenceNumber(startEventIds);
+        return getStreamListByRange(streamKey, startEventIds, parseEndEventId(OutputConstants.DEFAULT_END_EVENT_ID));
     }
 
     /**
@@ -123,12 +137,16 @@ public class StreamUtils {
     }
 
     public static Long[] getLastEventIds(String streamKey) {
-        CacheDto cacheDto = RedisLocalMap.LOCAL_MAP.get(streamKey);
-        List<StreamDto.EntryDto> streamList = ((StreamDto) cacheDto.getValue()).getStreamList();
-        if (streamList.isEmpty()) {
-            return new Long[]{OutputConstants.DEFAULT_TIME_PART_OF_ENTRY_ID, OutputConstants.DEFAULT_SEQUENCE_NUMBER_OF_ENTRY_ID};
+        synchronized (RedisLocalMap.getLock(streamKey)) {
+            CacheDto cacheDto = RedisLocalMap.get(streamKey);
+            List<StreamDto.EntryDto> streamList = Objects.nonNull(cacheDto) && cacheDto.getValue() instanceof StreamDto streamDto
+                    ? streamDto.getStreamList()
+                    : List.of();
+            if (streamList.isEmpty()) {
+                return new Long[]{OutputConstants.DEFAULT_TIME_PART_OF_ENTRY_ID, OutputConstants.DEFAULT_SEQUENCE_NUMBER_OF_ENTRY_ID};
+            }
+            StreamDto.EntryDto lastEntryDto = streamList.getLast();
+            return parseStartEventId(lastEntryDto.getId());
         }
-        StreamDto.EntryDto lastEntryDto = streamList.getLast();
-        return parseStartEventId(lastEntryDto.getId());
     }
 }
@@ -1,5 +1,7 @@
 package service;
 
+import constants.OutputConstants;
+
 public class StringUtils {
 
     public static boolean isNotBlank(String string) {
@@ -9,4 +11,43 @@ public class StringUtils {
     public static boolean isBlank(String string) {
         return string == null || string.isBlank();
     }
+
+    /**
+     * @param str string
+     * @return number of bytes of str encoded in UTF-8, without encoding it
+     */
+    public static int getUtf8Length(CharSequence str) {
+        int length = str.length();
+        int numBytes = length;
+        for (int i=0; i<length; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                numBytes += 1;
+            } else if (Character.isHighSurrogate(c) && i+1 < length && Character.isLowSurrogate(str.charAt(i+1))) {
+                numBytes += 2; // 4 bytes for 2 chars
+                i++;
+            } else if (!Character.isSurrogate(c)) {
+                numBytes += 2;
+            }
+        }
+        return numBytes;
+    }
+
+    /**
+     * @param value integer
+     * @return number of characters of value printed in decimal, sign included
+     */
+    public static int getDecimalLength(long value) {
+        if (value == Long.MIN_VALUE) {
+            return OutputConstants.LONG_MAX_DECIMAL_LENGTH;
+        }
+        int length = value < 0 ? 2 : 1;
+        for (long n = Math.abs(value); n >= 10; n /= 10) {
+            length++;
+        }
+        return length;
+    }
 }
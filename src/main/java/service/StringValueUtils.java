@@ -0,0 +1,336 @@
+package service;
+
+import constants.OutputConstants;
+import domain.CacheDto;
+import enums.CommandType;
+import enums.SharedReplyType;
+import enums.ValueType;
+import stream.RESPArgs;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Notes:
+ *  1. string values are stored in one of 2 encodings, same as redis: a canonical 64-bit integer as a Long,
+ *     anything else as its raw bytes, so values are binary-safe and never kept as UTF-16 Strings
+ *  2. canonical means the value prints back to the same bytes: no sign other than a leading '-', no leading zero,
+ *     no "-0". "007" is stored as bytes, so GET returns exactly what SET stored
+ *  3. Longs from 0 to SHARED_INTEGERS-1 are shared, same range as redis shared integers, so small counters are
+ *     stored and incremented without allocating
+ *  4. INCRBY and friends add to the stored Long under the key lock with overflow-checked arithmetic.
+ *     INCRBYFLOAT stores its result as a string, which becomes a Long again when it is an integer
+ *  5. MSET and MSETNX hold the locks of all their keys while writing, so no command sees some of the keys set
+ */
+public class StringValueUtils {
+    private static final Long[] SHARED_LONGS = new Long[OutputConstants.SHARED_INTEGERS];
+
+    static {
+        for (int i=0; i<OutputConstants.SHARED_INTEGERS; i++) {
+            SHARED_LONGS[i] = (long) i;
+        }
+    }
+
+    /**
+     * @param value integer
+     * @return boxed integer, shared if value is small
+     */
+    public static Long toLongValue(long value) {
+        if (value >= 0 && value < OutputConstants.SHARED_INTEGERS) {
+            return SHARED_LONGS[(int) value];
+        }
+        return value;
+    }
+
+    /**
+     * @param bytes raw value
+     * @return Long if bytes are a canonical integer, bytes otherwise
+     */
+    public static Object encode(byte[] bytes) {
+        Long value = parseCanonicalLong(bytes);
+        return value != null ? value : bytes;
+    }
+
+    /**
+     * @param str value
+     * @return Long if str is a canonical integer, its UTF-8 bytes otherwise
+     */
+    public static Object encode(String str) {
+        return encode(str.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param list command arguments
+     * @param index index of the value argument
+     * @return encoded value, taken from the raw bytes of the decoder buffer when available
+     */
+    public static Object encode(List list, int index) {
+        return list instanceof RESPArgs args ? encode(args.getBytes(index)) : encode((String) list.get(index));
+    }
+
+    /**
+     * @param value stored string value
+     * @return stored integer, null if value is not an integer
+     */
+    public static Long toLong(Object value) {
+        if (value instanceof Long longValue) {
+            return longValue;
+        }
+        if (value instanceof String str) {
+            return parseCanonicalLong(str.getBytes(StandardCharsets.UTF_8));
+        }
+        // bytes are encoded as Long when they are an integer
+        return null;
+    }
+
+    /**
+     * @param value stored string value
+     * @return raw bytes of value
+     */
+    public static byte[] toBytes(Object value) {
+        if (value instanceof byte[] bytes) {
+            return bytes;
+        }
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param value stored string value
+     * @return value decoded as UTF-8
+     */
+    public static String decode(Object value) {
+        if (value instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * write value as a bulk string reply
+     * @param writer reply writer
+     * @param value stored string value
+     */
+    public static void write(RESPWriter writer, Object value) {
+        if (value instanceof Long longValue) {
+            writer.writeBulkString(longValue.longValue());
+        } else {
+            writer.writeBulkString(toBytes(value));
+        }
+    }
+
+    /**
+     * @param value stored string value
+     * @param other stored string value
+     * @return whether both values hold the same bytes, encodings are canonical so a Long never equals bytes
+     */
+    public static boolean isEqual(Object value, Object other) {
+        if (value instanceof byte[] bytes && other instanceof byte[] otherBytes) {
+            return Arrays.equals(bytes, otherBytes);
+        }
+        return Objects.equals(value, other);
+    }
+
+    /**
+     * @param value stored string value
+     * @return number of bytes of value
+     */
+    public static int getLength(Object value) {
+        if (value instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (value instanceof Long longValue) {
+            return StringUtils.getDecimalLength(longValue);
+        }
+        return StringUtils.getUtf8Length(String.valueOf(value));
+    }
+
+    /**
+     * add increment to the integer stored at key, a missing key counts as 0
+     * @param key key
+     * @param increment signed increment
+     * @param writer reply writer, the new value or an error
+     */
+    public static void processIncrBy(String key, long increment, RESPWriter writer) {
+        synchronized (RedisLocalMap.getLock(key)) {
+            CacheDto cache = RedisLocalMap.get(key);
+            long value = OutputConstants.DEFAULT_VALUE_IF_NOT_EXIST_INCR_COMMAND;
+            if (Objects.nonNull(cache)) {
+                if (!Objects.equals(cache.getValueType(), ValueType.STRING)) {
+                    throw new RuntimeException("unable to apply incr to non-string value");
+                }
+                Long storedValue = toLong(cache.getValue());
+                if (Objects.isNull(storedValue)) {
+                    writer.writeShared(SharedReplyType.ERR_NOT_INTEGER);
+                    return;
+                }
+                value = storedValue;
+            }
+            long newValue;
+            try {
+                newValue = Math.addExact(value, increment);
+            } catch (ArithmeticException e) {
+                writer.writeError(OutputConstants.INCR_OVERFLOW_ERROR);
+                return;
+            }
+            store(key, cache, toLongValue(newValue));
+            writer.writeInteger(newValue);
+        }
+    }
+
+    /**
+     * add a floating point increment to the number stored at key, a missing key counts as 0
+     * @param key key
+     * @param increment increment argument
+     * @param writer reply writer, the new value as a bulk string or an error
+     */
+    public static void processIncrByFloat(String key, String increment, RESPWriter writer) {
+        Double incrementValue = parseDouble(increment);
+        if (Objects.isNull(incrementValue)) {
+            writer.writeError(OutputConstants.NOT_VALID_FLOAT_ERROR);
+            return;
+        }
+        synchronized (RedisLocalMap.getLock(key)) {
+            CacheDto cache = RedisLocalMap.get(key);
+            double value = 0;
+            if (Objects.nonNull(cache)) {
+                if (!Objects.equals(cache.getValueType(), ValueType.STRING)) {
+                    throw new RuntimeException("unable to apply incr to non-string value");
+                }
+                Object storedValue = cache.getValue();
+                Double storedDouble = storedValue instanceof Long longValue ? Double.valueOf(longValue) : parseDouble(decode(storedValue));
+                if (Objects.isNull(storedDouble)) {
+                    writer.writeError(OutputConstants.NOT_VALID_FLOAT_ERROR);
+                    return;
+                }
+                value = storedDouble;
+            }
+            double newValue = value + incrementValue;
+            if (Double.isNaN(newValue) || Double.isInfinite(newValue)) {
+                writer.writeError(OutputConstants.INCR_NAN_OR_INFINITY_ERROR);
+                return;
+            }
+            // shortest representation without exponent, e.g. 10.5 + 0.1 prints 10.6 and 1.5 + 1.5 prints 3
+            String newValueStr = BigDecimal.valueOf(newValue).stripTrailingZeros().toPlainString();
+            store(key, cache, encode(newValueStr));
+            writer.writeBulkString(newValueStr);
+        }
+    }
+
+    /**
+     * set every key to its value, atomically with respect to other commands of these keys
+     * @param list key and value pairs
+     * @param writer reply writer, OK for MSET, whether keys were set for MSETNX
+     * @param isNx whether no key is set if any of them exists
+     */
+    public static void processMSet(List list, RESPWriter writer, boolean isNx) {
+        if (list == null || list.isEmpty()) {
+            throw new RuntimeException("invalid param");
+        }
+        CommandType commandType = isNx ? CommandType.MSETNX : CommandType.MSET;
+        if (list.size() % 2 != 0) {
+            writer.writeError(String.format(OutputConstants.WRONG_NUMBER_OF_ARGUMENTS_ERROR, commandType.getAlias()));
+            return;
+        }
+        List<String> keys = new ArrayList<>(list.size()/2);
+        List<Object> values = new ArrayList<>(list.size()/2);
+        for (int i=0; i<list.size(); i+=2) {
+            keys.add((String) list.get(i));
+            values.add(encode(list, i+1));
+        }
+        // keys are written from this thread even in share-nothing mode, key locks keep the shards out meanwhile
+        boolean[] isSet = new boolean[1];
+        RedisLocalMap.runWithLocks(keys, () -> {
+            if (isNx && keys.stream().anyMatch(key -> RedisLocalMap.get(key) != null)) {
+                return;
+            }
+            for (int i=0; i<keys.size(); i++) {
+                CacheDto cache = new CacheDto();
+                cache.setValue(values.get(i));
+                cache.setValueType(ValueType.STRING);
+                RedisLocalMap.put(keys.get(i), cache);
+            }
+            isSet[0] = true;
+        });
+        if (isNx) {
+            writer.writeInteger(isSet[0] ? 1 : 0);
+        } else {
+            writer.writeShared(SharedReplyType.OK);
+        }
+    }
+
+    /**
+     * store a new string value, in place if key exists so its TTL is kept
+     */
+    private static void store(String key, CacheDto cache, Object value) {
+        if (Objects.isNull(cache)) {
+            cache = new CacheDto();
+            cache.setValueType(ValueType.STRING);
+            cache.setValue(value);
+            RedisLocalMap.put(key, cache);
+            return;
+        }
+        long delta = MemoryUtils.estimateStringValue(value) - MemoryUtils.estimateStringValue(cache.getValue());
+        cache.setValue(value);
+        if (delta != 0) {
+            MemoryUtils.adjust(cache, delta);
+        }
+    }
+
+    /**
+     * @param str decimal number, without spaces, NaN or infinity
+     * @return parsed number, null if str is not a valid float
+     */
+    private static Double parseDouble(String str) {
+        if (str.isEmpty()) {
+            return null;
+        }
+        for (int i=0; i<str.length(); i++) {
+            char c = str.charAt(i);
+            if ((c < '0' || c > '9') && c != '.' && c != '-' && c != '+' && c != 'e' && c != 'E') {
+                return null;
+            }
+        }
+        try {
+            double value = Double.parseDouble(str);
+            return Double.isNaN(value) || Double.isInfinite(value) ? null : value;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param bytes raw value
+     * @return parsed integer, null if bytes are not a canonical 64-bit integer
+     */
+    private static Long parseCanonicalLong(byte[] bytes) {
+        int length = bytes.length;
+        if (length == 0 || length > OutputConstants.LONG_MAX_DECIMAL_LENGTH) {
+            return null;
+        }
+        boolean isNegative = bytes[0] == '-';
+        int i = isNegative ? 1 : 0;
+        if (i == length || (bytes[i] == '0' && length > 1)) {
+            return null;
+        }
+        // accumulate negatively to reach Long.MIN_VALUE, same as Long.parseLong
+        long limit = isNegative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit/10;
+        long value = 0;
+        for (; i<length; i++) {
+            int digit = bytes[i]-'0';
+            if (digit < 0 || digit > 9 || value < multiplyLimit) {
+                return null;
+            }
+            value *= 10;
+            if (value < limit+digit) {
+                return null;
+            }
+            value -= digit;
+        }
+        return toLongValue(isNegative ? value : -value);
+    }
+}
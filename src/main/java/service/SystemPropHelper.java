@@ -2,7 +2,9 @@ package service;
 
 import constants.OutputConstants;
 import domain.MasterNodeDto;
+import enums.EvictionPolicyType;
 import enums.RoleType;
+import enums.ServerModeType;
 
 import java.util.Objects;
 
@@ -22,6 +24,114 @@ public class SystemPropHelper {
         return Objects.nonNull(ans) ? Integer.parseInt(ans) : OutputConstants.DEFAULT_REDIS_MASTER_SERVER_PORT;
     }
 
+    public static ServerModeType getServerModeOrDefault() {
+        String value = System.getProperty(OutputConstants.SERVER_MODE_KEY);
+        ServerModeType serverModeType = ServerModeType.fromAlias(value);
+        return Objects.nonNull(serverModeType) ? serverModeType : ServerModeType.BLOCKING;
+    }
+
+    /**
+     * @return number of event loops, the I/O threads of io-threads mode unless set explicitly
+     */
+    public static int getEventLoopThreadsOrDefault() {
+        String value = System.getProperty(OutputConstants.EVENT_LOOP_THREADS_KEY);
+        int numIoThreads = getIoThreadsOrDefault();
+        int numThreads = Objects.nonNull(value) ? Integer.parseInt(value)
+                : numIoThreads > 0 ? numIoThreads : Runtime.getRuntime().availableProcessors();
+        return Math.max(1, numThreads);
+    }
+
+    /**
+     * @return number of I/O threads of io-threads mode, 0 if disabled
+     */
+    public static int getIoThreadsOrDefault() {
+        String value = System.getProperty(OutputConstants.IO_THREADS_KEY);
+        return Objects.nonNull(value) ? Math.max(0, Integer.parseInt(value)) : 0;
+    }
+
+    public static boolean isVirtualThreadsEnabled() {
+        String value = System.getProperty(OutputConstants.VIRTUAL_THREADS_KEY);
+        return OutputConstants.VIRTUAL_THREADS_ENABLED.equalsIgnoreCase(value);
+    }
+
+    /**
+     * @return number of keyspace shards of share-nothing mode, 0 if disabled. "auto" is one shard per core
+     */
+    public static int getKeyspaceShardsOrDefault() {
+        String value = System.getProperty(OutputConstants.KEYSPACE_SHARDS_KEY);
+        if (Objects.isNull(value)) {
+            return 0;
+        }
+        if (OutputConstants.KEYSPACE_SHARDS_AUTO.equalsIgnoreCase(value)) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return Math.max(0, Integer.parseInt(value));
+    }
+
+    /**
+     * @return number of reply bytes a connection accumulates before they are flushed in the middle of a batch
+     */
+    public static int getOutputBufferHighWaterMarkOrDefault() {
+        String value = System.getProperty(OutputConstants.OUTPUT_BUFFER_HIGH_WATER_MARK_KEY);
+        int highWaterMark = Objects.nonNull(value) ? Integer.parseInt(value) : OutputConstants.DEFAULT_OUTPUT_BUFFER_HIGH_WATER_MARK;
+        return Math.max(1, highWaterMark);
+    }
+
+    /**
+     * @return memory limit in bytes, 0 if unlimited. Accepts a plain number of bytes or a kb, mb or gb suffix
+     */
+    public static long getMaxMemoryOrDefault() {
+        String value = System.getProperty(OutputConstants.MAXMEMORY_KEY);
+        if (Objects.isNull(value) || value.isEmpty()) {
+            return 0L;
+        }
+        String lowerCaseValue = value.toLowerCase();
+        long unit = 1L;
+        if (lowerCaseValue.endsWith("gb")) {
+            unit = 1024L * 1024 * 1024;
+        } else if (lowerCaseValue.endsWith("mb")) {
+            unit = 1024L * 1024;
+        } else if (lowerCaseValue.endsWith("kb")) {
+            unit = 1024L;
+        }
+        String number = unit == 1L ? lowerCaseValue : lowerCaseValue.substring(0, lowerCaseValue.length()-2);
+        return Math.max(0L, Long.parseLong(number) * unit);
+    }
+
+    public static EvictionPolicyType getMaxMemoryPolicyOrDefault() {
+        String value = System.getProperty(OutputConstants.MAXMEMORY_POLICY_KEY);
+        EvictionPolicyType evictionPolicyType = EvictionPolicyType.fromAlias(value);
+        return Objects.nonNull(evictionPolicyType) ? evictionPolicyType : EvictionPolicyType.NOEVICTION;
+    }
+
+    public static int getMaxMemorySamplesOrDefault() {
+        String value = System.getProperty(OutputConstants.MAXMEMORY_SAMPLES_KEY);
+        int numSamples = Objects.nonNull(value) ? Integer.parseInt(value) : OutputConstants.DEFAULT_MAXMEMORY_SAMPLES;
+        return Math.max(1, numSamples);
+    }
+
+    /**
+     * @return largest number of members of a sorted set kept in the listpack encoding
+     */
+    public static int getZSetMaxListpackEntriesOrDefault() {
+        String value = System.getProperty(OutputConstants.ZSET_MAX_LISTPACK_ENTRIES_KEY);
+        int maxEntries = Objects.nonNull(value) ? Integer.parseInt(value) : OutputConstants.DEFAULT_ZSET_MAX_LISTPACK_ENTRIES;
+        return Math.max(0, maxEntries);
+    }
+
+    /**
+     * @return length of the longest member of a sorted set kept in the listpack encoding
+     */
+    public static int getZSetMaxListpackValueOrDefault() {
+        String value = System.getProperty(OutputConstants.ZSET_MAX_LISTPACK_VALUE_KEY);
+        int maxValue = Objects.nonNull(value) ? Integer.parseInt(value) : OutputConstants.DEFAULT_ZSET_MAX_LISTPACK_VALUE;
+        return Math.max(0, maxValue);
+    }
+
+    public static boolean isReplica() {
+        return RoleType.SLAVE.name().equalsIgnoreCase(System.getProperty(OutputConstants.REDIS_SERVER_ROLE_TYPE));
+    }
+
     public static String getSetServerRoleOrDefault() {
         String role = System.getProperty(OutputConstants.REDIS_SERVER_ROLE_TYPE);
         if (Objects.nonNull(role)) {
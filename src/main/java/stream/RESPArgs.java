@@ -0,0 +1,202 @@
+package stream;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Notes:
+ *  1. zero-copy view of the arguments of one decoded command, each argument is a slice of the decoder buffer
+ *  2. the view is reused by its decoder and only valid until the next decode or read,
+ *     call {@link #copy()} before retaining arguments beyond the current command
+ *  3. {@link #get(int)} decodes lazily, prefer byte-level accessors on hot paths
+ *  4. {@link #subList(int, int)} is a view over the same slices, so handlers given the arguments after the command
+ *     name keep byte-level access
+ */
+public class RESPArgs extends AbstractList<String> implements RandomAccess {
+
+    private byte[] buffer;
+    private int base;
+    private int[] starts;
+    private int[] lengths;
+    private int offset;
+    private int size;
+
+    RESPArgs() {
+        this.starts = new int[8];
+        this.lengths = new int[8];
+    }
+
+    private RESPArgs(RESPArgs parent, int offset, int size) {
+        this.buffer = parent.buffer;
+        this.base = parent.base;
+        this.starts = parent.starts;
+        this.lengths = parent.lengths;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    void reset(byte[] buffer, int base, int size) {
+        this.buffer = buffer;
+        this.base = base;
+        this.size = size;
+    }
+
+    /**
+     * @param index argument index
+     * @param start offset relative to frame start
+     * @param length argument length in bytes
+     */
+    void set(int index, int start, int length) {
+        if (index >= starts.length) {
+            int capacity = Math.max(starts.length*2, index+1);
+            starts = Arrays.copyOf(starts, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        starts[index] = start;
+        lengths[index] = length;
+    }
+
+    @Override
+    public String get(int index) {
+        checkIndex(index);
+        return new String(buffer, base+starts[offset+index], lengths[offset+index], StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public RESPArgs subList(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex=" + fromIndex + ", toIndex=" + toIndex + ", size=" + size);
+        }
+        return new RESPArgs(this, offset+fromIndex, toIndex-fromIndex);
+    }
+
+    public byte[] getBytes(int index) {
+        checkIndex(index);
+        int from = base+starts[offset+index];
+        return Arrays.copyOfRange(buffer, from, from+lengths[offset+index]);
+    }
+
+    public int getLength(int index) {
+        checkIndex(index);
+        return lengths[offset+index];
+    }
+
+    /**
+     * @param index argument index
+     * @param lowerCaseAscii expected value in lower-case ASCII
+     * @return whether argument matches ignoring ASCII case
+     */
+    public boolean equalsIgnoreCase(int index, byte[] lowerCaseAscii) {
+        checkIndex(index);
+        if (lengths[offset+index] != lowerCaseAscii.length) {
+            return false;
+        }
+        int from = base+starts[offset+index];
+        for (int i=0; i<lowerCaseAscii.length; i++) {
+            byte b = buffer[from+i];
+            if (b >= 'A' && b <= 'Z') {
+                b += 'a'-'A';
+            }
+            if (b != lowerCaseAscii[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param index argument index
+     * @return 31-based hash of the argument with ASCII upper-case letters folded to lower-case
+     */
+    public int hashIgnoreCase(int index) {
+        checkIndex(index);
+        int from = base+starts[offset+index];
+        int h = 0;
+        for (int i=from; i<from+lengths[offset+index]; i++) {
+            byte b = buffer[i];
+            if (b >= 'A' && b <= 'Z') {
+                b += 'a'-'A';
+            }
+            h = 31*h + b;
+        }
+        return h;
+    }
+
+    /**
+     * parse argument as a signed 64-bit integer without decoding it to String
+     * @param index argument index
+     * @return parsed value
+     * @throws NumberFormatException if argument is not a canonical integer or overflows
+     */
+    public long parseLong(int index) {
+        checkIndex(index);
+        int i = base+starts[offset+index];
+        int end = i+lengths[offset+index];
+        boolean isNegative = i < end && buffer[i] == '-';
+        if (isNegative) {
+            i++;
+        }
+        if (i == end) {
+            throw new NumberFormatException("empty integer");
+        }
+        // accumulate negatively to reach Long.MIN_VALUE, same as Long.parseLong
+        long limit = isNegative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit/10;
+        long value = 0;
+        for (; i<end; i++) {
+            int digit = buffer[i]-'0';
+            if (digit < 0 || digit > 9 || value < multiplyLimit) {
+                throw new NumberFormatException("invalid integer");
+            }
+            value *= 10;
+            if (value < limit+digit) {
+                throw new NumberFormatException("invalid integer");
+            }
+            value -= digit;
+        }
+        return isNegative ? value : -value;
+    }
+
+    /**
+     * @return arguments detached from the decoder buffer, still raw bytes packed in a buffer of their own
+     */
+    public RESPArgs copy() {
+        int length = 0;
+        for (int i=0; i<size; i++) {
+            length += lengths[offset+i];
+        }
+        RESPArgs args = new RESPArgs();
+        byte[] bytes = new byte[length];
+        args.reset(bytes, 0, size);
+        int position = 0;
+        for (int i=0; i<size; i++) {
+            System.arraycopy(buffer, base+starts[offset+i], bytes, position, lengths[offset+i]);
+            args.set(i, position, lengths[offset+i]);
+            position += lengths[offset+i];
+        }
+        return args;
+    }
+
+    /**
+     * @param list command arguments, possibly a view of the decoder buffer
+     * @return arguments safe to retain beyond the current command, byte-level access is kept for RESPArgs
+     */
+    public static List<String> copyOf(List<String> list) {
+        return list instanceof RESPArgs args ? args.copy() : new ArrayList<>(list);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+        }
+    }
+}
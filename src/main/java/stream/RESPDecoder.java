@@ -0,0 +1,306 @@
+package stream;
+
+import domain.RESPFrameDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static constants.ParserConstants.*;
+
+/**
+ * Notes:
+ *  1. resumable RESP decoder, one instance per connection. Bytes are accumulated across reads, complete frames
+ *     are emitted as soon as they are available and a partial frame is kept for the next read
+ *  2. buffer[readIndex, writeIndex) holds unread bytes, readIndex always points at the start of the current frame,
+ *     so the state of a partial frame is kept as offsets relative to readIndex and survives compaction
+ *  3. buffer grows on demand (pre-grown to the full size of a large bulk string) and shrinks back once drained
+ *  4. decoding allocates nothing per command: lengths are parsed arithmetically, arguments are exposed as slices
+ *     through a reused {@link RESPArgs} view and the emitted frame is reused as well
+ */
+public class RESPDecoder {
+    private static final int INCOMPLETE = -1;
+
+    private final int initialCapacity;
+    private byte[] buffer;
+    private int readIndex;
+    private int writeIndex;
+
+    // state of the frame being decoded
+    private byte frameType;
+    private int frameCursor; // offset relative to readIndex of the first byte not decoded yet
+    private int frameLength; // expected length of the frame once known, 0 otherwise
+    private int numElements = INCOMPLETE;
+    private int numDecodedElements;
+    private int sliceStart; // offset relative to readIndex of the last decoded element
+    private int sliceLength;
+
+    private final RESPArgs args;
+    private final RESPFrameDto frame;
+
+    public RESPDecoder() {
+        this(RESP_DECODER_INITIAL_CAPACITY);
+    }
+
+    public RESPDecoder(int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+        this.buffer = new byte[initialCapacity];
+        this.args = new RESPArgs();
+        this.frame = new RESPFrameDto();
+    }
+
+    /**
+     * blocking read from socket stream
+     * @param in socket input stream
+     * @return number of bytes read, -1 on end of stream
+     */
+    public int readFrom(InputStream in) throws IOException {
+        ensureWritable(getReadSize());
+        int n = in.read(buffer, writeIndex, buffer.length-writeIndex);
+        if (n > 0) {
+            writeIndex += n;
+        }
+        return n;
+    }
+
+    /**
+     * non-blocking read from socket channel
+     * @param channel socket channel
+     * @return number of bytes read, -1 on end of stream
+     */
+    public int readFrom(ReadableByteChannel channel) throws IOException {
+        ensureWritable(getReadSize());
+        int n = channel.read(ByteBuffer.wrap(buffer, writeIndex, buffer.length-writeIndex));
+        if (n > 0) {
+            writeIndex += n;
+        }
+        return n;
+    }
+
+    public void write(byte[] bytes) {
+        ensureWritable(bytes.length);
+        System.arraycopy(bytes, 0, buffer, writeIndex, bytes.length);
+        writeIndex += bytes.length;
+    }
+
+    public boolean hasRemaining() {
+        return readIndex < writeIndex;
+    }
+
+    /**
+     * @return next complete frame, or null if more bytes are needed.
+     * The frame and its arguments are reused and only valid until the next decode or read
+     */
+    public RESPFrameDto decode() {
+        if (frameType == 0) {
+            skipCRLF();
+            if (!hasRemaining()) {
+                reset();
+                return null;
+            }
+            frameType = buffer[readIndex];
+            frameCursor = 1;
+        }
+        boolean isComplete = switch (frameType) {
+            case ARRAY_ASTERISK -> decodeArray();
+            case BULK_STRING_DOLLAR_SIGN -> decodeTopLevelString(false);
+            case SIMPLE_STRING_PLUS -> decodeTopLevelString(true);
+            default -> throw new RuntimeException("unsupported RESP indicator b=" + frameType);
+        };
+        if (!isComplete) {
+            return null;
+        }
+        frame.setType(frameType);
+        frame.setByteRead(frameCursor);
+        readIndex += frameCursor;
+        frameType = 0;
+        frameCursor = 0;
+        frameLength = 0;
+        numElements = INCOMPLETE;
+        return frame;
+    }
+
+    private boolean decodeArray() {
+        if (numElements == INCOMPLETE) {
+            int lineEnd = findCRLF(frameCursor);
+            if (lineEnd == INCOMPLETE) {
+                return false;
+            }
+            int size = parseLength(frameCursor, lineEnd);
+            if (size > PROTO_MAX_MULTI_BULK_LENGTH) {
+                throw new RuntimeException("invalid multibulk length");
+            }
+            frameCursor = lineEnd+CRLF_LENGTH;
+            numElements = Math.max(size, 0); // null array is treated as an empty command
+            numDecodedElements = 0;
+        }
+        while (numDecodedElements < numElements) {
+            if (!decodeElement()) {
+                return false;
+            }
+            args.set(numDecodedElements++, sliceStart, sliceLength);
+            frameLength = 0;
+        }
+        args.reset(buffer, readIndex, numElements);
+        frame.setArgs(args);
+        frame.setValue(null);
+        return true;
+    }
+
+    private boolean decodeElement() {
+        if (frameCursor >= writeIndex-readIndex) {
+            return false;
+        }
+        byte b = buffer[readIndex+frameCursor];
+        return switch (b) {
+            case BULK_STRING_DOLLAR_SIGN -> decodeNextBulkString(true);
+            case SIMPLE_STRING_PLUS, INTEGER_COLON -> decodeNextLine();
+            default -> throw new RuntimeException("unsupported RESP indicator b=" + b);
+        };
+    }
+
+    /**
+     * top-level simple string or bulk string, e.g. handshake replies from master,
+     * or RDB payload after FULLRESYNC which has no trailing CRLF
+     */
+    private boolean decodeTopLevelString(boolean isSimpleString) {
+        frameCursor = 0;
+        boolean isComplete = isSimpleString ? decodeNextLine() : decodeNextBulkString(false);
+        if (!isComplete) {
+            return false;
+        }
+        frame.setArgs(null);
+        frame.setValue(new String(buffer, readIndex+sliceStart, sliceLength, StandardCharsets.UTF_8));
+        return true;
+    }
+
+    private boolean decodeNextLine() {
+        int lineEnd = findCRLF(frameCursor+1);
+        if (lineEnd == INCOMPLETE) {
+            return false;
+        }
+        sliceStart = frameCursor+1;
+        sliceLength = lineEnd-sliceStart;
+        frameCursor = lineEnd+CRLF_LENGTH;
+        return true;
+    }
+
+    private boolean decodeNextBulkString(boolean isCRLFRequired) {
+        int lineEnd = findCRLF(frameCursor+1);
+        if (lineEnd == INCOMPLETE) {
+            return false;
+        }
+        int size = parseLength(frameCursor+1, lineEnd);
+        if (size < 0 || size > PROTO_MAX_BULK_LENGTH) {
+            throw new RuntimeException("invalid bulk length");
+        }
+        int start = lineEnd+CRLF_LENGTH;
+        int available = writeIndex-readIndex;
+        int end = start+size;
+        if (available < end+(isCRLFRequired ? CRLF_LENGTH : 0)) {
+            // large payload: reserve room for the whole frame once instead of growing per read
+            frameLength = end+CRLF_LENGTH;
+            ensureFrameCapacity(frameLength);
+            return false;
+        }
+        sliceStart = start;
+        sliceLength = size;
+        if (available >= end+CRLF_LENGTH && buffer[readIndex+end] == CR && buffer[readIndex+end+1] == LF) {
+            end += CRLF_LENGTH;
+        } else if (isCRLFRequired) {
+            throw new RuntimeException("invalid bulk string terminator");
+        }
+        frameCursor = end;
+        return true;
+    }
+
+    /**
+     * @param from offset relative to readIndex
+     * @return offset relative to readIndex of CR, or INCOMPLETE
+     */
+    private int findCRLF(int from) {
+        for (int i=readIndex+from; i+1<writeIndex; i++) {
+            if (buffer[i] == CR && buffer[i+1] == LF) {
+                return i-readIndex;
+            }
+        }
+        return INCOMPLETE;
+    }
+
+    private int parseLength(int from, int to) {
+        int i = readIndex+from;
+        int end = readIndex+to;
+        boolean isNegative = i < end && buffer[i] == '-';
+        if (isNegative) {
+            i++;
+        }
+        if (i == end) {
+            throw new RuntimeException("invalid RESP length");
+        }
+        long value = 0;
+        for (; i<end; i++) {
+            int digit = buffer[i]-'0';
+            if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+                throw new RuntimeException("invalid RESP length");
+            }
+            value = value*10+digit;
+        }
+        return (int) (isNegative ? -value : Math.min(value, Integer.MAX_VALUE));
+    }
+
+    private void skipCRLF() {
+        while (hasRemaining() && (buffer[readIndex] == CR || buffer[readIndex] == LF)) {
+            readIndex++;
+        }
+    }
+
+    private int getReadSize() {
+        if (frameLength == 0) {
+            return RESP_DECODER_MIN_READ_SIZE;
+        }
+        return Math.max(1, Math.min(RESP_DECODER_MIN_READ_SIZE, readIndex+frameLength-writeIndex));
+    }
+
+    private void ensureWritable(int size) {
+        if (buffer.length-writeIndex >= size) {
+            return;
+        }
+        compact();
+        if (buffer.length-writeIndex >= size) {
+            return;
+        }
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length*2, writeIndex+size));
+    }
+
+    private void ensureFrameCapacity(int length) {
+        if (buffer.length-readIndex >= length) {
+            return;
+        }
+        compact();
+        if (buffer.length >= length) {
+            return;
+        }
+        buffer = Arrays.copyOf(buffer, length);
+    }
+
+    private void compact() {
+        if (readIndex == 0) {
+            return;
+        }
+        int unread = writeIndex-readIndex;
+        System.arraycopy(buffer, readIndex, buffer, 0, unread);
+        readIndex = 0;
+        writeIndex = unread;
+    }
+
+    private void reset() {
+        readIndex = 0;
+        writeIndex = 0;
+        if (buffer.length > RESP_DECODER_MAX_RETAINED_CAPACITY) {
+            buffer = new byte[initialCapacity];
+        }
+    }
+}
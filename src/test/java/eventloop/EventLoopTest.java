@@ -0,0 +1,289 @@
+package eventloop;
+
+import constants.OutputConstants;
+import domain.ConnectionDto;
+import handler.command.impl.core.EchoHandler;
+import handler.command.impl.core.GetHandler;
+import handler.command.impl.core.PingHandler;
+import handler.command.impl.core.SetHandler;
+import handler.job.JobHandler;
+import org.junit.jupiter.api.*;
+import service.RedisLocalMap;
+import service.ServerUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EventLoop and EventLoopGroup, over real loopback connections
+ *
+ * Tests cover:
+ * - Pipelined commands split across reads, replied in order
+ * - Partial writes to a client not reading: replies stay queued with OP_WRITE, the loop keeps serving other clients
+ * - Output buffer high-water mark: a large batch is flushed in chunks instead of one buffer holding every reply
+ * - Thread-safe writes from another thread
+ * - Connection cleanup when the client closes
+ */
+@DisplayName("EventLoop Tests")
+class EventLoopTest {
+
+    private EventLoopGroup eventLoopGroup;
+    private ServerSocketChannel serverChannel;
+    private final List<Socket> clients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        new SetHandler().register();
+        new GetHandler().register();
+        new PingHandler().register();
+        new EchoHandler().register();
+        RedisLocalMap.clear();
+        eventLoopGroup = new EventLoopGroup(1);
+        eventLoopGroup.start();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress("localhost", 0));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (Socket client: clients) {
+            client.close();
+        }
+        serverChannel.close();
+        eventLoopGroup.close();
+        RedisLocalMap.clear();
+    }
+
+    @Test
+    @DisplayName("Pipelined commands split across reads are replied in order")
+    void testPipelineSplitAcrossReads() throws Exception {
+        Socket client = connect(0);
+        byte[] pipeline = concat(encode("SET", "foo", "bar"), encode("GET", "foo"), encode("PING"), encode("ECHO", "hey"));
+        OutputStream out = client.getOutputStream();
+
+        // cut in the middle of frames, each part reaches the loop as its own read
+        int[] cuts = {0, 5, 23, 40, pipeline.length};
+        for (int i = 0; i < cuts.length-1; i++) {
+            out.write(Arrays.copyOfRange(pipeline, cuts[i], cuts[i+1]));
+            out.flush();
+            Thread.sleep(20);
+        }
+
+        String expected = "+OK\r\n$3\r\nbar\r\n+PONG\r\n$3\r\nhey\r\n";
+        assertEquals(expected, readString(client, expected.length()));
+    }
+
+    @Test
+    @DisplayName("Replies a slow client does not read are written partially and kept with OP_WRITE")
+    void testPartialWrites() throws Exception {
+        Socket slowClient = connect(4096);
+        ConnectionDto connection = getConnection(slowClient);
+        byte[] value = new byte[1024 * 1024];
+        Arrays.fill(value, (byte) 'v');
+        OutputStream out = slowClient.getOutputStream();
+        out.write(encode("SET".getBytes(StandardCharsets.UTF_8), "big".getBytes(StandardCharsets.UTF_8), value));
+        int numGets = 8;
+        for (int i = 0; i < numGets; i++) {
+            out.write(encode("GET", "big"));
+        }
+        out.flush();
+
+        waitUntil(() -> !connection.getOutboundQueue().isEmpty()
+                && (connection.getSelectionKey().interestOps() & SelectionKey.OP_WRITE) != 0);
+
+        // the loop is not stuck on the slow client
+        Socket otherClient = connect(0);
+        otherClient.getOutputStream().write(encode("PING"));
+        assertEquals("+PONG\r\n", readString(otherClient, 7));
+
+        byte[] reply = readBytes(slowClient, 5 + numGets * (value.length + 12));
+        assertEquals("+OK\r\n", new String(reply, 0, 5, StandardCharsets.UTF_8));
+        for (int i = 0; i < numGets; i++) {
+            int offset = 5 + i * (value.length + 12);
+            assertEquals("$1048576\r\n", new String(reply, offset, 10, StandardCharsets.UTF_8));
+            assertArrayEquals(value, Arrays.copyOfRange(reply, offset + 10, offset + 10 + value.length));
+        }
+        waitUntil(() -> connection.getOutboundQueue().isEmpty()
+                && (connection.getSelectionKey().interestOps() & SelectionKey.OP_WRITE) == 0);
+    }
+
+    @Test
+    @DisplayName("A large batch is flushed in chunks of about the output buffer high-water mark")
+    void testOutputBufferHighWaterMark() throws Exception {
+        int highWaterMark = 1024;
+        eventLoopGroup.close();
+        System.setProperty(OutputConstants.OUTPUT_BUFFER_HIGH_WATER_MARK_KEY, String.valueOf(highWaterMark));
+        try {
+            eventLoopGroup = new EventLoopGroup(1);
+        } finally {
+            System.clearProperty(OutputConstants.OUTPUT_BUFFER_HIGH_WATER_MARK_KEY);
+        }
+        eventLoopGroup.start();
+        Socket slowClient = connect(4096);
+        ConnectionDto connection = getConnection(slowClient);
+        String value = "v".repeat(10 * 1024);
+        String reply = "$" + value.length() + "\r\n" + value + "\r\n";
+        ByteArrayOutputStream pipeline = new ByteArrayOutputStream();
+        pipeline.writeBytes(encode("SET", "big", value));
+        int numGets = 300;
+        for (int i = 0; i < numGets; i++) {
+            pipeline.writeBytes(encode("GET", "big"));
+        }
+        slowClient.getOutputStream().write(pipeline.toByteArray());
+
+        // the client does not read, so the batch ends up queued once the socket buffers are full
+        waitUntil(() -> countQueuedBytes(connection) > 0);
+        long queuedBytes;
+        do {
+            queuedBytes = countQueuedBytes(connection);
+            Thread.sleep(100);
+        } while (countQueuedBytes(connection) != queuedBytes);
+
+        assertTrue(connection.getOutboundQueue().size() > 1);
+        for (ByteBuffer buffer: connection.getOutboundQueue()) {
+            // a chunk is cut as soon as it reaches the mark, so it exceeds it by less than one reply
+            assertTrue(buffer.remaining() < highWaterMark + reply.length());
+        }
+
+        String replies = readString(slowClient, 5 + numGets * reply.length());
+        assertEquals("+OK\r\n" + reply.repeat(numGets), replies);
+    }
+
+    @Test
+    @DisplayName("Writes from another thread are flushed by the owning loop")
+    void testCrossThreadWrite() throws Exception {
+        Socket client = connect(0);
+        Socket serverSocket = getConnection(client).getSocket();
+
+        Thread thread = new Thread(() -> {
+            try {
+                EventLoopGroup.write(serverSocket, "+FROM THREAD\r\n".getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertEquals("+FROM THREAD\r\n", readString(client, 14));
+    }
+
+    @Test
+    @DisplayName("A connection closed by its client is removed from the group and its job dropped")
+    void testClientClose() throws Exception {
+        Socket client = connect(0);
+        String id = getConnection(client).getId();
+        assertTrue(JobHandler.JOB_MAP.containsKey(id));
+
+        client.close();
+
+        waitUntil(() -> !EventLoopGroup.CONNECTION_MAP.containsKey(id));
+        assertFalse(JobHandler.JOB_MAP.containsKey(id));
+    }
+
+    /**
+     * @param bufferSize receive buffer of the client and send buffer of the server side, 0 for the defaults
+     */
+    private Socket connect(int bufferSize) throws IOException {
+        Socket client = new Socket();
+        if (bufferSize > 0) {
+            client.setReceiveBufferSize(bufferSize);
+        }
+        client.setSoTimeout(10_000);
+        client.connect(serverChannel.getLocalAddress());
+        clients.add(client);
+        SocketChannel channel = serverChannel.accept();
+        if (bufferSize > 0) {
+            channel.socket().setSendBufferSize(bufferSize);
+        }
+        eventLoopGroup.register(channel);
+        return client;
+    }
+
+    private static ConnectionDto getConnection(Socket client) {
+        // the server side of the connection is identified by the address of its client
+        for (ConnectionDto connection: EventLoopGroup.CONNECTION_MAP.values()) {
+            Socket socket = connection.getSocket();
+            if (socket.getPort() == client.getLocalPort()) {
+                return connection;
+            }
+        }
+        throw new IllegalStateException("connection not found for " + ServerUtils.formatIdFromSocket(client));
+    }
+
+    private static long countQueuedBytes(ConnectionDto connection) {
+        long numBytes = 0;
+        for (ByteBuffer buffer: connection.getOutboundQueue()) {
+            numBytes += buffer.remaining();
+        }
+        return numBytes;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private static String readString(Socket client, int length) throws IOException {
+        return new String(readBytes(client, length), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(Socket client, int length) throws IOException {
+        InputStream in = client.getInputStream();
+        byte[] bytes = new byte[length];
+        int numRead = 0;
+        while (numRead < length) {
+            int n = in.read(bytes, numRead, length - numRead);
+            if (n == -1) {
+                throw new IOException("connection closed after " + numRead + " bytes");
+            }
+            numRead += n;
+        }
+        return bytes;
+    }
+
+    private static byte[] encode(String... args) {
+        byte[][] parts = new byte[args.length][];
+        for (int i = 0; i < args.length; i++) {
+            parts[i] = args[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return encode(parts);
+    }
+
+    private static byte[] encode(byte[]... args) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(("*" + args.length + "\r\n").getBytes(StandardCharsets.UTF_8));
+        for (byte[] arg: args) {
+            out.writeBytes(("$" + arg.length + "\r\n").getBytes(StandardCharsets.UTF_8));
+            out.writeBytes(arg);
+            out.writeBytes("\r\n".getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part: parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
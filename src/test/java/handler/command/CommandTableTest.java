@@ -0,0 +1,178 @@
+package handler.command;
+
+import domain.CommandDescriptorDto;
+import domain.JobDto;
+import domain.ParserDto;
+import enums.CommandType;
+import enums.JobType;
+import handler.command.impl.TestHelper;
+import handler.command.impl.core.GetHandler;
+import handler.command.impl.core.PingHandler;
+import handler.command.impl.core.SetHandler;
+import handler.command.impl.list.BLPopHandler;
+import handler.command.impl.list.LPopHandler;
+import handler.command.impl.pubsub.SubscribeHandler;
+import handler.command.impl.stream.XReadHandler;
+import handler.job.JobHandler;
+import org.junit.jupiter.api.*;
+import service.RESPParserUtils;
+import service.RedisLocalMap;
+import service.ServerUtils;
+import stream.RESPArgs;
+import stream.RESPDecoder;
+
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CommandTable and the flags of its descriptors
+ *
+ * Tests cover:
+ * - Case-insensitive lookup by String and by raw argument bytes, unknown and empty commands
+ * - Fixed and minimum arity
+ * - Write, deny-oom, single-key, blocking-pop and subscribed-mode flags
+ * - Dispatch rejecting wrong arity and commands not allowed in subscribed mode before running their handler
+ */
+@DisplayName("CommandTable Tests")
+class CommandTableTest {
+
+    private Socket testSocket;
+
+    @BeforeEach
+    void setUp() {
+        new GetHandler().register();
+        new SetHandler().register();
+        new PingHandler().register();
+        new LPopHandler().register();
+        new BLPopHandler().register();
+        new XReadHandler().register();
+        new SubscribeHandler().register();
+        testSocket = TestHelper.createTestSocket();
+        JobDto jobDto = new JobDto.Builder(JobType.RESP)
+                .addSocket(testSocket)
+                .addCommandDtoList()
+                .build();
+        JobHandler.JOB_MAP.put(ServerUtils.formatIdFromSocket(testSocket), jobDto);
+        RedisLocalMap.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        String jobId = ServerUtils.formatIdFromSocket(testSocket);
+        JobHandler.JOB_MAP.remove(jobId);
+        RedisLocalMap.SUBSCRIBE_MODE_SET.remove(jobId);
+        RedisLocalMap.clear();
+    }
+
+    @Test
+    @DisplayName("lookup ignores ASCII case for Strings and raw argument bytes")
+    void testLookup() {
+        for (String name: List.of("get", "GET", "gEt")) {
+            assertEquals(CommandType.GET, CommandTable.lookup(name).getCommandType());
+            assertEquals(CommandType.GET, CommandTable.lookup(decode(name, "key")).getCommandType());
+            assertEquals(CommandType.GET, CommandTable.lookup(List.of(name, "key")).getCommandType());
+        }
+        assertSame(CommandHandler.HANDLER_MAP.get("blpop"), CommandTable.lookup("BLPOP").getHandler());
+    }
+
+    @Test
+    @DisplayName("lookup of unknown, empty or null commands returns null")
+    void testLookupUnknown() {
+        assertNull(CommandTable.lookup("unknown"));
+        assertNull(CommandTable.lookup("gett"));
+        assertNull(CommandTable.lookup((String) null));
+        assertNull(CommandTable.lookup(decode("unknown")));
+        assertNull(CommandTable.lookup(new ArrayList<>()));
+        assertNull(CommandTable.lookup((List<String>) null));
+    }
+
+    @Test
+    @DisplayName("Fixed arity matches exactly, negative arity is a minimum")
+    void testArity() {
+        CommandDescriptorDto get = CommandTable.lookup("get");
+        assertFalse(get.isValidArity(1));
+        assertTrue(get.isValidArity(2));
+        assertFalse(get.isValidArity(3));
+
+        CommandDescriptorDto set = CommandTable.lookup("set");
+        assertFalse(set.isValidArity(2));
+        assertTrue(set.isValidArity(3));
+        assertTrue(set.isValidArity(6));
+
+        CommandDescriptorDto ping = CommandTable.lookup("ping");
+        assertTrue(ping.isValidArity(1));
+        assertTrue(ping.isValidArity(2));
+    }
+
+    @Test
+    @DisplayName("Descriptors carry the flags dispatch relies on")
+    void testFlags() {
+        CommandDescriptorDto set = CommandTable.lookup("set");
+        assertTrue(set.isWrite());
+        assertTrue(set.isDenyOom());
+        assertTrue(set.isRoutableToShard());
+        assertFalse(set.isAllowedInSubscribedMode());
+
+        CommandDescriptorDto get = CommandTable.lookup("get");
+        assertFalse(get.isWrite());
+        assertFalse(get.isDenyOom());
+        assertTrue(get.isSingleKey());
+
+        // popping frees memory, so it still runs once maxmemory is reached
+        CommandDescriptorDto lPop = CommandTable.lookup("lpop");
+        assertTrue(lPop.isWrite());
+        assertFalse(lPop.isDenyOom());
+        assertFalse(lPop.isBlockingPop());
+
+        // propagated as the pop it runs, not as is
+        CommandDescriptorDto blPop = CommandTable.lookup("blpop");
+        assertTrue(blPop.isWrite());
+        assertTrue(blPop.isBlockingPop());
+
+        // XREAD reads several streams, so it is not routed to the shard of its first argument
+        CommandDescriptorDto xRead = CommandTable.lookup("xread");
+        assertFalse(xRead.isSingleKey());
+        assertFalse(xRead.isRoutableToShard());
+
+        assertTrue(CommandTable.lookup("subscribe").isAllowedInSubscribedMode());
+        assertTrue(CommandTable.lookup("ping").isAllowedInSubscribedMode());
+    }
+
+    @Test
+    @DisplayName("Dispatch replies with an arity error without running the handler")
+    void testDispatchWrongArity() {
+        assertEquals("-ERR wrong number of arguments for 'get' command\r\n", dispatch("GET"));
+        assertEquals("-ERR wrong number of arguments for 'set' command\r\n", dispatch("SET", "foo"));
+        assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("foo"));
+        assertEquals("+OK\r\n", dispatch("set", "foo", "bar"));
+        assertEquals("$3\r\nbar\r\n", dispatch("GeT", "foo"));
+    }
+
+    @Test
+    @DisplayName("Dispatch in subscribed mode only runs commands allowed in that mode")
+    void testDispatchSubscribedMode() {
+        RedisLocalMap.SUBSCRIBE_MODE_SET.add(ServerUtils.formatIdFromSocket(testSocket));
+
+        assertTrue(dispatch("GET", "foo").startsWith("-ERR Can't execute 'get'"));
+        assertEquals("*2\r\n$4\r\npong\r\n$0\r\n\r\n", dispatch("PING"));
+    }
+
+    private String dispatch(String... args) {
+        return RESPParserUtils.convertList2Str(new ParserDto<>(testSocket, Arrays.asList(args)));
+    }
+
+    private static RESPArgs decode(String... args) {
+        StringBuilder frame = new StringBuilder("*" + args.length + "\r\n");
+        for (String arg: args) {
+            frame.append('$').append(arg.length()).append("\r\n").append(arg).append("\r\n");
+        }
+        RESPDecoder decoder = new RESPDecoder();
+        decoder.write(frame.toString().getBytes(StandardCharsets.UTF_8));
+        return decoder.decode().getArgs();
+    }
+}
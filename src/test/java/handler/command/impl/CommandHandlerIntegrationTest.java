@@ -8,12 +8,23 @@ import handler.command.impl.transaction.MultiHandler;
 import handler.job.JobHandler;
 import domain.JobDto;
 import enums.JobType;
+import domain.ParserDto;
+import domain.StreamDto;
+import enums.EvictionPolicyType;
 import org.junit.jupiter.api.*;
+import service.EvictionUtils;
+import service.ExpiryUtils;
+import service.IoThreadsUtils;
+import service.MemoryUtils;
+import service.RESPParserUtils;
 import service.RedisLocalMap;
 import service.ServerUtils;
+import service.ShardUtils;
 
 import java.net.Socket;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +38,10 @@ import static org.junit.jupiter.api.Assertions.*;
  * - TYPE command
  * - INCR operations
  * - MULTI/EXEC/DISCARD transactions (using MultiHandler.queueCommand())
+ * - maxmemory eviction policies (through RESPParserUtils dispatch)
+ * - share-nothing mode: commands run on the shard owning their key, DEL fans out, EXEC runs on the shard of its keys
+ *   or exclusively across shards, atomic against concurrent commands
+ * - io-threads mode: commands run serially on the main thread, EXEC runs its queued commands inline
  * 
  * Note: Transaction queueing is done via MultiHandler.queueCommand(),
  * not by calling individual handlers directly.
@@ -338,4 +353,277 @@ class CommandHandlerIntegrationTest {
         // GET should return "1"
         assertEquals("$1\r\n1\r\n", getHandler.process(testSocket, List.of("newkey")));
     }
+
+    // ==================== MAXMEMORY ====================
+
+    private String dispatch(String... args) {
+        return RESPParserUtils.convertList2Str(new ParserDto<>(testSocket, List.of(args)));
+    }
+
+    @Test
+    @DisplayName("noeviction rejects writes once maxmemory is reached")
+    void testMaxMemoryNoEviction() {
+        RedisLocalMap.clear();
+        try {
+            assertEquals("+OK\r\n", dispatch("SET", "foo", "bar"));
+            EvictionUtils.configure(1, EvictionPolicyType.NOEVICTION, 5);
+
+            assertEquals("-OOM command not allowed when used memory > 'maxmemory'.\r\n", dispatch("SET", "baz", "qux"));
+            assertEquals("$3\r\nbar\r\n", dispatch("GET", "foo"));
+            assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("baz"));
+        } finally {
+            EvictionUtils.configure(0, EvictionPolicyType.NOEVICTION, 5);
+        }
+    }
+
+    @Test
+    @DisplayName("allkeys policies evict keys until used memory fits in maxmemory")
+    void testMaxMemoryAllKeysEviction() {
+        for (EvictionPolicyType policy: List.of(EvictionPolicyType.ALLKEYS_LRU, EvictionPolicyType.ALLKEYS_LFU, EvictionPolicyType.ALLKEYS_RANDOM)) {
+            RedisLocalMap.clear();
+            try {
+                EvictionUtils.configure(0, policy, 5);
+                for (int i = 0; i < 100; i++) {
+                    dispatch("SET", "key" + i, "value" + i);
+                }
+                long maxMemory = MemoryUtils.getUsedMemory() / 2;
+                EvictionUtils.configure(maxMemory, policy, 5);
+                long numEvictedKeys = EvictionUtils.getNumEvictedKeys();
+
+                assertEquals("+OK\r\n", dispatch("SET", "last", "value"));
+                // keys are evicted before the write, so only the new key may exceed maxmemory
+                assertTrue(MemoryUtils.getUsedMemory() - RedisLocalMap.LOCAL_MAP.get("last").getMemoryUsage() <= maxMemory);
+                assertTrue(EvictionUtils.getNumEvictedKeys() > numEvictedKeys);
+                assertTrue(RedisLocalMap.LOCAL_MAP.size() < 100);
+            } finally {
+                EvictionUtils.configure(0, EvictionPolicyType.NOEVICTION, 5);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("volatile-ttl evicts the key expiring first and never keys without TTL")
+    void testMaxMemoryVolatileTtlEviction() {
+        RedisLocalMap.clear();
+        try {
+            dispatch("SET", "persistent", "value");
+            dispatch("SET", "later", "value", "EX", "200");
+            dispatch("SET", "sooner", "value", "EX", "100");
+            EvictionUtils.configure(MemoryUtils.getUsedMemory()-1, EvictionPolicyType.VOLATILE_TTL, 5);
+
+            assertEquals("+OK\r\n", dispatch("SET", "persistent", "new value"));
+            assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("sooner"));
+            assertTrue(RedisLocalMap.LOCAL_MAP.containsKey("later"));
+            assertTrue(RedisLocalMap.LOCAL_MAP.containsKey("persistent"));
+
+            EvictionUtils.configure(1, EvictionPolicyType.VOLATILE_LRU, 5);
+            assertEquals("-OOM command not allowed when used memory > 'maxmemory'.\r\n", dispatch("SET", "other", "value"));
+            assertTrue(RedisLocalMap.LOCAL_MAP.containsKey("persistent"));
+            assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("later"));
+        } finally {
+            EvictionUtils.configure(0, EvictionPolicyType.NOEVICTION, 5);
+        }
+    }
+
+    @Test
+    @DisplayName("volatile-ttl skips an expiry index entry left by a key no longer stored")
+    void testMaxMemoryVolatileTtlEvictionSkipsStaleEntry() {
+        RedisLocalMap.clear();
+        try {
+            dispatch("SET", "later", "value", "EX", "200");
+            // removed behind the back of RedisLocalMap, so its index entry is left over
+            ExpiryUtils.index("gone", System.currentTimeMillis() + 1000);
+            EvictionUtils.configure(MemoryUtils.getUsedMemory()-1, EvictionPolicyType.VOLATILE_TTL, 5);
+
+            assertTrue(EvictionUtils.performEvictions());
+            assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("later"));
+            assertNull(ExpiryUtils.getNextExpireKey());
+        } finally {
+            EvictionUtils.configure(0, EvictionPolicyType.NOEVICTION, 5);
+        }
+    }
+
+    // ==================== SHARE-NOTHING MODE ====================
+
+    @Test
+    @DisplayName("share-nothing mode runs commands on the shard owning their key")
+    void testShardsRunCommandsOfAKeyOnItsShard() throws InterruptedException {
+        RedisLocalMap.clear();
+        ShardUtils.init(4);
+        try {
+            assertEquals("+OK\r\n", dispatch("SET", "foo", "bar"));
+            assertEquals("$3\r\nbar\r\n", dispatch("GET", "foo"));
+
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                threads.add(new Thread(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        dispatch("INCR", "counter");
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread: threads) {
+                thread.join();
+            }
+            assertEquals("$4\r\n2000\r\n", dispatch("GET", "counter"));
+
+            List<Integer> shardIndexes = ShardUtils.executeAll(List.of("foo", "counter", "foo"), key -> ShardUtils.getCurrentShardIndex());
+            assertEquals(List.of(ShardUtils.getShardIndex("foo"), ShardUtils.getShardIndex("counter"), ShardUtils.getShardIndex("foo")), shardIndexes);
+            assertNull(ShardUtils.getCurrentShardIndex());
+        } finally {
+            ShardUtils.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("share-nothing mode fans DEL out to the shards owning its keys")
+    void testShardsDelFanOut() {
+        RedisLocalMap.clear();
+        new DelHandler().register();
+        ShardUtils.init(4);
+        try {
+            List<String> command = new ArrayList<>(List.of("DEL"));
+            for (int i = 0; i < 20; i++) {
+                dispatch("SET", "key" + i, "value" + i);
+                command.add("key" + i);
+            }
+            command.add("missing");
+            command.add("key0");
+
+            assertEquals(":20\r\n", RESPParserUtils.convertList2Str(new ParserDto<>(testSocket, command)));
+            assertTrue(RedisLocalMap.LOCAL_MAP.isEmpty());
+            assertEquals(":0\r\n", dispatch("DEL", "key0"));
+        } finally {
+            ShardUtils.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("share-nothing mode runs EXEC spanning shards and replies in queued order")
+    void testShardsExecFanOut() {
+        RedisLocalMap.clear();
+        ShardUtils.init(4);
+        try {
+            multiHandler.process(testSocket, List.of());
+            for (int i = 0; i < 20; i++) {
+                MultiHandler.queueCommand(testSocket, List.of("SET", "key" + i, "value" + i));
+                MultiHandler.queueCommand(testSocket, List.of("GET", "key" + i));
+            }
+            MultiHandler.queueCommand(testSocket, List.of("INCR", "key0"));
+
+            String result = execHandler.process(testSocket, List.of());
+
+            StringBuilder expected = new StringBuilder("*41\r\n");
+            for (int i = 0; i < 20; i++) {
+                String value = "value" + i;
+                expected.append("+OK\r\n$").append(value.length()).append("\r\n").append(value).append("\r\n");
+            }
+            expected.append("-ERR value is not an integer or out of range\r\n");
+            assertEquals(expected.toString(), result);
+        } finally {
+            ShardUtils.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("share-nothing mode keeps EXEC atomic, on the shard of its keys and across shards")
+    void testShardsExecAtomic() throws InterruptedException {
+        RedisLocalMap.clear();
+        ShardUtils.init(4);
+        Socket otherSocket = TestHelper.createTestSocket("localhost", 6380);
+        String otherJobId = ServerUtils.formatIdFromSocket(otherSocket);
+        JobHandler.JOB_MAP.put(otherJobId, new JobDto.Builder(JobType.RESP).addSocket(otherSocket).addCommandDtoList().build());
+        AtomicBoolean isDone = new AtomicBoolean();
+        Thread incrThread = new Thread(() -> {
+            while (!isDone.get()) {
+                RESPParserUtils.convertList2Str(new ParserDto<>(otherSocket, List.of("INCR", "counter")));
+            }
+        });
+        try {
+            int counterShard = ShardUtils.getShardIndex("counter");
+            String sameShardKey = null;
+            String otherShardKey = null;
+            for (int i = 0; sameShardKey == null || otherShardKey == null; i++) {
+                String key = "key" + i;
+                if (ShardUtils.getShardIndex(key) == counterShard) {
+                    sameShardKey = key;
+                } else {
+                    otherShardKey = key;
+                }
+            }
+            incrThread.start();
+
+            for (String key: List.of(sameShardKey, otherShardKey)) {
+                for (int i = 0; i < 50; i++) {
+                    multiHandler.process(testSocket, List.of());
+                    MultiHandler.queueCommand(testSocket, List.of("INCR", "counter"));
+                    MultiHandler.queueCommand(testSocket, List.of("INCR", "counter"));
+                    MultiHandler.queueCommand(testSocket, List.of("SET", key, "value"));
+                    MultiHandler.queueCommand(testSocket, List.of("INCR", "counter"));
+
+                    // no INCR of the other connection runs in the middle of the transaction
+                    String[] replies = execHandler.process(testSocket, List.of()).split("\r\n");
+                    assertEquals("*4", replies[0]);
+                    long first = Long.parseLong(replies[1].substring(1));
+                    assertEquals(":" + (first + 1), replies[2]);
+                    assertEquals("+OK", replies[3]);
+                    assertEquals(":" + (first + 2), replies[4]);
+                }
+            }
+        } finally {
+            isDone.set(true);
+            incrThread.join();
+            JobHandler.JOB_MAP.remove(otherJobId);
+            ShardUtils.shutdown();
+        }
+    }
+
+    // ==================== IO-THREADS MODE ====================
+
+    @Test
+    @DisplayName("io-threads mode runs commands of every connection serially on the main thread")
+    void testIoThreadsRunCommandsOnMainThread() throws InterruptedException {
+        RedisLocalMap.clear();
+        IoThreadsUtils.init(4);
+        try {
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                int threadIndex = i;
+                threads.add(new Thread(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        dispatch("INCR", "counter");
+                        dispatch("XADD", "stream", "*", "thread", String.valueOf(threadIndex));
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread: threads) {
+                thread.join();
+            }
+            assertEquals("$4\r\n2000\r\n", dispatch("GET", "counter"));
+            assertEquals(2000, ((StreamDto) RedisLocalMap.LOCAL_MAP.get("stream").getValue()).getStreamList().size());
+
+            assertTrue(ShardUtils.getResult(IoThreadsUtils.submit(IoThreadsUtils::isMainThread)));
+            assertFalse(IoThreadsUtils.isMainThread());
+        } finally {
+            IoThreadsUtils.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("io-threads mode runs EXEC and its queued commands on the main thread without waiting for itself")
+    void testIoThreadsExec() {
+        RedisLocalMap.clear();
+        IoThreadsUtils.init(2);
+        try {
+            assertEquals("+OK\r\n", dispatch("MULTI"));
+            assertEquals("+QUEUED\r\n", dispatch("SET", "foo", "1"));
+            assertEquals("+QUEUED\r\n", dispatch("INCR", "foo"));
+            assertEquals("*2\r\n+OK\r\n:2\r\n", dispatch("EXEC"));
+            assertEquals("$1\r\n2\r\n", dispatch("GET", "foo"));
+        } finally {
+            IoThreadsUtils.shutdown();
+        }
+    }
 }
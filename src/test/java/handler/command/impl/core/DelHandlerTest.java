@@ -0,0 +1,71 @@
+package handler.command.impl.core;
+
+import handler.command.impl.TestHelper;
+import handler.command.impl.list.RPushHandler;
+import org.junit.jupiter.api.*;
+import service.ExpiryUtils;
+import service.RedisLocalMap;
+
+import java.net.Socket;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DelHandler
+ *
+ * Tests cover:
+ * - DEL of existing, missing and repeated keys of any type
+ * - DEL of an expired key not reclaimed yet
+ * - Invalid parameters
+ */
+@DisplayName("DelHandler Tests")
+class DelHandlerTest {
+
+    private DelHandler delHandler;
+    private SetHandler setHandler;
+    private RPushHandler rPushHandler;
+    private Socket testSocket;
+
+    @BeforeEach
+    void setUp() {
+        delHandler = new DelHandler();
+        setHandler = new SetHandler();
+        rPushHandler = new RPushHandler();
+        testSocket = TestHelper.createTestSocket();
+        RedisLocalMap.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RedisLocalMap.clear();
+    }
+
+    @Test
+    @DisplayName("DEL removes existing keys and counts each of them once")
+    void testDel() {
+        setHandler.process(testSocket, List.of("foo", "bar", "EX", "100"));
+        rPushHandler.process(testSocket, List.of("list", "a"));
+
+        assertEquals(":2\r\n", delHandler.process(testSocket, List.of("foo", "missing", "list", "foo")));
+        assertTrue(RedisLocalMap.LOCAL_MAP.isEmpty());
+        assertEquals(0, ExpiryUtils.getNumVolatileKeys());
+        assertEquals(":0\r\n", delHandler.process(testSocket, List.of("foo")));
+    }
+
+    @Test
+    @DisplayName("DEL of an expired key removes it without counting it")
+    void testDelExpiredKey() throws InterruptedException {
+        setHandler.process(testSocket, List.of("foo", "bar", "PX", "1"));
+        Thread.sleep(5);
+
+        assertEquals(":0\r\n", delHandler.process(testSocket, List.of("foo")));
+        assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("foo"));
+    }
+
+    @Test
+    @DisplayName("DEL without keys should throw exception")
+    void testInvalidParams() {
+        assertThrows(RuntimeException.class, () -> delHandler.process(testSocket, List.of()));
+    }
+}
@@ -0,0 +1,286 @@
+package handler.command.impl.core;
+
+import domain.CacheDto;
+import handler.command.impl.TestHelper;
+import org.junit.jupiter.api.*;
+import service.ExpiryUtils;
+import service.RedisLocalMap;
+import service.StringValueUtils;
+
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the TTL command family
+ *
+ * Tests cover:
+ * - EXPIRE, PEXPIRE, EXPIREAT and PEXPIREAT on existing and missing keys
+ * - NX, XX, GT and LT conditions
+ * - TTL and PTTL replies for missing, non-volatile and volatile keys
+ * - PERSIST
+ * - SET with EX, EXAT, PXAT and KEEPTTL
+ * - Volatile-key index kept in sync
+ * - Lazy expiry on read and the active expire cycle against the index
+ */
+@DisplayName("TTL command family Tests")
+class ExpireHandlerTest {
+
+    private SetHandler setHandler;
+    private GetHandler getHandler;
+    private ExpireHandler expireHandler;
+    private PExpireHandler pExpireHandler;
+    private ExpireAtHandler expireAtHandler;
+    private PExpireAtHandler pExpireAtHandler;
+    private TtlHandler ttlHandler;
+    private PTtlHandler pTtlHandler;
+    private PersistHandler persistHandler;
+    private static final long TIME_LIMIT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private Socket testSocket;
+    private int numVolatileKeys;
+
+    @BeforeEach
+    void setUp() {
+        setHandler = new SetHandler();
+        getHandler = new GetHandler();
+        expireHandler = new ExpireHandler();
+        pExpireHandler = new PExpireHandler();
+        expireAtHandler = new ExpireAtHandler();
+        pExpireAtHandler = new PExpireAtHandler();
+        ttlHandler = new TtlHandler();
+        pTtlHandler = new PTtlHandler();
+        persistHandler = new PersistHandler();
+        testSocket = TestHelper.createTestSocket();
+        RedisLocalMap.LOCAL_MAP.keySet().forEach(RedisLocalMap::remove);
+        // other tests may clear LOCAL_MAP directly and leave index entries behind
+        numVolatileKeys = ExpiryUtils.getNumVolatileKeys();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RedisLocalMap.LOCAL_MAP.keySet().forEach(RedisLocalMap::remove);
+    }
+
+    @Test
+    @DisplayName("EXPIRE on missing key should return 0")
+    void testExpireMissingKey() {
+        assertEquals(":0\r\n", expireHandler.process(testSocket, List.of("missing", "10")));
+    }
+
+    @Test
+    @DisplayName("EXPIRE then TTL and PTTL should return remaining time")
+    void testExpireThenTtl() {
+        setHandler.process(testSocket, List.of("foo", "bar"));
+
+        assertEquals(":1\r\n", expireHandler.process(testSocket, List.of("foo", "100")));
+        assertEquals(":100\r\n", ttlHandler.process(testSocket, List.of("foo")));
+        long pttl = Long.parseLong(pTtlHandler.process(testSocket, List.of("foo")).substring(1).trim());
+        assertTrue(pttl > 99_000 && pttl <= 100_000);
+        assertEquals(numVolatileKeys+1, ExpiryUtils.getNumVolatileKeys());
+    }
+
+    @Test
+    @DisplayName("TTL should return -2 for missing key and -1 for key without TTL")
+    void testTtlStatusCodes() {
+        setHandler.process(testSocket, List.of("foo", "bar"));
+
+        assertEquals(":-2\r\n", ttlHandler.process(testSocket, List.of("missing")));
+        assertEquals(":-1\r\n", ttlHandler.process(testSocket, List.of("foo")));
+        assertEquals(":-2\r\n", pTtlHandler.process(testSocket, List.of("missing")));
+        assertEquals(":-1\r\n", pTtlHandler.process(testSocket, List.of("foo")));
+    }
+
+    @Test
+    @DisplayName("EXPIRE with time in the past should delete the key")
+    void testExpireInThePastDeletesKey() {
+        setHandler.process(testSocket, List.of("foo", "bar"));
+
+        assertEquals(":1\r\n", pExpireAtHandler.process(testSocket, List.of("foo", "1")));
+        assertEquals("$-1\r\n", getHandler.process(testSocket, List.of("foo")));
+        assertEquals(numVolatileKeys, ExpiryUtils.getNumVolatileKeys());
+    }
+
+    @Test
+    @DisplayName("PEXPIRE should expire the key after the given milliseconds")
+    void testPExpire() throws InterruptedException {
+        setHandler.process(testSocket, List.of("foo", "bar"));
+
+        assertEquals(":1\r\n", pExpireHandler.process(testSocket, List.of("foo", "50")));
+        Thread.sleep(100);
+
+        assertEquals("$-1\r\n", getHandler.process(testSocket, List.of("foo")));
+        assertEquals(numVolatileKeys, ExpiryUtils.getNumVolatileKeys());
+    }
+
+    @Test
+    @DisplayName("EXPIREAT should set an absolute expire time in seconds")
+    void testExpireAt() {
+        setHandler.process(testSocket, List.of("foo", "bar"));
+        long expireAt = System.currentTimeMillis()/1000 + 1000;
+
+        assertEquals(":1\r\n", expireAtHandler.process(testSocket, List.of("foo", String.valueOf(expireAt))));
+        assertEquals(Long.valueOf(expireAt*1000), RedisLocalMap.LOCAL_MAP.get("foo").getExpireTime());
+    }
+
+    @Test
+    @DisplayName("EXPIRE conditions NX, XX, GT and LT")
+    void testExpireConditions() {
+        setHandler.process(testSocket, List.of("foo", "bar"));
+
+        assertEquals(":0\r\n", expireHandler.process(testSocket, List.of("foo", "100", "XX")));
+        assertEquals(":0\r\n", expireHandler.process(testSocket, List.of("foo", "100", "GT")));
+        assertEquals(":1\r\n", expireHandler.process(testSocket, List.of("foo", "100", "NX")));
+        assertEquals(":0\r\n", expireHandler.process(testSocket, List.of("foo", "200", "NX")));
+        assertEquals(":0\r\n", expireHandler.process(testSocket, List.of("foo", "50", "GT")));
+        assertEquals(":1\r\n", expireHandler.process(testSocket, List.of("foo", "200", "gt")));
+        assertEquals(":0\r\n", expireHandler.process(testSocket, List.of("foo", "300", "LT")));
+        assertEquals(":1\r\n", expireHandler.process(testSocket, List.of("foo", "50", "LT")));
+        assertEquals(":50\r\n", ttlHandler.process(testSocket, List.of("foo")));
+    }
+
+    @Test
+    @DisplayName("EXPIRE with invalid arguments should return errors")
+    void testExpireInvalidArguments() {
+        setHandler.process(testSocket, List.of("foo", "bar"));
+
+        assertEquals("-ERR value is not an integer or out of range\r\n", expireHandler.process(testSocket, List.of("foo", "abc")));
+        assertEquals("-ERR syntax error\r\n", expireHandler.process(testSocket, List.of("foo", "100", "YY")));
+        assertEquals("-ERR invalid expire time in 'expire' command\r\n",
+                expireHandler.process(testSocket, List.of("foo", String.valueOf(Long.MAX_VALUE))));
+        assertEquals(":-1\r\n", ttlHandler.process(testSocket, List.of("foo")));
+    }
+
+    @Test
+    @DisplayName("PERSIST should remove the TTL")
+    void testPersist() {
+        setHandler.process(testSocket, List.of("foo", "bar", "EX", "100"));
+
+        assertEquals(":1\r\n", persistHandler.process(testSocket, List.of("foo")));
+        assertEquals(":0\r\n", persistHandler.process(testSocket, List.of("foo")));
+        assertEquals(":0\r\n", persistHandler.process(testSocket, List.of("missing")));
+        assertEquals(":-1\r\n", ttlHandler.process(testSocket, List.of("foo")));
+        assertEquals(numVolatileKeys, ExpiryUtils.getNumVolatileKeys());
+    }
+
+    @Test
+    @DisplayName("SET with EX, EXAT and PXAT should set the expire time")
+    void testSetWithExpireOptions() {
+        long now = System.currentTimeMillis();
+        setHandler.process(testSocket, List.of("ex", "v", "ex", "100"));
+        setHandler.process(testSocket, List.of("exat", "v", "EXAT", String.valueOf(now/1000 + 100)));
+        setHandler.process(testSocket, List.of("pxat", "v", "PXAT", String.valueOf(now + 100_000)));
+
+        assertEquals(":100\r\n", ttlHandler.process(testSocket, List.of("ex")));
+        assertEquals(Long.valueOf((now/1000 + 100)*1000), RedisLocalMap.LOCAL_MAP.get("exat").getExpireTime());
+        assertEquals(Long.valueOf(now + 100_000), RedisLocalMap.LOCAL_MAP.get("pxat").getExpireTime());
+        assertEquals(numVolatileKeys+3, ExpiryUtils.getNumVolatileKeys());
+    }
+
+    @Test
+    @DisplayName("SET should clear the TTL unless KEEPTTL is given")
+    void testSetKeepTtl() {
+        setHandler.process(testSocket, List.of("foo", "bar", "PX", "100000"));
+        Long expireTime = RedisLocalMap.LOCAL_MAP.get("foo").getExpireTime();
+
+        setHandler.process(testSocket, List.of("foo", "baz", "KEEPTTL"));
+        CacheDto cache = RedisLocalMap.LOCAL_MAP.get("foo");
+        assertEquals("baz", StringValueUtils.decode(cache.getValue()));
+        assertEquals(expireTime, cache.getExpireTime());
+
+        setHandler.process(testSocket, List.of("foo", "qux"));
+        assertEquals(":-1\r\n", ttlHandler.process(testSocket, List.of("foo")));
+        assertEquals(numVolatileKeys, ExpiryUtils.getNumVolatileKeys());
+    }
+
+    @Test
+    @DisplayName("SET with invalid expire options should return errors")
+    void testSetInvalidExpireOptions() {
+        assertEquals("-ERR syntax error\r\n", setHandler.process(testSocket, List.of("foo", "bar", "EX", "10", "PX", "10")));
+        assertEquals("-ERR syntax error\r\n", setHandler.process(testSocket, List.of("foo", "bar", "EX", "10", "KEEPTTL")));
+        assertEquals("-ERR syntax error\r\n", setHandler.process(testSocket, List.of("foo", "bar", "EX")));
+        assertEquals("-ERR invalid expire time in 'set' command\r\n", setHandler.process(testSocket, List.of("foo", "bar", "EX", "0")));
+        assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("foo"));
+    }
+
+    @Test
+    @DisplayName("A read removes an expired key together with its index entry")
+    void testLazyExpiry() throws InterruptedException {
+        setHandler.process(testSocket, List.of("foo", "bar", "PX", "1"));
+        assertEquals(numVolatileKeys+1, ExpiryUtils.getNumVolatileKeys());
+        Thread.sleep(5);
+
+        // still stored until something reads it
+        assertTrue(RedisLocalMap.LOCAL_MAP.containsKey("foo"));
+        assertEquals("$-1\r\n", getHandler.process(testSocket, List.of("foo")));
+        assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("foo"));
+        assertEquals(numVolatileKeys, ExpiryUtils.getNumVolatileKeys());
+        assertEquals(":-2\r\n", ttlHandler.process(testSocket, List.of("foo")));
+    }
+
+    @Test
+    @DisplayName("The active cycle expires due keys earliest first within its budget and never keys without TTL")
+    void testActiveExpiry() {
+        // the cycle walks the whole index, start without entries left behind by other tests
+        RedisLocalMap.clear();
+        numVolatileKeys = 0;
+        long currentTime = System.currentTimeMillis();
+        for (int i = 0; i < 30; i++) {
+            setHandler.process(testSocket, List.of("volatile" + i, "v", "PXAT", String.valueOf(currentTime + 10_000 + i)));
+            setHandler.process(testSocket, List.of("persistent" + i, "v"));
+        }
+
+        // every key is due 20s from now, the budget stops the cycle after 20 of them
+        assertTrue(ExpiryUtils.activeExpireCycle(currentTime + 20_000, 20, TIME_LIMIT_NANOS));
+        for (int i = 0; i < 30; i++) {
+            assertEquals(i >= 20, RedisLocalMap.LOCAL_MAP.containsKey("volatile" + i), "volatile" + i);
+        }
+        assertEquals(numVolatileKeys+10, ExpiryUtils.getNumVolatileKeys());
+
+        assertFalse(ExpiryUtils.activeExpireCycle(currentTime + 20_000, 20, TIME_LIMIT_NANOS));
+        assertEquals(numVolatileKeys, ExpiryUtils.getNumVolatileKeys());
+        assertEquals(30, RedisLocalMap.LOCAL_MAP.size());
+    }
+
+    @Test
+    @DisplayName("The active cycle stops at the first key not due yet")
+    void testActiveExpiryStopsAtFirstKeyNotDue() {
+        // the cycle walks the whole index, start without entries left behind by other tests
+        RedisLocalMap.clear();
+        numVolatileKeys = 0;
+        long currentTime = System.currentTimeMillis();
+        setHandler.process(testSocket, List.of("first", "v", "PXAT", String.valueOf(currentTime + 10_000)));
+        setHandler.process(testSocket, List.of("second", "v", "PXAT", String.valueOf(currentTime + 20_000)));
+        setHandler.process(testSocket, List.of("third", "v", "PXAT", String.valueOf(currentTime + 30_000)));
+
+        assertFalse(ExpiryUtils.activeExpireCycle(currentTime + 25_000, 100, TIME_LIMIT_NANOS));
+        assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("first"));
+        assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("second"));
+        assertTrue(RedisLocalMap.LOCAL_MAP.containsKey("third"));
+        assertEquals("third", ExpiryUtils.getNextExpireKey());
+    }
+
+    @Test
+    @DisplayName("A TTL changed or removed after indexing never lets the active cycle remove a live key")
+    void testActiveExpiryAfterTtlChange() {
+        // the cycle walks the whole index, start without entries left behind by other tests
+        RedisLocalMap.clear();
+        numVolatileKeys = 0;
+        long currentTime = System.currentTimeMillis();
+        setHandler.process(testSocket, List.of("extended", "v", "PXAT", String.valueOf(currentTime + 10_000)));
+        pExpireAtHandler.process(testSocket, List.of("extended", String.valueOf(currentTime + 60_000)));
+        setHandler.process(testSocket, List.of("persisted", "v", "PXAT", String.valueOf(currentTime + 10_000)));
+        persistHandler.process(testSocket, List.of("persisted"));
+        setHandler.process(testSocket, List.of("overwritten", "v", "PXAT", String.valueOf(currentTime + 10_000)));
+        setHandler.process(testSocket, List.of("overwritten", "w"));
+
+        assertFalse(ExpiryUtils.activeExpireCycle(currentTime + 30_000, 100, TIME_LIMIT_NANOS));
+        assertTrue(RedisLocalMap.LOCAL_MAP.containsKey("extended"));
+        assertTrue(RedisLocalMap.LOCAL_MAP.containsKey("persisted"));
+        assertTrue(RedisLocalMap.LOCAL_MAP.containsKey("overwritten"));
+        assertEquals(numVolatileKeys+1, ExpiryUtils.getNumVolatileKeys());
+        assertEquals("extended", ExpiryUtils.getNextExpireKey());
+    }
+}
@@ -0,0 +1,158 @@
+package handler.command.impl.core;
+
+import handler.command.impl.TestHelper;
+import org.junit.jupiter.api.*;
+import service.MemoryUtils;
+import service.RedisLocalMap;
+
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the INCR command family
+ *
+ * Tests cover:
+ * - INCRBY, DECR and DECRBY on missing, integer and negative values
+ * - 64-bit values and overflow errors
+ * - INCRBYFLOAT formatting, integer results stored as integers, invalid floats
+ * - TTL kept by in-place increments
+ * - Concurrent DECRBY operations on the same key
+ */
+@DisplayName("INCR command family Tests")
+class IncrByHandlerTest {
+
+    private IncrByHandler incrByHandler;
+    private DecrHandler decrHandler;
+    private DecrByHandler decrByHandler;
+    private IncrByFloatHandler incrByFloatHandler;
+    private SetHandler setHandler;
+    private GetHandler getHandler;
+    private Socket testSocket;
+
+    @BeforeEach
+    void setUp() {
+        incrByHandler = new IncrByHandler();
+        decrHandler = new DecrHandler();
+        decrByHandler = new DecrByHandler();
+        incrByFloatHandler = new IncrByFloatHandler();
+        setHandler = new SetHandler();
+        getHandler = new GetHandler();
+        testSocket = TestHelper.createTestSocket();
+        RedisLocalMap.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RedisLocalMap.clear();
+    }
+
+    @Test
+    @DisplayName("INCRBY, DECR and DECRBY on a missing key start from 0")
+    void testMissingKey() {
+        assertEquals(":5\r\n", incrByHandler.process(testSocket, List.of("a", "5")));
+        assertEquals(":-1\r\n", decrHandler.process(testSocket, List.of("b")));
+        assertEquals(":-10\r\n", decrByHandler.process(testSocket, List.of("c", "10")));
+    }
+
+    @Test
+    @DisplayName("INCRBY and DECRBY on existing and negative values")
+    void testExistingValue() {
+        setHandler.process(testSocket, List.of("foo", "-5"));
+
+        assertEquals(":15\r\n", incrByHandler.process(testSocket, List.of("foo", "20")));
+        assertEquals(":14\r\n", decrHandler.process(testSocket, List.of("foo")));
+        assertEquals(":20\r\n", decrByHandler.process(testSocket, List.of("foo", "-6")));
+        assertEquals(":-80\r\n", incrByHandler.process(testSocket, List.of("foo", "-100")));
+        assertEquals("$3\r\n-80\r\n", getHandler.process(testSocket, List.of("foo")));
+    }
+
+    @Test
+    @DisplayName("INCRBY handles 64-bit values and rejects overflows")
+    void testOverflow() {
+        setHandler.process(testSocket, List.of("foo", String.valueOf(Long.MAX_VALUE - 1)));
+
+        assertEquals(":" + Long.MAX_VALUE + "\r\n", incrByHandler.process(testSocket, List.of("foo", "1")));
+        assertEquals("-ERR increment or decrement would overflow\r\n", incrByHandler.process(testSocket, List.of("foo", "1")));
+        assertEquals(Long.valueOf(Long.MAX_VALUE), RedisLocalMap.LOCAL_MAP.get("foo").getValue());
+
+        setHandler.process(testSocket, List.of("bar", String.valueOf(Long.MIN_VALUE)));
+        assertEquals("-ERR increment or decrement would overflow\r\n", decrHandler.process(testSocket, List.of("bar")));
+        assertEquals("-ERR decrement would overflow\r\n", decrByHandler.process(testSocket, List.of("baz", String.valueOf(Long.MIN_VALUE))));
+        assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("baz"));
+    }
+
+    @Test
+    @DisplayName("INCRBY with invalid values or increments should return errors")
+    void testInvalidIntegers() {
+        setHandler.process(testSocket, List.of("foo", "bar"));
+        setHandler.process(testSocket, List.of("padded", "007"));
+
+        assertEquals("-ERR value is not an integer or out of range\r\n", incrByHandler.process(testSocket, List.of("foo", "1")));
+        assertEquals("-ERR value is not an integer or out of range\r\n", decrHandler.process(testSocket, List.of("padded")));
+        assertEquals("-ERR value is not an integer or out of range\r\n", incrByHandler.process(testSocket, List.of("new", "1.5")));
+        assertEquals("-ERR value is not an integer or out of range\r\n", decrByHandler.process(testSocket, List.of("new", "abc")));
+        assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("new"));
+        assertThrows(RuntimeException.class, () -> incrByHandler.process(testSocket, List.of("foo")));
+    }
+
+    @Test
+    @DisplayName("INCRBYFLOAT formats results without trailing zeros or exponent")
+    void testIncrByFloat() {
+        setHandler.process(testSocket, List.of("foo", "10.50"));
+
+        assertEquals("$4\r\n10.6\r\n", incrByFloatHandler.process(testSocket, List.of("foo", "0.1")));
+        assertEquals("$2\r\n15\r\n", incrByFloatHandler.process(testSocket, List.of("foo", "4.4")));
+        assertEquals(Long.valueOf(15), RedisLocalMap.LOCAL_MAP.get("foo").getValue());
+        assertEquals("$11\r\n10000000015\r\n", incrByFloatHandler.process(testSocket, List.of("foo", "1e10")));
+        assertEquals("$4\r\n-0.5\r\n", incrByFloatHandler.process(testSocket, List.of("missing", "-0.5")));
+    }
+
+    @Test
+    @DisplayName("INCRBYFLOAT with invalid values or results should return errors")
+    void testIncrByFloatErrors() {
+        setHandler.process(testSocket, List.of("foo", "bar"));
+        setHandler.process(testSocket, List.of("num", "1"));
+
+        assertEquals("-ERR value is not a valid float\r\n", incrByFloatHandler.process(testSocket, List.of("foo", "1")));
+        assertEquals("-ERR value is not a valid float\r\n", incrByFloatHandler.process(testSocket, List.of("num", "abc")));
+        assertEquals("-ERR value is not a valid float\r\n", incrByFloatHandler.process(testSocket, List.of("num", "NaN")));
+        assertEquals("-ERR value is not a valid float\r\n", incrByFloatHandler.process(testSocket, List.of("num", " 1")));
+        setHandler.process(testSocket, List.of("max", "1e308"));
+        assertEquals("-ERR increment would produce NaN or Infinity\r\n", incrByFloatHandler.process(testSocket, List.of("max", "1e308")));
+    }
+
+    @Test
+    @DisplayName("Increments change values in place and keep the TTL")
+    void testKeepTtlAndMemory() {
+        setHandler.process(testSocket, List.of("foo", "1", "EX", "100"));
+        Long expireTime = RedisLocalMap.LOCAL_MAP.get("foo").getExpireTime();
+
+        incrByHandler.process(testSocket, List.of("foo", "100000"));
+        incrByFloatHandler.process(testSocket, List.of("foo", "0.25"));
+
+        assertEquals(expireTime, RedisLocalMap.LOCAL_MAP.get("foo").getExpireTime());
+        assertEquals(MemoryUtils.estimate("foo", RedisLocalMap.LOCAL_MAP.get("foo")), MemoryUtils.getUsedMemory());
+    }
+
+    @Test
+    @DisplayName("Concurrent DECRBY on the same key should not lose decrements")
+    void testConcurrentDecrBy() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    decrByHandler.process(testSocket, List.of("counter", "3"));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread: threads) {
+            thread.join();
+        }
+
+        assertEquals(Long.valueOf(-12000), RedisLocalMap.LOCAL_MAP.get("counter").getValue());
+    }
+}
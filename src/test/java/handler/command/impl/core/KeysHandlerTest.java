@@ -17,6 +17,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * - KEYS with prefix pattern
  * - KEYS with suffix pattern
  * - KEYS with no matches
+ * - KEYS with literal patterns, '?', character classes, ranges, negation and escapes
  * - Invalid parameters
  */
 @DisplayName("KeysHandler Tests")
@@ -114,14 +115,69 @@ class KeysHandlerTest {
     }
 
     @Test
-    @DisplayName("KEYS with exact key should return value like GET")
+    @DisplayName("KEYS with exact key should return the key if it exists")
     void testKeysExactKey() {
         setHandler.process(testSocket, List.of("mykey", "myvalue"));
-        
-        String result = keysHandler.process(testSocket, List.of("mykey"));
-        
-        // When no wildcard, it should behave like GET
-        assertEquals("$7\r\nmyvalue\r\n", result);
+
+        assertEquals("*1\r\n$5\r\nmykey\r\n", keysHandler.process(testSocket, List.of("mykey")));
+        assertEquals("*0\r\n", keysHandler.process(testSocket, List.of("other")));
+    }
+
+    @Test
+    @DisplayName("KEYS with several wildcards")
+    void testKeysWithSeveralWildcards() {
+        setHandler.process(testSocket, List.of("pre_middle_suf", "value1"));
+        setHandler.process(testSocket, List.of("pre_other", "value2"));
+        setHandler.process(testSocket, List.of("other_suf", "value3"));
+
+        assertEquals("*1\r\n$14\r\npre_middle_suf\r\n", keysHandler.process(testSocket, List.of("pre_*_suf")));
+        assertEquals("*1\r\n$14\r\npre_middle_suf\r\n", keysHandler.process(testSocket, List.of("*mid*suf")));
+        assertEquals("*1\r\n$9\r\nother_suf\r\n", keysHandler.process(testSocket, List.of("o*_***")));
+    }
+
+    @Test
+    @DisplayName("KEYS with '?', character classes, ranges and negation")
+    void testKeysWithCharacterClasses() {
+        setHandler.process(testSocket, List.of("hallo", "v"));
+        setHandler.process(testSocket, List.of("hello", "v"));
+        setHandler.process(testSocket, List.of("hxllo", "v"));
+        setHandler.process(testSocket, List.of("hllo", "v"));
+
+        assertEquals(3, countKeys("h?llo"));
+        assertEquals(2, countKeys("h[ae]llo"));
+        assertEquals(1, countKeys("h[^ae]llo"));
+        assertEquals(3, countKeys("h[a-z]llo"));
+        assertEquals(2, countKeys("h[z-d]llo"));
+        assertEquals(0, countKeys("h[b-d]llo"));
+        assertEquals(4, countKeys("h*llo"));
+    }
+
+    @Test
+    @DisplayName("KEYS with escaped special characters should match them literally")
+    void testKeysWithEscapes() {
+        setHandler.process(testSocket, List.of("a*b", "v"));
+        setHandler.process(testSocket, List.of("axb", "v"));
+        setHandler.process(testSocket, List.of("a[b", "v"));
+
+        assertEquals("*1\r\n$3\r\na*b\r\n", keysHandler.process(testSocket, List.of("a\\*b")));
+        assertEquals("*1\r\n$3\r\na[b\r\n", keysHandler.process(testSocket, List.of("a[\\[]b")));
+        assertEquals(2, countKeys("a[*x]b"));
+    }
+
+    @Test
+    @DisplayName("KEYS should match non-ASCII keys byte by byte")
+    void testKeysWithNonAsciiKeys() {
+        setHandler.process(testSocket, List.of("caf\u00e9", "v"));
+
+        assertEquals(1, countKeys("caf*"));
+        assertEquals(1, countKeys("caf??"));
+        assertEquals(0, countKeys("caf?"));
+        assertEquals(1, countKeys("caf\u00e9"));
+    }
+
+    private int countKeys(String pattern) {
+        String result = keysHandler.process(testSocket, List.of(pattern));
+        return Integer.parseInt(result.substring(1, result.indexOf("\r\n")));
     }
 
     @Test
@@ -0,0 +1,149 @@
+package handler.command.impl.core;
+
+import handler.command.impl.TestHelper;
+import handler.command.impl.list.RPushHandler;
+import org.junit.jupiter.api.*;
+import service.RedisLocalMap;
+import service.ShardUtils;
+
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MGetHandler, MSetHandler and MSetNxHandler
+ *
+ * Tests cover:
+ * - MGET on existing, missing and non-string keys
+ * - MSET overwriting values and clearing TTLs
+ * - MSETNX all-or-nothing
+ * - Odd number of arguments
+ * - Concurrent MSET on overlapping keys given in opposite orders
+ * - MGET grouped per shard in share-nothing mode
+ */
+@DisplayName("MGET, MSET and MSETNX Tests")
+class MSetHandlerTest {
+
+    private MGetHandler mGetHandler;
+    private MSetHandler mSetHandler;
+    private MSetNxHandler mSetNxHandler;
+    private SetHandler setHandler;
+    private RPushHandler rPushHandler;
+    private Socket testSocket;
+
+    @BeforeEach
+    void setUp() {
+        mGetHandler = new MGetHandler();
+        mSetHandler = new MSetHandler();
+        mSetNxHandler = new MSetNxHandler();
+        setHandler = new SetHandler();
+        rPushHandler = new RPushHandler();
+        testSocket = TestHelper.createTestSocket();
+        RedisLocalMap.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RedisLocalMap.clear();
+    }
+
+    @Test
+    @DisplayName("MGET returns values in key order, nil for missing and non-string keys")
+    void testMGet() {
+        setHandler.process(testSocket, List.of("foo", "bar"));
+        setHandler.process(testSocket, List.of("num", "42"));
+        rPushHandler.process(testSocket, List.of("list", "a"));
+
+        assertEquals("*5\r\n$3\r\nbar\r\n$-1\r\n$2\r\n42\r\n$-1\r\n$3\r\nbar\r\n",
+                mGetHandler.process(testSocket, List.of("foo", "missing", "num", "list", "foo")));
+    }
+
+    @Test
+    @DisplayName("MSET sets every key and clears their TTL")
+    void testMSet() {
+        setHandler.process(testSocket, List.of("foo", "old", "EX", "100"));
+
+        assertEquals("+OK\r\n", mSetHandler.process(testSocket, List.of("foo", "1", "bar", "2", "foo", "3")));
+        assertEquals("*2\r\n$1\r\n3\r\n$1\r\n2\r\n", mGetHandler.process(testSocket, List.of("foo", "bar")));
+        assertNull(RedisLocalMap.LOCAL_MAP.get("foo").getExpireTime());
+    }
+
+    @Test
+    @DisplayName("MSETNX sets all keys or none of them")
+    void testMSetNx() {
+        assertEquals(":1\r\n", mSetNxHandler.process(testSocket, List.of("a", "1", "b", "2")));
+        assertEquals(":0\r\n", mSetNxHandler.process(testSocket, List.of("c", "3", "b", "4")));
+
+        assertEquals("*3\r\n$1\r\n1\r\n$1\r\n2\r\n$-1\r\n", mGetHandler.process(testSocket, List.of("a", "b", "c")));
+    }
+
+    @Test
+    @DisplayName("MSET and MSETNX with an odd number of arguments should return errors")
+    void testInvalidParams() {
+        assertEquals("-ERR wrong number of arguments for 'mset' command\r\n",
+                mSetHandler.process(testSocket, List.of("a", "1", "b")));
+        assertEquals("-ERR wrong number of arguments for 'msetnx' command\r\n",
+                mSetNxHandler.process(testSocket, List.of("a")));
+        assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("a"));
+        assertThrows(RuntimeException.class, () -> mGetHandler.process(testSocket, List.of()));
+        assertThrows(RuntimeException.class, () -> mSetHandler.process(testSocket, null));
+    }
+
+    @Test
+    @DisplayName("Concurrent MSET on overlapping keys never leaves keys from different commands")
+    void testConcurrentMSet() throws InterruptedException {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            keys.add("key" + i);
+        }
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            String value = String.valueOf(t);
+            boolean isReversed = t % 2 == 1;
+            threads.add(new Thread(() -> {
+                List<String> args = new ArrayList<>();
+                for (int i = 0; i < keys.size(); i++) {
+                    args.add(keys.get(isReversed ? keys.size()-1-i : i));
+                    args.add(value);
+                }
+                for (int j = 0; j < 200; j++) {
+                    mSetHandler.process(testSocket, args);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread: threads) {
+            thread.join();
+        }
+
+        Object value = RedisLocalMap.LOCAL_MAP.get("key0").getValue();
+        for (String key: keys) {
+            assertEquals(value, RedisLocalMap.LOCAL_MAP.get(key).getValue());
+        }
+    }
+
+    @Test
+    @DisplayName("MGET in share-nothing mode gathers values of every shard in key order")
+    void testMGetOnShards() {
+        ShardUtils.init(4);
+        try {
+            List<String> keys = new ArrayList<>();
+            List<String> args = new ArrayList<>();
+            StringBuilder expected = new StringBuilder("*20\r\n");
+            for (int i = 0; i < 20; i++) {
+                keys.add("key" + i);
+                args.add("key" + i);
+                args.add("value" + i);
+                String value = "value" + i;
+                expected.append("$").append(value.length()).append("\r\n").append(value).append("\r\n");
+            }
+            mSetHandler.process(testSocket, args);
+
+            assertEquals(expected.toString(), mGetHandler.process(testSocket, keys));
+        } finally {
+            ShardUtils.shutdown();
+        }
+    }
+}
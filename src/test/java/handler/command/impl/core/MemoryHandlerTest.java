@@ -0,0 +1,212 @@
+package handler.command.impl.core;
+
+import domain.CacheDto;
+import handler.command.impl.TestHelper;
+import handler.command.impl.list.LPopHandler;
+import handler.command.impl.list.RPushHandler;
+import handler.command.impl.sortedset.ZAddHandler;
+import handler.command.impl.sortedset.ZRemHandler;
+import handler.command.impl.stream.XAddHandler;
+import org.junit.jupiter.api.*;
+import service.MemoryUtils;
+import service.RedisLocalMap;
+
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MemoryHandler and used memory accounting
+ *
+ * Tests cover:
+ * - MEMORY USAGE on missing keys and each value type
+ * - MEMORY USAGE of multi-byte keys
+ * - MEMORY USAGE with SAMPLES
+ * - MEMORY STATS
+ * - INFO memory
+ * - used memory kept in sync by in-place writes
+ * - Invalid parameters
+ */
+@DisplayName("MemoryHandler Tests")
+class MemoryHandlerTest {
+
+    private MemoryHandler memoryHandler;
+    private SetHandler setHandler;
+    private IncrHandler incrHandler;
+    private RPushHandler rPushHandler;
+    private LPopHandler lPopHandler;
+    private ZAddHandler zAddHandler;
+    private ZRemHandler zRemHandler;
+    private XAddHandler xAddHandler;
+    private Socket testSocket;
+
+    @BeforeEach
+    void setUp() {
+        memoryHandler = new MemoryHandler();
+        memoryHandler.register();
+        new InfoHandler().register();
+        setHandler = new SetHandler();
+        incrHandler = new IncrHandler();
+        rPushHandler = new RPushHandler();
+        lPopHandler = new LPopHandler();
+        zAddHandler = new ZAddHandler();
+        zRemHandler = new ZRemHandler();
+        xAddHandler = new XAddHandler();
+        testSocket = TestHelper.createTestSocket();
+        RedisLocalMap.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RedisLocalMap.clear();
+    }
+
+    private long getUsage(String... params) {
+        List<String> list = new ArrayList<>(List.of("usage"));
+        list.addAll(List.of(params));
+        String result = memoryHandler.process(testSocket, list);
+        assertTrue(result.startsWith(":"), result);
+        return Long.parseLong(result.substring(1).trim());
+    }
+
+    /**
+     * used memory must match a full estimate of every key once all writes are done
+     */
+    private void assertUsedMemoryInSync() {
+        long expected = 0L;
+        for (Map.Entry<String, CacheDto> entry: RedisLocalMap.LOCAL_MAP.entrySet()) {
+            expected += MemoryUtils.estimate(entry.getKey(), entry.getValue());
+        }
+        assertEquals(expected, MemoryUtils.getUsedMemory());
+    }
+
+    @Test
+    @DisplayName("MEMORY USAGE on missing key should return nil")
+    void testUsageMissingKey() {
+        assertEquals("$-1\r\n", memoryHandler.process(testSocket, List.of("usage", "missing")));
+    }
+
+    @Test
+    @DisplayName("MEMORY USAGE of a string grows with its length")
+    void testUsageString() {
+        setHandler.process(testSocket, List.of("short", "v"));
+        setHandler.process(testSocket, List.of("large", "v".repeat(1000)));
+
+        assertTrue(getUsage("short") > 0);
+        assertTrue(getUsage("large") - getUsage("short") >= 999);
+        assertEquals(getUsage("short") + getUsage("large"), MemoryUtils.getUsedMemory());
+    }
+
+    @Test
+    @DisplayName("MEMORY USAGE counts the encoded bytes of a key, not its chars")
+    void testUsageMultiByteKey() {
+        setHandler.process(testSocket, List.of("e".repeat(100), "v"));
+        setHandler.process(testSocket, List.of("\u00e9".repeat(100), "v"));
+
+        assertEquals(100, getUsage("\u00e9".repeat(100)) - getUsage("e".repeat(100)));
+    }
+
+    @Test
+    @DisplayName("Used memory follows SET overwrite and INCR")
+    void testUsedMemoryStrings() {
+        setHandler.process(testSocket, List.of("foo", "v".repeat(100)));
+        setHandler.process(testSocket, List.of("foo", "v"));
+        incrHandler.process(testSocket, List.of("counter"));
+        for (int i = 0; i < 10; i++) {
+            incrHandler.process(testSocket, List.of("counter"));
+        }
+
+        assertUsedMemoryInSync();
+    }
+
+    @Test
+    @DisplayName("Used memory follows list pushes and pops")
+    void testUsedMemoryList() {
+        rPushHandler.process(testSocket, List.of("list", "a", "bb", "ccc"));
+        long usage = getUsage("list", "SAMPLES", "0");
+        assertUsedMemoryInSync();
+
+        lPopHandler.process(testSocket, List.of("list", "2"));
+        assertTrue(getUsage("list", "SAMPLES", "0") < usage);
+        assertUsedMemoryInSync();
+    }
+
+    @Test
+    @DisplayName("Used memory follows sorted set and stream writes")
+    void testUsedMemoryZSetAndStream() {
+        zAddHandler.process(testSocket, List.of("zset", "1", "one"));
+        zAddHandler.process(testSocket, List.of("zset", "2", "two"));
+        zAddHandler.process(testSocket, List.of("zset", "3", "two"));
+        zRemHandler.process(testSocket, List.of("zset", "one"));
+        xAddHandler.process(testSocket, List.of("stream", "1-1", "field", "value"));
+        xAddHandler.process(testSocket, List.of("stream", "1-2", "field", "value", "other", "value"));
+
+        assertUsedMemoryInSync();
+    }
+
+    @Test
+    @DisplayName("Used memory follows a sorted set converted from listpack to skip list")
+    void testUsedMemoryZSetConversion() {
+        for (int i = 0; i < 200; i++) {
+            zAddHandler.process(testSocket, List.of("zset", String.valueOf(i), "member:" + i));
+            assertUsedMemoryInSync();
+        }
+        zRemHandler.process(testSocket, List.of("zset", "member:0"));
+
+        assertUsedMemoryInSync();
+    }
+
+    @Test
+    @DisplayName("MEMORY USAGE with SAMPLES extrapolates aggregate values")
+    void testUsageSamples() {
+        List<String> args = new ArrayList<>(List.of("list"));
+        for (int i = 0; i < 100; i++) {
+            args.add("element");
+        }
+        rPushHandler.process(testSocket, args);
+
+        assertEquals(getUsage("list", "SAMPLES", "0"), getUsage("list"));
+        assertEquals(getUsage("list", "SAMPLES", "0"), getUsage("list", "samples", "10"));
+    }
+
+    @Test
+    @DisplayName("MEMORY STATS should report key count and used memory")
+    void testStats() {
+        setHandler.process(testSocket, List.of("foo", "bar"));
+        setHandler.process(testSocket, List.of("baz", "qux", "EX", "100"));
+
+        String result = memoryHandler.process(testSocket, List.of("stats"));
+
+        assertTrue(result.startsWith("*16\r\n"));
+        assertTrue(result.contains("$10\r\nkeys.count\r\n:2\r\n"));
+        assertTrue(result.contains("$13\r\nexpires.count\r\n:1\r\n"));
+        assertTrue(result.contains("$15\r\ntotal.allocated\r\n:" + MemoryUtils.getUsedMemory() + "\r\n"));
+    }
+
+    @Test
+    @DisplayName("INFO memory should report used memory")
+    void testInfoMemory() {
+        setHandler.process(testSocket, List.of("foo", "bar"));
+
+        String result = handler.command.CommandHandler.HANDLER_MAP.get("info").process(testSocket, List.of("memory"));
+
+        assertTrue(result.contains("used_memory:" + MemoryUtils.getUsedMemory()));
+        assertTrue(result.contains("maxmemory_policy:"));
+    }
+
+    @Test
+    @DisplayName("MEMORY with invalid parameters should return errors")
+    void testInvalidParams() {
+        setHandler.process(testSocket, List.of("foo", "bar"));
+
+        assertEquals("-ERR syntax error\r\n", memoryHandler.process(testSocket, List.of("usage", "foo", "SAMPLES")));
+        assertEquals("-ERR syntax error\r\n", memoryHandler.process(testSocket, List.of("usage", "foo", "OTHER", "5")));
+        assertEquals("-ERR value is not an integer or out of range\r\n",
+                memoryHandler.process(testSocket, List.of("usage", "foo", "SAMPLES", "abc")));
+        assertThrows(RuntimeException.class, () -> memoryHandler.process(testSocket, List.of("doctor")));
+        assertThrows(RuntimeException.class, () -> memoryHandler.process(testSocket, null));
+    }
+}
@@ -0,0 +1,214 @@
+package handler.command.impl.core;
+
+import handler.command.impl.TestHelper;
+import handler.command.impl.list.RPushHandler;
+import org.junit.jupiter.api.*;
+import service.RedisLocalMap;
+
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ScanHandler
+ *
+ * Tests cover:
+ * - Full iteration returns every key
+ * - Keys present for the whole iteration are returned while the keyspace grows and shrinks
+ * - An iteration continues across the key index being dropped and rebuilt
+ * - MATCH, COUNT and TYPE options
+ * - Expired keys are skipped
+ * - Invalid parameters
+ */
+@DisplayName("ScanHandler Tests")
+class ScanHandlerTest {
+
+    private ScanHandler scanHandler;
+    private SetHandler setHandler;
+    private RPushHandler rPushHandler;
+    private Socket testSocket;
+
+    @BeforeEach
+    void setUp() {
+        scanHandler = new ScanHandler();
+        setHandler = new SetHandler();
+        rPushHandler = new RPushHandler();
+        testSocket = TestHelper.createTestSocket();
+        RedisLocalMap.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RedisLocalMap.clear();
+    }
+
+    /**
+     * @return cursor, followed by the returned keys
+     */
+    private List<String> scan(String... params) {
+        String result = scanHandler.process(testSocket, List.of(params));
+        assertTrue(result.startsWith("*2\r\n"), result);
+        String[] lines = result.split("\r\n");
+        List<String> reply = new ArrayList<>();
+        reply.add(lines[2]);
+        int numKeys = Integer.parseInt(lines[3].substring(1));
+        for (int i=0; i<numKeys; i++) {
+            reply.add(lines[5 + i*2]);
+        }
+        return reply;
+    }
+
+    private Set<String> scanAll(String... options) {
+        Set<String> keys = new HashSet<>();
+        String cursor = "0";
+        do {
+            List<String> params = new ArrayList<>(List.of(cursor));
+            params.addAll(List.of(options));
+            List<String> reply = scan(params.toArray(new String[0]));
+            cursor = reply.get(0);
+            keys.addAll(reply.subList(1, reply.size()));
+        } while (!cursor.equals("0"));
+        return keys;
+    }
+
+    @Test
+    @DisplayName("SCAN on empty keyspace should return cursor 0 and no key")
+    void testScanEmpty() {
+        assertEquals("*2\r\n$1\r\n0\r\n*0\r\n", scanHandler.process(testSocket, List.of("0")));
+    }
+
+    @Test
+    @DisplayName("SCAN iteration should return every key")
+    void testScanAllKeys() {
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            setHandler.process(testSocket, List.of("key:" + i, "v"));
+            expected.add("key:" + i);
+        }
+
+        assertEquals(expected, scanAll());
+        assertEquals(expected, scanAll("COUNT", "7"));
+    }
+
+    @Test
+    @DisplayName("SCAN with COUNT should bound the keys visited by a call")
+    void testScanCount() {
+        for (int i = 0; i < 100; i++) {
+            setHandler.process(testSocket, List.of("key:" + i, "v"));
+        }
+
+        List<String> reply = scan("0", "COUNT", "5");
+        assertNotEquals("0", reply.get(0));
+        assertTrue(reply.size()-1 >= 5 && reply.size()-1 < 100);
+        assertEquals(101, scan("0", "COUNT", "1000").size());
+    }
+
+    @Test
+    @DisplayName("SCAN should return keys present for the whole iteration while keys are added and removed")
+    void testScanWhileKeyspaceChanges() {
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            setHandler.process(testSocket, List.of("stable:" + i, "v"));
+            expected.add("stable:" + i);
+        }
+        for (int i = 0; i < 200; i++) {
+            setHandler.process(testSocket, List.of("removed:" + i, "v"));
+        }
+
+        Set<String> keys = new HashSet<>();
+        String cursor = "0";
+        int numCalls = 0;
+        do {
+            List<String> reply = scan(cursor, "COUNT", "10");
+            cursor = reply.get(0);
+            keys.addAll(reply.subList(1, reply.size()));
+            // grow and shrink the keyspace between calls
+            for (int i = 0; i < 50; i++) {
+                setHandler.process(testSocket, List.of("added:" + numCalls + ":" + i, "v"));
+            }
+            RedisLocalMap.remove("removed:" + numCalls);
+            numCalls++;
+        } while (!cursor.equals("0"));
+
+        assertTrue(keys.containsAll(expected));
+    }
+
+    @Test
+    @DisplayName("SCAN should continue an iteration once its idle key index was dropped and rebuilt")
+    void testScanAcrossKeyIndexRebuild() {
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            setHandler.process(testSocket, List.of("key:" + i, "v"));
+            expected.add("key:" + i);
+        }
+
+        List<String> reply = scan("0", "COUNT", "30");
+        Set<String> keys = new HashSet<>(reply.subList(1, reply.size()));
+        RedisLocalMap.dropIdleKeyIndex(System.currentTimeMillis(), 0);
+        // not indexed by its put, the index is built again by the next call
+        setHandler.process(testSocket, List.of("added", "v"));
+        String cursor = reply.get(0);
+        do {
+            reply = scan(cursor, "COUNT", "30");
+            cursor = reply.get(0);
+            keys.addAll(reply.subList(1, reply.size()));
+        } while (!cursor.equals("0"));
+
+        assertTrue(keys.containsAll(expected));
+        expected.add("added");
+        assertEquals(expected, scanAll());
+    }
+
+    @Test
+    @DisplayName("SCAN with MATCH should filter keys by pattern")
+    void testScanMatch() {
+        setHandler.process(testSocket, List.of("user:1", "v"));
+        setHandler.process(testSocket, List.of("user:2", "v"));
+        setHandler.process(testSocket, List.of("order:1", "v"));
+        setHandler.process(testSocket, List.of("user:10", "v"));
+
+        assertEquals(Set.of("user:1", "user:2", "user:10"), scanAll("MATCH", "user:*"));
+        assertEquals(Set.of("user:1", "user:2"), scanAll("match", "user:?"));
+        assertEquals(Set.of("user:1", "order:1"), scanAll("MATCH", "*:1"));
+        assertEquals(Set.of(), scanAll("MATCH", "none*"));
+    }
+
+    @Test
+    @DisplayName("SCAN with TYPE should filter keys by value type")
+    void testScanType() {
+        setHandler.process(testSocket, List.of("string", "v"));
+        rPushHandler.process(testSocket, List.of("list", "a"));
+
+        assertEquals(Set.of("string"), scanAll("TYPE", "string"));
+        assertEquals(Set.of("list"), scanAll("TYPE", "LIST"));
+        assertEquals(Set.of(), scanAll("TYPE", "zset"));
+    }
+
+    @Test
+    @DisplayName("SCAN should skip expired keys")
+    void testScanSkipsExpiredKeys() throws InterruptedException {
+        setHandler.process(testSocket, List.of("foo", "bar"));
+        setHandler.process(testSocket, List.of("expired", "bar", "PX", "10"));
+        Thread.sleep(50);
+
+        assertEquals(Set.of("foo"), scanAll());
+    }
+
+    @Test
+    @DisplayName("SCAN with invalid parameters should return errors")
+    void testScanInvalidParams() {
+        assertEquals("-ERR invalid cursor\r\n", scanHandler.process(testSocket, List.of("abc")));
+        assertEquals("-ERR invalid cursor\r\n", scanHandler.process(testSocket, List.of("-1")));
+        assertEquals("-ERR syntax error\r\n", scanHandler.process(testSocket, List.of("0", "COUNT")));
+        assertEquals("-ERR syntax error\r\n", scanHandler.process(testSocket, List.of("0", "COUNT", "0")));
+        assertEquals("-ERR syntax error\r\n", scanHandler.process(testSocket, List.of("0", "OTHER", "1")));
+        assertEquals("-ERR value is not an integer or out of range\r\n",
+                scanHandler.process(testSocket, List.of("0", "COUNT", "abc")));
+        assertEquals("-ERR unknown type name 'set'\r\n", scanHandler.process(testSocket, List.of("0", "TYPE", "set")));
+        assertThrows(RuntimeException.class, () -> scanHandler.process(testSocket, null));
+    }
+}
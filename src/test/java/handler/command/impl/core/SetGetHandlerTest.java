@@ -5,6 +5,7 @@ import enums.ValueType;
 import handler.command.impl.TestHelper;
 import org.junit.jupiter.api.*;
 import service.RedisLocalMap;
+import service.StringValueUtils;
 
 import java.net.Socket;
 import java.util.List;
@@ -20,6 +21,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * - GET non-existent key returns nil
  * - GET after expiry returns nil
  * - Overwriting existing keys
+ * - Value encodings: canonical integers as Long, shared when small, anything else as raw bytes
  * - Invalid parameters
  */
 @DisplayName("SetHandler and GetHandler Tests")
@@ -81,7 +83,7 @@ class SetGetHandlerTest {
         // Verify the value is set
         CacheDto cache = RedisLocalMap.LOCAL_MAP.get("foo");
         assertNotNull(cache);
-        assertEquals("bar", cache.getValue());
+        assertEquals("bar", StringValueUtils.decode(cache.getValue()));
         assertNotNull(cache.getExpireTime());
     }
 
@@ -162,6 +164,27 @@ class SetGetHandlerTest {
         assertEquals("$5\r\n12345\r\n", result);
     }
 
+    @Test
+    @DisplayName("SET stores canonical integers as Long and other values as bytes")
+    void testSetValueEncodings() {
+        setHandler.process(testSocket, List.of("small", "42"));
+        setHandler.process(testSocket, List.of("negative", "-9223372036854775808"));
+        setHandler.process(testSocket, List.of("large", "12345"));
+
+        Object small = RedisLocalMap.LOCAL_MAP.get("small").getValue();
+        assertEquals(Long.valueOf(42), small);
+        setHandler.process(testSocket, List.of("other", "42"));
+        assertSame(small, RedisLocalMap.LOCAL_MAP.get("other").getValue());
+        assertEquals(Long.valueOf(Long.MIN_VALUE), RedisLocalMap.LOCAL_MAP.get("negative").getValue());
+        assertEquals("$20\r\n-9223372036854775808\r\n", getHandler.process(testSocket, List.of("negative")));
+
+        for (String value: List.of("007", "-0", "+1", " 1", "9223372036854775808", "1.5", "")) {
+            setHandler.process(testSocket, List.of("raw", value));
+            assertTrue(RedisLocalMap.LOCAL_MAP.get("raw").getValue() instanceof byte[], value);
+            assertEquals("$" + value.length() + "\r\n" + value + "\r\n", getHandler.process(testSocket, List.of("raw")));
+        }
+    }
+
     @Test
     @DisplayName("Multiple SET and GET operations")
     void testMultipleSetGetOperations() {
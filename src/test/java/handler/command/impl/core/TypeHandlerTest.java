@@ -1,6 +1,7 @@
 package handler.command.impl.core;
 
 import domain.CacheDto;
+import domain.QuickList;
 import domain.StreamDto;
 import enums.ValueType;
 import handler.command.impl.TestHelper;
@@ -9,7 +10,6 @@ import service.RedisLocalMap;
 
 import java.net.Socket;
 import java.util.List;
-import java.util.concurrent.LinkedBlockingDeque;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -96,7 +96,7 @@ class TypeHandlerTest {
     void testTypeOnListKey() {
         CacheDto cache = new CacheDto();
         cache.setValueType(ValueType.LIST);
-        cache.setValue(new LinkedBlockingDeque<>());
+        cache.setValue(new QuickList());
         RedisLocalMap.LOCAL_MAP.put("list_key", cache);
         
         String result = typeHandler.process(testSocket, List.of("list_key"));
@@ -1,48 +1,63 @@
 package handler.command.impl.list;
 
 import handler.command.impl.TestHelper;
+import handler.command.impl.core.SetHandler;
+import domain.BlockedClientDto;
 import org.junit.jupiter.api.*;
+import service.BlockingUtils;
+import service.RESPWriter;
 import service.RedisLocalMap;
+import service.ServerUtils;
 
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * Unit tests for BLPopHandler (Blocking LPOP)
+ * Unit tests for BLPopHandler (Blocking LPOP), BRPopHandler and BLMoveHandler
  * 
  * Tests cover:
  * - BLPOP with non-zero timeout
  * - BLPOP with zero timeout (blocking)
  * - BLPOP on existing list returns immediately
  * - BLPOP timeout returns nil
+ * - BLPOP and BRPOP on several keys
+ * - Blocked clients served in FIFO order once a push signals their key
+ * - BLMOVE moving right away or once its source is pushed to, waking clients blocked on its destination
+ * - Invalid timeouts and wrong types
+ * - A client whose connection is gone cancelled by its id, waking up the thread waiting for its reply
  */
 @DisplayName("BLPopHandler Tests")
 class BLPopHandlerTest {
 
     private BLPopHandler blPopHandler;
+    private BRPopHandler brPopHandler;
+    private BLMoveHandler blMoveHandler;
     private RPushHandler rPushHandler;
     private Socket testSocket;
 
     @BeforeEach
     void setUp() {
         blPopHandler = new BLPopHandler();
+        brPopHandler = new BRPopHandler();
+        blMoveHandler = new BLMoveHandler();
         rPushHandler = new RPushHandler();
         blPopHandler.register();
         rPushHandler.register();
         
         testSocket = TestHelper.createTestSocket();
         
-        RedisLocalMap.LOCAL_MAP.clear();
-        RedisLocalMap.BLPOP_CLIENT_BLOCK_QUEUE.clear();
+        RedisLocalMap.clear();
+        BlockingUtils.clear();
     }
 
     @AfterEach
     void tearDown() {
-        RedisLocalMap.LOCAL_MAP.clear();
-        RedisLocalMap.BLPOP_CLIENT_BLOCK_QUEUE.clear();
+        RedisLocalMap.clear();
+        BlockingUtils.clear();
     }
 
     @Test
@@ -91,13 +106,22 @@ class BLPopHandlerTest {
     }
 
     @Test
-    @DisplayName("BLPOP with zero timeout should add to block queue")
+    @DisplayName("BLPOP with zero timeout should register the client without replying")
     void testBLPopZeroTimeout() {
-        // This should add the client to the block queue
-        blPopHandler.process(testSocket, List.of("mylist", "0"));
-        
-        // Since the list is empty and timeout is 0, client should be added to block queue
-        // or return empty (implementation specific)
+        RESPWriter writer = new RESPWriter();
+        blPopHandler.process(testSocket, List.of("mylist", "0"), writer);
+
+        assertTrue(writer.isEmpty());
+        assertEquals(1, BlockingUtils.getNumBlockedClients());
+        BlockedClientDto blockedClient = BlockingUtils.takeBlockedClient(testSocket);
+        assertNotNull(blockedClient);
+
+        rPushHandler.process(testSocket, List.of("mylist", "a"));
+        BlockingUtils.handleReadyKeys();
+
+        assertEquals("*2\r\n$6\r\nmylist\r\n$1\r\na\r\n", reply(blockedClient));
+        assertEquals(0, BlockingUtils.getNumBlockedClients());
+        assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("mylist"));
     }
 
     @Test
@@ -117,8 +141,9 @@ class BLPopHandlerTest {
         latch.await();
         Thread.sleep(100);
         
-        // Push data
+        // Push data, then serve the ready key as the command dispatcher does
         rPushHandler.process(testSocket, List.of("mylist", "value"));
+        BlockingUtils.handleReadyKeys();
         
         // Wait for BLPOP to complete
         blpopFuture.get(3, TimeUnit.SECONDS);
@@ -146,4 +171,130 @@ class BLPopHandlerTest {
         assertTrue(result1.contains("a"));
         assertTrue(result2.contains("b"));
     }
+
+    @Test
+    @DisplayName("BLPOP and BRPOP pop from the first non-empty key")
+    void testBPopMultipleKeys() {
+        rPushHandler.process(testSocket, List.of("list2", "a", "b", "c"));
+
+        assertEquals("*2\r\n$5\r\nlist2\r\n$1\r\na\r\n", blPopHandler.process(testSocket, List.of("list1", "list2", "1")));
+        assertEquals("*2\r\n$5\r\nlist2\r\n$1\r\nc\r\n", brPopHandler.process(testSocket, List.of("list1", "list2", "1")));
+    }
+
+    @Test
+    @DisplayName("A client blocked on several keys is served once, by the first key pushed to")
+    void testBlockedOnMultipleKeys() {
+        RESPWriter writer = new RESPWriter();
+        brPopHandler.process(testSocket, List.of("list1", "list2", "0"), writer);
+        BlockedClientDto blockedClient = BlockingUtils.takeBlockedClient(testSocket);
+        assertNotNull(blockedClient);
+
+        rPushHandler.process(testSocket, List.of("list2", "a", "b"));
+        BlockingUtils.handleReadyKeys();
+        rPushHandler.process(testSocket, List.of("list1", "c"));
+        BlockingUtils.handleReadyKeys();
+
+        assertEquals("*2\r\n$5\r\nlist2\r\n$1\r\nb\r\n", reply(blockedClient));
+        assertEquals(0, BlockingUtils.getNumBlockedClients());
+        assertEquals("*2\r\n$5\r\nlist1\r\n$1\r\nc\r\n", blPopHandler.process(testSocket, List.of("list1", "1")));
+    }
+
+    @Test
+    @DisplayName("Clients blocked on a key are served in the order they blocked")
+    void testBlockedClientsFifo() {
+        BlockedClientDto[] blockedClients = new BlockedClientDto[3];
+        for (int i = 0; i < blockedClients.length; i++) {
+            Socket socket = TestHelper.createTestSocket("127.0.0.1", 20000 + i);
+            blPopHandler.process(socket, List.of("mylist", "0"), new RESPWriter());
+            blockedClients[i] = BlockingUtils.takeBlockedClient(socket);
+        }
+
+        rPushHandler.process(testSocket, List.of("mylist", "a", "b"));
+        BlockingUtils.handleReadyKeys();
+
+        assertEquals("*2\r\n$6\r\nmylist\r\n$1\r\na\r\n", reply(blockedClients[0]));
+        assertEquals("*2\r\n$6\r\nmylist\r\n$1\r\nb\r\n", reply(blockedClients[1]));
+        assertEquals(1, BlockingUtils.getNumBlockedClients());
+
+        BlockingUtils.cancel(blockedClients[2]);
+        assertEquals(0, BlockingUtils.getNumBlockedClients());
+    }
+
+    @Test
+    @DisplayName("BRPOP should time out through the timer wheel")
+    void testBRPopTimeout() {
+        long start = System.currentTimeMillis();
+
+        assertEquals("*-1\r\n", brPopHandler.process(testSocket, List.of("list1", "list2", "0.05")));
+        assertTrue(System.currentTimeMillis() - start >= 50);
+        assertEquals(0, BlockingUtils.getNumBlockedClients());
+    }
+
+    @Test
+    @DisplayName("BLMOVE moves an element right away if the source has one")
+    void testBLMoveExistingList() {
+        rPushHandler.process(testSocket, List.of("src", "a", "b"));
+
+        assertEquals("$1\r\nb\r\n", blMoveHandler.process(testSocket, List.of("src", "dst", "RIGHT", "LEFT", "1")));
+        assertEquals("$1\r\na\r\n", blMoveHandler.process(testSocket, List.of("src", "src", "left", "right", "1")));
+        assertEquals("*2\r\n$3\r\ndst\r\n$1\r\nb\r\n", blPopHandler.process(testSocket, List.of("dst", "1")));
+        assertEquals("*2\r\n$3\r\nsrc\r\n$1\r\na\r\n", blPopHandler.process(testSocket, List.of("src", "1")));
+    }
+
+    @Test
+    @DisplayName("A blocked BLMOVE pushes to its destination, serving clients blocked on it")
+    void testBLMoveBlocked() {
+        Socket popSocket = TestHelper.createTestSocket("127.0.0.1", 20001);
+        blPopHandler.process(popSocket, List.of("dst", "0"), new RESPWriter());
+        BlockedClientDto blockedPop = BlockingUtils.takeBlockedClient(popSocket);
+        blMoveHandler.process(testSocket, List.of("src", "dst", "LEFT", "RIGHT", "0"), new RESPWriter());
+        BlockedClientDto blockedMove = BlockingUtils.takeBlockedClient(testSocket);
+        assertEquals(2, BlockingUtils.getNumBlockedClients());
+
+        rPushHandler.process(testSocket, List.of("src", "a"));
+        BlockingUtils.handleReadyKeys();
+
+        assertEquals("$1\r\na\r\n", reply(blockedMove));
+        assertEquals("*2\r\n$3\r\ndst\r\n$1\r\na\r\n", reply(blockedPop));
+        assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("src"));
+        assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("dst"));
+    }
+
+    @Test
+    @DisplayName("Invalid timeouts, directions and wrong types should return errors")
+    void testErrors() {
+        assertEquals("-ERR timeout is not a float or out of range\r\n", blPopHandler.process(testSocket, List.of("mylist", "abc")));
+        assertEquals("-ERR timeout is negative\r\n", brPopHandler.process(testSocket, List.of("mylist", "-1")));
+        assertEquals("-ERR syntax error\r\n", blMoveHandler.process(testSocket, List.of("src", "dst", "UP", "LEFT", "0")));
+
+        new SetHandler().process(testSocket, List.of("str", "value"));
+        assertTrue(blPopHandler.process(testSocket, List.of("str", "0")).startsWith("-WRONGTYPE"));
+        assertTrue(blMoveHandler.process(testSocket, List.of("str", "dst", "LEFT", "LEFT", "0")).startsWith("-WRONGTYPE"));
+        rPushHandler.process(testSocket, List.of("mylist", "a"));
+        assertTrue(blMoveHandler.process(testSocket, List.of("mylist", "str", "LEFT", "LEFT", "0")).startsWith("-WRONGTYPE"));
+        assertEquals(0, BlockingUtils.getNumBlockedClients());
+    }
+
+    @Test
+    @DisplayName("Cancelling a client by its id wakes up its thread and leaves pushes to other clients")
+    void testCancelByClientId() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<String> future = executor.submit(() -> blPopHandler.process(testSocket, List.of("mylist", "0")));
+        while (BlockingUtils.getNumBlockedClients() == 0) {
+            Thread.sleep(5);
+        }
+
+        BlockingUtils.cancel(ServerUtils.formatIdFromSocket(testSocket));
+
+        assertEquals("", future.get(1, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(0, BlockingUtils.getNumBlockedClients());
+        rPushHandler.process(testSocket, List.of("mylist", "a"));
+        BlockingUtils.handleReadyKeys();
+        assertTrue(RedisLocalMap.LOCAL_MAP.containsKey("mylist"));
+    }
+
+    private static String reply(BlockedClientDto blockedClient) {
+        return new String(BlockingUtils.awaitReply(blockedClient), StandardCharsets.UTF_8);
+    }
 }
@@ -1,14 +1,24 @@
 package handler.command.impl.list;
 
 import domain.CacheDto;
+import domain.QuickList;
 import enums.ValueType;
 import handler.command.impl.TestHelper;
 import org.junit.jupiter.api.*;
+import service.BlockingUtils;
 import service.RedisLocalMap;
+import service.RESPWriter;
+import service.StringValueUtils;
+import stream.RESPArgs;
+import stream.RESPDecoder;
 
+import java.io.ByteArrayOutputStream;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-import java.util.concurrent.LinkedBlockingDeque;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,7 +30,9 @@ import static org.junit.jupiter.api.Assertions.*;
  * - RPUSH adds elements to the right
  * - LRANGE returns range of elements
  * - LLEN returns list length
- * - LPOP removes and returns leftmost element
+ * - LPOP removes and returns leftmost element, binary elements as raw bytes, and removes the emptied key
+ * - Concurrent RPUSH creating the same list
+ * - Lists spanning many quicklist nodes, pushed and popped at both ends
  */
 @DisplayName("List Handler Tests")
 class ListHandlerTest {
@@ -49,13 +61,13 @@ class ListHandlerTest {
         testSocket = TestHelper.createTestSocket();
         
         RedisLocalMap.LOCAL_MAP.clear();
-        RedisLocalMap.BLPOP_CLIENT_BLOCK_QUEUE.clear();
+        BlockingUtils.clear();
     }
 
     @AfterEach
     void tearDown() {
         RedisLocalMap.LOCAL_MAP.clear();
-        RedisLocalMap.BLPOP_CLIENT_BLOCK_QUEUE.clear();
+        BlockingUtils.clear();
     }
 
     // ==================== LPUSH Tests ====================
@@ -274,7 +286,7 @@ class ListHandlerTest {
         // Create empty list
         CacheDto cache = new CacheDto();
         cache.setValueType(ValueType.LIST);
-        cache.setValue(new LinkedBlockingDeque<>());
+        cache.setValue(new QuickList());
         RedisLocalMap.LOCAL_MAP.put("emptylist", cache);
         
         String result = lPopHandler.process(testSocket, List.of("emptylist"));
@@ -294,6 +306,33 @@ class ListHandlerTest {
         assertTrue(result.contains("b"));
     }
 
+    @Test
+    @DisplayName("LPOP replies with the raw bytes of binary elements")
+    void testLPopBinaryElements() {
+        byte[] value = {(byte) 0xff, 0, (byte) 0xfe};
+        RESPArgs args = decode(concat("*4\r\n$5\r\nRPUSH\r\n$6\r\nmylist\r\n$3\r\n".getBytes(StandardCharsets.UTF_8),
+                value, "\r\n$1\r\nb\r\n".getBytes(StandardCharsets.UTF_8)));
+        rPushHandler.process(testSocket, args.subList(1, args.size()));
+
+        RESPWriter writer = new RESPWriter();
+        lPopHandler.process(testSocket, List.of("mylist"), writer);
+        assertArrayEquals(concat("$3\r\n".getBytes(StandardCharsets.UTF_8), value, "\r\n".getBytes(StandardCharsets.UTF_8)),
+                writer.toByteArray());
+    }
+
+    @Test
+    @DisplayName("LPOP removes the key with its last element, as RPOP does")
+    void testLPopRemovesEmptiedKey() {
+        rPushHandler.process(testSocket, List.of("mylist", "a", "b", "c"));
+
+        assertEquals("*2\r\n$1\r\na\r\n$1\r\nb\r\n", lPopHandler.process(testSocket, List.of("mylist", "2")));
+        assertTrue(RedisLocalMap.LOCAL_MAP.containsKey("mylist"));
+        assertEquals("$1\r\nc\r\n", lPopHandler.process(testSocket, List.of("mylist")));
+        assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("mylist"));
+        assertEquals("*-1\r\n", lPopHandler.process(testSocket, List.of("mylist", "1")));
+        assertEquals("-ERR value is out of range, must be positive\r\n", lPopHandler.process(testSocket, List.of("mylist", "-1")));
+    }
+
     @Test
     @DisplayName("LPOP with null list should throw exception")
     void testLPopWithNullList() {
@@ -358,4 +397,72 @@ class ListHandlerTest {
         
         assertEquals("$-1\r\n", result);
     }
+
+    @Test
+    @DisplayName("Concurrent RPUSH to a new key should create a single list holding every element")
+    void testConcurrentRPush() throws InterruptedException {
+        int numThreads = 8;
+        int numPushes = 500;
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < numPushes; j++) {
+                    rPushHandler.process(testSocket, List.of("concurrent", "v"));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread: threads) {
+            thread.join();
+        }
+
+        assertEquals(":" + numThreads * numPushes + "\r\n", lLenHandler.process(testSocket, List.of("concurrent")));
+    }
+
+    @Test
+    @DisplayName("Lists spanning many nodes keep order through pushes and pops at both ends")
+    void testListAcrossNodes() {
+        Deque<String> expected = new ArrayDeque<>();
+        for (int i = 0; i < 1000; i++) {
+            String value = "v" + i;
+            if (i % 3 == 0) {
+                lPushHandler.process(testSocket, List.of("big", value));
+                expected.addFirst(value);
+            } else {
+                rPushHandler.process(testSocket, List.of("big", value));
+                expected.addLast(value);
+            }
+        }
+        for (int i = 0; i < 150; i++) {
+            lPopHandler.process(testSocket, List.of("big"));
+            expected.removeFirst();
+        }
+
+        QuickList quickList = (QuickList) RedisLocalMap.LOCAL_MAP.get("big").getValue();
+        assertEquals(850, quickList.size());
+        assertTrue(quickList.getNumNodes() > 1);
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(quickList).stream().map(StringValueUtils::decode).toList());
+
+        List<String> all = new ArrayList<>(expected);
+        StringBuilder range = new StringBuilder("*3\r\n");
+        for (String value: all.subList(700, 703)) {
+            range.append("$").append(value.length()).append("\r\n").append(value).append("\r\n");
+        }
+        assertEquals(range.toString(), lRangeHandler.process(testSocket, List.of("big", "700", "702")));
+        assertEquals(":850\r\n", lLenHandler.process(testSocket, List.of("big")));
+    }
+
+    private static RESPArgs decode(byte[] frame) {
+        RESPDecoder decoder = new RESPDecoder();
+        decoder.write(frame);
+        return decoder.decode().getArgs();
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part: parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
 }
@@ -0,0 +1,293 @@
+package handler.command.impl.list;
+
+import domain.QuickList;
+import handler.command.impl.TestHelper;
+import handler.command.impl.core.SetHandler;
+import org.junit.jupiter.api.*;
+import service.MemoryUtils;
+import service.RedisLocalMap;
+import service.StringValueUtils;
+
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for indexed list commands (LINDEX, LSET, LINSERT, LREM, LTRIM, RPOP, LPOS)
+ *
+ * Tests cover:
+ * - LINDEX and LSET with positive, negative and out of range indexes
+ * - LINSERT before and after a pivot, missing pivot and missing key
+ * - LREM from the head, from the tail and of every occurrence
+ * - LTRIM keeping a range, dropping whole nodes and removing the key
+ * - RPOP with and without count
+ * - LPOS with RANK, COUNT and MAXLEN
+ * - WRONGTYPE replies on a non-list key
+ * - Used memory matching a fresh estimate after in-place changes
+ * - Quicklist staying consistent with a reference list under random operations
+ * - Quicklist byte totals matching its elements, bulk removals returning the size they drop
+ */
+@DisplayName("Indexed List Command Tests")
+class ListIndexHandlerTest {
+
+    private RPushHandler rPushHandler;
+    private LRangeHandler lRangeHandler;
+    private LIndexHandler lIndexHandler;
+    private LSetHandler lSetHandler;
+    private LInsertHandler lInsertHandler;
+    private LRemHandler lRemHandler;
+    private LTrimHandler lTrimHandler;
+    private RPopHandler rPopHandler;
+    private LPosHandler lPosHandler;
+    private Socket testSocket;
+
+    @BeforeEach
+    void setUp() {
+        rPushHandler = new RPushHandler();
+        lRangeHandler = new LRangeHandler();
+        lIndexHandler = new LIndexHandler();
+        lSetHandler = new LSetHandler();
+        lInsertHandler = new LInsertHandler();
+        lRemHandler = new LRemHandler();
+        lTrimHandler = new LTrimHandler();
+        rPopHandler = new RPopHandler();
+        lPosHandler = new LPosHandler();
+        testSocket = TestHelper.createTestSocket();
+        RedisLocalMap.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RedisLocalMap.clear();
+    }
+
+    @Test
+    @DisplayName("LINDEX returns elements by positive and negative index, nil out of range")
+    void testLIndex() {
+        rPushHandler.process(testSocket, List.of("mylist", "a", "b", "42"));
+
+        assertEquals("$1\r\na\r\n", lIndexHandler.process(testSocket, List.of("mylist", "0")));
+        assertEquals("$2\r\n42\r\n", lIndexHandler.process(testSocket, List.of("mylist", "-1")));
+        assertEquals("$-1\r\n", lIndexHandler.process(testSocket, List.of("mylist", "3")));
+        assertEquals("$-1\r\n", lIndexHandler.process(testSocket, List.of("mylist", "-4")));
+        assertEquals("$-1\r\n", lIndexHandler.process(testSocket, List.of("missing", "0")));
+        assertEquals("-ERR value is not an integer or out of range\r\n", lIndexHandler.process(testSocket, List.of("mylist", "x")));
+    }
+
+    @Test
+    @DisplayName("LSET replaces an element, errors on missing key or out of range index")
+    void testLSet() {
+        rPushHandler.process(testSocket, List.of("mylist", "a", "b", "c"));
+
+        assertEquals("+OK\r\n", lSetHandler.process(testSocket, List.of("mylist", "-2", "bbbbbb")));
+        assertEquals("*3\r\n$1\r\na\r\n$6\r\nbbbbbb\r\n$1\r\nc\r\n", lRangeHandler.process(testSocket, List.of("mylist", "0", "-1")));
+        assertEquals("-ERR index out of range\r\n", lSetHandler.process(testSocket, List.of("mylist", "3", "x")));
+        assertEquals("-ERR no such key\r\n", lSetHandler.process(testSocket, List.of("missing", "0", "x")));
+        assertEquals(MemoryUtils.estimate("mylist", RedisLocalMap.LOCAL_MAP.get("mylist")), MemoryUtils.getUsedMemory());
+    }
+
+    @Test
+    @DisplayName("LINSERT inserts before or after the first pivot")
+    void testLInsert() {
+        rPushHandler.process(testSocket, List.of("mylist", "a", "b", "a"));
+
+        assertEquals(":4\r\n", lInsertHandler.process(testSocket, List.of("mylist", "BEFORE", "a", "x")));
+        assertEquals(":5\r\n", lInsertHandler.process(testSocket, List.of("mylist", "after", "b", "y")));
+        assertEquals("*5\r\n$1\r\nx\r\n$1\r\na\r\n$1\r\nb\r\n$1\r\ny\r\n$1\r\na\r\n",
+                lRangeHandler.process(testSocket, List.of("mylist", "0", "-1")));
+        assertEquals(":-1\r\n", lInsertHandler.process(testSocket, List.of("mylist", "BEFORE", "z", "x")));
+        assertEquals(":0\r\n", lInsertHandler.process(testSocket, List.of("missing", "BEFORE", "a", "x")));
+        assertEquals("-ERR syntax error\r\n", lInsertHandler.process(testSocket, List.of("mylist", "MIDDLE", "a", "x")));
+    }
+
+    @Test
+    @DisplayName("LREM removes occurrences from the head, the tail or all of them")
+    void testLRem() {
+        rPushHandler.process(testSocket, List.of("mylist", "1", "a", "1", "b", "1", "c", "1"));
+
+        assertEquals(":2\r\n", lRemHandler.process(testSocket, List.of("mylist", "2", "1")));
+        assertEquals("*4\r\n$1\r\nb\r\n$1\r\n1\r\n$1\r\nc\r\n$1\r\n1\r\n",
+                lRangeHandler.process(testSocket, List.of("mylist", "1", "-1")));
+        assertEquals(":1\r\n", lRemHandler.process(testSocket, List.of("mylist", "-1", "1")));
+        assertEquals("*4\r\n$1\r\na\r\n$1\r\nb\r\n$1\r\n1\r\n$1\r\nc\r\n", lRangeHandler.process(testSocket, List.of("mylist", "0", "-1")));
+        assertEquals(":0\r\n", lRemHandler.process(testSocket, List.of("mylist", "0", "z")));
+
+        rPushHandler.process(testSocket, List.of("same", "v", "v", "v"));
+        assertEquals(":3\r\n", lRemHandler.process(testSocket, List.of("same", "0", "v")));
+        assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("same"));
+        assertEquals(MemoryUtils.estimate("mylist", RedisLocalMap.LOCAL_MAP.get("mylist")), MemoryUtils.getUsedMemory());
+    }
+
+    @Test
+    @DisplayName("LTRIM keeps a range, drops whole nodes and removes the key when nothing is left")
+    void testLTrim() {
+        List<String> args = new ArrayList<>(List.of("big"));
+        for (int i = 0; i < 1000; i++) {
+            args.add("v" + i);
+        }
+        rPushHandler.process(testSocket, args);
+        QuickList quickList = (QuickList) RedisLocalMap.LOCAL_MAP.get("big").getValue();
+        int numNodes = quickList.getNumNodes();
+
+        assertEquals("+OK\r\n", lTrimHandler.process(testSocket, List.of("big", "300", "-301")));
+        assertEquals(400, quickList.size());
+        assertTrue(quickList.getNumNodes() < numNodes);
+        assertEquals("$4\r\nv300\r\n", lIndexHandler.process(testSocket, List.of("big", "0")));
+        assertEquals("$4\r\nv699\r\n", lIndexHandler.process(testSocket, List.of("big", "-1")));
+        assertEquals(MemoryUtils.estimate("big", RedisLocalMap.LOCAL_MAP.get("big")), MemoryUtils.getUsedMemory());
+
+        assertEquals("+OK\r\n", lTrimHandler.process(testSocket, List.of("big", "-2", "1000")));
+        assertEquals("*2\r\n$4\r\nv698\r\n$4\r\nv699\r\n", lRangeHandler.process(testSocket, List.of("big", "0", "-1")));
+
+        assertEquals("+OK\r\n", lTrimHandler.process(testSocket, List.of("big", "5", "10")));
+        assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("big"));
+        assertEquals(0L, MemoryUtils.getUsedMemory());
+        assertEquals("+OK\r\n", lTrimHandler.process(testSocket, List.of("missing", "0", "1")));
+    }
+
+    @Test
+    @DisplayName("RPOP pops from the tail, with count as an array, and removes the emptied key")
+    void testRPop() {
+        rPushHandler.process(testSocket, List.of("mylist", "a", "b", "c"));
+
+        assertEquals("$1\r\nc\r\n", rPopHandler.process(testSocket, List.of("mylist")));
+        assertEquals("*2\r\n$1\r\nb\r\n$1\r\na\r\n", rPopHandler.process(testSocket, List.of("mylist", "5")));
+        assertFalse(RedisLocalMap.LOCAL_MAP.containsKey("mylist"));
+        assertEquals("$-1\r\n", rPopHandler.process(testSocket, List.of("mylist")));
+        assertEquals("*-1\r\n", rPopHandler.process(testSocket, List.of("mylist", "1")));
+        assertEquals("-ERR value is out of range, must be positive\r\n", rPopHandler.process(testSocket, List.of("mylist", "-1")));
+    }
+
+    @Test
+    @DisplayName("LPOS finds positions with RANK, COUNT and MAXLEN")
+    void testLPos() {
+        rPushHandler.process(testSocket, List.of("mylist", "a", "b", "c", "1", "2", "3", "c", "c"));
+
+        assertEquals(":2\r\n", lPosHandler.process(testSocket, List.of("mylist", "c")));
+        assertEquals(":6\r\n", lPosHandler.process(testSocket, List.of("mylist", "c", "RANK", "2")));
+        assertEquals(":7\r\n", lPosHandler.process(testSocket, List.of("mylist", "c", "RANK", "-1")));
+        assertEquals(":4\r\n", lPosHandler.process(testSocket, List.of("mylist", "2")));
+        assertEquals("*2\r\n:2\r\n:6\r\n", lPosHandler.process(testSocket, List.of("mylist", "c", "COUNT", "2")));
+        assertEquals("*3\r\n:2\r\n:6\r\n:7\r\n", lPosHandler.process(testSocket, List.of("mylist", "c", "COUNT", "0")));
+        assertEquals("*2\r\n:7\r\n:6\r\n", lPosHandler.process(testSocket, List.of("mylist", "c", "RANK", "-1", "COUNT", "2")));
+        assertEquals("*1\r\n:2\r\n", lPosHandler.process(testSocket, List.of("mylist", "c", "COUNT", "0", "MAXLEN", "6")));
+        assertEquals("$-1\r\n", lPosHandler.process(testSocket, List.of("mylist", "z")));
+        assertEquals("*0\r\n", lPosHandler.process(testSocket, List.of("missing", "c", "COUNT", "1")));
+        assertTrue(lPosHandler.process(testSocket, List.of("mylist", "c", "RANK", "0")).startsWith("-ERR RANK can't be zero"));
+        assertEquals("-ERR COUNT can't be negative\r\n", lPosHandler.process(testSocket, List.of("mylist", "c", "COUNT", "-1")));
+        assertEquals("-ERR syntax error\r\n", lPosHandler.process(testSocket, List.of("mylist", "c", "RANK")));
+    }
+
+    @Test
+    @DisplayName("List commands on a non-list key reply WRONGTYPE and keep the connection open")
+    void testWrongType() {
+        new SetHandler().process(testSocket, List.of("str", "value"));
+        String wrongType = "-WRONGTYPE Operation against a key holding the wrong kind of value\r\n";
+
+        assertEquals(wrongType, lIndexHandler.process(testSocket, List.of("str", "0")));
+        assertEquals(wrongType, lSetHandler.process(testSocket, List.of("str", "0", "x")));
+        assertEquals(wrongType, lInsertHandler.process(testSocket, List.of("str", "BEFORE", "a", "x")));
+        assertEquals(wrongType, lRemHandler.process(testSocket, List.of("str", "0", "a")));
+        assertEquals(wrongType, lTrimHandler.process(testSocket, List.of("str", "0", "1")));
+        assertEquals(wrongType, rPopHandler.process(testSocket, List.of("str")));
+        assertEquals(wrongType, rPopHandler.process(testSocket, List.of("str", "2")));
+        assertEquals(wrongType, new LPopHandler().process(testSocket, List.of("str")));
+        assertEquals(wrongType, lPosHandler.process(testSocket, List.of("str", "a")));
+        assertEquals("value", StringValueUtils.decode(RedisLocalMap.get("str").getValue()));
+        // malformed arguments still fail before the key is read
+        assertThrows(RuntimeException.class, () -> lPosHandler.process(testSocket, null));
+    }
+
+    @Test
+    @DisplayName("Quicklist matches a reference list through random inserts, removals and trims")
+    void testQuickListRandomOperations() {
+        Random random = new Random(42);
+        QuickList quickList = new QuickList();
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            Object value = StringValueUtils.toLongValue(i);
+            int op = random.nextInt(10);
+            if (op < 4 || expected.isEmpty()) {
+                int index = random.nextInt(expected.size() + 1);
+                quickList.add(index, value);
+                expected.add(index, value);
+            } else if (op < 6) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), quickList.remove(index));
+            } else if (op < 7) {
+                int n = random.nextInt(Math.min(expected.size(), 200) + 1);
+                quickList.removeFirst(n);
+                expected.subList(0, n).clear();
+            } else if (op < 8) {
+                int n = random.nextInt(Math.min(expected.size(), 200) + 1);
+                quickList.removeLast(n);
+                expected.subList(expected.size() - n, expected.size()).clear();
+            } else if (op < 9) {
+                Iterator<Object> iter = random.nextBoolean() ? quickList.iterator() : quickList.descendingIterator();
+                while (iter.hasNext()) {
+                    if (((Long) iter.next()) % 7 == 0) {
+                        iter.remove();
+                    }
+                }
+                expected.removeIf(element -> ((Long) element) % 7 == 0);
+            } else {
+                quickList.addFirst(value);
+                expected.add(0, value);
+            }
+            assertEquals(expected.size(), quickList.size());
+        }
+        assertEquals(expected, new ArrayList<>(quickList));
+        for (int i = 0; i < expected.size(); i += 37) {
+            assertEquals(expected.get(i), quickList.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Quicklist byte total matches its elements through random operations, bulk removals return what they drop")
+    void testQuickListNumBytes() {
+        Random random = new Random(7);
+        QuickList quickList = new QuickList();
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Object value = random.nextBoolean() ? StringValueUtils.toLongValue(i) : new byte[random.nextInt(100)];
+            int op = random.nextInt(8);
+            if (op < 3 || expected.isEmpty()) {
+                int index = random.nextInt(expected.size() + 1);
+                quickList.add(index, value);
+                expected.add(index, value);
+            } else if (op < 4) {
+                int index = random.nextInt(expected.size());
+                quickList.set(index, value);
+                expected.set(index, value);
+            } else if (op < 5) {
+                assertEquals(expected.remove(0), quickList.pollFirst());
+            } else if (op < 6) {
+                int n = random.nextInt(Math.min(expected.size(), 300) + 1);
+                List<Object> removed = expected.subList(0, n);
+                assertEquals(sumBytes(removed), quickList.removeFirst(n));
+                removed.clear();
+            } else if (op < 7) {
+                int n = random.nextInt(Math.min(expected.size(), 300) + 1);
+                List<Object> removed = expected.subList(expected.size() - n, expected.size());
+                assertEquals(sumBytes(removed), quickList.removeLast(n));
+                removed.clear();
+            } else {
+                quickList.addLast(value);
+                expected.add(value);
+            }
+            assertEquals(sumBytes(expected), quickList.getNumBytes());
+        }
+    }
+
+    private static long sumBytes(List<Object> elements) {
+        long sum = 0L;
+        for (Object element: elements) {
+            sum += MemoryUtils.estimateListElement(element);
+        }
+        return sum;
+    }
+}
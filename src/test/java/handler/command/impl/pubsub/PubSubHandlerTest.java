@@ -10,12 +10,13 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * Unit tests for PubSub Handlers (SubscribeHandler, UnsubscribeHandler, PublishHandler)
+ * Unit tests for PubSub Handlers (SubscribeHandler, UnsubscribeHandler, PSubscribeHandler, PUnsubscribeHandler, PublishHandler)
  * 
  * Tests cover:
  * - SUBSCRIBE subscribes to channel (one channel per call)
  * - UNSUBSCRIBE unsubscribes from channel
  * - PUBLISH publishes message to channel
+ * - PSUBSCRIBE and PUNSUBSCRIBE with glob patterns, PUBLISH delivers pmessage to matching patterns
  * 
  * Note: SubscribeHandler processes ONE channel at a time (first element in list).
  * Multiple channel subscriptions require multiple calls.
@@ -43,6 +44,8 @@ class PubSubHandlerTest {
         RedisLocalMap.LOCAL_MAP.clear();
         RedisLocalMap.SUBSCRIBER_MAP.clear();
         RedisLocalMap.CHANNEL_MAP.clear();
+        RedisLocalMap.PATTERN_MAP.clear();
+        RedisLocalMap.SUBSCRIBER_PATTERN_MAP.clear();
         RedisLocalMap.SUBSCRIBE_MODE_SET.clear();
     }
 
@@ -51,6 +54,8 @@ class PubSubHandlerTest {
         RedisLocalMap.LOCAL_MAP.clear();
         RedisLocalMap.SUBSCRIBER_MAP.clear();
         RedisLocalMap.CHANNEL_MAP.clear();
+        RedisLocalMap.PATTERN_MAP.clear();
+        RedisLocalMap.SUBSCRIBER_PATTERN_MAP.clear();
         RedisLocalMap.SUBSCRIBE_MODE_SET.clear();
     }
 
@@ -202,4 +207,85 @@ class PubSubHandlerTest {
         String result2 = subscribeHandler.process(testSocket, List.of("channel2"));
         assertTrue(result2.contains("2")); // count = 2
     }
+
+    // ==================== PSUBSCRIBE Tests ====================
+
+    @Test
+    @DisplayName("PSUBSCRIBE pattern should count channels and patterns of the client")
+    void testPSubscribe() {
+        PSubscribeHandler pSubscribeHandler = new PSubscribeHandler();
+        subscribeHandler.process(testSocket, List.of("channel1"));
+
+        String result = pSubscribeHandler.process(testSocket, List.of("news.*"));
+
+        assertEquals("*3\r\n$10\r\npsubscribe\r\n$6\r\nnews.*\r\n:2\r\n", result);
+        assertTrue(RedisLocalMap.PATTERN_MAP.containsKey("news.*"));
+        assertTrue(RedisLocalMap.SUBSCRIBE_MODE_SET.contains(service.ServerUtils.formatIdFromSocket(testSocket)));
+    }
+
+    @Test
+    @DisplayName("PUBLISH should deliver pmessage to subscribers of matching patterns")
+    void testPublishToPattern() {
+        PSubscribeHandler pSubscribeHandler = new PSubscribeHandler();
+        TestHelper.TestSocket patternSocket = TestHelper.createTestSocket("127.0.0.2", 23456);
+        pSubscribeHandler.process(patternSocket, List.of("news.[a-m]*"));
+
+        assertEquals(":1\r\n", publishHandler.process(testSocket, List.of("news.art", "hello")));
+        assertEquals("*4\r\n$8\r\npmessage\r\n$11\r\nnews.[a-m]*\r\n$8\r\nnews.art\r\n$5\r\nhello\r\n",
+                patternSocket.getOutputAsString());
+
+        patternSocket.resetOutput();
+        assertEquals(":0\r\n", publishHandler.process(testSocket, List.of("news.tech", "hello")));
+        assertEquals("", patternSocket.getOutputAsString());
+    }
+
+    @Test
+    @DisplayName("PUNSUBSCRIBE should stop pattern delivery")
+    void testPUnsubscribe() {
+        PSubscribeHandler pSubscribeHandler = new PSubscribeHandler();
+        PUnsubscribeHandler pUnsubscribeHandler = new PUnsubscribeHandler();
+        pSubscribeHandler.process(testSocket, List.of("news.*"));
+
+        String result = pUnsubscribeHandler.process(testSocket, List.of("news.*"));
+
+        assertEquals("*3\r\n$12\r\npunsubscribe\r\n$6\r\nnews.*\r\n:0\r\n", result);
+        assertFalse(RedisLocalMap.PATTERN_MAP.containsKey("news.*"));
+        assertEquals(":0\r\n", publishHandler.process(testSocket, List.of("news.art", "hello")));
+    }
+
+    @Test
+    @DisplayName("PUNSUBSCRIBE without patterns unsubscribes from every pattern and leaves subscribed mode")
+    void testPUnsubscribeAll() {
+        PSubscribeHandler pSubscribeHandler = new PSubscribeHandler();
+        PUnsubscribeHandler pUnsubscribeHandler = new PUnsubscribeHandler();
+        String subscriberId = service.ServerUtils.formatIdFromSocket(testSocket);
+        pSubscribeHandler.process(testSocket, List.of("news.*"));
+        pSubscribeHandler.process(testSocket, List.of("sport.*"));
+
+        String result = pUnsubscribeHandler.process(testSocket, List.of());
+
+        assertTrue(result.contains("$6\r\nnews.*\r\n"));
+        assertTrue(result.contains("$7\r\nsport.*\r\n"));
+        assertTrue(result.endsWith(":0\r\n"));
+        assertTrue(RedisLocalMap.PATTERN_MAP.isEmpty());
+        assertFalse(RedisLocalMap.SUBSCRIBE_MODE_SET.contains(subscriberId));
+
+        // nothing left to unsubscribe from, a single reply with a nil pattern
+        assertEquals("*3\r\n$12\r\npunsubscribe\r\n$-1\r\n:0\r\n", pUnsubscribeHandler.process(testSocket, List.of()));
+    }
+
+    @Test
+    @DisplayName("PUNSUBSCRIBE keeps subscribed mode while channels are left")
+    void testPUnsubscribeKeepsModeWithChannels() {
+        PSubscribeHandler pSubscribeHandler = new PSubscribeHandler();
+        PUnsubscribeHandler pUnsubscribeHandler = new PUnsubscribeHandler();
+        String subscriberId = service.ServerUtils.formatIdFromSocket(testSocket);
+        subscribeHandler.process(testSocket, List.of("channel1"));
+        pSubscribeHandler.process(testSocket, List.of("news.*"));
+
+        String result = pUnsubscribeHandler.process(testSocket, List.of("news.*"));
+
+        assertEquals("*3\r\n$12\r\npunsubscribe\r\n$6\r\nnews.*\r\n:1\r\n", result);
+        assertTrue(RedisLocalMap.SUBSCRIBE_MODE_SET.contains(subscriberId));
+    }
 }
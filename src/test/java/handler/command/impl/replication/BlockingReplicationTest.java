@@ -0,0 +1,189 @@
+package handler.command.impl.replication;
+
+import constants.OutputConstants;
+import domain.BlockedClientDto;
+import domain.JobDto;
+import domain.ParserDto;
+import domain.TaskDto;
+import enums.JobType;
+import handler.command.impl.TestHelper;
+import handler.command.impl.list.*;
+import handler.job.JobHandler;
+import org.junit.jupiter.api.*;
+import replication.MasterManager;
+import service.BlockingUtils;
+import service.RESPParserUtils;
+import service.RESPUtils;
+import service.RESPWriter;
+import service.RedisLocalMap;
+import service.ServerUtils;
+import service.SystemPropHelper;
+
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the replication of blocking pops, a master and its replica sharing one process
+ *
+ * Tests cover:
+ * - BLPOP 0 served by a later RPUSH is propagated as RPUSH then LPOP, never as BLPOP
+ * - Blocking pops served right away are propagated as RPOP or LMOVE, LMOVE itself as is
+ * - A replica applying the propagated commands ends with the lists of its master
+ * - A blocking pop read from the master link never blocks the replica
+ */
+@DisplayName("Blocking Replication Tests")
+class BlockingReplicationTest {
+
+    private Socket replicaSocket;
+
+    @BeforeEach
+    void setUp() {
+        new BLPopHandler().register();
+        new BRPopHandler().register();
+        new BLMoveHandler().register();
+        new LMoveHandler().register();
+        new RPushHandler().register();
+        new LPopHandler().register();
+        new RPopHandler().register();
+        new LRangeHandler().register();
+
+        System.clearProperty(OutputConstants.REDIS_SERVER_ROLE_TYPE);
+        System.clearProperty(OutputConstants.MASTER_REPLID);
+        JobHandler.JOB_MAP.clear();
+        RedisLocalMap.clear();
+        BlockingUtils.clear();
+
+        // master with one replica, whose propagate job is not started so propagated commands stay queued
+        MasterManager.registerMasterManager(SystemPropHelper.getSetMasterNodeId(), "localhost", 6379);
+        replicaSocket = TestHelper.createTestSocket("127.0.0.1", 6380);
+        MasterManager.registerReplicaNodeConnection(replicaSocket);
+        JobHandler.JOB_MAP.put(ServerUtils.formatIdFromSocket(replicaSocket), new JobDto.Builder(JobType.PROPAGATE)
+                .addSocket(replicaSocket)
+                .addTaskQueue()
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(OutputConstants.REDIS_SERVER_ROLE_TYPE);
+        System.clearProperty(OutputConstants.MASTER_REPLID);
+        JobHandler.JOB_MAP.clear();
+        MasterManager.getMasterNodeMap().clear();
+        RedisLocalMap.clear();
+        BlockingUtils.clear();
+    }
+
+    @Test
+    @DisplayName("BLPOP 0 then RPUSH propagates RPUSH then LPOP, and the replica ends with the list of its master")
+    void testBLPopServedByRPush() {
+        Socket blockedSocket = connect(JobType.RESP, 20001);
+        Socket pushSocket = connect(JobType.RESP, 20002);
+
+        RESPWriter writer = new RESPWriter();
+        BlockedClientDto blockedClient = RESPParserUtils.processOrBlock(
+                new ParserDto<>(blockedSocket, List.of("BLPOP", "mylist", "0")), writer);
+        assertNotNull(blockedClient);
+        assertTrue(writer.isEmpty());
+        // a command that only blocked is not propagated
+        assertTrue(takePropagated().isEmpty());
+
+        assertEquals(":2\r\n", run(pushSocket, List.of("RPUSH", "mylist", "a", "b")));
+        assertEquals("*2\r\n$6\r\nmylist\r\n$1\r\na\r\n",
+                new String(BlockingUtils.awaitReply(blockedClient), StandardCharsets.UTF_8));
+
+        List<List<String>> commands = List.of(List.of("RPUSH", "mylist", "a", "b"), List.of("LPOP", "mylist"));
+        assertEquals(toRESP(commands), takePropagated());
+        String masterList = run(pushSocket, List.of("LRANGE", "mylist", "0", "-1"));
+        assertEquals("*1\r\n$1\r\nb\r\n", masterList);
+        assertEquals(masterList, replay(commands, "mylist"));
+    }
+
+    @Test
+    @DisplayName("Blocking pops served right away are propagated in their non-blocking form")
+    void testImmediatePops() {
+        Socket clientSocket = connect(JobType.RESP, 20001);
+        run(clientSocket, List.of("RPUSH", "src", "a", "b", "c"));
+        takePropagated();
+
+        assertEquals("*2\r\n$3\r\nsrc\r\n$1\r\nc\r\n", run(clientSocket, List.of("BRPOP", "src", "0")));
+        assertEquals("$1\r\na\r\n", run(clientSocket, List.of("BLMOVE", "src", "dst", "LEFT", "RIGHT", "0")));
+        assertEquals("$1\r\nb\r\n", run(clientSocket, List.of("LMOVE", "src", "dst", "left", "left")));
+
+        assertEquals(toRESP(List.of(
+                List.of("RPOP", "src"),
+                List.of("LMOVE", "src", "dst", "LEFT", "RIGHT"),
+                List.of("LMOVE", "src", "dst", "left", "left"))), takePropagated());
+    }
+
+    @Test
+    @DisplayName("A blocking pop read from the master link replies nil instead of blocking the replica")
+    void testReplicaNeverBlocks() {
+        MasterManager.getMasterNodeMap().clear();
+        Socket masterLink = connect(JobType.HANDSHAKE, 6379);
+
+        RESPWriter writer = new RESPWriter();
+        BlockedClientDto blockedClient = RESPParserUtils.processOrBlock(
+                new ParserDto<>(masterLink, List.of("BLPOP", "mylist", "0")), writer);
+
+        assertNull(blockedClient);
+        assertEquals("*-1\r\n", writer.toString());
+        assertEquals(0, BlockingUtils.getNumBlockedClients());
+    }
+
+    /**
+     * @return a connection whose job is registered without starting its threads
+     */
+    private Socket connect(JobType jobType, int port) {
+        Socket socket = TestHelper.createTestSocket("127.0.0.1", port);
+        JobHandler.JOB_MAP.put(ServerUtils.formatIdFromSocket(socket), new JobDto.Builder(jobType)
+                .addSocket(socket)
+                .addCommandDtoList()
+                .build());
+        return socket;
+    }
+
+    private static String run(Socket socket, List<String> command) {
+        RESPWriter writer = new RESPWriter();
+        assertNull(RESPParserUtils.processOrBlock(new ParserDto<>(socket, command), writer));
+        return writer.toString();
+    }
+
+    /**
+     * @return commands propagated to the replica since the last call
+     */
+    private List<String> takePropagated() {
+        List<TaskDto> taskDtos = new ArrayList<>();
+        JobHandler.JOB_MAP.get(ServerUtils.formatIdFromSocket(replicaSocket)).getTaskQueue().drainTo(taskDtos);
+        List<String> commands = new ArrayList<>();
+        for (TaskDto taskDto: taskDtos) {
+            commands.add(new String(taskDto.getCommand(), StandardCharsets.UTF_8));
+        }
+        return commands;
+    }
+
+    /**
+     * run commands as a replica reading them from its master link, starting from an empty dataset
+     * @return LRANGE reply of key once the commands are applied
+     */
+    private String replay(List<List<String>> commands, String key) {
+        MasterManager.getMasterNodeMap().clear();
+        RedisLocalMap.clear();
+        Socket masterLink = connect(JobType.HANDSHAKE, 6379);
+        for (List<String> command: commands) {
+            run(masterLink, command);
+        }
+        return run(masterLink, List.of("LRANGE", key, "0", "-1"));
+    }
+
+    private static List<String> toRESP(List<List<String>> commands) {
+        List<String> list = new ArrayList<>();
+        for (List<String> command: commands) {
+            list.add(RESPUtils.toArray(command));
+        }
+        return list;
+    }
+}
@@ -1,26 +1,39 @@
 package handler.command.impl.sortedset;
 
+import constants.OutputConstants;
 import domain.CacheDto;
+import domain.ZSet;
+import domain.ZSkipList;
 import enums.ValueType;
 import handler.command.impl.TestHelper;
 import org.junit.jupiter.api.*;
 import service.RedisLocalMap;
 
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * Unit tests for Sorted Set Handlers (ZAddHandler, ZRangeHandler, ZRankHandler, ZCardHandler, ZRemHandler, ZSCoreHandler)
+ * Unit tests for Sorted Set Handlers (ZAddHandler, ZRangeHandler, ZRankHandler, ZRevRankHandler, ZCardHandler, ZRemHandler, ZSCoreHandler, ZScanHandler)
  * 
  * Tests cover:
  * - ZADD adds members with scores
  * - ZRANGE returns members in score order
  * - ZRANK returns member rank
+ * - ZREVRANK returns member rank from the highest score
+ * - ZRANK and ZRANGE after scores are updated and members removed
+ * - ZSkipList ranks, rank lookups and iteration against a sorted model
+ * - Small sorted sets in the listpack encoding, converted to skip list past zset-max-listpack-entries or -value
  * - ZCARD returns cardinality
  * - ZREM removes members
  * - ZSCORE returns member score
+ * - ZSCAN iterates members and scores
  */
 @DisplayName("Sorted Set Handler Tests")
 class SortedSetHandlerTest {
@@ -28,9 +41,11 @@ class SortedSetHandlerTest {
     private ZAddHandler zAddHandler;
     private ZRangeHandler zRangeHandler;
     private ZRankHandler zRankHandler;
+    private ZRevRankHandler zRevRankHandler;
     private ZCardHandler zCardHandler;
     private ZRemHandler zRemHandler;
     private ZSCoreHandler zScoreHandler;
+    private ZScanHandler zScanHandler;
     private Socket testSocket;
 
     @BeforeEach
@@ -38,9 +53,11 @@ class SortedSetHandlerTest {
         zAddHandler = new ZAddHandler();
         zRangeHandler = new ZRangeHandler();
         zRankHandler = new ZRankHandler();
+        zRevRankHandler = new ZRevRankHandler();
         zCardHandler = new ZCardHandler();
         zRemHandler = new ZRemHandler();
         zScoreHandler = new ZSCoreHandler();
+        zScanHandler = new ZScanHandler();
         
         zAddHandler.register();
         zRangeHandler.register();
@@ -57,6 +74,7 @@ class SortedSetHandlerTest {
     @AfterEach
     void tearDown() {
         RedisLocalMap.LOCAL_MAP.clear();
+        ZSet.configure(OutputConstants.DEFAULT_ZSET_MAX_LISTPACK_ENTRIES, OutputConstants.DEFAULT_ZSET_MAX_LISTPACK_VALUE);
     }
 
     // ==================== ZADD Tests ====================
@@ -397,4 +415,197 @@ class SortedSetHandlerTest {
         
         assertTrue(result.contains("1.5"));
     }
+
+    @Test
+    @DisplayName("ZSCAN iteration should return every member with its score")
+    void testZScan() {
+        for (int i = 0; i < 50; i++) {
+            zAddHandler.process(testSocket, List.of("myzset", String.valueOf(i), "member:" + i));
+        }
+        zRemHandler.process(testSocket, List.of("myzset", "member:0"));
+
+        Map<String, String> scores = new HashMap<>();
+        String cursor = "0";
+        do {
+            String[] lines = zScanHandler.process(testSocket, List.of("myzset", cursor, "COUNT", "5")).split("\r\n");
+            cursor = lines[2];
+            int numElements = Integer.parseInt(lines[3].substring(1));
+            for (int i = 0; i < numElements; i += 2) {
+                scores.put(lines[5 + i*2], lines[7 + i*2]);
+            }
+        } while (!cursor.equals("0"));
+
+        assertEquals(49, scores.size());
+        assertFalse(scores.containsKey("member:0"));
+        assertEquals("7.0", scores.get("member:7"));
+    }
+
+    @Test
+    @DisplayName("ZSCAN with MATCH and on missing key")
+    void testZScanMatchAndMissingKey() {
+        zAddHandler.process(testSocket, List.of("myzset", "1", "one"));
+        zAddHandler.process(testSocket, List.of("myzset", "2", "two"));
+        zAddHandler.process(testSocket, List.of("myzset", "3", "three"));
+
+        String result = zScanHandler.process(testSocket, List.of("myzset", "0", "MATCH", "t*"));
+
+        assertTrue(result.startsWith("*2\r\n$1\r\n0\r\n*4\r\n"));
+        assertTrue(result.contains("$3\r\ntwo\r\n$3\r\n2.0\r\n"));
+        assertTrue(result.contains("$5\r\nthree\r\n$3\r\n3.0\r\n"));
+        assertEquals("*2\r\n$1\r\n0\r\n*0\r\n", zScanHandler.process(testSocket, List.of("missing", "0")));
+        assertEquals("-ERR syntax error\r\n", zScanHandler.process(testSocket, List.of("myzset", "0", "TYPE", "zset")));
+    }
+
+    @Test
+    @DisplayName("ZREVRANK should rank members from the highest score")
+    void testZRevRank() {
+        zAddHandler.process(testSocket, List.of("myzset", "1", "one"));
+        zAddHandler.process(testSocket, List.of("myzset", "2", "two"));
+        zAddHandler.process(testSocket, List.of("myzset", "3", "three"));
+
+        assertEquals(":2\r\n", zRevRankHandler.process(testSocket, List.of("myzset", "one")));
+        assertEquals(":0\r\n", zRevRankHandler.process(testSocket, List.of("myzset", "three")));
+        assertEquals("$-1\r\n", zRevRankHandler.process(testSocket, List.of("myzset", "four")));
+        assertEquals("$-1\r\n", zRevRankHandler.process(testSocket, List.of("missing", "one")));
+    }
+
+    @Test
+    @DisplayName("ZRANK and ZRANGE should follow score updates and removals")
+    void testRankAfterUpdates() {
+        zAddHandler.process(testSocket, List.of("myzset", "1", "a"));
+        zAddHandler.process(testSocket, List.of("myzset", "2", "b"));
+        zAddHandler.process(testSocket, List.of("myzset", "3", "c"));
+        zAddHandler.process(testSocket, List.of("myzset", "10", "a"));
+        zAddHandler.process(testSocket, List.of("myzset", "2", "c"));
+
+        assertEquals("*3\r\n$1\r\nb\r\n$1\r\nc\r\n$1\r\na\r\n", zRangeHandler.process(testSocket, List.of("myzset", "0", "-1")));
+        assertEquals(":2\r\n", zRankHandler.process(testSocket, List.of("myzset", "a")));
+        assertEquals(":3\r\n", zCardHandler.process(testSocket, List.of("myzset")));
+
+        zRemHandler.process(testSocket, List.of("myzset", "b"));
+        assertEquals(":0\r\n", zRankHandler.process(testSocket, List.of("myzset", "c")));
+        assertEquals("*1\r\n$1\r\na\r\n", zRangeHandler.process(testSocket, List.of("myzset", "-1", "5")));
+    }
+
+    @Test
+    @DisplayName("ZSkipList ranks and rank lookups should match a sorted model under random operations")
+    void testZSkipListRandomOperations() {
+        Random random = new Random(42);
+        ZSkipList skipList = new ZSkipList();
+        Map<String, Double> scores = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            String member = "m" + random.nextInt(500);
+            double score = random.nextInt(50);
+            Double currentScore = scores.get(member);
+            int operation = random.nextInt(3);
+            if (currentScore == null) {
+                skipList.insert(member, score);
+                scores.put(member, score);
+            } else if (operation == 0) {
+                assertTrue(skipList.delete(member, currentScore));
+                scores.remove(member);
+            } else {
+                skipList.updateScore(member, currentScore, score);
+                scores.put(member, score);
+            }
+        }
+
+        List<Map.Entry<String, Double>> expected = new ArrayList<>(scores.entrySet());
+        expected.sort(Map.Entry.<String, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+        assertEquals(expected.size(), skipList.size());
+        Iterator<ZSkipList.Node> iter = skipList.iterator(0);
+        for (int rank = 0; rank < expected.size(); rank++) {
+            Map.Entry<String, Double> entry = expected.get(rank);
+            ZSkipList.Node node = iter.next();
+            assertEquals(entry.getKey(), node.getMember());
+            assertEquals(entry.getValue(), node.getScore());
+            assertEquals(rank, skipList.getRank(entry.getKey(), entry.getValue()));
+            assertEquals(entry.getKey(), skipList.getByRank(rank).getMember());
+        }
+        assertFalse(iter.hasNext());
+        assertEquals(-1, skipList.getRank("missing", 0));
+        assertNull(skipList.getByRank(expected.size()));
+
+        Iterator<ZSkipList.Node> descendingIter = skipList.descendingIterator(expected.size() - 1);
+        for (int rank = expected.size() - 1; rank >= 0; rank--) {
+            assertEquals(expected.get(rank).getKey(), descendingIter.next().getMember());
+        }
+        assertFalse(descendingIter.hasNext());
+    }
+
+    @Test
+    @DisplayName("A sorted set converts to skip list once it has more than zset-max-listpack-entries members")
+    void testListpackConversionOnEntries() {
+        ZSet.configure(4, 64);
+        for (int i = 0; i < 4; i++) {
+            zAddHandler.process(testSocket, List.of("myzset", String.valueOf(10 - i), "m" + i));
+        }
+        zAddHandler.process(testSocket, List.of("myzset", "0", "m0"));
+        assertTrue(getZSet("myzset").isListpack());
+        assertEquals("*4\r\n$2\r\nm0\r\n$2\r\nm3\r\n$2\r\nm2\r\n$2\r\nm1\r\n", zRangeHandler.process(testSocket, List.of("myzset", "0", "-1")));
+
+        zAddHandler.process(testSocket, List.of("myzset", "5", "m4"));
+
+        assertFalse(getZSet("myzset").isListpack());
+        assertEquals("*5\r\n$2\r\nm0\r\n$2\r\nm4\r\n$2\r\nm3\r\n$2\r\nm2\r\n$2\r\nm1\r\n", zRangeHandler.process(testSocket, List.of("myzset", "0", "-1")));
+        assertEquals(":1\r\n", zRankHandler.process(testSocket, List.of("myzset", "m4")));
+        assertEquals("$3\r\n0.0\r\n", zScoreHandler.process(testSocket, List.of("myzset", "m0")));
+        assertEquals(":5\r\n", zCardHandler.process(testSocket, List.of("myzset")));
+
+        // never converted back
+        zRemHandler.process(testSocket, List.of("myzset", "m4"));
+        zRemHandler.process(testSocket, List.of("myzset", "m3"));
+        assertFalse(getZSet("myzset").isListpack());
+        assertEquals(":3\r\n", zCardHandler.process(testSocket, List.of("myzset")));
+    }
+
+    @Test
+    @DisplayName("A sorted set converts to skip list once a member is longer than zset-max-listpack-value")
+    void testListpackConversionOnValue() {
+        ZSet.configure(128, 8);
+        zAddHandler.process(testSocket, List.of("myzset", "1", "short"));
+        assertTrue(getZSet("myzset").isListpack());
+
+        zAddHandler.process(testSocket, List.of("myzset", "2", "much-longer-member"));
+
+        assertFalse(getZSet("myzset").isListpack());
+        assertEquals(":1\r\n", zRankHandler.process(testSocket, List.of("myzset", "much-longer-member")));
+        assertEquals("$3\r\n1.0\r\n", zScoreHandler.process(testSocket, List.of("myzset", "short")));
+    }
+
+    @Test
+    @DisplayName("Listpack and skip list encodings should agree under random operations")
+    void testListpackMatchesSkipList() {
+        ZSet.configure(1000, 8);
+        // a member longer than zset-max-listpack-value forces the skip list encoding
+        zAddHandler.process(testSocket, List.of("skiplist", "0", "long-member"));
+        zRemHandler.process(testSocket, List.of("skiplist", "long-member"));
+        Random random = new Random(7);
+        for (int i = 0; i < 3000; i++) {
+            String member = "m" + random.nextInt(200);
+            String score = String.valueOf(random.nextInt(20));
+            for (String key : List.of("listpack", "skiplist")) {
+                if (i % 4 == 0) {
+                    zRemHandler.process(testSocket, List.of(key, member));
+                } else {
+                    zAddHandler.process(testSocket, List.of(key, score, member));
+                }
+            }
+        }
+
+        assertTrue(getZSet("listpack").isListpack());
+        assertFalse(getZSet("skiplist").isListpack());
+        assertEquals(zRangeHandler.process(testSocket, List.of("listpack", "0", "-1")),
+                zRangeHandler.process(testSocket, List.of("skiplist", "0", "-1")));
+        for (int i = 0; i < 200; i++) {
+            assertEquals(zRankHandler.process(testSocket, List.of("listpack", "m" + i)),
+                    zRankHandler.process(testSocket, List.of("skiplist", "m" + i)));
+            assertEquals(zScoreHandler.process(testSocket, List.of("listpack", "m" + i)),
+                    zScoreHandler.process(testSocket, List.of("skiplist", "m" + i)));
+        }
+    }
+
+    private static ZSet getZSet(String key) {
+        return (ZSet) RedisLocalMap.LOCAL_MAP.get(key).getValue();
+    }
 }
@@ -2,6 +2,7 @@ package handler.command.impl.stream;
 
 import handler.command.impl.TestHelper;
 import org.junit.jupiter.api.*;
+import service.BlockingUtils;
 import service.RedisLocalMap;
 
 import java.net.Socket;
@@ -16,7 +17,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * Tests cover:
  * - XREAD streams key ID
  * - XREAD with multiple streams
- * - XREAD with blocking (BLOCK option)
+ * - XREAD with blocking (BLOCK option), served by a later XADD or replying nil on timeout
  * - XREAD with $ (latest ID)
  */
 @DisplayName("XReadHandler Tests")
@@ -35,11 +36,13 @@ class XReadHandlerTest {
         testSocket = TestHelper.createTestSocket();
         
         RedisLocalMap.LOCAL_MAP.clear();
+        BlockingUtils.clear();
     }
 
     @AfterEach
     void tearDown() {
         RedisLocalMap.LOCAL_MAP.clear();
+        BlockingUtils.clear();
     }
 
     @Test
@@ -124,6 +127,7 @@ class XReadHandlerTest {
             try {
                 Thread.sleep(50);
                 xAddHandler.process(testSocket, List.of("stream_key", "2-0", "b", "2"));
+                BlockingUtils.handleReadyKeys();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
@@ -162,4 +166,43 @@ class XReadHandlerTest {
         // Since no new entries after $, should return empty
         assertFalse(result.contains("1-0"));
     }
+
+    @Test
+    @DisplayName("XREAD BLOCK replies nil on timeout and leaves no blocked client")
+    void testXReadBlockTimeoutReply() {
+        xAddHandler.process(testSocket, List.of("stream_key", "1-0", "a", "1"));
+
+        String result = xReadHandler.process(testSocket, List.of("block", "50", "streams", "stream_key", "1-0"));
+
+        assertEquals("*-1\r\n", result);
+        assertEquals(0, BlockingUtils.getNumBlockedClients());
+    }
+
+    @Test
+    @DisplayName("XREAD BLOCK with $ is served only the entry added after it blocked")
+    void testXReadBlockDollarWithNewData() throws Exception {
+        xAddHandler.process(testSocket, List.of("stream_key", "1-0", "a", "1"));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> {
+            try {
+                while (BlockingUtils.getNumBlockedClients() == 0) {
+                    Thread.sleep(5);
+                }
+                xAddHandler.process(testSocket, List.of("stream_key", "2-0", "b", "2"));
+                BlockingUtils.handleReadyKeys();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        String result = xReadHandler.process(testSocket, List.of("block", "0", "streams", "stream_key", "$"));
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+
+        assertTrue(result.contains("2-0"));
+        assertFalse(result.contains("1-0"));
+        assertEquals(0, BlockingUtils.getNumBlockedClients());
+    }
 }
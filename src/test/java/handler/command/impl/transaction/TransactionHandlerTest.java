@@ -5,12 +5,18 @@ import enums.JobType;
 import handler.command.impl.TestHelper;
 import handler.command.impl.core.IncrHandler;
 import handler.command.impl.core.SetHandler;
+import handler.command.impl.list.BLPopHandler;
+import handler.command.impl.list.RPushHandler;
 import handler.job.JobHandler;
 import org.junit.jupiter.api.*;
+import service.BlockingUtils;
 import service.RedisLocalMap;
 import service.ServerUtils;
+import stream.RESPDecoder;
 
+import java.io.ByteArrayOutputStream;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,11 +26,12 @@ import static org.junit.jupiter.api.Assertions.*;
  * 
  * Tests cover:
  * - MULTI starts a transaction (sets commandAtomic flag)
- * - MultiHandler.queueCommand() queues commands
+ * - MultiHandler.queueCommand() queues commands, detached from the decoder buffer
  * - EXEC executes queued commands
  * - EXEC without MULTI returns error
  * - DISCARD discards queued commands
  * - DISCARD without MULTI returns error
+ * - BLPOP queued by MULTI replies nil instead of blocking
  * 
  * Note: Individual handlers (SetHandler, IncrHandler, etc.) do NOT check for
  * transaction mode - they always execute immediately. Transaction behavior
@@ -151,6 +158,22 @@ class TransactionHandlerTest {
         assertTrue(result.startsWith("*2\r\n"));
     }
 
+    @Test
+    @DisplayName("BLPOP queued by MULTI should reply nil instead of blocking")
+    void testMultiExecBLPopDoesNotBlock() {
+        new BLPopHandler().register();
+        new RPushHandler().register();
+        multiHandler.process(testSocket, List.of());
+        MultiHandler.queueCommand(testSocket, List.of("blpop", "mylist", "0"));
+        MultiHandler.queueCommand(testSocket, List.of("rpush", "mylist", "a"));
+        MultiHandler.queueCommand(testSocket, List.of("blpop", "mylist", "0"));
+
+        String result = execHandler.process(testSocket, List.of());
+
+        assertEquals("*3\r\n*-1\r\n:1\r\n*2\r\n$6\r\nmylist\r\n$1\r\na\r\n", result);
+        assertEquals(0, BlockingUtils.getNumBlockedClients());
+    }
+
     @Test
     @DisplayName("MULTI, queue SET, DISCARD should discard commands")
     void testMultiSetDiscard() {
@@ -257,6 +280,28 @@ class TransactionHandlerTest {
         assertTrue(RedisLocalMap.LOCAL_MAP.containsKey("key2"));
     }
 
+    @Test
+    @DisplayName("Queued commands keep the raw bytes of their arguments after the decoder buffer is reused")
+    void testQueuedCommandKeepsRawBytes() {
+        byte[] value = {(byte) 0xff, 0, (byte) 0xfe};
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.writeBytes("*3\r\n$3\r\nSET\r\n$3\r\nbin\r\n$3\r\n".getBytes(StandardCharsets.UTF_8));
+        frame.writeBytes(value);
+        frame.writeBytes("\r\n".getBytes(StandardCharsets.UTF_8));
+        RESPDecoder decoder = new RESPDecoder();
+        decoder.write(frame.toByteArray());
+
+        multiHandler.process(testSocket, List.of());
+        MultiHandler.queueCommand(testSocket, decoder.decode().getArgs());
+        // the drained buffer is reset, so the next frame overwrites the slices the queued command was decoded from
+        assertNull(decoder.decode());
+        decoder.write("*3\r\n$3\r\nSET\r\n$3\r\nxxx\r\n$3\r\nyyy\r\n".getBytes(StandardCharsets.UTF_8));
+        decoder.decode();
+        execHandler.process(testSocket, List.of());
+
+        assertArrayEquals(value, (byte[]) RedisLocalMap.LOCAL_MAP.get("bin").getValue());
+    }
+
     @Test
     @DisplayName("Direct handler calls do NOT queue (they execute immediately)")
     void testDirectHandlerCallsExecuteImmediately() {
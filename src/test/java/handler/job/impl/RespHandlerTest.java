@@ -0,0 +1,135 @@
+package handler.job.impl;
+
+import constants.OutputConstants;
+import domain.JobDto;
+import enums.JobType;
+import handler.command.impl.core.PingHandler;
+import handler.job.JobHandler;
+import org.junit.jupiter.api.*;
+import service.ServerUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RespHandler, over real loopback connections
+ *
+ * Tests cover:
+ * - Commands replied by the listen and process threads, on platform and virtual threads
+ * - End of stream when the client closes: the job is removed and the process thread parked on its task queue is stopped
+ */
+@DisplayName("RespHandler Tests")
+class RespHandlerTest {
+
+    private ServerSocket serverSocket;
+    private final List<Socket> sockets = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        new PingHandler().register();
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        System.clearProperty(OutputConstants.VIRTUAL_THREADS_KEY);
+        for (Socket socket: sockets) {
+            JobHandler.JOB_MAP.remove(ServerUtils.formatIdFromSocket(socket));
+            socket.close();
+        }
+        serverSocket.close();
+    }
+
+    @Test
+    @DisplayName("Commands are replied on platform threads")
+    void testPlatformThreads() throws Exception {
+        Socket client = connect();
+
+        client.getOutputStream().write("*1\r\n$4\r\nPING\r\n".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("+PONG\r\n", readString(client, 7));
+    }
+
+    @Test
+    @DisplayName("Commands are replied on virtual threads")
+    void testVirtualThreads() throws Exception {
+        System.setProperty(OutputConstants.VIRTUAL_THREADS_KEY, OutputConstants.VIRTUAL_THREADS_ENABLED);
+        Socket client = connect();
+
+        client.getOutputStream().write("*1\r\n$4\r\nPING\r\n".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("+PONG\r\n", readString(client, 7));
+    }
+
+    @Test
+    @DisplayName("A client closing its connection removes the job and stops the parked process thread")
+    void testClientClose() throws Exception {
+        for (String virtualThreads: List.of("no", OutputConstants.VIRTUAL_THREADS_ENABLED)) {
+            System.setProperty(OutputConstants.VIRTUAL_THREADS_KEY, virtualThreads);
+            Socket client = connect();
+            Socket acceptedSocket = sockets.get(sockets.size()-1);
+            JobDto jobDto = JobHandler.JOB_MAP.get(ServerUtils.formatIdFromSocket(acceptedSocket));
+            Thread processTaskThread = jobDto.getProcessTaskThread();
+            // the process thread parks on its empty task queue
+            waitUntil(() -> processTaskThread.getState() == Thread.State.WAITING);
+
+            client.close();
+
+            waitUntil(() -> !JobHandler.JOB_MAP.containsKey(ServerUtils.formatIdFromSocket(acceptedSocket)));
+            processTaskThread.join(5000);
+            assertFalse(processTaskThread.isAlive(), "process thread still running with virtual-threads " + virtualThreads);
+            assertTrue(acceptedSocket.isClosed());
+        }
+    }
+
+    /**
+     * @return client side of a connection served by a RespHandler job, the accepted side is kept in sockets
+     */
+    private Socket connect() throws IOException {
+        Socket client = new Socket(serverSocket.getInetAddress(), serverSocket.getLocalPort());
+        client.setSoTimeout(10_000);
+        Socket acceptedSocket = serverSocket.accept();
+        sockets.add(client);
+        sockets.add(acceptedSocket);
+        JobDto jobDto = new JobDto.Builder(JobType.RESP)
+                .addFreq(OutputConstants.THREAD_SLEEP_100_MICROS)
+                .addSocket(acceptedSocket)
+                .addTaskQueue()
+                .addCommandDtoList()
+                .addDecoder()
+                .build();
+        new RespHandler().registerJob(jobDto);
+        return client;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private static String readString(Socket client, int length) throws IOException {
+        InputStream in = client.getInputStream();
+        byte[] bytes = new byte[length];
+        int numRead = 0;
+        while (numRead < length) {
+            int n = in.read(bytes, numRead, length - numRead);
+            if (n == -1) {
+                throw new IOException("connection closed after " + numRead + " bytes");
+            }
+            numRead += n;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,124 @@
+package stream;
+
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RESPArgs
+ *
+ * Tests cover:
+ * - Lazy String access and byte-level accessors
+ * - subList views sharing the slices of their parent, nested and bounds-checked
+ * - Case-insensitive comparison and hashing
+ * - parseLong limits and malformed integers
+ * - copy detached from the decoder buffer
+ */
+@DisplayName("RESPArgs Tests")
+class RESPArgsTest {
+
+    private static final byte[] BINARY_VALUE = {(byte) 0xff, 0, (byte) 0xfe};
+
+    @Test
+    @DisplayName("Arguments are decoded lazily and readable as raw bytes")
+    void testAccessors() {
+        RESPArgs args = decode("*3\r\n$3\r\nSET\r\n$3\r\nkey\r\n$3\r\n", BINARY_VALUE, "\r\n");
+
+        assertEquals(3, args.size());
+        assertEquals("SET", args.get(0));
+        assertEquals("key", args.get(1));
+        assertArrayEquals(BINARY_VALUE, args.getBytes(2));
+        assertEquals(3, args.getLength(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> args.get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> args.getBytes(-1));
+    }
+
+    @Test
+    @DisplayName("subList is a view over the same slices, indexed from its own start")
+    void testSubList() {
+        RESPArgs args = decode("*4\r\n$5\r\nRPUSH\r\n$4\r\nlist\r\n$3\r\n", BINARY_VALUE, "\r\n$2\r\n42\r\n");
+
+        RESPArgs subList = args.subList(1, args.size());
+        assertEquals(3, subList.size());
+        assertEquals("list", subList.get(0));
+        assertArrayEquals(BINARY_VALUE, subList.getBytes(1));
+        assertEquals(42L, subList.parseLong(2));
+        assertEquals(List.of("list", "42"), List.of(subList.get(0), subList.get(2)));
+
+        RESPArgs nested = subList.subList(1, 3);
+        assertEquals(2, nested.size());
+        assertArrayEquals(BINARY_VALUE, nested.getBytes(0));
+        assertEquals(2, nested.getLength(1));
+
+        assertTrue(args.subList(2, 2).isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> subList.get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> args.subList(2, 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> args.subList(3, 2));
+    }
+
+    @Test
+    @DisplayName("equalsIgnoreCase and hashIgnoreCase fold ASCII case only")
+    void testIgnoreCase() {
+        RESPArgs args = decode("*3\r\n$3\r\nsEt\r\n$3\r\nSET\r\n$4\r\nSETX\r\n");
+        byte[] set = "set".getBytes(StandardCharsets.US_ASCII);
+
+        assertTrue(args.equalsIgnoreCase(0, set));
+        assertTrue(args.subList(1, 3).equalsIgnoreCase(0, set));
+        assertFalse(args.equalsIgnoreCase(2, set));
+        assertEquals("set".hashCode(), args.hashIgnoreCase(0));
+        assertEquals(args.hashIgnoreCase(0), args.hashIgnoreCase(1));
+    }
+
+    @Test
+    @DisplayName("parseLong accepts the full signed 64-bit range and rejects anything else")
+    void testParseLong() {
+        RESPArgs args = decode("*4\r\n$19\r\n9223372036854775807\r\n$20\r\n-9223372036854775808\r\n$1\r\n0\r\n$2\r\n-7\r\n");
+        assertEquals(Long.MAX_VALUE, args.parseLong(0));
+        assertEquals(Long.MIN_VALUE, args.parseLong(1));
+        assertEquals(0L, args.parseLong(2));
+        assertEquals(-7L, args.parseLong(3));
+
+        RESPArgs invalid = decode("*5\r\n$19\r\n9223372036854775808\r\n$0\r\n\r\n$1\r\n-\r\n$3\r\n1.5\r\n$2\r\n+1\r\n");
+        for (int i = 0; i < invalid.size(); i++) {
+            int index = i;
+            assertThrows(NumberFormatException.class, () -> invalid.parseLong(index));
+        }
+    }
+
+    @Test
+    @DisplayName("copy keeps raw bytes and survives the decoder buffer being reused")
+    void testCopy() {
+        RESPDecoder decoder = new RESPDecoder(16);
+        decoder.write(concat("*3\r\n$3\r\nSET\r\n$3\r\nkey\r\n$3\r\n", BINARY_VALUE, "\r\n"));
+        RESPArgs args = decoder.decode().getArgs();
+
+        RESPArgs copy = args.subList(1, 3).copy();
+        assertNull(decoder.decode());
+        decoder.write(concat("*3\r\n$3\r\nSET\r\n$3\r\nxxx\r\n$3\r\nyyy\r\n"));
+        decoder.decode();
+
+        assertEquals(2, copy.size());
+        assertEquals("key", copy.get(0));
+        assertArrayEquals(BINARY_VALUE, copy.getBytes(1));
+        assertNotSame(copy, RESPArgs.copyOf(copy));
+        assertEquals(List.of("a", "b"), RESPArgs.copyOf(List.of("a", "b")));
+    }
+
+    private static RESPArgs decode(Object... parts) {
+        RESPDecoder decoder = new RESPDecoder();
+        decoder.write(concat(parts));
+        return decoder.decode().getArgs();
+    }
+
+    private static byte[] concat(Object... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Object part: parts) {
+            out.writeBytes(part instanceof byte[] bytes ? bytes : ((String) part).getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,240 @@
+package stream;
+
+import constants.ParserConstants;
+import domain.RESPFrameDto;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RESPDecoder
+ *
+ * Tests cover:
+ * - Frames split at every byte offset
+ * - Frames fed byte by byte
+ * - A multi-MB bulk string read in small chunks
+ * - A pipeline spanning several reads
+ * - Top-level simple and bulk strings, null arrays
+ * - Multibulk and bulk length caps, malformed lengths and terminators
+ */
+@DisplayName("RESPDecoder Tests")
+class RESPDecoderTest {
+
+    private static final byte[] BINARY_VALUE = {(byte) 0xff, '\r', '\n', 0, (byte) 0xfe};
+
+    @Test
+    @DisplayName("Frames split at every byte offset decode to the same arguments")
+    void testSplitAtEveryOffset() {
+        byte[] frames = concat(encode("SET", "key", "value"), encode(bytes("SET"), bytes("bin"), BINARY_VALUE));
+
+        for (int i = 0; i <= frames.length; i++) {
+            RESPDecoder decoder = new RESPDecoder(16);
+            List<List<byte[]>> decoded = new ArrayList<>();
+            decoder.write(Arrays.copyOfRange(frames, 0, i));
+            decodeAll(decoder, decoded);
+            decoder.write(Arrays.copyOfRange(frames, i, frames.length));
+            decodeAll(decoder, decoded);
+
+            assertEquals(2, decoded.size(), "split at " + i);
+            assertArgs(decoded.get(0), bytes("SET"), bytes("key"), bytes("value"));
+            assertArgs(decoded.get(1), bytes("SET"), bytes("bin"), BINARY_VALUE);
+        }
+    }
+
+    @Test
+    @DisplayName("Frames fed byte by byte are emitted once their last byte arrives")
+    void testByteByByte() {
+        byte[] first = encode("PING");
+        byte[] second = encode(bytes("ECHO"), BINARY_VALUE);
+        byte[] frames = concat(first, second);
+        RESPDecoder decoder = new RESPDecoder(16);
+        List<List<byte[]>> decoded = new ArrayList<>();
+
+        for (int i = 0; i < frames.length; i++) {
+            decoder.write(new byte[]{frames[i]});
+            decodeAll(decoder, decoded);
+            int expected = i+1 < first.length ? 0 : i+1 < frames.length ? 1 : 2;
+            assertEquals(expected, decoded.size(), "after byte " + i);
+        }
+        assertArgs(decoded.get(0), bytes("PING"));
+        assertArgs(decoded.get(1), bytes("ECHO"), BINARY_VALUE);
+    }
+
+    @Test
+    @DisplayName("A multi-MB bulk string is decoded from small reads")
+    void testLargeBulkString() throws IOException {
+        byte[] value = new byte[5 * 1024 * 1024 + 3];
+        for (int i = 0; i < value.length; i++) {
+            value[i] = (byte) i;
+        }
+        InputStream in = new ChunkedInputStream(concat(encode(bytes("SET"), bytes("big"), value), encode("PING")), 1000);
+        RESPDecoder decoder = new RESPDecoder(16);
+        List<List<byte[]>> decoded = new ArrayList<>();
+
+        while (decoder.readFrom(in) > 0) {
+            decodeAll(decoder, decoded);
+        }
+
+        assertEquals(2, decoded.size());
+        assertArgs(decoded.get(0), bytes("SET"), bytes("big"), value);
+        assertArgs(decoded.get(1), bytes("PING"));
+    }
+
+    @Test
+    @DisplayName("A pipeline spanning several reads decodes every command in order")
+    void testPipelineAcrossReads() throws IOException {
+        ByteArrayOutputStream pipeline = new ByteArrayOutputStream();
+        for (int i = 0; i < 500; i++) {
+            pipeline.writeBytes(encode("SET", "key" + i, "value" + i));
+        }
+        InputStream in = new ChunkedInputStream(pipeline.toByteArray(), 7);
+        RESPDecoder decoder = new RESPDecoder(16);
+        List<List<byte[]>> decoded = new ArrayList<>();
+
+        while (decoder.readFrom(in) > 0) {
+            decodeAll(decoder, decoded);
+        }
+
+        assertEquals(500, decoded.size());
+        for (int i = 0; i < 500; i++) {
+            assertArgs(decoded.get(i), bytes("SET"), bytes("key" + i), bytes("value" + i));
+        }
+        assertFalse(decoder.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("Arguments are a view of the decoder buffer with lazy String access")
+    void testArgsView() {
+        RESPDecoder decoder = new RESPDecoder();
+        decoder.write(encode("SET", "key", "42"));
+
+        RESPFrameDto frame = decoder.decode();
+        assertTrue(frame.isArray());
+        assertEquals(List.of("SET", "key", "42"), frame.getArgs());
+        assertEquals(42L, frame.getArgs().parseLong(2));
+        assertEquals(encode("SET", "key", "42").length, frame.getByteRead());
+    }
+
+    @Test
+    @DisplayName("Top-level simple and bulk strings and null arrays are decoded")
+    void testTopLevelFrames() {
+        RESPDecoder decoder = new RESPDecoder();
+        decoder.write(bytes("+FULLRESYNC id 0\r\n$5\r\nREDIS*-1\r\n"));
+
+        RESPFrameDto frame = decoder.decode();
+        assertEquals(ParserConstants.SIMPLE_STRING_PLUS, frame.getType());
+        assertEquals("FULLRESYNC id 0", frame.getValue());
+        // RDB payload has no trailing CRLF
+        frame = decoder.decode();
+        assertEquals(ParserConstants.BULK_STRING_DOLLAR_SIGN, frame.getType());
+        assertEquals("REDIS", frame.getValue());
+        frame = decoder.decode();
+        assertTrue(frame.isArray());
+        assertTrue(frame.getArgs().isEmpty());
+        assertNull(decoder.decode());
+    }
+
+    @Test
+    @DisplayName("Lengths above the protocol caps are rejected before the payload arrives")
+    void testLengthCaps() {
+        RESPDecoder multiBulkDecoder = new RESPDecoder();
+        multiBulkDecoder.write(bytes("*" + (ParserConstants.PROTO_MAX_MULTI_BULK_LENGTH + 1) + "\r\n"));
+        RuntimeException exception = assertThrows(RuntimeException.class, multiBulkDecoder::decode);
+        assertEquals("invalid multibulk length", exception.getMessage());
+
+        RESPDecoder bulkDecoder = new RESPDecoder();
+        bulkDecoder.write(bytes("*1\r\n$" + (ParserConstants.PROTO_MAX_BULK_LENGTH + 1L) + "\r\n"));
+        exception = assertThrows(RuntimeException.class, bulkDecoder::decode);
+        assertEquals("invalid bulk length", exception.getMessage());
+
+        RESPDecoder overflowDecoder = new RESPDecoder();
+        overflowDecoder.write(bytes("*1\r\n$99999999999999999999\r\n"));
+        assertThrows(RuntimeException.class, overflowDecoder::decode);
+    }
+
+    @Test
+    @DisplayName("Malformed lengths, terminators and indicators are rejected")
+    void testMalformedFrames() {
+        for (String frame: List.of("*1\r\n$-1\r\n", "*1\r\n$\r\n", "*x\r\n", "*1\r\n$3\r\nabcXY", "*1\r\n!3\r\n", "?\r\n")) {
+            RESPDecoder decoder = new RESPDecoder();
+            decoder.write(bytes(frame));
+            assertThrows(RuntimeException.class, decoder::decode, frame);
+        }
+    }
+
+    private static void decodeAll(RESPDecoder decoder, List<List<byte[]>> decoded) {
+        RESPFrameDto frame;
+        while ((frame = decoder.decode()) != null) {
+            RESPArgs args = frame.getArgs();
+            List<byte[]> copy = new ArrayList<>();
+            for (int i = 0; i < args.size(); i++) {
+                copy.add(args.getBytes(i));
+            }
+            decoded.add(copy);
+        }
+    }
+
+    private static void assertArgs(List<byte[]> actual, byte[]... expected) {
+        assertEquals(expected.length, actual.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], actual.get(i));
+        }
+    }
+
+    private static byte[] encode(String... args) {
+        byte[][] parts = new byte[args.length][];
+        for (int i = 0; i < args.length; i++) {
+            parts[i] = bytes(args[i]);
+        }
+        return encode(parts);
+    }
+
+    private static byte[] encode(byte[]... args) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(bytes("*" + args.length + "\r\n"));
+        for (byte[] arg: args) {
+            out.writeBytes(bytes("$" + arg.length + "\r\n"));
+            out.writeBytes(arg);
+            out.writeBytes(bytes("\r\n"));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part: parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] bytes(String str) {
+        return str.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * returns at most chunkSize bytes per read, as a socket delivering a stream in several packets
+     */
+    private static class ChunkedInputStream extends ByteArrayInputStream {
+        private final int chunkSize;
+
+        private ChunkedInputStream(byte[] bytes, int chunkSize) {
+            super(bytes);
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, chunkSize));
+        }
+    }
+}